@@ -4,9 +4,12 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import controller.Controller;
+import simu.backend.datasource.MariaDbJpaConnection;
+import simu.framework.monitoring.PrometheusExporter;
 /**
  * Main entry point for the Pizzeria Simulation application.
  * Initializes the JavaFX application and loads the main configuration screen.
+ * Persistence is bootstrapped in the background at start-up, see {@link MariaDbJpaConnection#warmUpAsync()}.
  */
 public class Main extends Application {
 
@@ -19,6 +22,10 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Bootstrap persistence while the user is on the configuration screen
+        MariaDbJpaConnection.warmUpAsync();
+        // Serve live metrics if -Dsimu.metrics.port is set
+        PrometheusExporter.startFromSystemProperties();
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/pizzeria_simulation_config.fxml"));
         Scene scene = new Scene(loader.load());
         scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
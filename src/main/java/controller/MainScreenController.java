@@ -17,6 +17,7 @@ import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import simu.framework.SimulationContext;
 
 import java.io.IOException;
 
@@ -316,10 +317,15 @@ public class MainScreenController {
 
     /**
      * Returns the singleton instance of this controller.
+     * Simulations running in their own {@link SimulationContext}, such as forked branches,
+     * are not visualized and get null.
      *
-     * @return the MainScreenController instance
+     * @return the MainScreenController instance, or null
      */
     public static MainScreenController getInstance() {
+        if (SimulationContext.current() != null) {
+            return null;
+        }
         return instance;
     }
 
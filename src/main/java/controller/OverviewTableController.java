@@ -1,31 +1,45 @@
 package controller;
 
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import view.overview.OverviewTableService;
 import view.overview.SimulationOverview;
+import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.dao.*;
 import simu.backend.entity.*;
+import simu.backend.export.DatabaseJsonExporter;
 import simu.framework.Trace;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the Overview Table.
@@ -43,18 +57,31 @@ public class OverviewTableController implements Initializable {
     /** TableColumn for metric names. */
     @FXML
     private TableColumn<SimulationOverview, String> metricColumn;
-    /** TableColumn for most recent run. */
+    /** Scroll bar moving the window of run columns over all runs. */
     @FXML
-    private TableColumn<SimulationOverview, String> run1Column;
-    /** TableColumn for second most recent run. */
+    private ScrollBar runScrollBar;
+    /** Text describing which runs are shown. */
     @FXML
-    private TableColumn<SimulationOverview, String> run2Column;
-    /** TableColumn for third most recent run. */
+    private Text runRangeText;
+    /** The run columns, created for one window of runs and rebound as the window moves. */
+    private final List<TableColumn<SimulationOverview, String>> runColumns = new ArrayList<>();
+    /** Index of the run in the leftmost run column, 0 = newest run. */
+    private int firstVisibleRun = 0;
+    /** Number of the latest window request; results of older requests are dropped. */
+    private int windowRequest = 0;
+    /** Button starting the export. */
     @FXML
-    private TableColumn<SimulationOverview, String> run3Column;
-    /** TableColumn for fourth most recent run. */
+    private Button exportButton;
+    /** Progress of the running export. */
     @FXML
-    private TableColumn<SimulationOverview, String> run4Column;
+    private ProgressBar exportProgressBar;
+    /** Button cancelling the running export. */
+    @FXML
+    private Button cancelExportButton;
+    /** The running export, or null. */
+    private Task<Long> exportTask;
+    /** The pending load of a window of runs, cancelled when another window is requested. */
+    private CompletableFuture<ObservableList<SimulationOverview>> pendingWindow;
     /** Service for business logic and data loading. */
     private OverviewTableService service;
     
@@ -84,48 +111,112 @@ public class OverviewTableController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupTableColumns();
+        setupRunScrollBar();
         loadAndDisplayData();
     }
     
 
     /**
      * Sets up the table columns with their cell value factories.
+     * Only {@link OverviewTableService#RUNS_PER_PAGE} run columns are created however many runs
+     * there are; moving the window rebinds them to other runs.
      */
     private void setupTableColumns() {
         metricColumn.setCellValueFactory(new PropertyValueFactory<>("metric"));
-        run1Column.setCellValueFactory(new PropertyValueFactory<>("run1"));
-        run2Column.setCellValueFactory(new PropertyValueFactory<>("run2"));
-        run3Column.setCellValueFactory(new PropertyValueFactory<>("run3"));
-        run4Column.setCellValueFactory(new PropertyValueFactory<>("run4"));
+        for (int i = 0; i < OverviewTableService.RUNS_PER_PAGE; i++) {
+            final int column = i;
+            TableColumn<SimulationOverview, String> runColumn = new TableColumn<>(service.getColumnTitle(i));
+            runColumn.setPrefWidth(130.0);
+            runColumn.setReorderable(false);
+            runColumn.setResizable(false);
+            runColumn.setSortable(false);
+            runColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getValue(column)));
+            runColumns.add(runColumn);
+        }
+        overviewTable.getColumns().addAll(runColumns);
+    }
+    
+
+    /**
+     * Sets up the scroll bar that moves the window of runs, also driven by horizontal scrolling over the table.
+     */
+    private void setupRunScrollBar() {
+        runScrollBar.setMin(0);
+        runScrollBar.setMax(0);
+        runScrollBar.setUnitIncrement(1);
+        runScrollBar.setBlockIncrement(OverviewTableService.RUNS_PER_PAGE);
+        runScrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+            int first = (int) Math.round(newValue.doubleValue());
+            if (first != firstVisibleRun) {
+                showRuns(first);
+            }
+        });
+        overviewTable.addEventFilter(ScrollEvent.SCROLL, event -> {
+            if (event.getDeltaX() != 0) {
+                runScrollBar.setValue(Math.max(0, Math.min(runScrollBar.getMax(), firstVisibleRun - Math.signum(event.getDeltaX()))));
+                event.consume();
+            }
+        });
     }
     
 
     /**
-     * Loads data using the service and updates the UI.
+     * Counts the runs in the background, then shows the newest ones. Until the database has been
+     * bootstrapped, the table says that it is connecting rather than loading.
      */
     private void loadAndDisplayData() {
-        ObservableList<SimulationOverview> data = service.loadSimulationOverviewData();
-        adjustTableDisplay(data);
-        overviewTable.setItems(data);
+        adjustTableDisplay();
+        overviewTable.setPlaceholder(MariaDbJpaConnection.isReady() ? new ProgressIndicator()
+                : new Label("Connecting to the database..."));
+        service.loadRunCountAsync().thenAcceptAsync(count -> {
+            if (count == 0) {
+                overviewTable.setPlaceholder(new Label("No simulation runs saved yet"));
+            }
+            runScrollBar.setMax(Math.max(0, count - OverviewTableService.RUNS_PER_PAGE));
+            runScrollBar.setVisibleAmount(Math.min(count, OverviewTableService.RUNS_PER_PAGE));
+            runScrollBar.setDisable(count <= OverviewTableService.RUNS_PER_PAGE);
+            runScrollBar.setValue(0);
+            showRuns(0);
+        }, Platform::runLater);
     }
     
 
     /**
-     * Adjusts table display properties based on available data.
-     * @param data the simulation overview data
+     * Moves the window of run columns and loads its runs in the background.
+     * The columns are relabelled at once; the values follow when loaded.
+     * @param firstRun index of the run in the leftmost column, 0 = newest run
      */
-    private void adjustTableDisplay(ObservableList<SimulationOverview> data) {
-        int visibleColumns = service.calculateVisibleColumns(data);
-        double tableWidth = service.calculateTableWidth(visibleColumns);
+    private void showRuns(int firstRun) {
+        firstVisibleRun = firstRun;
+        int request = ++windowRequest;
+        int runCount = service.getRunCount();
+        for (int i = 0; i < runColumns.size(); i++) {
+            runColumns.get(i).setText(service.getColumnTitle(firstRun + i));
+        }
+        int lastRun = Math.min(runCount, firstRun + OverviewTableService.RUNS_PER_PAGE);
+        runRangeText.setText(runCount == 0 ? "No runs" : "Runs " + (firstRun + 1) + "-" + lastRun + " of " + runCount);
+        if (pendingWindow != null) {
+            // A window still waiting for the database thread is skipped
+            pendingWindow.cancel(false);
+        }
+        pendingWindow = service.loadRunWindowAsync(firstRun);
+        pendingWindow.thenAcceptAsync(data -> {
+            if (request == windowRequest) {
+                overviewTable.setItems(data);
+            }
+        }, Platform::runLater);
+    }
+    
+
+    /**
+     * Adjusts table display properties to the number of run columns.
+     */
+    private void adjustTableDisplay() {
+        double tableWidth = service.calculateTableWidth(runColumns.size());
         // Apply calculated dimensions to UI
         overviewTable.setPrefWidth(tableWidth);
         overviewTable.setMaxWidth(tableWidth);
         overviewTable.setMinWidth(tableWidth);
-        // Show/hide columns based on available data
-        run1Column.setVisible(visibleColumns >= 1);
-        run2Column.setVisible(visibleColumns >= 2);
-        run3Column.setVisible(visibleColumns >= 3);
-        run4Column.setVisible(visibleColumns >= 4);
     }
     
 
@@ -142,8 +233,8 @@ public class OverviewTableController implements Initializable {
      * Cleans up invalid database records and refreshes the display.
      */
     public void cleanupAndRefresh() {
-        service.cleanupInvalidRecords();
-        loadAndDisplayData();
+        overviewTable.setPlaceholder(new ProgressIndicator());
+        service.cleanupInvalidRecordsAsync().thenRunAsync(this::loadAndDisplayData, Platform::runLater);
     }
     
     /**
@@ -273,271 +364,101 @@ public class OverviewTableController implements Initializable {
     }
     
     /**
-     * Handles the Export to JSON button click event. Exports the complete database to a JSON file.
+     * Handles the Export to JSON button click event. Exports the complete database to a JSON file
+     * in the background, showing its progress.
      */
     @FXML
     public void handleExportToJson() {
-        try {
-            // Open file chooser
-            FileChooser fileChooser = new FileChooser();
-            fileChooser.setTitle("Export Complete Database to JSON");
-            fileChooser.setInitialFileName("pizzeria_simulation_database_" + getCurrentTimestamp() + ".json");
-            fileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("JSON Files", "*.json")
-            );
-            
-            File file = fileChooser.showSaveDialog(stage);
-            
-            if (file != null) {
-                exportCompleteDatabase(file);
-                showAlert("Export Successful", "Complete database exported successfully to:\n" + file.getAbsolutePath());
-            }
-            
-        } catch (Exception e) {
-            Trace.out(Trace.Level.ERR, "Error exporting database to JSON: " + e.getMessage());
-            java.io.StringWriter sw = new java.io.StringWriter();
-            e.printStackTrace(new java.io.PrintWriter(sw));
-            Trace.out(Trace.Level.WAR, sw.toString());
-            showAlert("Export Error", "Failed to export database: " + e.getMessage());
+        if (exportTask != null) {
+            return;
         }
-    }
-    
-    /**
-     * Exports the complete database to a JSON file in an orderly fashion.
-     * @param file the file to export to
-     * @throws IOException if writing to the file fails
-     */
-    private void exportCompleteDatabase(File file) throws IOException {
-        StringBuilder json = new StringBuilder();
-        
-        // Initialize DAOs
-        OverviewStatisticsDao overviewDao = new OverviewStatisticsDao();
-        ReceptionStatisticsDao receptionDao = new ReceptionStatisticsDao();
-        KitchenStatisticsDao kitchenDao = new KitchenStatisticsDao();
-        CounterStatisticsDao counterDao = new CounterStatisticsDao();
-        DeliveryStatisticsDao deliveryDao = new DeliveryStatisticsDao();
-        
-        // Get all data from database
-        List<OverviewStatistics> overviewStats = overviewDao.findAll();
+        // Open file chooser
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Complete Database to JSON");
+        fileChooser.setInitialFileName("pizzeria_simulation_database_" + getCurrentTimestamp() + ".json");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("JSON Files", "*.json"),
+            new FileChooser.ExtensionFilter("Compressed JSON Files", "*.json.gz")
+        );
         
-        json.append("{\n");
-        json.append("  \"export_info\": {\n");
-        json.append("    \"timestamp\": \"").append(getCurrentTimestamp()).append("\",\n");
-        json.append("    \"description\": \"Complete Pizzeria Simulation Database Export\",\n");
-        json.append("    \"database_name\": \"simu_project\",\n");
-        json.append("    \"total_simulation_runs\": ").append(overviewStats != null ? overviewStats.size() : 0).append("\n");
-        json.append("  },\n");
+        File file = fileChooser.showSaveDialog(stage);
         
-        // Export Overview Statistics (main simulation runs)
-        json.append("  \"overview_statistics\": [\n");
-        if (overviewStats != null && !overviewStats.isEmpty()) {
-            for (int i = 0; i < overviewStats.size(); i++) {
-                OverviewStatistics stat = overviewStats.get(i);
-                if (i > 0) json.append(",\n");
-                
-                json.append("    {\n");
-                json.append("      \"id\": ").append(stat.getId()).append(",\n");
-                json.append("      \"simulation_time\": ").append(stat.getSimulationTime()).append(",\n");
-                json.append("      \"total_simulation_time\": ").append(stat.getTotalSimulationTime()).append(",\n");
-                json.append("      \"call_in_mean_time\": ").append(stat.getCallInMeanTime()).append(",\n");
-                json.append("      \"walk_in_mean_time\": ").append(stat.getWalkInMeanTime()).append(",\n");
-                json.append("      \"total_arrived_customers\": ").append(stat.getTotalArrivedCustomers()).append(",\n");
-                json.append("      \"total_serviced_customers\": ").append(stat.getTotalServicedCustomers()).append(",\n");
-                json.append("      \"refused_delivery_customers\": ").append(stat.getRefusedDeliveryCustomers()).append(",\n");
-                json.append("      \"return_money_customers\": ").append(stat.getReturnMoneyCustomers()).append(",\n");
-                json.append("      \"remake_orders_customers\": ").append(stat.getRemakeOrdersCustomers()).append(",\n");
-                json.append("      \"total_waiting_time\": ").append(stat.getTotalWaitingTime()).append(",\n");
-                json.append("      \"system_throughput\": ").append(stat.getSystemThroughput()).append(",\n");
-                json.append("      \"average_response_time\": ").append(stat.getAverageResponseTime()).append(",\n");
-                json.append("      \"busy_time\": ").append(stat.getBusyTime() != null ? stat.getBusyTime() : "null").append(",\n");
-                
-                // Calculated metrics
-                json.append("      \"calculated_metrics\": {\n");
-                json.append("        \"utilization\": ").append(stat.getUtilization()).append(",\n");
-                json.append("        \"throughput\": ").append(stat.getThroughput()).append(",\n");
-                json.append("        \"avg_response_time\": ").append(stat.getAvgResponseTime()).append(",\n");
-                json.append("        \"avg_queue_length\": ").append(stat.getAvgQueueLength()).append("\n");
-                json.append("      }\n");
-                json.append("    }");
-            }
+        if (file != null) {
+            exportCompleteDatabase(file);
         }
-        json.append("\n  ],\n");
-        
-        // Export detailed service point statistics for each overview record
-        json.append("  \"service_point_statistics\": {\n");
-        
-        if (overviewStats != null && !overviewStats.isEmpty()) {
-            boolean firstOverview = true;
-            for (OverviewStatistics overview : overviewStats) {
-                if (!firstOverview) json.append(",\n");
-                firstOverview = false;
-                
-                json.append("    \"simulation_run_").append(overview.getId()).append("\": {\n");
-                
-                // Get service point statistics for this overview ID
-                List<ReceptionStatistics> receptionStats = getReceptionStatisticsByOverviewId(receptionDao, overview.getId());
-                List<KitchenStatistics> kitchenStats = getKitchenStatisticsByOverviewId(kitchenDao, overview.getId());
-                List<CounterStatistics> counterStats = getCounterStatisticsByOverviewId(counterDao, overview.getId());
-                List<DeliveryStatistics> deliveryStats = getDeliveryStatisticsByOverviewId(deliveryDao, overview.getId());
-                
-                // Reception Statistics
-                json.append("      \"reception_statistics\": [\n");
-                exportServicePointStatistics(json, receptionStats, "reception");
-                json.append("      ],\n");
-                
-                // Kitchen Statistics
-                json.append("      \"kitchen_statistics\": [\n");
-                exportServicePointStatistics(json, kitchenStats, "kitchen");
-                json.append("      ],\n");
-                
-                // Counter Statistics
-                json.append("      \"counter_statistics\": [\n");
-                exportServicePointStatistics(json, counterStats, "counter");
-                json.append("      ],\n");
-                
-                // Delivery Statistics
-                json.append("      \"delivery_statistics\": [\n");
-                exportServicePointStatistics(json, deliveryStats, "delivery");
-                json.append("      ]\n");
-                
-                json.append("    }");
-            }
-        }
-        
-        json.append("\n  }\n");
-        json.append("}");
-        
-        // Write to file
-        try (FileWriter writer = new FileWriter(file)) {
-            writer.write(json.toString());
-        }
-        
-    Trace.out(Trace.Level.INFO, "Successfully exported complete database to: " + file.getAbsolutePath());
     }
     
     /**
-     * Helper method to export service point statistics in a generic way.
-     * @param json the StringBuilder to append to
-     * @param statistics the list of statistics objects
-     * @param serviceType the type of service point
+     * Handles the Cancel button click event. Cancels the running export; the partial file is deleted.
      */
-    private void exportServicePointStatistics(StringBuilder json, List<?> statistics, String serviceType) {
-        if (statistics != null && !statistics.isEmpty()) {
-            for (int i = 0; i < statistics.size(); i++) {
-                if (i > 0) json.append(",\n");
-                
-                Object stat = statistics.get(i);
-                json.append("        {\n");
-                
-                // Use reflection-like approach or instanceof to handle different types
-                if (stat instanceof ReceptionStatistics) {
-                    ReceptionStatistics rs = (ReceptionStatistics) stat;
-                    exportServicePointFields(json, rs.getId(), rs.getOverviewId(), rs.getArrivedCustomers(),
-                        rs.getServicedCustomers(), rs.getServiceBusyTime(), rs.getServiceUtilization(),
-                        rs.getServiceThroughput(), rs.getAverageServiceTime(), rs.getWaitingTime(),
-                        rs.getAverageQueueLength(), rs.getMeanValue(), rs.getVarianceValue());
-                } else if (stat instanceof KitchenStatistics) {
-                    KitchenStatistics ks = (KitchenStatistics) stat;
-                    exportServicePointFields(json, ks.getId(), ks.getOverviewId(), ks.getArrivedCustomers(),
-                        ks.getServicedCustomers(), ks.getServiceBusyTime(), ks.getServiceUtilization(),
-                        ks.getServiceThroughput(), ks.getAverageServiceTime(), ks.getWaitingTime(),
-                        ks.getAverageQueueLength(), ks.getMeanValue(), ks.getVarianceValue());
-                } else if (stat instanceof CounterStatistics) {
-                    CounterStatistics cs = (CounterStatistics) stat;
-                    exportServicePointFields(json, cs.getId(), cs.getOverviewId(), cs.getArrivedCustomers(),
-                        cs.getServicedCustomers(), cs.getServiceBusyTime(), cs.getServiceUtilization(),
-                        cs.getServiceThroughput(), cs.getAverageServiceTime(), cs.getWaitingTime(),
-                        cs.getAverageQueueLength(), cs.getMeanValue(), cs.getVarianceValue());
-                } else if (stat instanceof DeliveryStatistics) {
-                    DeliveryStatistics ds = (DeliveryStatistics) stat;
-                    exportServicePointFields(json, ds.getId(), ds.getOverviewId(), ds.getArrivedCustomers(),
-                        ds.getServicedCustomers(), ds.getServiceBusyTime(), ds.getServiceUtilization(),
-                        ds.getServiceThroughput(), ds.getAverageServiceTime(), ds.getWaitingTime(),
-                        ds.getAverageQueueLength(), ds.getMeanValue(), ds.getVarianceValue());
-                }
-                
-                json.append("        }");
-            }
+    @FXML
+    public void handleCancelExport() {
+        if (exportTask != null) {
+            exportTask.cancel();
         }
     }
     
     /**
-     * Helper method to export common service point fields.
-     * @param json the StringBuilder to append to
-     * @param id the record ID
-     * @param overviewId the overview ID
-     * @param arrivedCustomers number of arrived customers
-     * @param servicedCustomers number of serviced customers
-     * @param serviceBusyTime busy time
-     * @param serviceUtilization utilization
-     * @param serviceThroughput throughput
-     * @param averageServiceTime average service time
-     * @param waitingTime waiting time
-     * @param averageQueueLength average queue length
-     * @param meanValue mean value
-     * @param varianceValue variance value
+     * Exports the complete database to a JSON file on a background thread, streaming it page by page.
+     * @param file the file to export to; compressed with gzip if its name ends in .gz
      */
-    private void exportServicePointFields(StringBuilder json, int id, int overviewId, int arrivedCustomers,
-                                        int servicedCustomers, float serviceBusyTime, float serviceUtilization,
-                                        float serviceThroughput, float averageServiceTime, float waitingTime,
-                                        float averageQueueLength, float meanValue, float varianceValue) {
-        json.append("          \"id\": ").append(id).append(",\n");
-        json.append("          \"overview_id\": ").append(overviewId).append(",\n");
-        json.append("          \"arrived_customers\": ").append(arrivedCustomers).append(",\n");
-        json.append("          \"serviced_customers\": ").append(servicedCustomers).append(",\n");
-        json.append("          \"service_busy_time\": ").append(serviceBusyTime).append(",\n");
-        json.append("          \"service_utilization\": ").append(serviceUtilization).append(",\n");
-        json.append("          \"service_throughput\": ").append(serviceThroughput).append(",\n");
-        json.append("          \"average_service_time\": ").append(averageServiceTime).append(",\n");
-        json.append("          \"waiting_time\": ").append(waitingTime).append(",\n");
-        json.append("          \"average_queue_length\": ").append(averageQueueLength).append(",\n");
-        json.append("          \"mean_value\": ").append(meanValue).append(",\n");
-        json.append("          \"variance_value\": ").append(varianceValue).append("\n");
-    }
-    
-    /**
-     * Helper method to get reception statistics by overview ID.
-     * Note: This would need a proper DAO method, currently returns empty list.
-     * @param dao the ReceptionStatisticsDao
-     * @param overviewId the overview ID
-     * @return list of ReceptionStatistics
-     */
-    private List<ReceptionStatistics> getReceptionStatisticsByOverviewId(ReceptionStatisticsDao dao, int overviewId) {
-        // This would need a proper findByOverviewId method in the DAO
-        return java.util.Collections.emptyList();
-    }
-    
-    /**
-     * Helper method to get kitchen statistics by overview ID.
-     * Note: This would need a proper DAO method, currently returns empty list.
-     * @param dao the KitchenStatisticsDao
-     * @param overviewId the overview ID
-     * @return list of KitchenStatistics
-     */
-    private List<KitchenStatistics> getKitchenStatisticsByOverviewId(KitchenStatisticsDao dao, int overviewId) {
-        return java.util.Collections.emptyList();
+    private void exportCompleteDatabase(File file) {
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                return new DatabaseJsonExporter().export(file.toPath(), (done, total) -> {
+                    if (isCancelled()) {
+                        throw new CancellationException("Export cancelled");
+                    }
+                    updateProgress(done, total);
+                });
+            }
+        };
+        task.setOnSucceeded(event -> {
+            endExport();
+            showAlert("Export Successful", "Complete database exported successfully to:\n" + file.getAbsolutePath());
+        });
+        task.setOnCancelled(event -> {
+            endExport();
+            Trace.out(Trace.Level.INFO, "Export to " + file.getAbsolutePath() + " cancelled");
+        });
+        task.setOnFailed(event -> {
+            endExport();
+            Throwable e = task.getException();
+            Trace.out(Trace.Level.ERR, "Error exporting database to JSON: " + e.getMessage());
+            java.io.StringWriter sw = new java.io.StringWriter();
+            e.printStackTrace(new java.io.PrintWriter(sw));
+            Trace.out(Trace.Level.WAR, sw.toString());
+            showAlert("Export Error", "Failed to export database: " + e.getMessage());
+        });
+        
+        exportTask = task;
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        setExportRunning(true);
+        Thread thread = new Thread(task, "database-export");
+        thread.setDaemon(true);
+        thread.start();
     }
     
     /**
-     * Helper method to get counter statistics by overview ID.
-     * Note: This would need a proper DAO method, currently returns empty list.
-     * @param dao the CounterStatisticsDao
-     * @param overviewId the overview ID
-     * @return list of CounterStatistics
+     * Resets the export controls after the export has ended.
      */
-    private List<CounterStatistics> getCounterStatisticsByOverviewId(CounterStatisticsDao dao, int overviewId) {
-        return java.util.Collections.emptyList();
+    private void endExport() {
+        exportProgressBar.progressProperty().unbind();
+        exportTask = null;
+        setExportRunning(false);
     }
     
     /**
-     * Helper method to get delivery statistics by overview ID.
-     * Note: This would need a proper DAO method, currently returns empty list.
-     * @param dao the DeliveryStatisticsDao
-     * @param overviewId the overview ID
-     * @return list of DeliveryStatistics
+     * Shows or hides the export progress controls.
+     * @param running whether an export is running
      */
-    private List<DeliveryStatistics> getDeliveryStatisticsByOverviewId(DeliveryStatisticsDao dao, int overviewId) {
-        return java.util.Collections.emptyList();
+    private void setExportRunning(boolean running) {
+        exportButton.setDisable(running);
+        exportProgressBar.setVisible(running);
+        exportProgressBar.setManaged(running);
+        cancelExportButton.setVisible(running);
+        cancelExportButton.setManaged(running);
     }
     
     /**
@@ -4,8 +4,11 @@ import controller.Controller;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
+import simu.framework.EventLogRecorder;
 import simu.model.MyEngine;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.function.Consumer;
 
 /**
@@ -14,8 +17,12 @@ import java.util.function.Consumer;
  * Separates simulation logic from UI controller.
  * Handles starting, pausing, resuming, stopping, and speed control for the simulation engine.
  * Uses reflection to interact with simulation statistics and clock.
+ * If the system property {@value #EVENT_LOG_PROPERTY} names a file, every simulation event is
+ * recorded to that file in the binary event log format.
  */
 public class SimulationManager {
+    /** System property naming the file to record the binary event log to. */
+    public static final String EVENT_LOG_PROPERTY = "simu.eventlog";
     /** The simulation engine instance. */
     private MyEngine simulationEngine;
     /** Reference to the main controller. */
@@ -76,6 +83,8 @@ public class SimulationManager {
         // Create new simulation engine
         simulationEngine = new MyEngine(mainController);
         currentSimulationEngine = simulationEngine;
+        // Record events if requested
+        configureEventLog();
         // Configure simulation time
         configureSimulationTime();
         // Set initial delay
@@ -143,6 +152,22 @@ public class SimulationManager {
         }
     }
 
+    /**
+     * Attach an event log recorder to the engine if the event log property is set
+     */
+    private void configureEventLog() {
+        String eventLogFile = System.getProperty(EVENT_LOG_PROPERTY);
+        if (eventLogFile == null || eventLogFile.isBlank()) {
+            return;
+        }
+        try {
+            simulationEngine.setEventRecorder(new EventLogRecorder(Path.of(eventLogFile)));
+            log("📝 Recording simulation events to " + eventLogFile);
+        } catch (IOException e) {
+            log("⚠️ Could not open event log " + eventLogFile + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Configure simulation time from controller settings using reflection
      */
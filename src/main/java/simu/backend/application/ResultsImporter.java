@@ -0,0 +1,50 @@
+package simu.backend.application;
+
+import simu.backend.dao.LocalFileResultsStore;
+import simu.backend.dao.ResultsStore;
+import simu.backend.dao.SimulationRunDao;
+import simu.backend.datasource.MariaDbJpaConnection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Standalone application that bulk-loads a local results file into MariaDB.
+ * <p>
+ * The file is written by {@link LocalFileResultsStore} when headless runs are started with
+ * {@code -Dsimu.results.store=file}. Runs are saved in groups of {@link SimulationRunDao#BATCH_SIZE},
+ * one transaction per group, so a failed import can be repeated from the reported run onwards
+ * by importing a copy of the file without the runs already saved.
+ */
+public class ResultsImporter {
+
+    /**
+     * Main entry point for the importer.
+     * @param args the results file; defaults to the {@value ResultsStore#FILE_PROPERTY} system
+     *             property, or {@value ResultsStore#DEFAULT_FILE}
+     */
+    public static void main(String[] args) {
+        Path file = Path.of(args.length > 0 ? args[0] : System.getProperty(ResultsStore.FILE_PROPERTY, ResultsStore.DEFAULT_FILE));
+        System.out.println("=== Importing simulation results from " + file.toAbsolutePath() + " ===");
+        if (!MariaDbJpaConnection.testConnection()) {
+            System.err.println("Cannot connect to database. Exiting.");
+            return;
+        }
+        SimulationRunDao dao = new SimulationRunDao();
+        long[] imported = {0};
+        try {
+            LocalFileResultsStore.readRuns(file, SimulationRunDao.BATCH_SIZE, runs -> {
+                dao.persistRuns(runs);
+                imported[0] += runs.size();
+                System.out.println("Imported " + imported[0] + " run(s)");
+            });
+            System.out.println("Import complete: " + imported[0] + " run(s)");
+        } catch (IOException e) {
+            System.err.println("Cannot read results file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Import stopped after " + imported[0] + " run(s): " + e.getMessage());
+        } finally {
+            MariaDbJpaConnection.close();
+        }
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.entity.CounterStatistics;
+import simu.framework.monitoring.DatabaseWriteEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data Access Object (DAO) for {@link simu.backend.entity.CounterStatistics} entity.
@@ -18,22 +22,27 @@ public class CounterStatisticsDao {
      * @return the persisted entity
      */
     public CounterStatistics persist(CounterStatistics counterStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("CounterStatistics", 1);
         try {
             transaction.begin();
             em.persist(counterStats);
             transaction.commit();
+            write.finish(true);
             System.out.println("Counter statistics saved with ID: " + counterStats.getId());
             return counterStats;
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
+            write.finish(false);
             System.err.println("Error persisting counter statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -43,7 +52,7 @@ public class CounterStatisticsDao {
      * @return the updated entity
      */
     public CounterStatistics update(CounterStatistics counterStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -59,6 +68,8 @@ public class CounterStatisticsDao {
             System.err.println("Error updating counter statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -68,13 +79,36 @@ public class CounterStatisticsDao {
      * @return the found entity, or null if not found
      */
     public CounterStatistics findById(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         try {
             return em.find(CounterStatistics.class, id);
         } catch (Exception e) {
             System.err.println("Error finding counter statistics by ID: " + e.getMessage());
             e.printStackTrace();
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Finds the counter statistics records of an overview record.
+     *
+     * @param overviewId The overview ID to search for
+     * @return The records ordered by ID, or null if the query fails
+     */
+    public List<CounterStatistics> findByOverviewId(int overviewId) {
+        return findByOverviewIds(List.of(overviewId));
+    }
+    
+    /**
+     * Finds the counter statistics records of several overview records with one query per
+     * chunk of overview IDs, ordered by overview ID and record ID.
+     *
+     * @param overviewIds The overview IDs to search for
+     * @return The records, or null if the query fails
+     */
+    public List<CounterStatistics> findByOverviewIds(Collection<Integer> overviewIds) {
+        return OverviewChildQuery.findByOverviewIds(CounterStatistics.class, overviewIds);
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.entity.DeliveryStatistics;
+import simu.framework.monitoring.DatabaseWriteEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data Access Object (DAO) for {@link simu.backend.entity.DeliveryStatistics} entity.
@@ -20,22 +24,27 @@ public class DeliveryStatisticsDao {
      * @throws RuntimeException if persistence fails
      */
     public DeliveryStatistics persist(DeliveryStatistics deliveryStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("DeliveryStatistics", 1);
         try {
             transaction.begin();
             em.persist(deliveryStats);
             transaction.commit();
+            write.finish(true);
             System.out.println("Delivery statistics saved with ID: " + deliveryStats.getId());
             return deliveryStats;
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
+            write.finish(false);
             System.err.println("Error persisting delivery statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -47,7 +56,7 @@ public class DeliveryStatisticsDao {
      * @throws RuntimeException if update fails
      */
     public DeliveryStatistics update(DeliveryStatistics deliveryStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -63,6 +72,8 @@ public class DeliveryStatisticsDao {
             System.err.println("Error updating delivery statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -73,13 +84,36 @@ public class DeliveryStatisticsDao {
      * @return The found entity or null if not found
      */
     public DeliveryStatistics findById(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         try {
             return em.find(DeliveryStatistics.class, id);
         } catch (Exception e) {
             System.err.println("Error finding delivery statistics by ID: " + e.getMessage());
             e.printStackTrace();
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Finds the delivery statistics records of an overview record.
+     *
+     * @param overviewId The overview ID to search for
+     * @return The records ordered by ID, or null if the query fails
+     */
+    public List<DeliveryStatistics> findByOverviewId(int overviewId) {
+        return findByOverviewIds(List.of(overviewId));
+    }
+    
+    /**
+     * Finds the delivery statistics records of several overview records with one query per
+     * chunk of overview IDs, ordered by overview ID and record ID.
+     *
+     * @param overviewIds The overview IDs to search for
+     * @return The records, or null if the query fails
+     */
+    public List<DeliveryStatistics> findByOverviewIds(Collection<Integer> overviewIds) {
+        return OverviewChildQuery.findByOverviewIds(DeliveryStatistics.class, overviewIds);
+    }
+}
@@ -0,0 +1,28 @@
+package simu.backend.dao;
+
+import java.util.List;
+
+/**
+ * Results store that saves runs to MariaDB through {@link SimulationRunDao}, one transaction per call.
+ */
+public class JpaResultsStore implements ResultsStore {
+    /** Data access object writing the runs. */
+    private final SimulationRunDao dao = new SimulationRunDao();
+
+    /**
+     * Saves the given runs to the database in one transaction.
+     * @param runs the runs to save
+     */
+    @Override
+    public void saveRuns(List<SimulationRun> runs) {
+        dao.persistRuns(runs);
+    }
+
+    /**
+     * Does nothing; the database connection is shared and closed by
+     * {@link simu.backend.datasource.MariaDbJpaConnection#close()}.
+     */
+    @Override
+    public void close() {
+    }
+}
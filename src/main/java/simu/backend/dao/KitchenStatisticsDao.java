@@ -4,6 +4,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.entity.KitchenStatistics;
+import simu.framework.monitoring.DatabaseWriteEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data Access Object (DAO) for {@link simu.backend.entity.KitchenStatistics} entity.
@@ -20,22 +24,27 @@ public class KitchenStatisticsDao {
      * @throws RuntimeException if persistence fails
      */
     public KitchenStatistics persist(KitchenStatistics kitchenStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("KitchenStatistics", 1);
         try {
             transaction.begin();
             em.persist(kitchenStats);
             transaction.commit();
+            write.finish(true);
             System.out.println("Kitchen statistics saved with ID: " + kitchenStats.getId());
             return kitchenStats;
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
+            write.finish(false);
             System.err.println("Error persisting kitchen statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -47,7 +56,7 @@ public class KitchenStatisticsDao {
      * @throws RuntimeException if update fails
      */
     public KitchenStatistics update(KitchenStatistics kitchenStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -63,6 +72,8 @@ public class KitchenStatisticsDao {
             System.err.println("Error updating kitchen statistics: " + e.getMessage());
             e.printStackTrace();
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -73,13 +84,36 @@ public class KitchenStatisticsDao {
      * @return The found entity or null if not found
      */
     public KitchenStatistics findById(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         try {
             return em.find(KitchenStatistics.class, id);
         } catch (Exception e) {
             System.err.println("Error finding kitchen statistics by ID: " + e.getMessage());
             e.printStackTrace();
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Finds the kitchen statistics records of an overview record.
+     *
+     * @param overviewId The overview ID to search for
+     * @return The records ordered by ID, or null if the query fails
+     */
+    public List<KitchenStatistics> findByOverviewId(int overviewId) {
+        return findByOverviewIds(List.of(overviewId));
+    }
+    
+    /**
+     * Finds the kitchen statistics records of several overview records with one query per
+     * chunk of overview IDs, ordered by overview ID and record ID.
+     *
+     * @param overviewIds The overview IDs to search for
+     * @return The records, or null if the query fails
+     */
+    public List<KitchenStatistics> findByOverviewIds(Collection<Integer> overviewIds) {
+        return OverviewChildQuery.findByOverviewIds(KitchenStatistics.class, overviewIds);
+    }
+}
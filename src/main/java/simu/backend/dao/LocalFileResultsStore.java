@@ -0,0 +1,247 @@
+package simu.backend.dao;
+
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ReceptionStatistics;
+import simu.framework.Trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Results store that appends runs to a local binary file, so that large batches of runs are saved
+ * at disk speed without a database. The file can be loaded into MariaDB later with
+ * {@link simu.backend.application.ResultsImporter}.
+ * <p>
+ * The file starts with a header (magic number and format version) followed by fixed-size run
+ * records: the overview values followed by the values of the reception, kitchen, counter and
+ * delivery statistics, in the order of the database columns. Overview and row IDs are not stored;
+ * they are assigned when the runs are imported. Records are only ever appended, and a record cut
+ * short by a crash is ignored when the file is read. The project metrics and telemetry of the runs
+ * are not stored.
+ */
+public class LocalFileResultsStore implements ResultsStore {
+    /** Magic number at the start of a results file ("SIMR"). */
+    public static final int MAGIC = 0x53494D52;
+    /** Version of the file format. */
+    public static final short VERSION = 1;
+    /** Size of the file header in bytes: magic number, version and record size. */
+    public static final int HEADER_BYTES = 8;
+    /** Size of the overview part of a record in bytes: 5 ints and 8 floats. */
+    private static final int OVERVIEW_BYTES = 13 * 4;
+    /** Size of one service point part of a record in bytes: 2 ints and 8 floats. */
+    private static final int SERVICE_POINT_BYTES = 10 * 4;
+    /** Size of one run record in bytes. */
+    public static final int RECORD_BYTES = OVERVIEW_BYTES + 4 * SERVICE_POINT_BYTES;
+
+    /** The file the runs are appended to. */
+    private final Path file;
+    /** Channel writing to the end of the file; only this store writes to it. */
+    private final FileChannel channel;
+
+    /**
+     * Opens a results file for appending, creating it with a header if it does not exist.
+     * An incomplete record at the end of an existing file is removed first.
+     * @param file the results file
+     * @throws IOException if the file cannot be opened or is not a results file
+     */
+    public LocalFileResultsStore(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_BYTES).flip();
+            channel.write(header);
+        } else {
+            try {
+                readHeader(channel);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            // Drop an incomplete record left by a crash, then append after the last complete one
+            long records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+            channel.position(channel.size());
+        }
+        Trace.out(Trace.Level.INFO, "Saving simulation results to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Appends the given runs to the file with a single write.
+     * @param runs the runs to save
+     * @throws IOException if writing fails
+     */
+    @Override
+    public synchronized void saveRuns(List<SimulationRun> runs) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(runs.size() * RECORD_BYTES);
+        for (SimulationRun run : runs) {
+            writeRun(buffer, run);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Forces the written runs to the disk and closes the file.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the file the runs are appended to.
+     * @return the results file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the runs of a results file in order and hands them to the consumer in groups.
+     * @param file the results file
+     * @param batchSize the maximum number of runs per group
+     * @param consumer receives each group of runs; the list is not reused
+     * @return the number of runs read
+     * @throws IOException if the file cannot be read or is not a results file
+     */
+    public static long readRuns(Path file, int batchSize, Consumer<List<SimulationRun>> consumer) throws IOException {
+        long count = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            readHeader(in);
+            ByteBuffer buffer = ByteBuffer.allocate(batchSize * RECORD_BYTES);
+            while (in.read(buffer) > 0 || buffer.position() >= RECORD_BYTES) {
+                buffer.flip();
+                List<SimulationRun> runs = new ArrayList<>();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    runs.add(readRun(buffer));
+                }
+                buffer.compact();
+                if (!runs.isEmpty()) {
+                    consumer.accept(runs);
+                    count += runs.size();
+                }
+            }
+            if (buffer.position() > 0) {
+                Trace.out(Trace.Level.WAR, "Ignoring incomplete run record at the end of " + file);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads and checks the header at the start of a results file.
+     * @param in the channel, positioned at the start of the file
+     * @throws IOException if the file is not a results file of a supported version
+     */
+    private static void readHeader(FileChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && in.read(header, header.position()) > 0) {
+            // keep reading until the header is complete
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not a simulation results file");
+        }
+        short version = header.getShort();
+        short recordBytes = header.getShort();
+        if (version != VERSION || recordBytes != RECORD_BYTES) {
+            throw new IOException("Unsupported results file version " + version);
+        }
+        in.position(HEADER_BYTES);
+    }
+
+    /**
+     * Writes one run record.
+     * @param buffer the buffer to write to
+     * @param run the run
+     */
+    private static void writeRun(ByteBuffer buffer, SimulationRun run) {
+        OverviewStatistics o = run.getOverview();
+        buffer.putFloat(o.getSimulationTime())
+                .putFloat(o.getTotalSimulationTime())
+                .putFloat(o.getCallInMeanTime())
+                .putFloat(o.getWalkInMeanTime())
+                .putInt(o.getTotalArrivedCustomers())
+                .putInt(o.getTotalServicedCustomers())
+                .putInt(o.getRefusedDeliveryCustomers())
+                .putInt(o.getReturnMoneyCustomers())
+                .putInt(o.getRemakeOrdersCustomers())
+                .putFloat(o.getTotalWaitingTime())
+                .putFloat(o.getSystemThroughput())
+                .putFloat(o.getAverageResponseTime())
+                .putFloat(o.getBusyTime() != null ? o.getBusyTime() : Float.NaN);
+        ReceptionStatistics r = run.getReception();
+        writeServicePoint(buffer, r.getArrivedCustomers(), r.getServicedCustomers(), r.getServiceBusyTime(),
+                r.getServiceUtilization(), r.getServiceThroughput(), r.getAverageServiceTime(), r.getWaitingTime(),
+                r.getAverageQueueLength(), r.getMeanValue(), r.getVarianceValue());
+        KitchenStatistics k = run.getKitchen();
+        writeServicePoint(buffer, k.getArrivedCustomers(), k.getServicedCustomers(), k.getServiceBusyTime(),
+                k.getServiceUtilization(), k.getServiceThroughput(), k.getAverageServiceTime(), k.getWaitingTime(),
+                k.getAverageQueueLength(), k.getMeanValue(), k.getVarianceValue());
+        CounterStatistics c = run.getCounter();
+        writeServicePoint(buffer, c.getArrivedCustomers(), c.getServicedCustomers(), c.getServiceBusyTime(),
+                c.getServiceUtilization(), c.getServiceThroughput(), c.getAverageServiceTime(), c.getWaitingTime(),
+                c.getAverageQueueLength(), c.getMeanValue(), c.getVarianceValue());
+        DeliveryStatistics d = run.getDelivery();
+        writeServicePoint(buffer, d.getArrivedCustomers(), d.getServicedCustomers(), d.getServiceBusyTime(),
+                d.getServiceUtilization(), d.getServiceThroughput(), d.getAverageServiceTime(), d.getWaitingTime(),
+                d.getAverageQueueLength(), d.getMeanValue(), d.getVarianceValue());
+    }
+
+    /**
+     * Writes the values of one service point.
+     * @param buffer the buffer to write to
+     * @param arrived the number of arrived customers
+     * @param serviced the number of serviced customers
+     * @param values the remaining values, in the order of the database columns
+     */
+    private static void writeServicePoint(ByteBuffer buffer, int arrived, int serviced, float... values) {
+        buffer.putInt(arrived).putInt(serviced);
+        for (float value : values) {
+            buffer.putFloat(value);
+        }
+    }
+
+    /**
+     * Reads one run record.
+     * @param buffer the buffer to read from
+     * @return the run, with unsaved entities
+     */
+    private static SimulationRun readRun(ByteBuffer buffer) {
+        OverviewStatistics overview = new OverviewStatistics(buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), null);
+        float busyTime = buffer.getFloat();
+        overview.setBusyTime(Float.isNaN(busyTime) ? null : busyTime);
+        ReceptionStatistics reception = new ReceptionStatistics(0, buffer.getInt(), buffer.getInt(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        KitchenStatistics kitchen = new KitchenStatistics(0, buffer.getInt(), buffer.getInt(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        CounterStatistics counter = new CounterStatistics(0, buffer.getInt(), buffer.getInt(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        DeliveryStatistics delivery = new DeliveryStatistics(0, buffer.getInt(), buffer.getInt(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+        return new SimulationRun(overview, reception, kitchen, counter, delivery);
+    }
+}
@@ -0,0 +1,64 @@
+package simu.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import simu.backend.datasource.MariaDbJpaConnection;
+import simu.framework.Trace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Query shared by the service point statistics DAOs: finds the rows belonging to a set of
+ * overview records through the indexed {@code overview_id} column.
+ * <p>
+ * All rows of a set of runs are fetched with one query per {@value #IN_LIST_CHUNK} overview IDs,
+ * instead of one query per run, and the IN list is kept short enough for the statement to stay
+ * small and its plan to use the index.
+ */
+final class OverviewChildQuery {
+    /** Maximum number of overview IDs in one IN list. */
+    static final int IN_LIST_CHUNK = 1000;
+
+    /**
+     * Not instantiated.
+     */
+    private OverviewChildQuery() {
+    }
+
+    /**
+     * Finds the rows of a service point statistics entity that belong to the given overview records,
+     * ordered by overview ID and row ID.
+     * @param entity the service point statistics entity class
+     * @param overviewIds the overview IDs; duplicates are ignored
+     * @param <T> the entity type
+     * @return the rows, or null if the query fails
+     */
+    static <T> List<T> findByOverviewIds(Class<T> entity, Collection<Integer> overviewIds) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(overviewIds));
+        ids.sort(null);
+        List<T> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        try {
+            String jpql = "SELECT s FROM " + entity.getSimpleName() + " s WHERE s.overviewId IN :ids ORDER BY s.overviewId, s.id";
+            for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+                results.addAll(em.createQuery(jpql, entity)
+                        .setParameter("ids", ids.subList(from, Math.min(ids.size(), from + IN_LIST_CHUNK)))
+                        .getResultList());
+            }
+            return results;
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding " + entity.getSimpleName() + " by overview IDs: " + e.getMessage());
+            java.io.StringWriter sw = new java.io.StringWriter();
+            e.printStackTrace(new java.io.PrintWriter(sw));
+            Trace.out(Trace.Level.WAR, sw.toString());
+            return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+}
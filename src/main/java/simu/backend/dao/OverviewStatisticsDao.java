@@ -6,6 +6,7 @@ import jakarta.persistence.TypedQuery;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.entity.OverviewStatistics;
 import simu.framework.Trace;
+import simu.framework.monitoring.DatabaseWriteEvent;
 
 import java.util.List;
 
@@ -14,6 +15,12 @@ import java.util.List;
  * Provides CRUD operations and database interaction for overview statistics records.
  */
 public class OverviewStatisticsDao {
+    /** Projection of the overview columns displayed in the results table, see {@link OverviewSummary}. */
+    private static final String SUMMARY_SELECT = "SELECT new simu.backend.dao.OverviewSummary(o.id, o.simulationTime, "
+        + "o.totalSimulationTime, o.callInMeanTime, o.walkInMeanTime, o.totalArrivedCustomers, o.totalServicedCustomers, "
+        + "o.refusedDeliveryCustomers, o.returnMoneyCustomers, o.remakeOrdersCustomers, o.totalWaitingTime, "
+        + "o.systemThroughput, o.averageResponseTime) FROM OverviewStatistics o "
+        + "WHERE (o.totalSimulationTime > 0 OR o.totalArrivedCustomers > 0) ";
     
     /**
      * Persists a new overview statistics record to the database.
@@ -21,24 +28,29 @@ public class OverviewStatisticsDao {
      * @return The persisted entity with generated ID
      */
     public OverviewStatistics persist(OverviewStatistics overviewStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("OverviewStatistics", 1);
         try {
             transaction.begin();
             em.persist(overviewStats);
             transaction.commit();
+            write.finish(true);
             Trace.out(Trace.Level.INFO, "Overview statistics saved with ID: " + overviewStats.getId());
             return overviewStats;
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
+            write.finish(false);
             Trace.out(Trace.Level.ERR, "Error persisting overview statistics: " + e.getMessage());
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -48,7 +60,7 @@ public class OverviewStatisticsDao {
      * @return The updated entity
      */
     public OverviewStatistics update(OverviewStatistics overviewStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -66,6 +78,8 @@ public class OverviewStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw2));
             Trace.out(Trace.Level.WAR, sw2.toString());
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -75,7 +89,7 @@ public class OverviewStatisticsDao {
      * @return The found entity or null if not found
      */
     public OverviewStatistics findById(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         
         try {
             return em.find(OverviewStatistics.class, id);
@@ -83,6 +97,8 @@ public class OverviewStatisticsDao {
             System.err.println("Error finding overview statistics by ID: " + e.getMessage());
             e.printStackTrace();
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -91,7 +107,7 @@ public class OverviewStatisticsDao {
      * @return List of all overview statistics
      */
     public List<OverviewStatistics> findAll() {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         
         try {
             Trace.out(Trace.Level.WAR, "DAO findAll invoked. EntityManager: " + em + ", open=" + (em != null ? em.isOpen() : "null"));
@@ -109,6 +125,169 @@ public class OverviewStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw3));
             Trace.out(Trace.Level.WAR, sw3.toString());
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Finds summaries of the valid runs older than the given run, newest first (keyset pagination).
+     * The page is read backwards through the primary key index, so browsing stays fast however
+     * many runs there are.
+     * @param beforeId the ID of the oldest run of the previous page
+     * @param limit the maximum number of runs
+     * @return the summaries, or null if the query fails
+     */
+    public List<OverviewSummary> findSummariesBefore(int beforeId, int limit) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery(SUMMARY_SELECT + "AND o.id < :beforeId ORDER BY o.id DESC", OverviewSummary.class)
+                .setParameter("beforeId", beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding overview summaries: " + e.getMessage());
+            return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Finds summaries of the valid runs with an ID up to the given one, newest first, skipping the
+     * first {@code offset} of them. Used to jump into the middle of the runs when the keyset of the
+     * previous page is not known; otherwise {@link #findSummariesBefore(int, int)} is cheaper.
+     * @param maxId the highest ID to return
+     * @param offset the number of runs to skip
+     * @param limit the maximum number of runs
+     * @return the summaries, or null if the query fails
+     */
+    public List<OverviewSummary> findSummariesFrom(int maxId, int offset, int limit) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery(SUMMARY_SELECT + "AND o.id <= :maxId ORDER BY o.id DESC", OverviewSummary.class)
+                .setParameter("maxId", maxId)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding overview summaries: " + e.getMessage());
+            return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Counts the valid runs with an ID up to the given one, i.e. the runs the summary queries return.
+     * @param maxId the highest ID to count
+     * @return the number of runs, or -1 if the query fails
+     */
+    public long countSummariesUpTo(int maxId) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery("SELECT COUNT(o) FROM OverviewStatistics o "
+                    + "WHERE (o.totalSimulationTime > 0 OR o.totalArrivedCustomers > 0) AND o.id <= :maxId", Long.class)
+                .setParameter("maxId", maxId)
+                .getSingleResult();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error counting overview summaries: " + e.getMessage());
+            return -1;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Finds the highest overview statistics ID, e.g. to fix the set of records an export covers.
+     * @return the highest ID, 0 if the table is empty, or -1 if the query fails
+     */
+    public int findMaxId() {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            Integer maxId = em.createQuery("SELECT MAX(o.id) FROM OverviewStatistics o", Integer.class).getSingleResult();
+            return maxId != null ? maxId : 0;
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding highest overview statistics ID: " + e.getMessage());
+            return -1;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Counts the overview statistics records with an ID up to the given one.
+     * @param maxId the highest ID to count
+     * @return the number of records, or -1 if the query fails
+     */
+    public long countUpTo(int maxId) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery("SELECT COUNT(o) FROM OverviewStatistics o WHERE o.id <= :maxId", Long.class)
+                .setParameter("maxId", maxId)
+                .getSingleResult();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error counting overview statistics: " + e.getMessage());
+            return -1;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Finds the next page of overview statistics records in ID order (keyset pagination).
+     * Each page is found through the primary key index, however deep into the table it is.
+     * @param afterId the last ID of the previous page, or 0 for the first page
+     * @param maxId the highest ID to return
+     * @param limit the maximum number of records in the page
+     * @return the records with afterId &lt; ID &lt;= maxId, or null if the query fails
+     */
+    public List<OverviewStatistics> findPage(int afterId, int maxId, int limit) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery(
+                "SELECT o FROM OverviewStatistics o WHERE o.id > :afterId AND o.id <= :maxId ORDER BY o.id", OverviewStatistics.class)
+                .setParameter("afterId", afterId)
+                .setParameter("maxId", maxId)
+                .setMaxResults(limit)
+                .getResultList();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding overview statistics page: " + e.getMessage());
+            return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
+        }
+    }
+    
+    /**
+     * Finds the next page of overview statistics IDs in ID order, like {@link #findPage(int, int, int)}
+     * but without loading the records.
+     * @param afterId the last ID of the previous page, or 0 for the first page
+     * @param maxId the highest ID to return
+     * @param limit the maximum number of IDs in the page
+     * @return the IDs with afterId &lt; ID &lt;= maxId, or null if the query fails
+     */
+    public List<Integer> findIdPage(int afterId, int maxId, int limit) {
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
+        
+        try {
+            return em.createQuery(
+                "SELECT o.id FROM OverviewStatistics o WHERE o.id > :afterId AND o.id <= :maxId ORDER BY o.id", Integer.class)
+                .setParameter("afterId", afterId)
+                .setParameter("maxId", maxId)
+                .setMaxResults(limit)
+                .getResultList();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Error finding overview statistics ID page: " + e.getMessage());
+            return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -118,7 +297,7 @@ public class OverviewStatisticsDao {
      * @return true if deletion was successful, false otherwise
      */
     public boolean delete(OverviewStatistics overviewStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -142,6 +321,8 @@ public class OverviewStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw4));
             Trace.out(Trace.Level.WAR, sw4.toString());
             return false;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -150,7 +331,7 @@ public class OverviewStatisticsDao {
      * @return Number of records deleted
      */
     public int deleteInvalidRecords() {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -173,6 +354,8 @@ public class OverviewStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw5));
             Trace.out(Trace.Level.WAR, sw5.toString());
             return 0;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
 }
\ No newline at end of file
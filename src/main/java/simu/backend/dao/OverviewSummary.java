@@ -0,0 +1,184 @@
+package simu.backend.dao;
+
+import simu.backend.entity.OverviewStatistics;
+
+/**
+ * Read-only summary of a simulation run for display, loaded as a query projection.
+ * <p>
+ * Unlike {@link OverviewStatistics}, summaries are plain objects filled directly
+ * from the query result: they are not managed by the persistence context, so loading them costs no
+ * entity bookkeeping. The calculated metrics use the formulas of the entity.
+ */
+public class OverviewSummary {
+    /** ID of the overview record. */
+    private final int id;
+    /** Simulation time of the run. */
+    private final float simulationTime;
+    /** Total simulation time of the run. */
+    private final float totalSimulationTime;
+    /** Mean time for call-in customers. */
+    private final float callInMeanTime;
+    /** Mean time for walk-in customers. */
+    private final float walkInMeanTime;
+    /** Total number of arrived customers. */
+    private final int totalArrivedCustomers;
+    /** Total number of serviced customers. */
+    private final int totalServicedCustomers;
+    /** Number of customers who refused delivery. */
+    private final int refusedDeliveryCustomers;
+    /** Number of customers who got their money back. */
+    private final int returnMoneyCustomers;
+    /** Number of remade orders. */
+    private final int remakeOrdersCustomers;
+    /** Total waiting time of all customers. */
+    private final float totalWaitingTime;
+    /** System throughput as saved. */
+    private final float systemThroughput;
+    /** Average response time as saved. */
+    private final float averageResponseTime;
+
+    /**
+     * Constructs a summary; called by the JPQL constructor expression of {@link OverviewStatisticsDao}.
+     * @param id ID of the overview record
+     * @param simulationTime simulation time
+     * @param totalSimulationTime total simulation time
+     * @param callInMeanTime mean time for call-in customers
+     * @param walkInMeanTime mean time for walk-in customers
+     * @param totalArrivedCustomers total arrived customers
+     * @param totalServicedCustomers total serviced customers
+     * @param refusedDeliveryCustomers customers who refused delivery
+     * @param returnMoneyCustomers customers who got their money back
+     * @param remakeOrdersCustomers remade orders
+     * @param totalWaitingTime total waiting time
+     * @param systemThroughput system throughput
+     * @param averageResponseTime average response time
+     */
+    public OverviewSummary(int id, float simulationTime, float totalSimulationTime, float callInMeanTime,
+                           float walkInMeanTime, int totalArrivedCustomers, int totalServicedCustomers,
+                           int refusedDeliveryCustomers, int returnMoneyCustomers, int remakeOrdersCustomers,
+                           float totalWaitingTime, float systemThroughput, float averageResponseTime) {
+        this.id = id;
+        this.simulationTime = simulationTime;
+        this.totalSimulationTime = totalSimulationTime;
+        this.callInMeanTime = callInMeanTime;
+        this.walkInMeanTime = walkInMeanTime;
+        this.totalArrivedCustomers = totalArrivedCustomers;
+        this.totalServicedCustomers = totalServicedCustomers;
+        this.refusedDeliveryCustomers = refusedDeliveryCustomers;
+        this.returnMoneyCustomers = returnMoneyCustomers;
+        this.remakeOrdersCustomers = remakeOrdersCustomers;
+        this.totalWaitingTime = totalWaitingTime;
+        this.systemThroughput = systemThroughput;
+        this.averageResponseTime = averageResponseTime;
+    }
+
+    /**
+     * Returns the ID of the overview record.
+     * @return the ID of the overview record
+     */
+    public int getId() { return id; }
+
+    /**
+     * Returns the simulation time.
+     * @return the simulation time
+     */
+    public float getSimulationTime() { return simulationTime; }
+
+    /**
+     * Returns the total simulation time.
+     * @return the total simulation time
+     */
+    public float getTotalSimulationTime() { return totalSimulationTime; }
+
+    /**
+     * Returns the mean time for call-in customers.
+     * @return the mean time for call-in customers
+     */
+    public float getCallInMeanTime() { return callInMeanTime; }
+
+    /**
+     * Returns the mean time for walk-in customers.
+     * @return the mean time for walk-in customers
+     */
+    public float getWalkInMeanTime() { return walkInMeanTime; }
+
+    /**
+     * Returns the total number of arrived customers.
+     * @return the total number of arrived customers
+     */
+    public int getTotalArrivedCustomers() { return totalArrivedCustomers; }
+
+    /**
+     * Returns the total number of serviced customers.
+     * @return the total number of serviced customers
+     */
+    public int getTotalServicedCustomers() { return totalServicedCustomers; }
+
+    /**
+     * Returns the number of customers who refused delivery.
+     * @return the number of customers who refused delivery
+     */
+    public int getRefusedDeliveryCustomers() { return refusedDeliveryCustomers; }
+
+    /**
+     * Returns the number of customers who got their money back.
+     * @return the number of customers who got their money back
+     */
+    public int getReturnMoneyCustomers() { return returnMoneyCustomers; }
+
+    /**
+     * Returns the number of remade orders.
+     * @return the number of remade orders
+     */
+    public int getRemakeOrdersCustomers() { return remakeOrdersCustomers; }
+
+    /**
+     * Returns the total waiting time.
+     * @return the total waiting time
+     */
+    public float getTotalWaitingTime() { return totalWaitingTime; }
+
+    /**
+     * Returns the system throughput as saved.
+     * @return the system throughput as saved
+     */
+    public float getSystemThroughput() { return systemThroughput; }
+
+    /**
+     * Returns the average response time as saved.
+     * @return the average response time as saved
+     */
+    public float getAverageResponseTime() { return averageResponseTime; }
+
+    /**
+     * Calculates system utilization as percentage of time system was busy.
+     * @return utilization percentage
+     */
+    public float getUtilization() {
+        return OverviewStatistics.utilization(simulationTime, totalServicedCustomers, totalWaitingTime);
+    }
+
+    /**
+     * Calculates actual throughput if not set in database.
+     * @return throughput value
+     */
+    public float getThroughput() {
+        return OverviewStatistics.throughput(simulationTime, totalServicedCustomers, systemThroughput);
+    }
+
+    /**
+     * Calculates actual response time if not set in database.
+     * @return average response time
+     */
+    public float getAvgResponseTime() {
+        return OverviewStatistics.avgResponseTime(totalServicedCustomers, totalWaitingTime, averageResponseTime);
+    }
+
+    /**
+     * Calculates average queue length from waiting time and simulation time.
+     * @return average queue length
+     */
+    public float getAvgQueueLength() {
+        return OverviewStatistics.avgQueueLength(simulationTime, totalWaitingTime);
+    }
+}
@@ -3,6 +3,7 @@ package simu.backend.dao;
 import simu.backend.entity.ProjectMetrics;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.framework.Trace;
+import simu.framework.monitoring.DatabaseWriteEvent;
 import jakarta.persistence.EntityManager;
 import java.util.List;
 
@@ -19,25 +20,30 @@ public class ProjectMetricsDao {
      * @param metrics The project metrics entity to persist
      */
     public void persist(ProjectMetrics metrics) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Data not saved.");
             return;
         }
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("ProjectMetrics", 1);
         try {
             em.getTransaction().begin();
             em.persist(metrics);
             em.getTransaction().commit();
+            write.finish(true);
             Trace.out(Trace.Level.INFO, "ProjectMetrics saved successfully with JPA.");
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
+            write.finish(false);
             Trace.out(Trace.Level.ERR, "Error persisting ProjectMetrics: " + e.getMessage());
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
 
@@ -48,7 +54,7 @@ public class ProjectMetricsDao {
      * @return The found entity or null if not found
      */
     public ProjectMetrics find(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Cannot retrieve data.");
             return null;
@@ -62,6 +68,8 @@ public class ProjectMetricsDao {
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
 
@@ -72,7 +80,7 @@ public class ProjectMetricsDao {
      */
     @SuppressWarnings("unchecked")
     public List<ProjectMetrics> findAll() {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Cannot retrieve data.");
             return null;
@@ -86,6 +94,8 @@ public class ProjectMetricsDao {
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -95,7 +105,7 @@ public class ProjectMetricsDao {
      * @param metrics The project metrics entity to update
      */
     public void update(ProjectMetrics metrics) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Data not updated.");
             return;
@@ -114,6 +124,8 @@ public class ProjectMetricsDao {
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
 
@@ -123,7 +135,7 @@ public class ProjectMetricsDao {
      * @param metrics The project metrics entity to delete
      */
     public void delete(ProjectMetrics metrics) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Data not deleted.");
             return;
@@ -148,6 +160,8 @@ public class ProjectMetricsDao {
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -157,7 +171,7 @@ public class ProjectMetricsDao {
      * @return The number of project metrics records
      */
     public int getMetricsCount() {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         if (em == null) {
             Trace.out(Trace.Level.ERR, "Cannot get EntityManager. Cannot get count.");
             return 0;
@@ -171,6 +185,8 @@ public class ProjectMetricsDao {
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
             return 0;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
 }
\ No newline at end of file
@@ -5,6 +5,10 @@ import jakarta.persistence.EntityTransaction;
 import simu.backend.datasource.MariaDbJpaConnection;
 import simu.backend.entity.ReceptionStatistics;
 import simu.framework.Trace;
+import simu.framework.monitoring.DatabaseWriteEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Data Access Object (DAO) for {@link simu.backend.entity.ReceptionStatistics} entity.
@@ -21,24 +25,29 @@ public class ReceptionStatisticsDao {
      * @throws RuntimeException if persistence fails
      */
     public ReceptionStatistics persist(ReceptionStatistics receptionStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("ReceptionStatistics", 1);
         try {
             transaction.begin();
             em.persist(receptionStats);
             transaction.commit();
+            write.finish(true);
             Trace.out(Trace.Level.INFO, "Reception statistics saved with ID: " + receptionStats.getId());
             return receptionStats;
         } catch (Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
+            write.finish(false);
             Trace.out(Trace.Level.ERR, "Error persisting reception statistics: " + e.getMessage());
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -50,7 +59,7 @@ public class ReceptionStatisticsDao {
      * @throws RuntimeException if update fails
      */
     public ReceptionStatistics update(ReceptionStatistics receptionStats) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         EntityTransaction transaction = em.getTransaction();
         
         try {
@@ -68,6 +77,8 @@ public class ReceptionStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw2));
             Trace.out(Trace.Level.WAR, sw2.toString());
             throw e;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
     
@@ -78,7 +89,7 @@ public class ReceptionStatisticsDao {
      * @return The found entity or null if not found
      */
     public ReceptionStatistics findById(int id) {
-        EntityManager em = MariaDbJpaConnection.getInstance();
+        EntityManager em = MariaDbJpaConnection.createEntityManager();
         try {
             return em.find(ReceptionStatistics.class, id);
         } catch (Exception e) {
@@ -87,6 +98,29 @@ public class ReceptionStatisticsDao {
             e.printStackTrace(new java.io.PrintWriter(sw3));
             Trace.out(Trace.Level.WAR, sw3.toString());
             return null;
+        } finally {
+            MariaDbJpaConnection.release(em);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Finds the reception statistics records of an overview record.
+     *
+     * @param overviewId The overview ID to search for
+     * @return The records ordered by ID, or null if the query fails
+     */
+    public List<ReceptionStatistics> findByOverviewId(int overviewId) {
+        return findByOverviewIds(List.of(overviewId));
+    }
+    
+    /**
+     * Finds the reception statistics records of several overview records with one query per
+     * chunk of overview IDs, ordered by overview ID and record ID.
+     *
+     * @param overviewIds The overview IDs to search for
+     * @return The records, or null if the query fails
+     */
+    public List<ReceptionStatistics> findByOverviewIds(Collection<Integer> overviewIds) {
+        return OverviewChildQuery.findByOverviewIds(ReceptionStatistics.class, overviewIds);
+    }
+}
@@ -0,0 +1,51 @@
+package simu.backend.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Destination of finished simulation runs.
+ * <p>
+ * Runs are saved to MariaDB by default. Headless batch runs can write them to a local append-only
+ * file instead, by setting the {@value #STORE_PROPERTY} system property to {@value #STORE_FILE},
+ * and load the file into MariaDB later with {@link simu.backend.application.ResultsImporter}.
+ */
+public interface ResultsStore extends Closeable {
+    /** System property selecting the store: {@value #STORE_DATABASE} or {@value #STORE_FILE}. */
+    String STORE_PROPERTY = "simu.results.store";
+    /** System property naming the file of the local file store. */
+    String FILE_PROPERTY = "simu.results.file";
+    /** Store name of the MariaDB store. */
+    String STORE_DATABASE = "db";
+    /** Store name of the local file store. */
+    String STORE_FILE = "file";
+    /** Default file of the local file store. */
+    String DEFAULT_FILE = "simulation-results.bin";
+
+    /**
+     * Saves the given runs. Either all runs are saved or the method throws.
+     * @param runs the runs to save
+     * @throws IOException if the runs cannot be saved
+     */
+    void saveRuns(List<SimulationRun> runs) throws IOException;
+
+    /**
+     * Opens the store selected by the {@value #STORE_PROPERTY} and {@value #FILE_PROPERTY} system properties.
+     * @return the configured store
+     * @throws IOException if the local file cannot be opened
+     * @throws IllegalArgumentException if the store name is unknown
+     */
+    static ResultsStore fromSystemProperties() throws IOException {
+        String store = System.getProperty(STORE_PROPERTY, STORE_DATABASE);
+        switch (store) {
+            case STORE_DATABASE:
+                return new JpaResultsStore();
+            case STORE_FILE:
+                return new LocalFileResultsStore(Path.of(System.getProperty(FILE_PROPERTY, DEFAULT_FILE)));
+            default:
+                throw new IllegalArgumentException("Unknown results store: " + store);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package simu.backend.dao;
+
+import simu.framework.Trace;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind writer for simulation results.
+ * <p>
+ * Simulation threads hand their finished runs to {@link #submit(SimulationRun)} and continue
+ * immediately. A dedicated daemon worker takes the runs from a bounded queue and saves whatever has
+ * accumulated, up to {@link SimulationRunDao#BATCH_SIZE} runs, in one transaction. The worker also
+ * creates the database connection on first use, so database latency never shows up in the
+ * simulation threads. When the queue is full, {@code submit} blocks until the worker catches up,
+ * which bounds the memory held by unsaved runs.
+ * <p>
+ * A batch that fails to save is retried a few times, with a growing delay, before its runs are
+ * given up; the number of runs given up is reported by {@link #getFailedCount()} and by the result
+ * of {@link #shutdown(long)}.
+ * <p>
+ * Pending runs are flushed, and the store closed, when the JVM shuts down. Runs can also be
+ * flushed explicitly with {@link #flush(long)}.
+ */
+public class ResultsWriter {
+    /** System property overriding the capacity of the queue of unsaved runs. */
+    public static final String QUEUE_CAPACITY_PROPERTY = "simu.db.queueCapacity";
+    /** Default capacity of the queue of unsaved runs. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    /** How long the shutdown hook waits for pending runs to be saved, in milliseconds. */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    /** Default number of attempts to save a batch before its runs are given up. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    /** Default delay before the first retry of a failed batch, in milliseconds; doubled for every further retry. */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500;
+
+    /** Singleton instance saving to the configured results store. */
+    private static ResultsWriter instance;
+
+    /** Runs waiting to be saved. */
+    private final BlockingQueue<SimulationRun> queue;
+    /** Saves a batch of runs. */
+    private final Consumer<List<SimulationRun>> sink;
+    /** The worker thread saving the runs. */
+    private final Thread worker;
+    /** Number of attempts to save a batch before its runs are given up. */
+    private final int maxAttempts;
+    /** Delay before the first retry of a failed batch, in milliseconds. */
+    private final long retryDelayMillis;
+    /** Guards {@link #pending}, {@link #failed} and {@link #closed}. */
+    private final Object lock = new Object();
+    /** Number of runs submitted but not yet saved or discarded. */
+    private int pending = 0;
+    /** Number of runs given up after every attempt to save them failed. */
+    private int failed = 0;
+    /** Whether the writer no longer accepts runs. */
+    private boolean closed = false;
+
+    /**
+     * Gets the singleton writer that saves runs to the store selected by the system properties,
+     * see {@link ResultsStore#fromSystemProperties()}. The queue capacity can be set with the
+     * {@value #QUEUE_CAPACITY_PROPERTY} system property.
+     * @return the singleton instance
+     */
+    public static synchronized ResultsWriter getInstance() {
+        if (instance == null) {
+            int capacity = Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY);
+            ResultsStore store;
+            try {
+                store = ResultsStore.fromSystemProperties();
+            } catch (IOException | IllegalArgumentException e) {
+                Trace.out(Trace.Level.ERR, "Could not open the configured results store, using the database: " + e.getMessage());
+                store = new JpaResultsStore();
+            }
+            ResultsStore target = store;
+            instance = new ResultsWriter(capacity, runs -> {
+                try {
+                    target.saveRuns(runs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            ResultsWriter writer = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(null, () -> {
+                writer.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+                try {
+                    target.close();
+                } catch (IOException e) {
+                    Trace.out(Trace.Level.ERR, "Error closing results store: " + e.getMessage());
+                }
+            }, "results-writer-shutdown", 0, false));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a writer with the default retries and starts its worker thread.
+     * @param capacity the maximum number of unsaved runs before {@link #submit(SimulationRun)} blocks
+     * @param sink saves a batch of runs; a failing batch is retried, then logged and discarded
+     */
+    public ResultsWriter(int capacity, Consumer<List<SimulationRun>> sink) {
+        this(capacity, sink, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Creates a writer and starts its worker thread.
+     * @param capacity the maximum number of unsaved runs before {@link #submit(SimulationRun)} blocks
+     * @param sink saves a batch of runs; a failing batch is retried, then logged and discarded
+     * @param maxAttempts the number of attempts to save a batch, at least 1
+     * @param retryDelayMillis the delay before the first retry in milliseconds, doubled for every further retry
+     */
+    public ResultsWriter(int capacity, Consumer<List<SimulationRun>> sink, int maxAttempts, long retryDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed, got " + maxAttempts);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        // The writer serves the whole process, so it must not inherit the simulation context of its creator
+        this.worker = new Thread(null, this::work, "results-writer", 0, false);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a run to be saved. Blocks while the queue is full.
+     * @param run the run to save
+     * @throws IllegalStateException if the writer has been shut down
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    public void submit(SimulationRun run) throws InterruptedException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Results writer has been shut down");
+            }
+            pending++;
+        }
+        try {
+            queue.put(run);
+        } catch (InterruptedException e) {
+            finished(1);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every run submitted so far has been saved or discarded.
+     * @param timeoutMillis the maximum time to wait, in milliseconds
+     * @return true if all runs were handled, false if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (pending > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting runs and waits for the pending runs to be saved. The worker thread exits
+     * once the queue is empty.
+     * @param timeoutMillis the maximum time to wait for pending runs, in milliseconds
+     * @return true if every submitted run was saved, false if runs were given up or are still pending
+     */
+    public boolean shutdown(long timeoutMillis) {
+        synchronized (lock) {
+            closed = true;
+        }
+        boolean flushed = false;
+        try {
+            flushed = flush(timeoutMillis);
+            if (!flushed) {
+                Trace.out(Trace.Level.ERR, "Results writer shut down with " + getPendingCount() + " unsaved run(s)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+        int failedRuns = getFailedCount();
+        if (failedRuns > 0) {
+            Trace.out(Trace.Level.ERR, "Results writer could not save " + failedRuns + " run(s)");
+        }
+        return flushed && failedRuns == 0;
+    }
+
+    /**
+     * Returns the number of runs submitted but not yet saved or discarded.
+     * @return the number of pending runs
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending;
+        }
+    }
+
+    /**
+     * Returns the number of runs given up after every attempt to save them failed.
+     * @return the number of failed runs
+     */
+    public int getFailedCount() {
+        synchronized (lock) {
+            return failed;
+        }
+    }
+
+    /**
+     * Main loop of the worker: waits for a run, then saves it together with every run queued behind it.
+     */
+    private void work() {
+        List<SimulationRun> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                synchronized (lock) {
+                    if (closed && pending == 0) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            queue.drainTo(batch, SimulationRunDao.BATCH_SIZE - 1);
+            if (!save(batch)) {
+                synchronized (lock) {
+                    failed += batch.size();
+                }
+            }
+            finished(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Saves a batch, retrying a failed attempt after a delay that doubles with every retry.
+     * An interrupt during the delay, as at the end of a timed out shutdown, stops the retries.
+     * @param batch the runs to save
+     * @return true if the batch was saved, false if every attempt failed
+     */
+    private boolean save(List<SimulationRun> batch) {
+        long delay = retryDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.accept(batch);
+                Trace.out(Trace.Level.INFO, "Results writer saved " + batch.size() + " run(s)");
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    Trace.out(Trace.Level.ERR, "Results writer discarded " + batch.size() + " run(s) after "
+                            + attempt + " attempt(s): " + e.getMessage());
+                    StringWriter sw = new StringWriter();
+                    e.printStackTrace(new PrintWriter(sw));
+                    Trace.out(Trace.Level.WAR, sw.toString());
+                    return false;
+                }
+                Trace.out(Trace.Level.WAR, "Results writer could not save " + batch.size() + " run(s), retrying in "
+                        + delay + " ms: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Trace.out(Trace.Level.ERR, "Results writer discarded " + batch.size() + " run(s): interrupted while retrying");
+                return false;
+            }
+            delay *= 2;
+        }
+    }
+
+    /**
+     * Marks runs as handled and wakes up threads waiting in {@link #flush(long)}.
+     * @param count the number of handled runs
+     */
+    private void finished(int count) {
+        synchronized (lock) {
+            pending -= count;
+            lock.notifyAll();
+        }
+    }
+}
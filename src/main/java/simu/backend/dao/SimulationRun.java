@@ -0,0 +1,90 @@
+package simu.backend.dao;
+
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ProjectMetrics;
+import simu.backend.entity.ReceptionStatistics;
+
+/**
+ * The results of one simulation run: the overview statistics and the statistics of every service point.
+ * <p>
+ * The service point entities are linked to the overview when the run is persisted by
+ * {@link SimulationRunDao}, so their overview ID does not need to be known when the run is created.
+ * The same holds for the optional {@link ProjectMetrics} record of the run.
+ */
+public class SimulationRun {
+    /** Overview statistics of the run. */
+    private final OverviewStatistics overview;
+    /** Reception statistics of the run. */
+    private final ReceptionStatistics reception;
+    /** Kitchen statistics of the run. */
+    private final KitchenStatistics kitchen;
+    /** Counter statistics of the run. */
+    private final CounterStatistics counter;
+    /** Delivery statistics of the run. */
+    private final DeliveryStatistics delivery;
+    /** Metrics and performance telemetry of the run, or null if not recorded. */
+    private ProjectMetrics metrics;
+
+    /**
+     * Constructs a run from its unsaved entities.
+     *
+     * @param overview the overview statistics
+     * @param reception the reception statistics
+     * @param kitchen the kitchen statistics
+     * @param counter the counter statistics
+     * @param delivery the delivery statistics
+     */
+    public SimulationRun(OverviewStatistics overview, ReceptionStatistics reception, KitchenStatistics kitchen,
+                         CounterStatistics counter, DeliveryStatistics delivery) {
+        this.overview = overview;
+        this.reception = reception;
+        this.kitchen = kitchen;
+        this.counter = counter;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Returns the overview statistics of the run.
+     * @return the overview statistics
+     */
+    public OverviewStatistics getOverview() { return overview; }
+
+    /**
+     * Returns the reception statistics of the run.
+     * @return the reception statistics
+     */
+    public ReceptionStatistics getReception() { return reception; }
+
+    /**
+     * Returns the kitchen statistics of the run.
+     * @return the kitchen statistics
+     */
+    public KitchenStatistics getKitchen() { return kitchen; }
+
+    /**
+     * Returns the counter statistics of the run.
+     * @return the counter statistics
+     */
+    public CounterStatistics getCounter() { return counter; }
+
+    /**
+     * Returns the delivery statistics of the run.
+     * @return the delivery statistics
+     */
+    public DeliveryStatistics getDelivery() { return delivery; }
+
+    /**
+     * Returns the metrics and performance telemetry of the run.
+     * @return the metrics, or null if not recorded
+     */
+    public ProjectMetrics getMetrics() { return metrics; }
+
+    /**
+     * Sets the metrics and performance telemetry of the run, saved together with its statistics.
+     * @param metrics the metrics, or null if not recorded
+     */
+    public void setMetrics(ProjectMetrics metrics) { this.metrics = metrics; }
+}
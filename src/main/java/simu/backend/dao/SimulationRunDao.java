@@ -0,0 +1,302 @@
+package simu.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import simu.backend.datasource.MariaDbJpaConnection;
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.ProjectMetrics;
+import simu.backend.entity.ReceptionStatistics;
+import simu.framework.Trace;
+import simu.framework.monitoring.DatabaseWriteEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Data Access Object (DAO) that saves complete simulation runs, i.e. an overview statistics record
+ * together with the statistics of every service point.
+ * <p>
+ * All given runs are saved in a single transaction with an EntityManager of their own, so runs
+ * can be saved from several threads at once. The overview records are persisted through JPA,
+ * because their generated IDs are needed for the service point rows. Hibernate cannot batch inserts
+ * of entities with IDENTITY IDs, so the service point rows are written with JDBC batches instead,
+ * one batched statement per table.
+ * <p>
+ * The {@link ProjectMetrics} records of the runs, which carry the engine's performance telemetry,
+ * are written in a second transaction after the results are saved. They are not essential, so a
+ * failure to save them is logged and does not fail the save of the results.
+ * <p>
+ * If saving fails, the runs are left as they were before, so that they can be saved again.
+ */
+public class SimulationRunDao {
+    /** Number of rows sent to the database in one JDBC batch. */
+    public static final int BATCH_SIZE = MariaDbJpaConnection.BATCH_SIZE;
+
+    /**
+     * Runs a unit of work in a transaction of its own, committing it if the work completes and
+     * rolling it back if it throws.
+     */
+    public interface Transactions {
+        /**
+         * Runs the work in a new transaction.
+         * @param work the work, given the EntityManager of the transaction
+         * @param <T> the type of the result
+         * @return the result of the work
+         */
+        <T> T inTransaction(Function<EntityManager, T> work);
+    }
+
+    /** Runs the transactions of the DAO. */
+    private final Transactions transactions;
+
+    /**
+     * Creates a DAO saving to the database of {@link MariaDbJpaConnection}.
+     */
+    public SimulationRunDao() {
+        this(MariaDbJpaConnection::inTransaction);
+    }
+
+    /**
+     * Creates a DAO running its transactions with the given runner, e.g. on another persistence unit.
+     * @param transactions runs the transactions
+     */
+    public SimulationRunDao(Transactions transactions) {
+        this.transactions = transactions;
+    }
+
+    /** Columns of the service point statistics tables, in the order they are bound. */
+    private static final String SERVICE_POINT_COLUMNS = "overview_id, arrived_customers, serviced_customers, "
+            + "service_busy_time, service_utilization, service_throughput, average_service_time, waiting_time, "
+            + "average_queue_length, mean_value, variance_value";
+    /** Columns of the project metrics table, in the order they are bound. */
+    private static final String METRICS_COLUMNS = "run_id, run_timestamp, overview_id, simulation_duration, "
+            + "arrival_count, completed_count, walk_in_customers, call_in_customers, payment_failures, "
+            + "successful_deliveries, failed_deliveries, busy_time, total_time, cumulative_response_time, "
+            + "utilization, throughput, customers_per_hour, avg_service_time, avg_response_time, avg_queue_length, "
+            + "payment_success_rate, delivery_success_rate, wall_clock_ms, events_processed, events_per_second, "
+            + "peak_event_list_size, peak_heap_bytes, gc_time_ms, gc_count";
+
+    /**
+     * Persists a single simulation run in one transaction.
+     * @param run the run to persist
+     */
+    public void persistRun(SimulationRun run) {
+        persistRuns(List.of(run));
+    }
+
+    /**
+     * Persists the given simulation runs in one transaction. Either all runs are saved or none.
+     * After saving, the overview entities carry their generated IDs, and the service point entities
+     * carry the ID of their overview. The service point entities' own IDs are not read back.
+     * If saving fails, the IDs assigned by the rolled back inserts are cleared again, so the runs
+     * can be passed to this method again.
+     * @param runs the runs to persist
+     */
+    public void persistRuns(List<SimulationRun> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("SimulationRun", 0);
+        try {
+            transactions.inTransaction(em -> {
+                for (SimulationRun run : runs) {
+                    em.persist(run.getOverview());
+                }
+                em.flush();
+                write.addRows(runs.size());
+                for (SimulationRun run : runs) {
+                    int overviewId = run.getOverview().getId();
+                    run.getReception().setOverviewId(overviewId);
+                    run.getKitchen().setOverviewId(overviewId);
+                    run.getCounter().setOverviewId(overviewId);
+                    run.getDelivery().setOverviewId(overviewId);
+                }
+                em.unwrap(Session.class).doWork(connection -> {
+                    write.addRows(insertBatch(connection, "reception_statistics", SERVICE_POINT_COLUMNS, runs, run -> {
+                        ReceptionStatistics s = run.getReception();
+                        return new Number[] {s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                                s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(),
+                                s.getAverageServiceTime(), s.getWaitingTime(), s.getAverageQueueLength(),
+                                s.getMeanValue(), s.getVarianceValue()};
+                    }));
+                    write.addRows(insertBatch(connection, "kitchen_statistics", SERVICE_POINT_COLUMNS, runs, run -> {
+                        KitchenStatistics s = run.getKitchen();
+                        return new Number[] {s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                                s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(),
+                                s.getAverageServiceTime(), s.getWaitingTime(), s.getAverageQueueLength(),
+                                s.getMeanValue(), s.getVarianceValue()};
+                    }));
+                    write.addRows(insertBatch(connection, "counter_statistics", SERVICE_POINT_COLUMNS, runs, run -> {
+                        CounterStatistics s = run.getCounter();
+                        return new Number[] {s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                                s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(),
+                                s.getAverageServiceTime(), s.getWaitingTime(), s.getAverageQueueLength(),
+                                s.getMeanValue(), s.getVarianceValue()};
+                    }));
+                    write.addRows(insertBatch(connection, "delivery_statistics", SERVICE_POINT_COLUMNS, runs, run -> {
+                        DeliveryStatistics s = run.getDelivery();
+                        return new Number[] {s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                                s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(),
+                                s.getAverageServiceTime(), s.getWaitingTime(), s.getAverageQueueLength(),
+                                s.getMeanValue(), s.getVarianceValue()};
+                    }));
+                });
+                return null;
+            });
+            write.finish(true);
+            Trace.out(Trace.Level.INFO, "Saved " + runs.size() + " simulation run(s), last overview ID: "
+                    + runs.get(runs.size() - 1).getOverview().getId());
+        } catch (RuntimeException e) {
+            write.finish(false);
+            clearIds(runs);
+            Trace.out(Trace.Level.ERR, "Error persisting simulation runs: " + e.getMessage());
+            java.io.StringWriter sw = new java.io.StringWriter();
+            e.printStackTrace(new java.io.PrintWriter(sw));
+            Trace.out(Trace.Level.WAR, sw.toString());
+            throw e;
+        }
+        persistMetrics(runs);
+    }
+
+    /**
+     * Persists the project metrics records of the given runs, linked to their saved overviews,
+     * in one transaction. Runs without metrics are skipped. Failures are logged, not thrown.
+     * @param runs the saved runs
+     */
+    private void persistMetrics(List<SimulationRun> runs) {
+        List<SimulationRun> measured = runs.stream().filter(run -> run.getMetrics() != null).toList();
+        if (measured.isEmpty()) {
+            return;
+        }
+        for (SimulationRun run : measured) {
+            run.getMetrics().setOverviewId(run.getOverview().getId());
+        }
+        DatabaseWriteEvent write = DatabaseWriteEvent.start("ProjectMetrics", 0);
+        try {
+            transactions.inTransaction(em -> {
+                em.unwrap(Session.class).doWork(connection -> write.addRows(insertBatch(connection, "project_metrics",
+                        METRICS_COLUMNS, measured, run -> {
+                            ProjectMetrics m = run.getMetrics();
+                            return new Object[] {m.getRunId(), m.getRunTimestamp(), m.getOverviewId(),
+                                    m.getSimulationDuration(), m.getArrivalCount(), m.getCompletedCount(),
+                                    m.getWalkInCustomers(), m.getCallInCustomers(), m.getPaymentFailures(),
+                                    m.getSuccessfulDeliveries(), m.getFailedDeliveries(), m.getBusyTime(),
+                                    m.getTotalTime(), m.getCumulativeResponseTime(), m.getUtilization(),
+                                    m.getThroughput(), m.getCustomersPerHour(), m.getAvgServiceTime(),
+                                    m.getAvgResponseTime(), m.getAvgQueueLength(), m.getPaymentSuccessRate(),
+                                    m.getDeliverySuccessRate(), m.getWallClockMillis(), m.getEventsProcessed(),
+                                    m.getEventsPerSecond(), m.getPeakEventListSize(), m.getPeakHeapBytes(),
+                                    m.getGcTimeMillis(), m.getGcCount()};
+                        })));
+                return null;
+            });
+            write.finish(true);
+        } catch (RuntimeException e) {
+            write.finish(false);
+            Trace.out(Trace.Level.WAR, "Run telemetry not saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clears the overview IDs left on the runs by a rolled back transaction. An overview keeping its
+     * generated ID would be taken for a detached entity when the runs are persisted again.
+     * @param runs the runs whose save failed
+     */
+    private static void clearIds(List<SimulationRun> runs) {
+        for (SimulationRun run : runs) {
+            run.getOverview().setId(0);
+            run.getReception().setOverviewId(0);
+            run.getKitchen().setOverviewId(0);
+            run.getCounter().setOverviewId(0);
+            run.getDelivery().setOverviewId(0);
+        }
+    }
+
+    /**
+     * Inserts one row per run into a table, sending the rows in JDBC batches.
+     * @param connection the connection of the current transaction
+     * @param table the name of the table
+     * @param columnNames the comma-separated names of the columns written
+     * @param runs the runs whose rows are inserted
+     * @param columns returns the column values of a run's row, in the order of the column names
+     * @return the number of rows inserted, as reported by the driver
+     * @throws SQLException if an insert fails
+     */
+    private static int insertBatch(Connection connection, String table, String columnNames, List<SimulationRun> runs,
+                                    Function<SimulationRun, Object[]> columns) throws SQLException {
+        int columnCount = columnNames.split(",").length;
+        String sql = "INSERT INTO " + table + " (" + columnNames + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        int inserted = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (SimulationRun run : runs) {
+                Object[] values = columns.apply(run);
+                for (int i = 0; i < values.length; i++) {
+                    bind(statement, i + 1, values[i]);
+                }
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    inserted += countRows(statement.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                inserted += countRows(statement.executeBatch());
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Counts the rows inserted by a JDBC batch. Statements the driver reports as successful
+     * without a row count inserted one row each.
+     * @param updateCounts the update counts returned by the batch
+     * @return the number of rows inserted
+     */
+    private static int countRows(int[] updateCounts) {
+        int rows = 0;
+        for (int count : updateCounts) {
+            if (count >= 0) {
+                rows += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Binds a column value to a statement parameter with the setter matching its type.
+     * @param statement the statement
+     * @param index the index of the parameter, starting at 1
+     * @param value the value: an Integer, Long, Float, Double, String, LocalDateTime or null
+     * @throws SQLException if the value cannot be bound
+     */
+    private static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setObject(index, null);
+        } else if (value instanceof Integer i) {
+            statement.setInt(index, i);
+        } else if (value instanceof Long l) {
+            statement.setLong(index, l);
+        } else if (value instanceof Double d) {
+            statement.setDouble(index, d);
+        } else if (value instanceof Number n) {
+            statement.setFloat(index, n.floatValue());
+        } else if (value instanceof LocalDateTime time) {
+            statement.setTimestamp(index, Timestamp.valueOf(time));
+        } else {
+            statement.setString(index, value.toString());
+        }
+    }
+}
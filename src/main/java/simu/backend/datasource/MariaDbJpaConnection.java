@@ -1,93 +1,253 @@
 package simu.backend.datasource;
 
 import jakarta.persistence.*;
+import simu.framework.SimulationContext;
 import simu.framework.Trace;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
- * Utility class for managing JPA EntityManager and database connections to MariaDB.
+ * Utility class for managing JPA EntityManagers and database connections to MariaDB.
  * <p>
- * Provides singleton access to EntityManager, connection testing, and cleanup methods.
+ * The EntityManagerFactory is shared and thread-safe, and draws its JDBC connections from a
+ * HikariCP connection pool. EntityManagers are not thread-safe and their persistence contexts grow
+ * with every entity they load, so every unit of work gets a new one, from {@link #createEntityManager()}
+ * or {@link #inTransaction(Function)}, and releases it when done. The pool size can be set with the
+ * {@value #POOL_SIZE_PROPERTY} system property, and the pool is registered as an MBean, so its usage
+ * can be watched with JMX. The factory can be created ahead of its first use with {@link #warmUpAsync()}.
  */
 public class MariaDbJpaConnection {
 
 
-    /** Singleton EntityManagerFactory for JPA. */
-    private static EntityManagerFactory emf = null;
-    /** Singleton EntityManager for JPA. */
-    private static EntityManager em = null;
+    /** Singleton EntityManagerFactory for JPA; written under the class lock, read without it. */
+    private static volatile EntityManagerFactory emf = null;
+    /** Number of statements Hibernate and the batch DAOs group into one JDBC batch. */
+    public static final int BATCH_SIZE = 50;
+    /** System property overriding the maximum number of pooled database connections. */
+    public static final String POOL_SIZE_PROPERTY = "simu.db.poolSize";
+    /** Default maximum number of pooled database connections. */
+    public static final int DEFAULT_POOL_SIZE = 4;
+    /** Name of the connection pool, also used in its MBean name. */
+    private static final String POOL_NAME = "simu-db";
+    /** Lock guarding {@link #warmUp}, separate from the class lock held during the bootstrap. */
+    private static final Object WARM_UP_LOCK = new Object();
+    /** Completed when the background warm-up has finished, or null if it has not been started. */
+    private static CompletableFuture<EntityManagerFactory> warmUp = null;
 
 
     /**
-     * Gets the singleton EntityManager instance for database operations.
-     * @return the EntityManager instance, or null if creation fails
+     * Creates an EntityManager for one unit of work. The caller passes it to {@link #release(EntityManager)}
+     * when the work is done, so that its persistence context does not outlive the work.
+     * @return the new EntityManager, or null if creation fails
      */
-    public static EntityManager getInstance() {
-        // Note: Add synchronization if running in multi-threaded environment
-        if (em == null) {
-            if (emf == null) {
-                try {
-                    emf = Persistence.createEntityManagerFactory("ProjectMariaDbUnit");
-                } catch (Exception e) {
-                    Trace.out(Trace.Level.ERR, "Failed to create EntityManagerFactory: " + e.getMessage());
-                    java.io.StringWriter sw = new java.io.StringWriter();
-                    e.printStackTrace(new java.io.PrintWriter(sw));
-                    Trace.out(Trace.Level.WAR, sw.toString());
-                    return null;
-                }
+    public static EntityManager createEntityManager() {
+        EntityManagerFactory factory = getEntityManagerFactory();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return factory.createEntityManager();
+        } catch (Exception e) {
+            Trace.out(Trace.Level.ERR, "Failed to create EntityManager: " + e.getMessage());
+            java.io.StringWriter sw = new java.io.StringWriter();
+            e.printStackTrace(new java.io.PrintWriter(sw));
+            Trace.out(Trace.Level.WAR, sw.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Closes an EntityManager created by {@link #createEntityManager()} at the end of its unit of work.
+     * @param entityManager the EntityManager, or null if it could not be created
+     */
+    public static void release(EntityManager entityManager) {
+        if (entityManager != null && entityManager.isOpen()) {
+            try {
+                entityManager.close();
+            } catch (Exception e) {
+                Trace.out(Trace.Level.ERR, "Error closing EntityManager: " + e.getMessage());
             }
+        }
+    }
+
+    /**
+     * Gets the shared EntityManagerFactory, creating it and the connection pool on first use.
+     * Threads arriving during the bootstrap wait for it instead of starting a second one.
+     * @return the EntityManagerFactory, or null if creation fails
+     */
+    public static EntityManagerFactory getEntityManagerFactory() {
+        EntityManagerFactory factory = emf;
+        return factory != null ? factory : bootstrap();
+    }
+
+    /**
+     * Creates the EntityManagerFactory unless another thread has created it while this one waited for the lock.
+     * The factory is created outside any simulation context, so the threads of the connection pool do not
+     * keep the context of the simulation that first used the database.
+     * @return the EntityManagerFactory, or null if creation fails
+     */
+    private static synchronized EntityManagerFactory bootstrap() {
+        if (emf == null) {
             try {
-                em = emf.createEntityManager();
+                long start = System.nanoTime();
+                emf = SimulationContext.callWithoutContext(
+                        () -> Persistence.createEntityManagerFactory("ProjectMariaDbUnit", connectionProperties()));
+                long bootstrapMillis = (System.nanoTime() - start) / 1_000_000;
+                Trace.out(Trace.Level.INFO, "EntityManagerFactory created in " + bootstrapMillis + " ms on thread "
+                        + Thread.currentThread().getName());
             } catch (Exception e) {
-                Trace.out(Trace.Level.ERR, "Failed to create EntityManager: " + e.getMessage());
+                Trace.out(Trace.Level.ERR, "Failed to create EntityManagerFactory: " + e.getMessage());
                 java.io.StringWriter sw = new java.io.StringWriter();
                 e.printStackTrace(new java.io.PrintWriter(sw));
                 Trace.out(Trace.Level.WAR, sw.toString());
                 return null;
             }
         }
-        return em;
+        return emf;
+    }
+
+    /**
+     * Starts creating the EntityManagerFactory and the connection pool on a background thread, so that
+     * the first save or query does not pay the bootstrap time. Threads that need the factory before the
+     * warm-up has finished wait for it instead of starting a second bootstrap. Calling this again returns
+     * the same future.
+     * @return future completed with the EntityManagerFactory once it is ready and a connection has been
+     *         opened, or with null if the database is not available
+     */
+    public static CompletableFuture<EntityManagerFactory> warmUpAsync() {
+        synchronized (WARM_UP_LOCK) {
+            if (warmUp == null) {
+                CompletableFuture<EntityManagerFactory> future = new CompletableFuture<>();
+                Thread thread = new Thread(null, () -> {
+                    long start = System.nanoTime();
+                    EntityManagerFactory factory = getEntityManagerFactory();
+                    if (factory != null) {
+                        EntityManager warmUpEm = null;
+                        try {
+                            warmUpEm = factory.createEntityManager();
+                            warmUpEm.createNativeQuery("SELECT 1").getSingleResult();
+                        } catch (Exception e) {
+                            Trace.out(Trace.Level.WAR, "Database warm-up query failed: " + e.getMessage());
+                        } finally {
+                            if (warmUpEm != null) {
+                                warmUpEm.close();
+                            }
+                        }
+                    }
+                    Trace.out(Trace.Level.INFO, "Database warm-up " + (factory != null ? "finished" : "failed") + " in "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    future.complete(factory);
+                }, "db-warm-up", 0, false);
+                thread.setDaemon(true);
+                thread.start();
+                warmUp = future;
+            }
+            return warmUp;
+        }
+    }
+
+    /**
+     * Returns whether the EntityManagerFactory has been created, so that using the database does not
+     * wait for the bootstrap. Never blocks, also while the bootstrap is running.
+     * @return true if the EntityManagerFactory is ready
+     */
+    public static boolean isReady() {
+        return emf != null;
+    }
+
+    /**
+     * Runs a unit of work in its own transaction with a new EntityManager, which is closed afterwards.
+     * The transaction is committed if the work completes and rolled back if it throws.
+     * Units of work on different threads run concurrently, each on its own pooled connection.
+     * @param work the work to run
+     * @param <T> the result type of the work
+     * @return the result of the work
+     * @throws IllegalStateException if no database connection is available
+     */
+    public static <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManagerFactory factory = getEntityManagerFactory();
+        if (factory == null) {
+            throw new IllegalStateException("Database is not available");
+        }
+        EntityManager unitEm = factory.createEntityManager();
+        EntityTransaction transaction = unitEm.getTransaction();
+        try {
+            transaction.begin();
+            T result = work.apply(unitEm);
+            transaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            unitEm.close();
+        }
     }
-    
+
+    /**
+     * Returns the persistence properties added to the persistence unit's configuration: the HikariCP
+     * connection pool, and JDBC batching with ordered inserts and updates, so that statements for the
+     * same table are grouped into as few batches as possible.
+     * @return the additional persistence properties
+     */
+    private static java.util.Map<String, Object> connectionProperties() {
+        int poolSize = Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE);
+        java.util.Map<String, Object> properties = new java.util.HashMap<>();
+        properties.put("hibernate.jdbc.batch_size", String.valueOf(BATCH_SIZE));
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put("hibernate.connection.provider_class", "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        properties.put("hibernate.hikari.poolName", POOL_NAME);
+        properties.put("hibernate.hikari.maximumPoolSize", String.valueOf(poolSize));
+        properties.put("hibernate.hikari.minimumIdle", "1");
+        properties.put("hibernate.hikari.registerMbeans", "true");
+        return properties;
+    }
+
     /**
      * Tests the database connection by executing a simple query.
      * @return true if the connection is successful, false otherwise
      */
     public static boolean testConnection() {
+        EntityManager testEm = createEntityManager();
+        if (testEm == null) {
+            return false;
+        }
         try {
-            EntityManager testEm = getInstance();
-            if (testEm != null) {
-                // Try a simple query to test the connection using the new schema
-                testEm.createNativeQuery("SELECT COUNT(*) FROM overview_statistics").getSingleResult();
-                return true;
-            }
+            // Try a simple query to test the connection using the new schema
+            testEm.createNativeQuery("SELECT COUNT(*) FROM overview_statistics").getSingleResult();
+            return true;
         } catch (Exception e) {
             Trace.out(Trace.Level.ERR, "Database connection test failed: " + e.getMessage());
             java.io.StringWriter sw = new java.io.StringWriter();
             e.printStackTrace(new java.io.PrintWriter(sw));
             Trace.out(Trace.Level.WAR, sw.toString());
+        } finally {
+            testEm.close();
         }
         return false;
     }
-    
+
     /**
-     * Closes the EntityManager and EntityManagerFactory, cleaning up resources.
+     * Closes the EntityManagerFactory, which also closes the connection pool. EntityManagers still
+     * open become unusable.
      */
     public static void close() {
-        if (em != null) {
-            try {
-                em.close();
-                em = null;
-            } catch (Exception e) {
-                Trace.out(Trace.Level.ERR, "Error closing EntityManager: " + e.getMessage());
-            }
+        synchronized (WARM_UP_LOCK) {
+            warmUp = null;
         }
-        if (emf != null) {
-            try {
-                emf.close();
-                emf = null;
-            } catch (Exception e) {
-                Trace.out(Trace.Level.ERR, "Error closing EntityManagerFactory: " + e.getMessage());
+        synchronized (MariaDbJpaConnection.class) {
+            if (emf != null) {
+                try {
+                    emf.close();
+                    emf = null;
+                } catch (Exception e) {
+                    Trace.out(Trace.Level.ERR, "Error closing EntityManagerFactory: " + e.getMessage());
+                }
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,7 @@ import jakarta.persistence.*;
  * Contains all ServicePointStatistics fields from the current schema for counter performance reporting and persistence.
  */
 @Entity
-@Table(name = "counter_statistics")
+@Table(name = "counter_statistics", indexes = @Index(name = "idx_counter_statistics_overview_id", columnList = "overview_id"))
 public class CounterStatistics {
     /** Unique identifier for the counter statistics record. */
     @Id
@@ -7,7 +7,7 @@ import jakarta.persistence.*;
  * Contains all ServicePointStatistics fields from the current schema for delivery performance reporting and persistence.
  */
 @Entity
-@Table(name = "delivery_statistics")
+@Table(name = "delivery_statistics", indexes = @Index(name = "idx_delivery_statistics_overview_id", columnList = "overview_id"))
 public class DeliveryStatistics {
     /** Unique identifier for the delivery statistics record. */
     @Id
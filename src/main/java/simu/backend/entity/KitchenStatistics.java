@@ -7,7 +7,7 @@ import jakarta.persistence.*;
  * Contains all ServicePointStatistics fields from the current schema for kitchen performance reporting and persistence.
  */
 @Entity
-@Table(name = "kitchen_statistics")
+@Table(name = "kitchen_statistics", indexes = @Index(name = "idx_kitchen_statistics_overview_id", columnList = "overview_id"))
 public class KitchenStatistics {
     /** Unique identifier for the kitchen statistics record. */
     @Id
@@ -291,11 +291,7 @@ public class OverviewStatistics {
      * @return utilization percentage
      */
     public float getUtilization() { 
-        if (simulationTime > 0 && totalServicedCustomers > 0) {
-            float totalServiceTime = totalServicedCustomers * (totalWaitingTime / Math.max(totalServicedCustomers, 1));
-            return Math.min(100, (totalServiceTime / simulationTime) * 100);
-        }
-        return 0; 
+        return utilization(simulationTime, totalServicedCustomers, totalWaitingTime);
     }
 
     /**
@@ -303,10 +299,7 @@ public class OverviewStatistics {
      * @return throughput value
      */
     public float getThroughput() { 
-        if (systemThroughput <= 0 && simulationTime > 0) {
-            return totalServicedCustomers / simulationTime;
-        }
-        return systemThroughput; 
+        return throughput(simulationTime, totalServicedCustomers, systemThroughput);
     }
 
     /**
@@ -322,17 +315,68 @@ public class OverviewStatistics {
      * @return average response time
      */
     public float getAvgResponseTime() { 
+        return avgResponseTime(totalServicedCustomers, totalWaitingTime, averageResponseTime);
+    }
+
+    /**
+     * Calculates average queue length from waiting time and simulation time.
+     * @return average queue length
+     */
+    public float getAvgQueueLength() {
+        return avgQueueLength(simulationTime, totalWaitingTime);
+    }
+
+    /**
+     * Calculates system utilization as percentage of time system was busy; shared with the
+     * summaries of {@link simu.backend.dao.OverviewSummary}.
+     * @param simulationTime the simulation time
+     * @param totalServicedCustomers the total number of serviced customers
+     * @param totalWaitingTime the total waiting time
+     * @return utilization percentage
+     */
+    public static float utilization(float simulationTime, int totalServicedCustomers, float totalWaitingTime) {
+        if (simulationTime > 0 && totalServicedCustomers > 0) {
+            float totalServiceTime = totalServicedCustomers * (totalWaitingTime / Math.max(totalServicedCustomers, 1));
+            return Math.min(100, (totalServiceTime / simulationTime) * 100);
+        }
+        return 0;
+    }
+
+    /**
+     * Calculates actual throughput if not saved.
+     * @param simulationTime the simulation time
+     * @param totalServicedCustomers the total number of serviced customers
+     * @param systemThroughput the saved throughput, 0 or less if not saved
+     * @return throughput value
+     */
+    public static float throughput(float simulationTime, int totalServicedCustomers, float systemThroughput) {
+        if (systemThroughput <= 0 && simulationTime > 0) {
+            return totalServicedCustomers / simulationTime;
+        }
+        return systemThroughput;
+    }
+
+    /**
+     * Calculates actual response time if not saved.
+     * @param totalServicedCustomers the total number of serviced customers
+     * @param totalWaitingTime the total waiting time
+     * @param averageResponseTime the saved average response time, 0 or less if not saved
+     * @return average response time
+     */
+    public static float avgResponseTime(int totalServicedCustomers, float totalWaitingTime, float averageResponseTime) {
         if (averageResponseTime <= 0 && totalServicedCustomers > 0) {
             return totalWaitingTime / totalServicedCustomers;
         }
-        return averageResponseTime; 
+        return averageResponseTime;
     }
 
     /**
      * Calculates average queue length from waiting time and simulation time.
+     * @param simulationTime the simulation time
+     * @param totalWaitingTime the total waiting time
      * @return average queue length
      */
-    public float getAvgQueueLength() {
+    public static float avgQueueLength(float simulationTime, float totalWaitingTime) {
         return simulationTime > 0 ? totalWaitingTime / simulationTime : 0;
     }
 
@@ -7,6 +7,10 @@ import java.time.LocalDateTime;
  * Entity representing simulation run metrics for a project.
  * Stores statistics such as arrivals, completions, service times, success rates, and more.
  * Used for database persistence and reporting of simulation results.
+ * <p>
+ * Each record also carries the performance telemetry of the engine for the run (wall-clock
+ * duration, events processed, event rate, peak event list size, peak heap and GC time), and is
+ * linked to the overview statistics of the run.
  */
 @Entity
 @Table(name="project_metrics")
@@ -78,6 +82,30 @@ public class ProjectMetrics {
     /** Delivery success rate (percentage). */
     @Column(name="delivery_success_rate")
     private double deliverySuccessRate;
+    /** ID of the overview statistics of the run, or null if the run has none. */
+    @Column(name="overview_id")
+    private Integer overviewId;
+    /** Wall-clock duration of the run in milliseconds. */
+    @Column(name="wall_clock_ms")
+    private long wallClockMillis;
+    /** Number of events processed by the engine. */
+    @Column(name="events_processed")
+    private long eventsProcessed;
+    /** Events processed per wall-clock second. */
+    @Column(name="events_per_second")
+    private double eventsPerSecond;
+    /** Highest number of pending events in the event list. */
+    @Column(name="peak_event_list_size")
+    private int peakEventListSize;
+    /** Peak heap usage during the run in bytes. */
+    @Column(name="peak_heap_bytes")
+    private long peakHeapBytes;
+    /** Time spent in garbage collection during the run in milliseconds. */
+    @Column(name="gc_time_ms")
+    private long gcTimeMillis;
+    /** Number of garbage collections during the run. */
+    @Column(name="gc_count")
+    private long gcCount;
 
     /**
      * Default constructor required by JPA. Initializes runId and timestamp.
@@ -347,6 +375,70 @@ public class ProjectMetrics {
     public void setAvgQueueLength(double avgQueueLength) {
         this.avgQueueLength = avgQueueLength;
     }
+
+    public Integer getOverviewId() {
+        return overviewId;
+    }
+
+    public void setOverviewId(Integer overviewId) {
+        this.overviewId = overviewId;
+    }
+
+    public long getWallClockMillis() {
+        return wallClockMillis;
+    }
+
+    public void setWallClockMillis(long wallClockMillis) {
+        this.wallClockMillis = wallClockMillis;
+    }
+
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    public void setEventsProcessed(long eventsProcessed) {
+        this.eventsProcessed = eventsProcessed;
+    }
+
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public int getPeakEventListSize() {
+        return peakEventListSize;
+    }
+
+    public void setPeakEventListSize(int peakEventListSize) {
+        this.peakEventListSize = peakEventListSize;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public void setPeakHeapBytes(long peakHeapBytes) {
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    public void setGcTimeMillis(long gcTimeMillis) {
+        this.gcTimeMillis = gcTimeMillis;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
     
     @Override
     public String toString() {
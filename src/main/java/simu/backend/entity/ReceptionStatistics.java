@@ -9,7 +9,7 @@ import jakarta.persistence.*;
  * Provides statistics for reception operations in the simulation.
  */
 @Entity
-@Table(name = "reception_statistics")
+@Table(name = "reception_statistics", indexes = @Index(name = "idx_reception_statistics_overview_id", columnList = "overview_id"))
 public class ReceptionStatistics {
     
     /** Unique identifier for the reception statistics record. */
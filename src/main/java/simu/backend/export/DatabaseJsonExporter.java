@@ -0,0 +1,304 @@
+package simu.backend.export;
+
+import simu.backend.dao.CounterStatisticsDao;
+import simu.backend.dao.DeliveryStatisticsDao;
+import simu.backend.dao.KitchenStatisticsDao;
+import simu.backend.dao.OverviewStatisticsDao;
+import simu.backend.dao.ReceptionStatisticsDao;
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ReceptionStatistics;
+import simu.framework.Trace;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the results database to a JSON document in constant memory.
+ * <p>
+ * The overview records are read in keyset-ordered pages of {@link #PAGE_SIZE} records, and the
+ * service point rows of each page with one query per table. Every page is written straight to a
+ * buffered output stream, and every query runs with its own persistence context, which is closed
+ * with it, so neither the document nor the entities accumulate in memory. Files ending in
+ * {@code .gz} are gzip-compressed.
+ * <p>
+ * The export covers the records that exist when it starts; runs saved during the export are left
+ * for the next one.
+ */
+public class DatabaseJsonExporter {
+    /** Number of overview records read per page. */
+    public static final int PAGE_SIZE = 500;
+    /** Size of the output buffers in bytes. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Receives the progress of an export.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Called after every page. Throwing an unchecked exception, such as a
+         * {@link java.util.concurrent.CancellationException}, aborts the export.
+         * @param done the units of work done so far
+         * @param total the total units of work: two per exported run, one for each pass
+         */
+        void onProgress(long done, long total);
+    }
+
+    /** DAO for the overview records. */
+    private final OverviewStatisticsDao overviewDao = new OverviewStatisticsDao();
+    /** DAO for the reception rows. */
+    private final ReceptionStatisticsDao receptionDao = new ReceptionStatisticsDao();
+    /** DAO for the kitchen rows. */
+    private final KitchenStatisticsDao kitchenDao = new KitchenStatisticsDao();
+    /** DAO for the counter rows. */
+    private final CounterStatisticsDao counterDao = new CounterStatisticsDao();
+    /** DAO for the delivery rows. */
+    private final DeliveryStatisticsDao deliveryDao = new DeliveryStatisticsDao();
+
+    /**
+     * Exports the database to a file. A partially written file is deleted if the export fails.
+     * @param file the file to write; compressed with gzip if its name ends in {@code .gz}
+     * @param progress receives the progress, or null
+     * @return the number of exported runs
+     * @throws IOException if the database cannot be read or the file cannot be written
+     */
+    public long export(Path file, ProgressListener progress) throws IOException {
+        boolean completed = false;
+        try (JsonStreamWriter json = new JsonStreamWriter(openWriter(file))) {
+            long runs = export(json, progress != null ? progress : (done, total) -> { });
+            json.flush();
+            completed = true;
+            Trace.out(Trace.Level.INFO, "Exported " + runs + " simulation runs to: " + file.toAbsolutePath());
+            return runs;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Writes the export document.
+     * @param json the writer of the document
+     * @param progress receives the progress
+     * @return the number of exported runs
+     * @throws IOException if the database cannot be read or the document cannot be written
+     */
+    private long export(JsonStreamWriter json, ProgressListener progress) throws IOException {
+        int maxId = overviewDao.findMaxId();
+        long runs = maxId >= 0 ? overviewDao.countUpTo(maxId) : -1;
+        if (runs < 0) {
+            throw new IOException("Could not read the overview statistics");
+        }
+        long total = 2 * runs;
+        long done = 0;
+
+        json.beginObject();
+        json.name("export_info").beginObject()
+            .name("timestamp").value(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")))
+            .name("description").value("Complete Pizzeria Simulation Database Export")
+            .name("database_name").value("simu_project")
+            .name("total_simulation_runs").value(runs)
+            .endObject();
+
+        // First pass: the overview records
+        json.name("overview_statistics").beginArray();
+        int afterId = 0;
+        List<OverviewStatistics> page;
+        while (!(page = checked(overviewDao.findPage(afterId, maxId, PAGE_SIZE), "overview")).isEmpty()) {
+            for (OverviewStatistics stat : page) {
+                writeOverview(json, stat);
+            }
+            afterId = page.get(page.size() - 1).getId();
+            done += page.size();
+            progress.onProgress(done, total);
+        }
+        json.endArray();
+
+        // Second pass: the service point rows of each run
+        json.name("service_point_statistics").beginObject();
+        afterId = 0;
+        List<Integer> ids;
+        while (!(ids = checked(overviewDao.findIdPage(afterId, maxId, PAGE_SIZE), "overview")).isEmpty()) {
+            Map<Integer, List<ReceptionStatistics>> reception =
+                groupByOverviewId(receptionDao.findByOverviewIds(ids), ReceptionStatistics::getOverviewId, "reception");
+            Map<Integer, List<KitchenStatistics>> kitchen =
+                groupByOverviewId(kitchenDao.findByOverviewIds(ids), KitchenStatistics::getOverviewId, "kitchen");
+            Map<Integer, List<CounterStatistics>> counter =
+                groupByOverviewId(counterDao.findByOverviewIds(ids), CounterStatistics::getOverviewId, "counter");
+            Map<Integer, List<DeliveryStatistics>> delivery =
+                groupByOverviewId(deliveryDao.findByOverviewIds(ids), DeliveryStatistics::getOverviewId, "delivery");
+            for (int id : ids) {
+                json.name("simulation_run_" + id).beginObject();
+                json.name("reception_statistics").beginArray();
+                for (ReceptionStatistics s : reception.getOrDefault(id, Collections.emptyList())) {
+                    writeServicePoint(json, s.getId(), s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                        s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(), s.getAverageServiceTime(),
+                        s.getWaitingTime(), s.getAverageQueueLength(), s.getMeanValue(), s.getVarianceValue());
+                }
+                json.endArray();
+                json.name("kitchen_statistics").beginArray();
+                for (KitchenStatistics s : kitchen.getOrDefault(id, Collections.emptyList())) {
+                    writeServicePoint(json, s.getId(), s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                        s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(), s.getAverageServiceTime(),
+                        s.getWaitingTime(), s.getAverageQueueLength(), s.getMeanValue(), s.getVarianceValue());
+                }
+                json.endArray();
+                json.name("counter_statistics").beginArray();
+                for (CounterStatistics s : counter.getOrDefault(id, Collections.emptyList())) {
+                    writeServicePoint(json, s.getId(), s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                        s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(), s.getAverageServiceTime(),
+                        s.getWaitingTime(), s.getAverageQueueLength(), s.getMeanValue(), s.getVarianceValue());
+                }
+                json.endArray();
+                json.name("delivery_statistics").beginArray();
+                for (DeliveryStatistics s : delivery.getOrDefault(id, Collections.emptyList())) {
+                    writeServicePoint(json, s.getId(), s.getOverviewId(), s.getArrivedCustomers(), s.getServicedCustomers(),
+                        s.getServiceBusyTime(), s.getServiceUtilization(), s.getServiceThroughput(), s.getAverageServiceTime(),
+                        s.getWaitingTime(), s.getAverageQueueLength(), s.getMeanValue(), s.getVarianceValue());
+                }
+                json.endArray();
+                json.endObject();
+            }
+            afterId = ids.get(ids.size() - 1);
+            done += ids.size();
+            progress.onProgress(done, total);
+        }
+        json.endObject();
+        json.endObject();
+        return runs;
+    }
+
+    /**
+     * Writes one overview record, including its calculated metrics.
+     * @param json the writer of the document
+     * @param stat the overview record
+     * @throws IOException if writing fails
+     */
+    private static void writeOverview(JsonStreamWriter json, OverviewStatistics stat) throws IOException {
+        json.beginObject()
+            .name("id").value(stat.getId())
+            .name("simulation_time").value(stat.getSimulationTime())
+            .name("total_simulation_time").value(stat.getTotalSimulationTime())
+            .name("call_in_mean_time").value(stat.getCallInMeanTime())
+            .name("walk_in_mean_time").value(stat.getWalkInMeanTime())
+            .name("total_arrived_customers").value(stat.getTotalArrivedCustomers())
+            .name("total_serviced_customers").value(stat.getTotalServicedCustomers())
+            .name("refused_delivery_customers").value(stat.getRefusedDeliveryCustomers())
+            .name("return_money_customers").value(stat.getReturnMoneyCustomers())
+            .name("remake_orders_customers").value(stat.getRemakeOrdersCustomers())
+            .name("total_waiting_time").value(stat.getTotalWaitingTime())
+            .name("system_throughput").value(stat.getSystemThroughput())
+            .name("average_response_time").value(stat.getAverageResponseTime());
+        json.name("busy_time");
+        if (stat.getBusyTime() != null) {
+            json.value(stat.getBusyTime().floatValue());
+        } else {
+            json.nullValue();
+        }
+        json.name("calculated_metrics").beginObject()
+            .name("utilization").value(stat.getUtilization())
+            .name("throughput").value(stat.getThroughput())
+            .name("avg_response_time").value(stat.getAvgResponseTime())
+            .name("avg_queue_length").value(stat.getAvgQueueLength())
+            .endObject();
+        json.endObject();
+    }
+
+    /**
+     * Writes the fields shared by all service point statistics records.
+     * @param json the writer of the document
+     * @param id the record ID
+     * @param overviewId the overview ID
+     * @param arrivedCustomers number of arrived customers
+     * @param servicedCustomers number of serviced customers
+     * @param serviceBusyTime busy time
+     * @param serviceUtilization utilization
+     * @param serviceThroughput throughput
+     * @param averageServiceTime average service time
+     * @param waitingTime waiting time
+     * @param averageQueueLength average queue length
+     * @param meanValue mean value
+     * @param varianceValue variance value
+     * @throws IOException if writing fails
+     */
+    private static void writeServicePoint(JsonStreamWriter json, int id, int overviewId, int arrivedCustomers,
+                                          int servicedCustomers, float serviceBusyTime, float serviceUtilization,
+                                          float serviceThroughput, float averageServiceTime, float waitingTime,
+                                          float averageQueueLength, float meanValue, float varianceValue) throws IOException {
+        json.beginObject()
+            .name("id").value(id)
+            .name("overview_id").value(overviewId)
+            .name("arrived_customers").value(arrivedCustomers)
+            .name("serviced_customers").value(servicedCustomers)
+            .name("service_busy_time").value(serviceBusyTime)
+            .name("service_utilization").value(serviceUtilization)
+            .name("service_throughput").value(serviceThroughput)
+            .name("average_service_time").value(averageServiceTime)
+            .name("waiting_time").value(waitingTime)
+            .name("average_queue_length").value(averageQueueLength)
+            .name("mean_value").value(meanValue)
+            .name("variance_value").value(varianceValue)
+            .endObject();
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer for the file, compressing the output if the name ends in {@code .gz}.
+     * @param file the file
+     * @return the writer
+     * @throws IOException if the file cannot be opened
+     */
+    private static BufferedWriter openWriter(Path file) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the result of a DAO query, failing the export if the query failed.
+     * @param result the query result, null if the query failed
+     * @param table the name of the queried statistics, used in the error message
+     * @param <T> the result type
+     * @return the result
+     * @throws IOException if the query failed
+     */
+    private static <T> T checked(T result, String table) throws IOException {
+        if (result == null) {
+            throw new IOException("Could not read the " + table + " statistics");
+        }
+        return result;
+    }
+
+    /**
+     * Groups service point statistics by the overview record they belong to.
+     * @param statistics the statistics of a page of runs, or null if loading them failed
+     * @param overviewId returns the overview ID of a record
+     * @param table the name of the statistics, used in the error message
+     * @param <T> the statistics entity type
+     * @return the records of each overview ID, in their original order
+     * @throws IOException if the statistics could not be loaded
+     */
+    private static <T> Map<Integer, List<T>> groupByOverviewId(List<T> statistics, Function<T, Integer> overviewId,
+                                                               String table) throws IOException {
+        return checked(statistics, table).stream().collect(Collectors.groupingBy(overviewId));
+    }
+}
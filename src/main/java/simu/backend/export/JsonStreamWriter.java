@@ -0,0 +1,283 @@
+package simu.backend.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON writer producing indented output.
+ * <p>
+ * Values are written straight to the underlying writer as they are produced, so documents of any
+ * size are written in constant memory. Strings are escaped as required by the JSON specification,
+ * and numbers that JSON cannot represent (NaN and infinities) are written as {@code null}.
+ */
+public class JsonStreamWriter implements Closeable {
+    /** The writer the document is written to. */
+    private final Writer out;
+    /** The open objects and arrays, innermost first. */
+    private final Deque<Scope> scopes = new ArrayDeque<>();
+    /** Whether a name has been written and its value is expected next. */
+    private boolean afterName = false;
+
+    /**
+     * An open object or array.
+     */
+    private static class Scope {
+        /** Whether the scope is an object rather than an array. */
+        private final boolean object;
+        /** Number of members or elements written so far. */
+        private int count = 0;
+
+        /**
+         * Creates a scope.
+         * @param object true for an object, false for an array
+         */
+        private Scope(boolean object) {
+            this.object = object;
+        }
+    }
+
+    /**
+     * Creates a writer for the given output. The output should be buffered.
+     * @param out the output
+     */
+    public JsonStreamWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Starts an object.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        scopes.push(new Scope(true));
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter endObject() throws IOException {
+        return end(true, '}');
+    }
+
+    /**
+     * Starts an array.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        scopes.push(new Scope(false));
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter endArray() throws IOException {
+        return end(false, ']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        Scope scope = scopes.peek();
+        if (scope == null || !scope.object || afterName) {
+            throw new IllegalStateException("A name is only allowed inside an object, before a value");
+        }
+        if (scope.count++ > 0) {
+            out.write(',');
+        }
+        newline();
+        string(name);
+        out.write(": ");
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value.
+     * @param value the value, or null
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    /**
+     * Writes an integer value.
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a floating-point value with the shortest representation of a float.
+     * @param value the value; NaN and infinities are written as null
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter value(float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        out.write(Float.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a floating-point value.
+     * @param value the value; NaN and infinities are written as null
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the underlying writer.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes the separator and indentation before a value, unless the value follows a name.
+     * @throws IOException if writing fails
+     */
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        Scope scope = scopes.peek();
+        if (scope != null) {
+            if (scope.object) {
+                throw new IllegalStateException("A value inside an object needs a name");
+            }
+            if (scope.count++ > 0) {
+                out.write(',');
+            }
+            newline();
+        }
+    }
+
+    /**
+     * Ends the current object or array.
+     * @param object whether an object is expected to end
+     * @param bracket the closing bracket
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    private JsonStreamWriter end(boolean object, char bracket) throws IOException {
+        Scope scope = scopes.peek();
+        if (scope == null || scope.object != object || afterName) {
+            throw new IllegalStateException("Unbalanced " + bracket);
+        }
+        scopes.pop();
+        if (scope.count > 0) {
+            newline();
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    /**
+     * Starts a new line indented by the current nesting depth.
+     * @throws IOException if writing fails
+     */
+    private void newline() throws IOException {
+        out.write('\n');
+        for (int i = 0; i < scopes.size(); i++) {
+            out.write("  ");
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped string.
+     * @param value the string
+     * @throws IOException if writing fails
+     */
+    private void string(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(value, start, i - start);
+            out.write(escape);
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
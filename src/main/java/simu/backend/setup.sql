@@ -3,6 +3,7 @@ CREATE DATABASE simulation;
 USE simulation;
 
 -- Drop existing tables and recreate with clean schema
+DROP TABLE IF EXISTS project_metrics;
 DROP TABLE IF EXISTS delivery_statistics;
 DROP TABLE IF EXISTS counter_statistics;
 DROP TABLE IF EXISTS kitchen_statistics;
@@ -46,6 +47,7 @@ CREATE TABLE reception_statistics (
     mean_value FLOAT,                -- Mean value for distribution
     variance_value FLOAT,            -- Variance value for distribution
     
+    INDEX idx_reception_statistics_overview_id (overview_id),  -- Lookup of a run's rows for export
     FOREIGN KEY (overview_id) REFERENCES overview_statistics(id)
 );
 
@@ -66,6 +68,7 @@ CREATE TABLE kitchen_statistics (
     mean_value FLOAT,                -- Mean value for distribution
     variance_value FLOAT,            -- Variance value for distribution
     
+    INDEX idx_kitchen_statistics_overview_id (overview_id),  -- Lookup of a run's rows for export
     FOREIGN KEY (overview_id) REFERENCES overview_statistics(id)
 );
 
@@ -86,6 +89,7 @@ CREATE TABLE counter_statistics (
     mean_value FLOAT,                -- Mean value for distribution
     variance_value FLOAT,            -- Variance value for distribution
     
+    INDEX idx_counter_statistics_overview_id (overview_id),  -- Lookup of a run's rows for export
     FOREIGN KEY (overview_id) REFERENCES overview_statistics(id)
 );
 
@@ -106,5 +110,47 @@ CREATE TABLE delivery_statistics (
     mean_value FLOAT,                -- Mean value for distribution
     variance_value FLOAT,            -- Variance value for distribution
     
+    INDEX idx_delivery_statistics_overview_id (overview_id),  -- Lookup of a run's rows for export
     FOREIGN KEY (overview_id) REFERENCES overview_statistics(id)
-);
\ No newline at end of file
+);
+
+-- Per-run metrics with the performance telemetry of the engine
+CREATE TABLE project_metrics (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    run_id VARCHAR(36) NOT NULL UNIQUE,  -- Unique identifier of the run
+    run_timestamp DATETIME,          -- When the run was recorded
+    overview_id INT,                 -- Overview statistics of the run
+
+    -- Results of the run
+    simulation_duration DOUBLE,      -- Configured simulation time
+    arrival_count INT,               -- Customers who arrived
+    completed_count INT,             -- Customers serviced
+    walk_in_customers INT,           -- Walk-in customers
+    call_in_customers INT,           -- Call-in customers
+    payment_failures INT,            -- Failed payments
+    successful_deliveries INT,       -- Successful deliveries
+    failed_deliveries INT,           -- Refused deliveries
+    busy_time DOUBLE,                -- Total busy time of the service points
+    total_time DOUBLE,               -- Simulation time reached
+    cumulative_response_time DOUBLE, -- Sum of all waiting times
+    utilization DOUBLE,              -- Busy time as percentage of total time
+    throughput DOUBLE,               -- Customers serviced per time unit
+    customers_per_hour DOUBLE,       -- Customers serviced per hour
+    avg_service_time DOUBLE,         -- Busy time per serviced customer
+    avg_response_time DOUBLE,        -- Waiting time per serviced customer
+    avg_queue_length DOUBLE,         -- Waiting time per time unit
+    payment_success_rate DOUBLE,     -- Successful payments as percentage
+    delivery_success_rate DOUBLE,    -- Successful deliveries as percentage
+
+    -- Performance telemetry of the engine
+    wall_clock_ms BIGINT,            -- Wall-clock duration of the run
+    events_processed BIGINT,         -- Events processed by the engine
+    events_per_second DOUBLE,        -- Events processed per wall-clock second
+    peak_event_list_size INT,        -- Highest number of pending events
+    peak_heap_bytes BIGINT,          -- Peak heap usage of the JVM during the run
+    gc_time_ms BIGINT,               -- Garbage collection time of the JVM during the run
+    gc_count BIGINT,                 -- Garbage collections of the JVM during the run
+
+    INDEX idx_project_metrics_overview_id (overview_id),  -- Lookup of a run's telemetry
+    FOREIGN KEY (overview_id) REFERENCES overview_statistics(id)
+);
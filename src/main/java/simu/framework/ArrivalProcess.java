@@ -2,19 +2,24 @@
 /**
  * ArrivalProcess is responsible for generating arrival events in the simulation.
  * It uses a continuous random generator to determine the time between arrivals and
- * schedules new events of a specified type into the event list.
+ * either schedules new events of a specified type into the event list, or acts as an
+ * {@link EventStream} that the event list merges lazily without heap insertions.
  *
  * @author (your name)
  */
 package simu.framework;
 import eduni.distributions.*;
-import simu.model.EventType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.LongSupplier;
 
 
 /**
  * Handles the generation of arrival events for the simulation using a random generator.
  */
-public class ArrivalProcess {
+public class ArrivalProcess implements EventStream {
 
 	/** Random generator for inter-arrival times. */
 	private ContinuousGenerator generator;
@@ -23,7 +28,13 @@ public class ArrivalProcess {
 	private EventList eventList;
 
 	/** The type of event to generate. */
-	private EventType type;
+	private IEventType type;
+
+	/** Time of the next arrival when used as an event stream. */
+	private double nextTime;
+
+	/** Whether the first arrival of the stream has been sampled. */
+	private boolean streamStarted = false;
 
 
 	/**
@@ -33,7 +44,7 @@ public class ArrivalProcess {
 	 * @param tl the event list to which new events are added
 	 * @param type the type of event to generate
 	 */
-	public ArrivalProcess(ContinuousGenerator g, EventList tl, EventType type) {
+	public ArrivalProcess(ContinuousGenerator g, EventList tl, IEventType type) {
 		this.generator = g;
 		this.eventList = tl;
 		this.type = type;
@@ -42,12 +53,97 @@ public class ArrivalProcess {
 
 	/**
 	 * Generates the next arrival event and adds it to the event list.
-	 * The event is scheduled at the current simulation time plus a sampled inter-arrival time.
+	 * The event is scheduled at the time returned by {@link #nextArrivalTime(double)}.
+	 * If the process will never produce another arrival, nothing is scheduled.
 	 */
 	public void generateNext() {
-		Event t = new Event(type, Clock.getInstance().getTime() + generator.sample());
+		double time = nextArrivalTime(Clock.getInstance().getTime());
+		if (time == Double.POSITIVE_INFINITY) {
+			return;
+		}
+		Event t = new Event(type, time);
 		eventList.add(t);
 	}
 
 
+	/**
+	 * Returns the time of the next arrival when this process is used as an event stream.
+	 * The first arrival is sampled lazily relative to the current simulation time.
+	 * @return the next arrival time, or {@code Double.POSITIVE_INFINITY} if there is none
+	 */
+	@Override
+	public double getNextTime() {
+		if (!streamStarted) {
+			nextTime = nextArrivalTime(Clock.getInstance().getTime());
+			streamStarted = true;
+		}
+		return nextTime;
+	}
+
+
+	/**
+	 * Returns the pending arrival event and samples the one after it.
+	 * @return the next arrival event
+	 */
+	@Override
+	public Event next() {
+		Event t = new Event(type, getNextTime());
+		nextTime = nextArrivalTime(nextTime);
+		return t;
+	}
+
+
+	/**
+	 * Computes the time of the next arrival after the given time.
+	 * The default implementation adds a sampled inter-arrival time; subclasses may override
+	 * this to model time-varying arrival rates.
+	 *
+	 * @param from the time of the previous arrival (usually the current simulation time)
+	 * @return the time of the next arrival, or {@code Double.POSITIVE_INFINITY} if there is none
+	 */
+	protected double nextArrivalTime(double from) {
+		return from + generator.sample();
+	}
+
+
+	/**
+	 * Reseeds the random generator. An arrival already sampled by the stream is kept.
+	 * @param seeds supplies the new seed
+	 */
+	public void reseed(LongSupplier seeds) {
+		generator.setSeed(seeds.getAsLong());
+	}
+
+
+	/**
+	 * Writes the random generator state and the pending stream arrival to a checkpoint.
+	 * @param out the checkpoint output
+	 * @throws IOException if writing fails
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		out.writeLong(generator.getSeed());
+		out.writeBoolean(streamStarted);
+		out.writeDouble(nextTime);
+	}
+
+
+	/**
+	 * Restores the state written by {@link #writeState(DataOutput)}.
+	 * @param in the checkpoint input
+	 * @throws IOException if reading fails
+	 */
+	public void readState(DataInput in) throws IOException {
+		generator.setSeed(in.readLong());
+		streamStarted = in.readBoolean();
+		nextTime = in.readDouble();
+	}
+
+
+	/**
+	 * Returns the random generator used by this arrival process.
+	 * @return the random generator
+	 */
+	protected ContinuousGenerator getGenerator() {
+		return generator;
+	}
 }
@@ -29,9 +29,14 @@ public class Clock {
 
 	/**
 	 * Returns the singleton instance of Clock. If it does not exist, creates a new one.
+	 * Threads running in a {@link SimulationContext} get the clock of their context.
 	 * @return the singleton instance of Clock
 	 */
 	public static Clock getInstance(){
+		SimulationContext context = SimulationContext.current();
+		if (context != null) {
+			return context.getInstance(Clock.class, Clock::new);
+		}
 		if (instance == null){
 			instance = new Clock();
 		}
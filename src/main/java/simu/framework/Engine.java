@@ -1,17 +1,50 @@
 package simu.framework;
 
+import simu.framework.monitoring.EngineMetrics;
+import simu.framework.monitoring.EventDispatchEvent;
+import simu.framework.monitoring.HandlerProfiler;
+import simu.framework.monitoring.RunTelemetry;
+import simu.framework.statistics.ServicePointStatistics;
 import simu.framework.statistics.SimulationStatistics;
 import simu.model.ServicePoint;
 import controller.Controller;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
 /**
  * Engine is an abstract base class for simulation engines. It manages the simulation loop,
  * event processing, service points, and provides pause/resume functionality. Subclasses must
- * implement initialization, event handling, and results processing.
+ * implement initialization and results processing, and register a handler for each of their
+ * event types in the {@link EventHandlerRegistry}, through which events are dispatched by ordinal.
+ * <p>
+ * The complete engine state can be saved to a compact binary checkpoint file and restored later,
+ * so that long runs can be resumed, or re-run from a known point, after a process restart.
+ * While the simulation runs, its live {@link EngineMetrics} are registered as a JMX MBean, and the
+ * event handlers can be profiled by a {@link HandlerProfiler}.
  *
  * @author (your name)
  */
 public abstract class Engine extends Thread implements IEngine {
+	/** Magic number at the start of every checkpoint file ("SIMC"). */
+	public static final int CHECKPOINT_MAGIC = 0x53494D43;
+	/** Version of the checkpoint file format. */
+	public static final int CHECKPOINT_VERSION = 1;
 	/** Time when the simulation will be stopped. */
 	private double simulationTime = 0;
 	/** Delay in milliseconds between simulation steps. */
@@ -26,11 +59,29 @@ public abstract class Engine extends Thread implements IEngine {
 	protected EventList eventList;
 	/** Array of service points in the simulation. */
 	protected ServicePoint[] servicePoints;
+	/** Handlers of the model's event types, used by the default {@link #runEvent(Event)}. */
+	protected final EventHandlerRegistry handlers = new EventHandlerRegistry();
 	// Pause/Resume functionality
 	/** Indicates if the simulation is currently paused. */
 	private volatile boolean isPaused = false;
 	/** Lock object for pause/resume synchronization. */
 	private final Object pauseLock = new Object();
+	/** Optional recorder that logs every processed event, or null if events are not recorded. */
+	private EventLogRecorder eventRecorder;
+	/** Tasks to run on the simulation thread between simulation steps, guarded by pauseLock. */
+	private final ArrayDeque<Runnable> stepTasks = new ArrayDeque<>();
+	/** Whether the simulation loop is running, guarded by pauseLock. */
+	private boolean running = false;
+	/** The error that ended the simulation loop in the middle of a step, or null; guarded by pauseLock. */
+	private Throwable loopFailure;
+	/** Whether the state was restored from a checkpoint, in which case initialization is skipped. */
+	private boolean restored = false;
+	/** Live metrics of the running simulation, or null before it is started. */
+	private volatile EngineMetrics metrics;
+	/** Profiler of the event handlers, or null if profiling is disabled. */
+	private HandlerProfiler profiler;
+	/** Performance telemetry of the run, or null before the simulation is started. */
+	private volatile RunTelemetry telemetry;
 
 	/**
 	 * Constructs an Engine with the given controller. Service points are created in subclasses.
@@ -40,9 +91,19 @@ public abstract class Engine extends Thread implements IEngine {
 		this.controller = controller;
 		clock = Clock.getInstance();
 		eventList = new EventList();
+		profiler = HandlerProfiler.fromSystemProperties();
 		/* Service Points are created in simu.model-package's class who is inheriting the Engine class */
 	}
 
+	/**
+	 * Sets the profiler of the event handlers, which reports where the engine spent its time
+	 * when the simulation ends. Must be called before the simulation is started.
+	 * @param profiler the profiler, or null to disable profiling
+	 */
+	public void setProfiler(HandlerProfiler profiler) {
+		this.profiler = profiler;
+	}
+
 	/**
 	 * Sets the simulation time limit. Also updates the statistics configuration.
 	 * @param time the simulation time limit
@@ -72,6 +133,15 @@ public abstract class Engine extends Thread implements IEngine {
 		return delay;
 	}
 
+	/**
+	 * Sets the recorder that logs every processed event. The engine closes the recorder
+	 * when the simulation ends. Must be called before the simulation is started.
+	 * @param eventRecorder the event recorder, or null to disable recording
+	 */
+	public void setEventRecorder(EventLogRecorder eventRecorder) {
+		this.eventRecorder = eventRecorder;
+	}
+
 	/**
 	 * Pauses the simulation. The simulation thread will wait until resumed.
 	 */
@@ -102,57 +172,434 @@ public abstract class Engine extends Thread implements IEngine {
 	/**
 	 * The main simulation loop. Handles initialization, event processing, and results.
 	 * Supports pause/resume functionality.
+	 * <p>
+	 * However the loop ends, tasks still waiting to run between steps are run before it returns.
+	 * If the loop ended with an error in the middle of a step, snapshots and checkpoints requested
+	 * from then on fail instead of saving the inconsistent state.
 	 */
 	@Override
 	public void run() {
-		initialization(); // creating, e.g., the first event
+		synchronized (pauseLock) {
+			running = true;
+			loopFailure = null;
+		}
+		if (!restored) {
+			initialization(); // creating, e.g., the first event
+		}
+		telemetry = new RunTelemetry();
+		metrics = new EngineMetrics(servicePoints, clock.getTime());
+		metrics.setStatistics(simulationStatistics, getServicePointStatistics());
+		metrics.register();
 
-		while (simulate()){
-			// Check if paused
-			synchronized (pauseLock) {
-				while (isPaused) {
-					try {
-						pauseLock.wait();
-					} catch (InterruptedException e) {
-						// If interrupted while paused, exit gracefully
-						return;
+		Throwable failure = null;
+		try {
+			while (simulate()){
+				// Check if paused, and run requested tasks such as checkpoints between simulation steps
+				synchronized (pauseLock) {
+					while (isPaused || !stepTasks.isEmpty()) {
+						if (!stepTasks.isEmpty()) {
+							stepTasks.poll().run();
+							continue;
+						}
+						try {
+							pauseLock.wait();
+						} catch (InterruptedException e) {
+							// If interrupted while paused, exit gracefully
+							closeEventRecorder();
+							return;
+						}
 					}
 				}
+
+				delay(); // NEW
+				metrics.advanceTo(currentTime());
+				clock.setTime(currentTime());
+				int processed = runBEvents();
+				tryCEvents();
+				metrics.stepCompleted(processed, eventList.size());
+				telemetry.stepCompleted();
+			}
+
+			telemetry.finish(metrics.getEventsProcessed(), metrics.getPeakPendingEvents());
+			results();
+			closeEventRecorder();
+			if (profiler != null) {
+				profiler.report("engine " + metrics.getId() + " (" + metrics.getSimulation() + ")");
+			}
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			throw e;
+		} finally {
+			// The state is final now, so tasks requested during the last step can still run or fail
+			synchronized (pauseLock) {
+				loopFailure = failure;
+				running = false;
+				while (!stepTasks.isEmpty()) {
+					stepTasks.poll().run();
+				}
+			}
+			metrics.unregister();
+		}
+	}
+
+	/**
+	 * Returns the performance telemetry of the run. It is finished before {@link #results()} is called,
+	 * so subclasses can save it with the results.
+	 * @return the telemetry, or null if the simulation has not been started
+	 */
+	public RunTelemetry getTelemetry() {
+		return telemetry;
+	}
+
+	/**
+	 * Returns the live metrics of the engine, published as an MBean while the simulation runs.
+	 * @return the metrics, or null if the simulation has not been started
+	 */
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Runs a task on the simulation thread between two simulation steps, when the simulation
+	 * state is consistent; this also works while the simulation is paused. If the simulation loop
+	 * is not running, the task is run immediately on the calling thread.
+	 * @param task the task to run
+	 */
+	public void runBetweenSteps(Runnable task) {
+		synchronized (pauseLock) {
+			if (running) {
+				stepTasks.add(task);
+				pauseLock.notifyAll();
+				return;
+			}
+		}
+		task.run();
+	}
+
+	/**
+	 * Requests a checkpoint of the simulation. The simulation thread writes it before the next
+	 * simulation step, also while the simulation is paused.
+	 * @param file the checkpoint file to write
+	 */
+	public void requestCheckpoint(Path file) {
+		runBetweenSteps(() -> {
+			try {
+				checkConsistent();
+				saveCheckpoint(file);
+				Trace.out(Trace.Level.INFO, "Checkpoint written to " + file + " at time " + clock.getTime());
+			} catch (IOException | IllegalStateException e) {
+				Trace.out(Trace.Level.ERR, "Error writing checkpoint " + file + ": " + e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Requests an in-memory snapshot of the simulation, taken between two simulation steps.
+	 * The snapshot has the checkpoint format and can be restored in the same way as a checkpoint file.
+	 * @return a future completed with the snapshot, or completed exceptionally if the simulation
+	 * loop ended with an error
+	 */
+	public CompletableFuture<byte[]> requestSnapshot() {
+		CompletableFuture<byte[]> snapshot = new CompletableFuture<>();
+		runBetweenSteps(() -> {
+			try {
+				checkConsistent();
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				saveCheckpoint(bytes);
+				snapshot.complete(bytes.toByteArray());
+			} catch (IOException | RuntimeException e) {
+				snapshot.completeExceptionally(e);
+			}
+		});
+		return snapshot;
+	}
+
+	/**
+	 * Checks that the simulation state can be saved, i.e. that the simulation loop did not end
+	 * with an error in the middle of a step.
+	 * @throws IllegalStateException if the simulation loop ended with an error
+	 */
+	private void checkConsistent() {
+		synchronized (pauseLock) {
+			if (loopFailure != null) {
+				throw new IllegalStateException("Simulation ended with an error: " + loopFailure, loopFailure);
+			}
+		}
+	}
+
+	/**
+	 * Saves the complete simulation state to a checkpoint file. Must be called from the simulation
+	 * thread or while the simulation thread is not running; use {@link #requestCheckpoint(Path)}
+	 * to checkpoint a running simulation.
+	 * @param file the checkpoint file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void saveCheckpoint(Path file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			saveCheckpoint(out);
+		}
+	}
+
+	/**
+	 * Writes the complete simulation state in the checkpoint format to a stream.
+	 * The same threading rules apply as for {@link #saveCheckpoint(Path)}.
+	 * @param stream the stream to write to; it is flushed but not closed
+	 * @throws IOException if writing fails
+	 */
+	public void saveCheckpoint(OutputStream stream) throws IOException {
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(CHECKPOINT_MAGIC);
+		out.writeInt(CHECKPOINT_VERSION);
+		writeConfiguration(out);
+		writeState(out);
+		out.flush();
+	}
+
+	/**
+	 * Opens a checkpoint file for restoring and checks its header. Subclasses read the configuration
+	 * written by {@link #writeConfiguration(DataOutput)}, create the engine from it and then call
+	 * {@link #readState(DataInput)}.
+	 * @param file the checkpoint file to read
+	 * @return the checkpoint input, positioned at the configuration
+	 * @throws IOException if the file cannot be read or is not a checkpoint
+	 */
+	protected static DataInputStream openCheckpoint(Path file) throws IOException {
+		return openCheckpoint(new BufferedInputStream(Files.newInputStream(file)), file.toString());
+	}
+
+	/**
+	 * Checks the header of a checkpoint read from a stream.
+	 * @param stream the checkpoint stream, closed if the header is invalid
+	 * @param name the name of the checkpoint for error messages
+	 * @return the checkpoint input, positioned at the configuration
+	 * @throws IOException if the stream cannot be read or is not a checkpoint
+	 */
+	protected static DataInputStream openCheckpoint(InputStream stream, String name) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		try {
+			if (in.readInt() != CHECKPOINT_MAGIC) {
+				throw new IOException("Not a simulation checkpoint: " + name);
 			}
+			int version = in.readInt();
+			if (version != CHECKPOINT_VERSION) {
+				throw new IOException("Unsupported checkpoint version " + version + ": " + name);
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		return in;
+	}
+
+	/**
+	 * Writes the configuration needed to create the engine before its state can be restored,
+	 * such as service time parameters and statistics. The default implementation writes nothing.
+	 * @param out the checkpoint output
+	 * @throws IOException if writing fails
+	 */
+	protected void writeConfiguration(DataOutput out) throws IOException {
+	}
+
+	/**
+	 * Writes the engine state: clock time, simulation time limit, pending events and the state
+	 * of every service point. Subclasses with additional state override this and call the
+	 * superclass method first.
+	 * @param out the checkpoint output
+	 * @throws IOException if writing fails
+	 */
+	protected void writeState(DataOutput out) throws IOException {
+		out.writeDouble(clock.getTime());
+		out.writeDouble(simulationTime);
+		eventList.writeState(out);
+		for (ServicePoint p : servicePoints) {
+			p.writeState(out);
+		}
+	}
+
+	/**
+	 * Restores the state written by {@link #writeState(DataOutput)}. The simulation then continues
+	 * from the restored state when started, without calling {@link #initialization()}.
+	 * @param in the checkpoint input
+	 * @throws IOException if reading fails
+	 */
+	protected void readState(DataInput in) throws IOException {
+		clock.setTime(in.readDouble());
+		simulationTime = in.readDouble();
+		eventList.readState(in, getEventTypes());
+		for (ServicePoint p : servicePoints) {
+			p.readState(in);
+		}
+		restored = true;
+	}
+
+	/**
+	 * Reseeds every random number stream of the simulation with seeds derived from the given
+	 * seed, e.g. to give each branch of a forked simulation its own independent streams.
+	 * Subclasses with further random streams override this and call the superclass method first.
+	 * @param seed the seed from which the stream seeds are derived
+	 */
+	public void reseed(long seed) {
+		reseed(seedSequence(seed));
+	}
 
-			delay(); // NEW
-			clock.setTime(currentTime());
-			runBEvents();
-			tryCEvents();
+	/**
+	 * Reseeds the random number streams of the service points from the given seed sequence.
+	 * @param seeds supplies a new seed for each stream
+	 */
+	protected void reseed(LongSupplier seeds) {
+		for (ServicePoint p : servicePoints) {
+			p.reseed(seeds);
 		}
+	}
+
+	/**
+	 * Creates a sequence of well-mixed seeds for the framework's random generators. The generators
+	 * are linear congruential generators, for which neighbouring seeds give correlated streams,
+	 * so the seeds are drawn from a SplittableRandom and mapped into the generator's seed range.
+	 * @param seed the seed of the sequence
+	 * @return a supplier of seeds in {@code [1, 2^31 - 2]}
+	 */
+	public static LongSupplier seedSequence(long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		return () -> 1 + random.nextLong(2147483646L);
+	}
 
-		results();
+	/**
+	 * Returns the service points of the simulation.
+	 * @return the service points
+	 */
+	public ServicePoint[] getServicePoints() {
+		return servicePoints;
 	}
 
+	/**
+	 * Returns the statistics of the service points, exported with the engine metrics. The default
+	 * implementation returns none; subclasses return the statistics objects of their model.
+	 * @return the service point statistics by name
+	 */
+	protected Map<String, ServicePointStatistics> getServicePointStatistics() {
+		return Map.of();
+	}
+
+	/**
+	 * Returns all event types of the model, indexed by ordinal, for restoring pending events.
+	 * @return the event types
+	 */
+	protected abstract IEventType[] getEventTypes();
+
 	/**
 	 * Processes all B-type events scheduled for the current simulation time.
+	 * @return the number of processed events
 	 */
-	private void runBEvents() {
+	private int runBEvents() {
+		int processed = 0;
 		while (eventList.getNextTime() == clock.getTime()){
+			processed++;
 			Event event = eventList.remove();
+			if (eventRecorder != null) {
+				recordEvent(event);
+			}
             Trace.out(Trace.Level.INFO, "\nTime is: " + clock.getTime());
             Trace.out(Trace.Level.INFO, "Running event: " + event.getType());
-            runEvent(event);
+			EventDispatchEvent dispatch = new EventDispatchEvent();
+			if (dispatch.isEnabled()) {
+				// The customer can only be told before the handler takes the event's customer off its queue
+				dispatch.eventType = String.valueOf(event.getType());
+				dispatch.simTime = event.getTime();
+				dispatch.customerId = customerIdOf(event);
+			}
+			dispatch.begin();
+			if (profiler != null) {
+				profiler.begin();
+				runEvent(event);
+				profiler.end(event.getType(), "event");
+			} else {
+				runEvent(event);
+			}
+			dispatch.end();
+			if (dispatch.shouldCommit()) {
+				dispatch.commit();
+			}
+		}
+		return processed;
+	}
+
+	/**
+	 * Writes the event to the event log. Recording is disabled if the log cannot be written.
+	 * @param event the event about to be processed
+	 */
+	private void recordEvent(Event event) {
+		try {
+			eventRecorder.record(event, customerIdOf(event), servicePointIndexOf(event));
+		} catch (IOException e) {
+			Trace.out(Trace.Level.ERR, "Event log recording failed, recording disabled: " + e.getMessage());
+			closeEventRecorder();
+		}
+	}
+
+	/**
+	 * Closes the event recorder, if any.
+	 */
+	private void closeEventRecorder() {
+		if (eventRecorder == null) {
+			return;
+		}
+		try {
+			eventRecorder.close();
+			Trace.out(Trace.Level.INFO, "Event log closed with " + eventRecorder.getRecordCount() + " events");
+		} catch (IOException e) {
+			Trace.out(Trace.Level.ERR, "Error closing event log: " + e.getMessage());
 		}
+		eventRecorder = null;
+	}
+
+	/**
+	 * Returns the id of the customer an event concerns, for the event log. Called before the event
+	 * is processed. The default implementation uses the customer attached to the event.
+	 * @param event the event about to be processed
+	 * @return the customer id, or -1 if not known
+	 */
+	protected int customerIdOf(Event event) {
+		return event.getCustomer() != null ? event.getCustomer().getId() : -1;
+	}
+
+	/**
+	 * Returns the index of the service point an event concerns, for the event log.
+	 * Called before the event is processed. The default implementation returns the index
+	 * registered with the handler of the event type.
+	 * @param event the event about to be processed
+	 * @return the service point index, or -1 if not known
+	 */
+	protected int servicePointIndexOf(Event event) {
+		return handlers.getServicePointIndex(event.getType());
 	}
 
 	/**
 	 * Attempts to start service at all service points that are not reserved and have a queue.
-	 * Can be overridden by subclasses for custom logic.
+	 * Can be overridden by subclasses for custom logic, which start services with {@link #beginService(ServicePoint)}.
 	 */
-	private void tryCEvents() {    // define protected, if you want to overwrite
+	protected void tryCEvents() {
 		for (ServicePoint p: servicePoints){
 			if (!p.isReserved() && p.isOnQueue()){
-				p.beginService();
+				beginService(p);
 			}
 		}
 	}
 
+	/**
+	 * Begins a service at a service point, measured by the profiler if profiling is enabled.
+	 * @param p the service point
+	 */
+	protected final void beginService(ServicePoint p) {
+		if (profiler != null) {
+			profiler.begin();
+			p.beginService();
+			profiler.end(p, "beginService");
+		} else {
+			p.beginService();
+		}
+	}
+
 	/**
 	 * Returns the time of the next scheduled event.
 	 * @return the next event time
@@ -188,10 +635,23 @@ public abstract class Engine extends Thread implements IEngine {
 	protected abstract void initialization(); 	// Defined in simu.model-package's class who is inheriting the Engine class
 
 	/**
-	 * Handles the execution of a single event. Must be implemented by subclasses.
+	 * Handles the execution of a single event. The default implementation dispatches it to the
+	 * handler registered for its type in {@link #handlers}.
 	 * @param t the event to process
+	 * @throws IllegalStateException if no handler is registered for the type of the event
 	 */
-	protected abstract void runEvent(Event t);	// Defined in simu.model-package's class who is inheriting the Engine class
+	protected void runEvent(Event t) {
+		handlers.dispatch(t);
+	}
+
+	/**
+	 * Returns the registry of the event handlers, with which model code can add handlers of new
+	 * event types without changing the engine. Must be used before the simulation is started.
+	 * @return the handler registry
+	 */
+	public EventHandlerRegistry getHandlers() {
+		return handlers;
+	}
 
 	/**
 	 * Processes and outputs simulation results. Must be implemented by subclasses.
@@ -0,0 +1,13 @@
+package simu.framework;
+
+/**
+ * Handler of the events of one event type, registered with an {@link EventHandlerRegistry}.
+ */
+@FunctionalInterface
+public interface EventHandler {
+	/**
+	 * Processes an event. Called by the engine in the B phase, with the clock set to the event's time.
+	 * @param event the event to process
+	 */
+	void handle(Event event);
+}
@@ -0,0 +1,84 @@
+package simu.framework;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the event handlers of a model, indexed by event type ordinal, so that dispatching an
+ * event is a single array lookup instead of a switch over the event types.
+ * <p>
+ * Model code registers a handler for every event type it schedules, together with the index of the
+ * service point the event concerns, which is written to the event log. Event types of any
+ * {@link IEventType} implementation can be registered, as long as their ordinals are unique within
+ * the model; the tables grow to the highest registered ordinal.
+ */
+public class EventHandlerRegistry {
+	/** Handlers by event type ordinal; null where no handler is registered. */
+	private EventHandler[] handlers = new EventHandler[0];
+	/** Service point indices by event type ordinal; -1 where not known. */
+	private int[] servicePointIndices = new int[0];
+
+	/**
+	 * Registers the handler of an event type that does not concern a particular service point.
+	 * @param type the event type
+	 * @param handler the handler of its events
+	 * @throws IllegalStateException if a handler is already registered for the ordinal of the type
+	 */
+	public void register(IEventType type, EventHandler handler) {
+		register(type, -1, handler);
+	}
+
+	/**
+	 * Registers the handler of an event type.
+	 * @param type the event type
+	 * @param servicePointIndex the index of the service point its events concern, or -1 if none
+	 * @param handler the handler of its events
+	 * @throws IllegalStateException if a handler is already registered for the ordinal of the type
+	 */
+	public void register(IEventType type, int servicePointIndex, EventHandler handler) {
+		int ordinal = type.ordinal();
+		if (ordinal >= handlers.length) {
+			int length = Math.max(ordinal + 1, handlers.length * 2);
+			handlers = Arrays.copyOf(handlers, length);
+			int oldLength = servicePointIndices.length;
+			servicePointIndices = Arrays.copyOf(servicePointIndices, length);
+			Arrays.fill(servicePointIndices, oldLength, length, -1);
+		}
+		if (handlers[ordinal] != null) {
+			throw new IllegalStateException("Handler already registered for event type ordinal " + ordinal + " (" + type.name() + ")");
+		}
+		handlers[ordinal] = handler;
+		servicePointIndices[ordinal] = servicePointIndex;
+	}
+
+	/**
+	 * Processes an event with the handler of its type.
+	 * @param event the event to process
+	 * @throws IllegalStateException if no handler is registered for the type of the event
+	 */
+	public void dispatch(Event event) {
+		int ordinal = event.getType().ordinal();
+		EventHandler handler = ordinal < handlers.length ? handlers[ordinal] : null;
+		if (handler == null) {
+			throw new IllegalStateException("No handler registered for event type " + event.getType());
+		}
+		handler.handle(event);
+	}
+
+	/**
+	 * Returns whether a handler is registered for an event type.
+	 * @param type the event type
+	 * @return true if events of the type can be dispatched
+	 */
+	public boolean isRegistered(IEventType type) {
+		return type.ordinal() < handlers.length && handlers[type.ordinal()] != null;
+	}
+
+	/**
+	 * Returns the index of the service point the events of a type concern.
+	 * @param type the event type
+	 * @return the service point index, or -1 if not known
+	 */
+	public int getServicePointIndex(IEventType type) {
+		return type.ordinal() < servicePointIndices.length ? servicePointIndices[type.ordinal()] : -1;
+	}
+}
@@ -1,31 +1,56 @@
 package simu.framework;
 
+import simu.model.Customer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
 import java.util.PriorityQueue;
 
 /**
  * EventList manages a priority queue of simulation events, providing methods to add,
  * remove, and inspect the next scheduled event. Events are ordered by their scheduled time.
+ * <p>
+ * In addition to the event heap, the list merges any number of {@link EventStream}s (such as
+ * arrival processes) at removal time. Only the stream heads are kept in a small heap of their
+ * own, so stream events cost no insertion into or removal from the main event heap.
  *
  * @author (your name)
  */
 public class EventList {
 	/** Priority queue for storing events in time order. */
 	private PriorityQueue<Event> list = new PriorityQueue<Event>();
-	
+
+	/** Registered event streams, ordered by the time of their next event. */
+	private PriorityQueue<EventStream> streams = new PriorityQueue<EventStream>(
+			Comparator.comparingDouble(EventStream::getNextTime));
+
 	/**
 	 * Constructs an empty EventList.
 	 */
 	public EventList() {
 	}
-	
+
 	/**
-	 * Removes and returns the event with the earliest scheduled time.
+	 * Removes and returns the event with the earliest scheduled time, taking it either from
+	 * the event heap or from the head of the earliest event stream. On equal times, events
+	 * from the heap are returned first.
 	 * @return the earliest event in the list
 	 */
 	public Event remove(){
+		EventStream stream = streams.peek();
+		if (stream != null && (list.isEmpty() || stream.getNextTime() < list.peek().getTime())) {
+			streams.poll();
+			Event event = stream.next();
+			if (stream.getNextTime() != Double.POSITIVE_INFINITY) {
+				streams.add(stream);
+			}
+			return event;
+		}
 		return list.remove();
 	}
-	
+
 	/**
 	 * Adds an event to the event list, maintaining time order.
 	 * @param t the event to add
@@ -33,17 +58,85 @@ public class EventList {
 	public void add(Event t){
 		list.add(t);
 	}
-	
+
+	/**
+	 * Registers an event stream whose events are merged into this list in time order.
+	 * Exhausted streams are ignored.
+	 * @param stream the event stream to add
+	 */
+	public void addStream(EventStream stream){
+		if (stream.getNextTime() != Double.POSITIVE_INFINITY) {
+			streams.add(stream);
+		}
+	}
+
 	/**
 	 * Returns the scheduled time of the next event in the list.
 	 * @return the time of the next event
 	 */
 	public double getNextTime(){
-		return list.peek().getTime();
+		EventStream stream = streams.peek();
+		if (stream == null) {
+			return list.peek().getTime();
+		}
+		if (list.isEmpty()) {
+			return stream.getNextTime();
+		}
+		return Math.min(list.peek().getTime(), stream.getNextTime());
+	}
+
+	/**
+	 * Returns the number of pending events: the events in the heap plus the next event of each
+	 * registered stream.
+	 * @return the number of pending events
+	 */
+	public int size(){
+		return list.size() + streams.size();
+	}
+
+	/**
+	 * Writes all pending events of the heap to a checkpoint. Registered streams are not written;
+	 * their owners checkpoint them and register them again on restore.
+	 * <p>
+	 * Events are written in the heap's internal order. Adding them back in the same order
+	 * rebuilds an identical heap, so events with equal times are restored in the same order.
+	 * @param out the checkpoint output
+	 * @throws IOException if writing fails
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		out.writeInt(list.size());
+		for (Event event : list) {
+			out.writeDouble(event.getTime());
+			out.writeInt(event.getType().ordinal());
+			out.writeBoolean(event.getCustomer() != null);
+			if (event.getCustomer() != null) {
+				event.getCustomer().writeState(out);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the pending events of the heap with those written by {@link #writeState(DataOutput)}.
+	 * Registered streams are removed.
+	 * @param in the checkpoint input
+	 * @param types the event types, indexed by ordinal
+	 * @throws IOException if reading fails
+	 */
+	public void readState(DataInput in, IEventType[] types) throws IOException {
+		list.clear();
+		streams.clear();
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			double time = in.readDouble();
+			IEventType type = types[in.readInt()];
+			Customer customer = in.readBoolean() ? Customer.readState(in) : null;
+			list.add(new Event(type, time, customer));
+		}
 	}
 
     /**
      * Returns the underlying priority queue of events (for testing purposes).
+     * Events of registered streams are not included.
      * @return the event priority queue
      */
     public PriorityQueue<Event> getEventList() {
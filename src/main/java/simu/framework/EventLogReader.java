@@ -0,0 +1,164 @@
+package simu.framework;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EventLogReader reads event logs written by {@link EventLogRecorder} for offline analysis.
+ * Records are visited in order with {@link #next()}, after which the fields of the current
+ * record are available from the getters. Records can also be accessed directly with {@link #seek(long)}.
+ * <p>
+ * If the log was not closed properly, the record count is derived from the file size.
+ *
+ * @author (your name)
+ */
+public class EventLogReader implements Closeable {
+	/** Channel of the log file. */
+	private final FileChannel channel;
+	/** Number of records in the log. */
+	private final long recordCount;
+	/** Currently mapped chunk of the file. */
+	private MappedByteBuffer buffer;
+	/** Index of the first record in the mapped chunk. */
+	private long chunkFirstRecord = -1;
+	/** Index of the next record to read. */
+	private long nextRecord = 0;
+	/** Time of the current record. */
+	private double time;
+	/** Event type ordinal of the current record. */
+	private int type;
+	/** Customer id of the current record. */
+	private int customerId;
+	/** Service point index of the current record. */
+	private int servicePoint;
+
+	/**
+	 * Opens an event log for reading.
+	 * @param file the log file to read
+	 * @throws IOException if the file cannot be read or is not an event log
+	 */
+	public EventLogReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(EventLogRecorder.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					throw new IOException("Event log header is truncated: " + file);
+				}
+			}
+			header.flip();
+			if (header.getInt() != EventLogRecorder.MAGIC) {
+				throw new IOException("Not an event log: " + file);
+			}
+			short version = header.getShort();
+			if (version != EventLogRecorder.VERSION) {
+				throw new IOException("Unsupported event log version " + version + ": " + file);
+			}
+			if (header.getShort() != EventLogRecorder.RECORD_BYTES) {
+				throw new IOException("Unexpected event log record size: " + file);
+			}
+			long count = header.getLong();
+			if (count < 0) {
+				count = (channel.size() - EventLogRecorder.HEADER_BYTES) / EventLogRecorder.RECORD_BYTES;
+			}
+			recordCount = count;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of records in the log.
+	 * @return the record count
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Moves the reader so that the next call to {@link #next()} reads the record with the given index.
+	 * @param index the index of the record
+	 * @throws IndexOutOfBoundsException if the index is not within the log
+	 */
+	public void seek(long index) {
+		if (index < 0 || index > recordCount) {
+			throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+		}
+		nextRecord = index;
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return true if a record was read, false if the end of the log was reached
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public boolean next() throws IOException {
+		if (nextRecord >= recordCount) {
+			return false;
+		}
+		long chunk = nextRecord / EventLogRecorder.CHUNK_RECORDS * EventLogRecorder.CHUNK_RECORDS;
+		if (chunk != chunkFirstRecord) {
+			long records = Math.min(EventLogRecorder.CHUNK_RECORDS, recordCount - chunk);
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					EventLogRecorder.HEADER_BYTES + chunk * EventLogRecorder.RECORD_BYTES,
+					records * EventLogRecorder.RECORD_BYTES);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			chunkFirstRecord = chunk;
+		}
+		int offset = (int) (nextRecord - chunk) * EventLogRecorder.RECORD_BYTES;
+		time = buffer.getDouble(offset);
+		type = buffer.getInt(offset + 8);
+		customerId = buffer.getInt(offset + 12);
+		servicePoint = buffer.getInt(offset + 16);
+		nextRecord++;
+		return true;
+	}
+
+	/**
+	 * Returns the simulation time of the current record.
+	 * @return the event time
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the event type ordinal of the current record.
+	 * @return the event type ordinal
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the customer id of the current record.
+	 * @return the customer id, or -1 if none
+	 */
+	public int getCustomerId() {
+		return customerId;
+	}
+
+	/**
+	 * Returns the service point index of the current record.
+	 * @return the service point index, or -1 if none
+	 */
+	public int getServicePoint() {
+		return servicePoint;
+	}
+
+	/**
+	 * Closes the log file.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
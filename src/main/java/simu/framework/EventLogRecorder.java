@@ -0,0 +1,160 @@
+package simu.framework;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EventLogRecorder appends every processed simulation event to a compact binary log file so
+ * that runs can be analyzed offline. The file is written through memory-mapped chunks, which
+ * makes recording an event a handful of stores into the mapped buffer with no system call.
+ * <p>
+ * File layout (little-endian): a {@value #HEADER_BYTES}-byte header containing the magic number,
+ * format version, record size and record count, followed by fixed-width records of
+ * {@value #RECORD_BYTES} bytes: event time (double), event type ordinal (int), customer id (int)
+ * and service point index (int). A customer id or service point of -1 means "none".
+ * Fixed-width records are used so that any record can be located directly by its index.
+ * <p>
+ * The record count in the header is -1 until the recorder is closed; the file is then truncated
+ * to the written length. Use {@link EventLogReader} to read the log back.
+ *
+ * @author (your name)
+ */
+public class EventLogRecorder implements Closeable {
+	/** Magic number at the start of every event log file ("SIML"). */
+	public static final int MAGIC = 0x53494D4C;
+	/** Version of the file format. */
+	public static final short VERSION = 1;
+	/** Size of the file header in bytes. */
+	public static final int HEADER_BYTES = 16;
+	/** Size of a single event record in bytes. */
+	public static final int RECORD_BYTES = 20;
+	/** Number of records mapped at a time. */
+	static final int CHUNK_RECORDS = 1 << 18;
+	/** Size of a mapped chunk in bytes, always a whole number of records. */
+	static final long CHUNK_BYTES = (long) CHUNK_RECORDS * RECORD_BYTES;
+
+	/** Channel of the log file. */
+	private final FileChannel channel;
+	/** Currently mapped chunk of the file. */
+	private MappedByteBuffer buffer;
+	/** File position where the current chunk starts. */
+	private long chunkStart;
+	/** Number of records written so far. */
+	private long recordCount = 0;
+	/** Whether the recorder has been closed. */
+	private boolean closed = false;
+
+	/**
+	 * Creates a recorder writing to the given file. An existing file is overwritten.
+	 * @param file the log file to write
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public EventLogRecorder(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		writeHeader(-1);
+		mapChunk(HEADER_BYTES);
+	}
+
+	/**
+	 * Appends one event record to the log.
+	 * @param time the simulation time of the event
+	 * @param type the ordinal of the event type
+	 * @param customerId the id of the customer involved, or -1 if none
+	 * @param servicePoint the index of the service point involved, or -1 if none
+	 * @throws IOException if the next chunk of the file cannot be mapped
+	 */
+	public void record(double time, int type, int customerId, int servicePoint) throws IOException {
+		if (!buffer.hasRemaining()) {
+			mapChunk(chunkStart + CHUNK_BYTES);
+		}
+		buffer.putDouble(time);
+		buffer.putInt(type);
+		buffer.putInt(customerId);
+		buffer.putInt(servicePoint);
+		recordCount++;
+	}
+
+	/**
+	 * Records a simulation event.
+	 * @param event the event being processed
+	 * @param customerId the id of the customer involved, or -1 if none
+	 * @param servicePoint the index of the service point involved, or -1 if none
+	 * @throws IOException if the next chunk of the file cannot be mapped
+	 */
+	public void record(Event event, int customerId, int servicePoint) throws IOException {
+		record(event.getTime(), event.getType().ordinal(), customerId, servicePoint);
+	}
+
+	/**
+	 * Returns the number of records written so far.
+	 * @return the record count
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Flushes the written records, stores the record count in the header and truncates the file
+	 * to its written length. Calling this method more than once has no effect.
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			buffer.force();
+			buffer = null;
+			writeHeader(recordCount);
+			try {
+				channel.truncate(HEADER_BYTES + recordCount * RECORD_BYTES);
+			} catch (IOException e) {
+				// Some platforms refuse to truncate a file that is still mapped; the header count
+				// tells readers where the records end, so the zero padding is harmless
+				Trace.out(Trace.Level.WAR, "Event log could not be truncated: " + e.getMessage());
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Maps the chunk of the file starting at the given position.
+	 * @param position the file position of the chunk
+	 * @throws IOException if the chunk cannot be mapped
+	 */
+	private void mapChunk(long position) throws IOException {
+		if (buffer != null) {
+			buffer.force();
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_BYTES);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		chunkStart = position;
+	}
+
+	/**
+	 * Writes the file header with the given record count.
+	 * @param count the record count, or -1 if the log is still being written
+	 * @throws IOException if the header cannot be written
+	 */
+	private void writeHeader(long count) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short) RECORD_BYTES);
+		header.putLong(count);
+		header.flip();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+	}
+}
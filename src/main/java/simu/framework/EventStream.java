@@ -0,0 +1,24 @@
+package simu.framework;
+
+/**
+ * EventStream is a source of events that produces them lazily in time order, such as an
+ * arrival process. Streams registered with an {@link EventList} are merged with the pending
+ * event heap when events are removed, so their events never have to be inserted into the heap.
+ * <p>
+ * The time returned by {@link #getNextTime()} must only change when {@link #next()} is called.
+ *
+ * @author (your name)
+ */
+public interface EventStream {
+	/**
+	 * Returns the time of the next event this stream will produce.
+	 * @return the next event time, or {@code Double.POSITIVE_INFINITY} if the stream is exhausted
+	 */
+	double getNextTime();
+
+	/**
+	 * Returns the next event of this stream and advances the stream to the following one.
+	 * @return the next event
+	 */
+	Event next();
+}
@@ -1,9 +1,22 @@
 package simu.framework;
 
 /**
- * IEventType is a marker interface for event types used in the simulation framework.
- * Implementing classes represent specific types of simulation events.
+ * IEventType is the interface for event types used in the simulation framework.
+ * Implementing classes represent specific types of simulation events; both methods are
+ * provided automatically when the event types are declared as an enum.
  *
  * @author (your name)
  */
-public interface IEventType {}
+public interface IEventType {
+	/**
+	 * Returns the ordinal number of this event type, used for example in binary event logs.
+	 * @return the ordinal of the event type
+	 */
+	int ordinal();
+
+	/**
+	 * Returns the name of this event type.
+	 * @return the name of the event type
+	 */
+	String name();
+}
@@ -0,0 +1,101 @@
+package simu.framework;
+
+import eduni.distributions.ContinuousGenerator;
+import eduni.distributions.Uniform;
+import simu.model.EventType;
+
+/**
+ * NonHomogeneousArrivalProcess generates arrivals whose rate changes over the simulated day,
+ * following a {@link RateFunction} λ(t).
+ * <p>
+ * Arrivals are sampled with Lewis–Shedler thinning performed segment by segment: inside each
+ * segment of the rate function a homogeneous candidate stream with the segment's majorant rate
+ * is generated and each candidate is accepted with probability λ(t) / majorant. Because the
+ * majorant is the segment maximum, constant segments never reject a candidate (and draw no
+ * acceptance sample), and linear segments only reject in proportion to their slope.
+ * When a candidate falls past the end of its segment the search restarts at the segment
+ * boundary, which is valid because exponential inter-arrival times are memoryless.
+ *
+ * @author (your name)
+ */
+public class NonHomogeneousArrivalProcess extends ArrivalProcess {
+
+	/** The time-varying arrival rate. */
+	private final RateFunction rateFunction;
+
+	/**
+	 * Constructs a NonHomogeneousArrivalProcess with an automatically seeded random generator.
+	 * @param rateFunction the arrival rate λ(t)
+	 * @param eventList the event list to which new events are added
+	 * @param type the type of event to generate
+	 */
+	public NonHomogeneousArrivalProcess(RateFunction rateFunction, EventList eventList, EventType type) {
+		this(rateFunction, new Uniform(0, 1), eventList, type);
+	}
+
+	/**
+	 * Constructs a NonHomogeneousArrivalProcess with a fixed seed for reproducible runs.
+	 * @param rateFunction the arrival rate λ(t)
+	 * @param seed the seed for the random generator
+	 * @param eventList the event list to which new events are added
+	 * @param type the type of event to generate
+	 */
+	public NonHomogeneousArrivalProcess(RateFunction rateFunction, long seed, EventList eventList, EventType type) {
+		this(rateFunction, new Uniform(0, 1, seed), eventList, type);
+	}
+
+	/**
+	 * Constructs a NonHomogeneousArrivalProcess with the given uniform(0,1) generator.
+	 * The same generator supplies both the exponential candidate gaps and the acceptance tests.
+	 * @param rateFunction the arrival rate λ(t)
+	 * @param uniform a generator of uniform samples in (0, 1)
+	 * @param eventList the event list to which new events are added
+	 * @param type the type of event to generate
+	 */
+	public NonHomogeneousArrivalProcess(RateFunction rateFunction, ContinuousGenerator uniform, EventList eventList, EventType type) {
+		super(uniform, eventList, type);
+		this.rateFunction = rateFunction;
+	}
+
+	/**
+	 * Computes the next arrival time by thinning a piecewise-homogeneous candidate stream.
+	 * @param from the time of the previous arrival
+	 * @return the next arrival time, or {@code Double.POSITIVE_INFINITY} if the rate stays zero forever
+	 */
+	@Override
+	protected double nextArrivalTime(double from) {
+		ContinuousGenerator uniform = getGenerator();
+		double t = from;
+		while (true) {
+			int segment = rateFunction.segmentOf(t);
+			double segmentEnd = rateFunction.segmentEnd(t);
+			double majorant = rateFunction.getMajorant(segment);
+			if (majorant <= 0) {
+				// No arrivals in this segment, jump straight to the next one
+				if (segmentEnd == Double.POSITIVE_INFINITY) {
+					return Double.POSITIVE_INFINITY;
+				}
+				t = segmentEnd;
+				continue;
+			}
+			double candidate = t - Math.log(uniform.sample()) / majorant;
+			if (candidate >= segmentEnd) {
+				t = segmentEnd;
+				continue;
+			}
+			t = candidate;
+			double rate = rateFunction.rateAt(t);
+			if (rate >= majorant || uniform.sample() * majorant <= rate) {
+				return t;
+			}
+		}
+	}
+
+	/**
+	 * Returns the rate function driving this arrival process.
+	 * @return the rate function
+	 */
+	public RateFunction getRateFunction() {
+		return rateFunction;
+	}
+}
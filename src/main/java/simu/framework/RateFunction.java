@@ -0,0 +1,267 @@
+package simu.framework;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * RateFunction describes a time-varying arrival rate λ(t) as a piecewise-constant or
+ * piecewise-linear function of simulation time. It is used by
+ * {@link NonHomogeneousArrivalProcess} to model rush hours (e.g. lunch and dinner peaks)
+ * instead of a single constant inter-arrival mean.
+ * <p>
+ * The function is defined by breakpoints {@code times[0] = 0 < times[1] < ... } and the
+ * rates at those breakpoints. A rate function can optionally repeat with a fixed period
+ * (for example one simulated day), in which case all breakpoints must lie in {@code [0, period)}.
+ * For every segment between two breakpoints a tight majorant (the segment maximum) is
+ * precomputed so that thinning rejects as few candidate arrivals as possible.
+ *
+ * @author (your name)
+ */
+public class RateFunction {
+
+	/** Breakpoint times, strictly increasing, first element is zero. */
+	private final double[] times;
+
+	/** Rates at the breakpoints (arrivals per time unit). */
+	private final double[] rates;
+
+	/** Upper bound of the rate on each segment (the thinning majorant). */
+	private final double[] majorants;
+
+	/** Whether rates are interpolated linearly between breakpoints. */
+	private final boolean linear;
+
+	/** Length of one cycle, or {@code Double.POSITIVE_INFINITY} if the function does not repeat. */
+	private final double period;
+
+	/**
+	 * Constructs a RateFunction. Use the static factory methods instead.
+	 * @param times breakpoint times
+	 * @param rates rates at the breakpoints
+	 * @param linear true for linear interpolation, false for step (constant) segments
+	 * @param period cycle length, or {@code Double.POSITIVE_INFINITY} for a non-repeating function
+	 */
+	private RateFunction(double[] times, double[] rates, boolean linear, double period) {
+		if (times.length == 0 || times.length != rates.length) {
+			throw new IllegalArgumentException("RateFunction: times and rates must be non-empty and of equal length.");
+		}
+		if (times[0] != 0.0) {
+			throw new IllegalArgumentException("RateFunction: the first breakpoint must be at time 0.");
+		}
+		for (int i = 0; i < times.length; i++) {
+			if (rates[i] < 0 || Double.isNaN(rates[i]) || Double.isInfinite(rates[i])) {
+				throw new IllegalArgumentException("RateFunction: rates must be finite and non-negative.");
+			}
+			if (i > 0 && times[i] <= times[i - 1]) {
+				throw new IllegalArgumentException("RateFunction: breakpoint times must be strictly increasing.");
+			}
+		}
+		if (!(period > 0) || (period != Double.POSITIVE_INFINITY && times[times.length - 1] >= period)) {
+			throw new IllegalArgumentException("RateFunction: all breakpoints must lie inside [0, period).");
+		}
+		this.times = times.clone();
+		this.rates = rates.clone();
+		this.linear = linear;
+		this.period = period;
+		this.majorants = new double[times.length];
+		for (int i = 0; i < times.length; i++) {
+			majorants[i] = linear ? Math.max(rates[i], endRate(i)) : rates[i];
+		}
+	}
+
+	/**
+	 * Creates a rate function that is constant between breakpoints and does not repeat.
+	 * The last rate holds forever after the last breakpoint.
+	 * @param times breakpoint times, starting at 0
+	 * @param rates rate on {@code [times[i], times[i+1])}
+	 * @return the rate function
+	 */
+	public static RateFunction piecewiseConstant(double[] times, double[] rates) {
+		return new RateFunction(times, rates, false, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Creates a rate function that is constant between breakpoints and repeats every {@code period}.
+	 * @param times breakpoint times in {@code [0, period)}, starting at 0
+	 * @param rates rate on {@code [times[i], times[i+1])}
+	 * @param period the cycle length (e.g. one simulated day)
+	 * @return the rate function
+	 */
+	public static RateFunction piecewiseConstant(double[] times, double[] rates, double period) {
+		return new RateFunction(times, rates, false, period);
+	}
+
+	/**
+	 * Creates a rate function that is linearly interpolated between breakpoints and does not repeat.
+	 * The last rate holds forever after the last breakpoint.
+	 * @param times breakpoint times, starting at 0
+	 * @param rates rate at each breakpoint
+	 * @return the rate function
+	 */
+	public static RateFunction piecewiseLinear(double[] times, double[] rates) {
+		return new RateFunction(times, rates, true, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Creates a rate function that is linearly interpolated between breakpoints and repeats every
+	 * {@code period}. The last segment interpolates back to the first rate at the end of the cycle.
+	 * @param times breakpoint times in {@code [0, period)}, starting at 0
+	 * @param rates rate at each breakpoint
+	 * @param period the cycle length (e.g. one simulated day)
+	 * @return the rate function
+	 */
+	public static RateFunction piecewiseLinear(double[] times, double[] rates, double period) {
+		return new RateFunction(times, rates, true, period);
+	}
+
+	/**
+	 * Creates a rate function with a single constant rate, equivalent to a homogeneous Poisson process.
+	 * @param rate the constant rate
+	 * @return the rate function
+	 */
+	public static RateFunction constant(double rate) {
+		return piecewiseConstant(new double[] {0.0}, new double[] {rate});
+	}
+
+	/**
+	 * Returns the rate at the given simulation time.
+	 * @param time the simulation time
+	 * @return λ(time)
+	 */
+	public double rateAt(double time) {
+		double local = localTime(time);
+		int segment = segmentOfLocal(local);
+		if (!linear) {
+			return rates[segment];
+		}
+		double start = times[segment];
+		double end = localSegmentEnd(segment);
+		if (end == Double.POSITIVE_INFINITY) {
+			return rates[segment];
+		}
+		double fraction = (local - start) / (end - start);
+		return rates[segment] + (endRate(segment) - rates[segment]) * fraction;
+	}
+
+	/**
+	 * Returns the index of the segment containing the given simulation time.
+	 * @param time the simulation time
+	 * @return the segment index
+	 */
+	public int segmentOf(double time) {
+		return segmentOfLocal(localTime(time));
+	}
+
+	/**
+	 * Returns the absolute simulation time at which the segment containing {@code time} ends.
+	 * @param time the simulation time
+	 * @return the end of the current segment, or {@code Double.POSITIVE_INFINITY} for the open last segment
+	 */
+	public double segmentEnd(double time) {
+		double local = localTime(time);
+		double end = localSegmentEnd(segmentOfLocal(local));
+		if (end == Double.POSITIVE_INFINITY) {
+			return end;
+		}
+		// Guard against rounding at cycle boundaries so callers always make progress
+		return Math.max(time + (end - local), Math.nextUp(time));
+	}
+
+	/**
+	 * Returns the thinning majorant (maximum rate) of a segment.
+	 * @param segment the segment index
+	 * @return the maximum of λ over the segment
+	 */
+	public double getMajorant(int segment) {
+		return majorants[segment];
+	}
+
+	/**
+	 * Returns the cycle length of this rate function.
+	 * @return the period, or {@code Double.POSITIVE_INFINITY} if the function does not repeat
+	 */
+	public double getPeriod() {
+		return period;
+	}
+
+	/**
+	 * Writes this rate function to a checkpoint.
+	 * @param out the checkpoint output
+	 * @throws IOException if writing fails
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		out.writeBoolean(linear);
+		out.writeDouble(period);
+		out.writeInt(times.length);
+		for (int i = 0; i < times.length; i++) {
+			out.writeDouble(times[i]);
+			out.writeDouble(rates[i]);
+		}
+	}
+
+	/**
+	 * Reads a rate function written by {@link #writeState(DataOutput)}.
+	 * @param in the checkpoint input
+	 * @return the rate function
+	 * @throws IOException if reading fails
+	 */
+	public static RateFunction readState(DataInput in) throws IOException {
+		boolean linear = in.readBoolean();
+		double period = in.readDouble();
+		int n = in.readInt();
+		double[] times = new double[n];
+		double[] rates = new double[n];
+		for (int i = 0; i < n; i++) {
+			times[i] = in.readDouble();
+			rates[i] = in.readDouble();
+		}
+		return new RateFunction(times, rates, linear, period);
+	}
+
+	/**
+	 * Maps an absolute time onto the local time inside the current cycle.
+	 * @param time the absolute simulation time
+	 * @return the time since the start of the current cycle
+	 */
+	private double localTime(double time) {
+		if (period == Double.POSITIVE_INFINITY) {
+			return Math.max(0.0, time);
+		}
+		double local = time % period;
+		return local < 0 ? local + period : local;
+	}
+
+	/**
+	 * Finds the segment containing a local time with a binary search over the breakpoints.
+	 * @param local the local time
+	 * @return the segment index
+	 */
+	private int segmentOfLocal(double local) {
+		int index = Arrays.binarySearch(times, local);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Returns the local end time of a segment.
+	 * @param segment the segment index
+	 * @return the local end time
+	 */
+	private double localSegmentEnd(int segment) {
+		return segment + 1 < times.length ? times[segment + 1] : period;
+	}
+
+	/**
+	 * Returns the rate at the end of a segment, used for linear interpolation.
+	 * @param segment the segment index
+	 * @return the rate at the end of the segment
+	 */
+	private double endRate(int segment) {
+		if (segment + 1 < rates.length) {
+			return rates[segment + 1];
+		}
+		// Periodic functions wrap around to the first rate, open-ended ones stay flat
+		return period == Double.POSITIVE_INFINITY ? rates[segment] : rates[0];
+	}
+}
@@ -0,0 +1,114 @@
+package simu.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * SimulationContext holds a private set of the simulation's shared objects (the clock, the
+ * statistics and other per-run state) so that several simulations can run side by side in one
+ * process, for example the branches of a forked simulation.
+ * <p>
+ * The singletons' {@code getInstance()} methods return the instance of the current thread's
+ * context, and fall back to the global instance when the thread has no context. The context is
+ * inherited by threads created inside it, so an engine constructed inside a context also runs in it.
+ * Threads serving the whole process, such as writer and I/O threads created on first use, must not
+ * keep the context of the simulation that happened to create them; they are created with
+ * {@code inheritThreadLocals} set to false, or inside {@link #callWithoutContext(Callable)}.
+ * Visualization is only driven by simulations running without a context.
+ *
+ * @author (your name)
+ */
+public class SimulationContext {
+	/** The context of the current thread, inherited by threads it creates. */
+	private static final InheritableThreadLocal<SimulationContext> CURRENT = new InheritableThreadLocal<>();
+
+	/** Name of the context, used in log output. */
+	private final String name;
+
+	/** The context's instances of the shared objects, keyed by class. */
+	private final Map<Class<?>, Object> instances = new HashMap<>();
+
+	/**
+	 * Creates an empty context. Shared objects are created on first use within the context.
+	 * @param name the name of the context
+	 */
+	public SimulationContext(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the context of the current thread.
+	 * @return the current context, or null if the thread uses the global instances
+	 */
+	public static SimulationContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Returns this context's instance of a shared object, creating it on first use.
+	 * @param type the class of the shared object
+	 * @param factory creates the instance if it does not exist yet
+	 * @param <T> the type of the shared object
+	 * @return the instance belonging to this context
+	 */
+	public synchronized <T> T getInstance(Class<T> type, Supplier<T> factory) {
+		Object instance = instances.get(type);
+		if (instance == null) {
+			instance = factory.get();
+			instances.put(type, instance);
+		}
+		return type.cast(instance);
+	}
+
+	/**
+	 * Runs the task with this context as the current thread's context. Everything created by the
+	 * task, including threads, uses this context's shared objects.
+	 * @param task the task to run
+	 * @param <T> the result type of the task
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			return task.call();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Runs the task without a context on the current thread, so that threads created by the task,
+	 * e.g. those of a connection pool, do not inherit the context of the calling simulation.
+	 * @param task the task to run
+	 * @param <T> the result type of the task
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public static <T> T callWithoutContext(Callable<T> task) throws Exception {
+		SimulationContext previous = CURRENT.get();
+		CURRENT.remove();
+		try {
+			return task.call();
+		} finally {
+			if (previous != null) {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the context.
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+}
@@ -27,6 +27,14 @@ public class Trace {
 		traceLevel = lvl;
 	}
 
+	/**
+	 * Returns the current trace level.
+	 * @return the trace level
+	 */
+	public static Level getTraceLevel() {
+		return traceLevel;
+	}
+
 	/**
 	 * Outputs a message at the given trace level if it meets the current threshold.
 	 * Uses java.util.logging for output.
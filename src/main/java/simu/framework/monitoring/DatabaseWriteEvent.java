@@ -0,0 +1,59 @@
+package simu.framework.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event timing a write of simulation results to the database.
+ */
+@Name("simu.DatabaseWrite")
+@Label("Database Write")
+@Category({"Simulation", "Persistence"})
+@Description("Wall time spent persisting simulation results")
+public class DatabaseWriteEvent extends Event {
+	/** Name of the entity or unit written. */
+	@Label("Entity")
+	public String entity;
+
+	/** Number of rows written. */
+	@Label("Rows")
+	public int rows;
+
+	/** Whether the write succeeded. */
+	@Label("Succeeded")
+	public boolean succeeded;
+
+	/**
+	 * Starts timing a write.
+	 * @param entity the name of the entity or unit written
+	 * @param rows the number of rows written
+	 * @return the started event
+	 */
+	public static DatabaseWriteEvent start(String entity, int rows) {
+		DatabaseWriteEvent event = new DatabaseWriteEvent();
+		event.entity = entity;
+		event.rows = rows;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Adds rows to the count of rows written, for writes whose row count is only known as they proceed.
+	 * @param count the number of rows written
+	 */
+	public void addRows(int count) {
+		rows += count;
+	}
+
+	/**
+	 * Ends timing the write and commits the event, if it is enabled in the running recording.
+	 * @param succeeded whether the write succeeded
+	 */
+	public void finish(boolean succeeded) {
+		this.succeeded = succeeded;
+		commit();
+	}
+}
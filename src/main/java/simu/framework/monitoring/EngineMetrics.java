@@ -0,0 +1,377 @@
+package simu.framework.monitoring;
+
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+import simu.framework.statistics.ServicePointStatistics;
+import simu.framework.statistics.SimulationStatistics;
+import simu.model.ServicePoint;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live metrics of one running engine, registered as an MBean while the engine runs.
+ * <p>
+ * The engine thread keeps the counters in plain fields and publishes them once per simulation
+ * step with ordered writes ({@code lazySet}), which compile to plain stores, so the simulation is
+ * not slowed down by memory fences or contention. The statistics exported with the metrics are
+ * published the same way at the end of each step. JMX clients read the published values; rates
+ * are calculated on the reading side, between two reads.
+ * <p>
+ * Utilization is time-weighted: when the clock advances, the elapsed simulation time is added to
+ * the busy time of every service point that was serving during it.
+ */
+public class EngineMetrics implements EngineMetricsMXBean {
+	/** JMX domain of the engine MBeans. */
+	public static final String DOMAIN = "simu";
+	/** Sequence for the engine IDs. */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+	/** Metrics of the engines that are running, for the metrics endpoint. */
+	private static final List<EngineMetrics> RUNNING = new CopyOnWriteArrayList<>();
+
+	/** ID of the engine, unique within the process. */
+	private final int id = NEXT_ID.getAndIncrement();
+	/** Name of the simulation: the name of the engine's context, or "main" without a context. */
+	private final String simulation;
+	/** Wall-clock time when the metrics were created, in nanoseconds. */
+	private final long startNanos = System.nanoTime();
+	/** Statistics of the whole simulation, or null if not set. */
+	private SimulationStatistics simulationStatistics;
+	/** Statistics of the service points by name, empty if not set. */
+	private Map<String, ServicePointStatistics> servicePointStatistics = Map.of();
+	/** Statistics of the service points, in the order of the map, published after every step. */
+	private ServicePointStatistics[] publishedStatistics = new ServicePointStatistics[0];
+
+	/** The service points of the engine. */
+	private final ServicePoint[] servicePoints;
+	/** Unique names of the service points, in index order. */
+	private final String[] names;
+	/** Simulation time when the metrics were started. */
+	private final double startTime;
+	/** Busy time of each service point, written by the engine thread only. */
+	private final double[] busyTime;
+	/** Simulation time of the last clock advance, written by the engine thread only. */
+	private double lastTime;
+	/** Number of processed events, written by the engine thread only. */
+	private long events = 0;
+
+	/** Published number of processed events. */
+	private final AtomicLong publishedEvents = new AtomicLong();
+	/** Published simulation time, as raw double bits. */
+	private final AtomicLong publishedTime = new AtomicLong();
+	/** Published number of pending events. */
+	private final AtomicInteger publishedPending = new AtomicInteger();
+	/** Published highest number of pending events after a step. */
+	private final AtomicInteger publishedPeakPending = new AtomicInteger();
+	/** Published queue length of each service point. */
+	private final AtomicIntegerArray publishedQueues;
+	/** Published busy time of each service point, as raw double bits. */
+	private final AtomicLongArray publishedBusy;
+
+	/** Wall-clock time of the previous event rate read, in nanoseconds. */
+	private long eventSampleNanos;
+	/** Number of processed events at the previous event rate read. */
+	private long eventSample = 0;
+	/** Wall-clock time of the previous simulation speed read, in nanoseconds. */
+	private long timeSampleNanos;
+	/** Simulation time at the previous simulation speed read. */
+	private double timeSample;
+	/** Name under which the MBean is registered, or null if it is not registered. */
+	private ObjectName objectName;
+
+	/**
+	 * Creates the metrics of an engine. Must be called on the engine's thread, whose simulation
+	 * context names the simulation.
+	 * @param servicePoints the service points of the engine
+	 * @param startTime the simulation time at which the engine starts or resumes
+	 */
+	public EngineMetrics(ServicePoint[] servicePoints, double startTime) {
+		this.servicePoints = servicePoints;
+		SimulationContext context = SimulationContext.current();
+		this.simulation = context != null ? context.getName() : "main";
+		this.names = new String[servicePoints.length];
+		for (int i = 0; i < servicePoints.length; i++) {
+			String name = servicePoints[i].getServicePointName();
+			for (int j = 0; j < i; j++) {
+				if (names[j].equals(name)) {
+					name = name + "#" + i;
+					break;
+				}
+			}
+			names[i] = name;
+		}
+		this.startTime = startTime;
+		this.lastTime = startTime;
+		this.busyTime = new double[servicePoints.length];
+		this.publishedQueues = new AtomicIntegerArray(servicePoints.length);
+		this.publishedBusy = new AtomicLongArray(servicePoints.length);
+		this.publishedTime.set(Double.doubleToRawLongBits(startTime));
+		this.eventSampleNanos = startNanos;
+		this.timeSampleNanos = eventSampleNanos;
+		this.timeSample = startTime;
+	}
+
+	/**
+	 * Advances the clock of the metrics, adding the elapsed time to the busy time of every service
+	 * point, weighted by the fraction of its servers that are serving. Called by the engine thread
+	 * before the events of the new time are run.
+	 * @param time the new simulation time
+	 */
+	public void advanceTo(double time) {
+		double elapsed = time - lastTime;
+		if (elapsed > 0) {
+			for (int i = 0; i < servicePoints.length; i++) {
+				busyTime[i] += elapsed * servicePoints[i].getBusyFraction();
+			}
+		}
+		lastTime = time;
+	}
+
+	/**
+	 * Publishes the state after a simulation step. Called by the engine thread.
+	 * @param processed the number of events processed in the step
+	 * @param pendingEvents the number of events pending after the step
+	 */
+	public void stepCompleted(int processed, int pendingEvents) {
+		events += processed;
+		publishedEvents.lazySet(events);
+		publishedTime.lazySet(Double.doubleToRawLongBits(lastTime));
+		publishedPending.lazySet(pendingEvents);
+		if (pendingEvents > publishedPeakPending.get()) {
+			publishedPeakPending.lazySet(pendingEvents);
+		}
+		for (int i = 0; i < servicePoints.length; i++) {
+			publishedQueues.lazySet(i, servicePoints[i].getQueue().size());
+			publishedBusy.lazySet(i, Double.doubleToRawLongBits(busyTime[i]));
+		}
+		if (simulationStatistics != null) {
+			simulationStatistics.publish();
+		}
+		for (ServicePointStatistics statistics : publishedStatistics) {
+			statistics.publish();
+		}
+	}
+
+	/**
+	 * Sets the statistics exported together with the engine metrics.
+	 * @param simulationStatistics the statistics of the whole simulation
+	 * @param servicePointStatistics the statistics of the service points by name
+	 */
+	public void setStatistics(SimulationStatistics simulationStatistics,
+			Map<String, ServicePointStatistics> servicePointStatistics) {
+		this.simulationStatistics = simulationStatistics;
+		this.servicePointStatistics = Collections.unmodifiableMap(new LinkedHashMap<>(servicePointStatistics));
+		this.publishedStatistics = this.servicePointStatistics.values().toArray(new ServicePointStatistics[0]);
+	}
+
+	/**
+	 * Returns the metrics of the engines that are running.
+	 * @return the metrics of the running engines, in start order
+	 */
+	public static List<EngineMetrics> running() {
+		return List.copyOf(RUNNING);
+	}
+
+	/**
+	 * Registers the metrics as an MBean on the platform MBean server and adds them to the running
+	 * engines. Failures to register the MBean are logged and ignored.
+	 * @return the name of the MBean, or null if it could not be registered
+	 */
+	public synchronized ObjectName register() {
+		if (!RUNNING.contains(this)) {
+			RUNNING.add(this);
+		}
+		if (objectName == null) {
+			try {
+				ObjectName name = new ObjectName(DOMAIN + ":type=Engine,id=" + id);
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+				objectName = name;
+			} catch (Exception e) {
+				Trace.out(Trace.Level.WAR, "Could not register engine metrics MBean: " + e.getMessage());
+			}
+		}
+		return objectName;
+	}
+
+	/**
+	 * Unregisters the MBean, if registered, and removes the metrics from the running engines.
+	 * Failures are logged and ignored.
+	 */
+	public synchronized void unregister() {
+		RUNNING.remove(this);
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (Exception e) {
+			Trace.out(Trace.Level.WAR, "Could not unregister engine metrics MBean: " + e.getMessage());
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Returns the ID of the engine.
+	 * @return the engine ID
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the name of the simulation the engine runs.
+	 * @return the simulation name
+	 */
+	public String getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * Returns the wall-clock time since the engine started.
+	 * @return the elapsed wall-clock time in seconds
+	 */
+	public double getWallSeconds() {
+		return (System.nanoTime() - startNanos) / 1e9;
+	}
+
+	/**
+	 * Returns the simulation time at which the engine started or resumed.
+	 * @return the start time
+	 */
+	public double getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Returns the statistics of the whole simulation.
+	 * @return the statistics, or null if not set
+	 */
+	public SimulationStatistics getSimulationStatistics() {
+		return simulationStatistics;
+	}
+
+	/**
+	 * Returns the statistics of the service points.
+	 * @return the statistics by service point name
+	 */
+	public Map<String, ServicePointStatistics> getServicePointStatistics() {
+		return servicePointStatistics;
+	}
+
+	/**
+	 * Returns the number of events processed so far.
+	 * @return the number of processed events
+	 */
+	@Override
+	public long getEventsProcessed() {
+		return publishedEvents.get();
+	}
+
+	/**
+	 * Returns the number of events processed per wall-clock second since the previous read.
+	 * @return the event rate
+	 */
+	@Override
+	public synchronized double getEventsPerSecond() {
+		long now = System.nanoTime();
+		long current = publishedEvents.get();
+		double seconds = (now - eventSampleNanos) / 1e9;
+		double rate = seconds > 0 ? (current - eventSample) / seconds : 0;
+		eventSampleNanos = now;
+		eventSample = current;
+		return rate;
+	}
+
+	/**
+	 * Returns the number of pending events after the last step.
+	 * @return the number of pending events
+	 */
+	@Override
+	public int getPendingEvents() {
+		return publishedPending.get();
+	}
+
+	/**
+	 * Returns the highest number of pending events after a step so far.
+	 * @return the peak number of pending events
+	 */
+	@Override
+	public int getPeakPendingEvents() {
+		return publishedPeakPending.get();
+	}
+
+	/**
+	 * Returns the simulation time of the last step.
+	 * @return the simulation time
+	 */
+	@Override
+	public double getSimulationTime() {
+		return Double.longBitsToDouble(publishedTime.get());
+	}
+
+	/**
+	 * Returns the simulation time advanced per wall-clock second since the previous read.
+	 * @return the simulation speed
+	 */
+	@Override
+	public synchronized double getSimulationTimePerWallSecond() {
+		long now = System.nanoTime();
+		double current = getSimulationTime();
+		double seconds = (now - timeSampleNanos) / 1e9;
+		double speed = seconds > 0 ? (current - timeSample) / seconds : 0;
+		timeSampleNanos = now;
+		timeSample = current;
+		return speed;
+	}
+
+	/**
+	 * Returns the number of customers queued or in service at any service point.
+	 * @return the number of customers in the system
+	 */
+	@Override
+	public int getCustomersInSystem() {
+		int customers = 0;
+		for (int i = 0; i < publishedQueues.length(); i++) {
+			customers += publishedQueues.get(i);
+		}
+		return customers;
+	}
+
+	/**
+	 * Returns the queue length of every service point, including the customer in service.
+	 * @return the queue lengths by service point name
+	 */
+	@Override
+	public Map<String, Integer> getQueueLengths() {
+		Map<String, Integer> lengths = new LinkedHashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			lengths.put(names[i], publishedQueues.get(i));
+		}
+		return lengths;
+	}
+
+	/**
+	 * Returns the fraction of simulation time every service point has been serving, counting a
+	 * service point with several servers by the fraction of its servers that were serving.
+	 * @return the utilizations by service point name
+	 */
+	@Override
+	public Map<String, Double> getUtilizations() {
+		double elapsed = getSimulationTime() - startTime;
+		Map<String, Double> utilizations = new LinkedHashMap<>();
+		for (int i = 0; i < names.length; i++) {
+			double busy = Double.longBitsToDouble(publishedBusy.get(i));
+			utilizations.put(names[i], elapsed > 0 ? Math.min(1.0, busy / elapsed) : 0.0);
+		}
+		return utilizations;
+	}
+}
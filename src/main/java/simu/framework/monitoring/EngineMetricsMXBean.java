@@ -0,0 +1,65 @@
+package simu.framework.monitoring;
+
+import java.util.Map;
+
+/**
+ * Management interface of a running simulation engine, for watching runs live with JConsole,
+ * VisualVM or any other JMX client. Rates are measured between two consecutive reads of the
+ * same attribute, so a client polling at a fixed interval sees the rate over that interval.
+ */
+public interface EngineMetricsMXBean {
+	/**
+	 * Returns the number of events processed so far.
+	 * @return the number of processed events
+	 */
+	long getEventsProcessed();
+
+	/**
+	 * Returns the number of events processed per wall-clock second since the previous read.
+	 * @return the event rate
+	 */
+	double getEventsPerSecond();
+
+	/**
+	 * Returns the number of pending events in the event list.
+	 * @return the number of pending events
+	 */
+	int getPendingEvents();
+
+	/**
+	 * Returns the highest number of events pending in the event list after a step so far.
+	 * @return the peak number of pending events
+	 */
+	int getPeakPendingEvents();
+
+	/**
+	 * Returns the current simulation time.
+	 * @return the simulation time
+	 */
+	double getSimulationTime();
+
+	/**
+	 * Returns the simulation time advanced per wall-clock second since the previous read.
+	 * @return the simulation speed
+	 */
+	double getSimulationTimePerWallSecond();
+
+	/**
+	 * Returns the number of customers in the system: queued or in service at any service point.
+	 * @return the number of customers in the system
+	 */
+	int getCustomersInSystem();
+
+	/**
+	 * Returns the queue length of every service point, including the customer in service.
+	 * @return the queue lengths by service point name
+	 */
+	Map<String, Integer> getQueueLengths();
+
+	/**
+	 * Returns the utilization of every service point: the fraction of simulation time it has been
+	 * serving since the engine started.
+	 * @return the utilizations in [0, 1] by service point name
+	 */
+	Map<String, Double> getUtilizations();
+}
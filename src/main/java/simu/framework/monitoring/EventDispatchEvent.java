@@ -0,0 +1,32 @@
+package simu.framework.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event timing the dispatch of one simulation event to its handler, so that the
+ * wall time spent per event type can be broken down in JDK Mission Control and correlated with
+ * GC and allocation data. Stack traces are not recorded, keeping the cost per event minimal.
+ */
+@Name("simu.EventDispatch")
+@Label("Simulation Event Dispatch")
+@Category({"Simulation", "Engine"})
+@Description("Wall time spent handling one simulation event")
+@StackTrace(false)
+public class EventDispatchEvent extends Event {
+	/** Name of the event type. */
+	@Label("Event Type")
+	public String eventType;
+
+	/** Simulation time of the event. */
+	@Label("Simulation Time")
+	public double simTime;
+
+	/** ID of the customer the event concerns, or -1. */
+	@Label("Customer ID")
+	public int customerId;
+}
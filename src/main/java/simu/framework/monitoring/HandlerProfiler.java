@@ -0,0 +1,268 @@
+package simu.framework.monitoring;
+
+import simu.framework.Trace;
+import simu.model.ServicePoint;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Profiler of the simulation's event handlers, measuring where the engine thread spends its time.
+ * <p>
+ * For every handler, that is every event type handled by the engine and every service point
+ * beginning a service, the profiler records the number of calls, the total, mean and maximum wall
+ * time in nanoseconds, and the bytes allocated by the engine thread during the calls, as reported
+ * by {@link com.sun.management.ThreadMXBean}. At the end of a run the handlers are ranked by total
+ * time in a report, which is logged and appended to a file.
+ * <p>
+ * Profiling is enabled by setting the {@value #PROFILE_PROPERTY} system property to the report file.
+ * A profiler is used by one engine thread only, and calls are not nested: each {@link #begin()} is
+ * followed by one {@link #end(Object, String)}.
+ */
+public class HandlerProfiler {
+	/** System property naming the file the reports are appended to; profiling is disabled if it is not set. */
+	public static final String PROFILE_PROPERTY = "simu.profile";
+
+	/** Thread bean measuring allocations, or null if the JVM does not support it. */
+	private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+	/** File the reports are appended to, or null to only log them. */
+	private final Path reportFile;
+	/** Statistics by handler key. */
+	private final Map<Object, Entry> entries = new IdentityHashMap<>();
+	/** Wall time at the beginning of the current call. */
+	private long startNanos;
+	/** Bytes allocated by the thread at the beginning of the current call. */
+	private long startBytes;
+
+	/**
+	 * Creates a profiler.
+	 * @param reportFile the file to append the reports to, or null to only log them
+	 */
+	public HandlerProfiler(Path reportFile) {
+		this.reportFile = reportFile;
+	}
+
+	/**
+	 * Creates a profiler if profiling is enabled by the {@value #PROFILE_PROPERTY} system property.
+	 * @return the profiler, or null if profiling is disabled
+	 */
+	public static HandlerProfiler fromSystemProperties() {
+		String file = System.getProperty(PROFILE_PROPERTY);
+		if (file == null || file.isBlank()) {
+			return null;
+		}
+		return new HandlerProfiler(Path.of(file));
+	}
+
+	/**
+	 * Returns the thread bean if it can measure the allocations of the current thread, enabling the measurement.
+	 * @return the thread bean, or null if allocations cannot be measured
+	 */
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		try {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+					&& bean.isThreadAllocatedMemorySupported()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+				return bean;
+			}
+		} catch (UnsupportedOperationException | SecurityException e) {
+			Trace.out(Trace.Level.WAR, "Allocation profiling not available: " + e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread so far.
+	 * @return the allocated bytes, or 0 if allocations cannot be measured
+	 */
+	private static long allocatedBytes() {
+		return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+	}
+
+	/**
+	 * Begins measuring a handler call.
+	 */
+	public void begin() {
+		startBytes = allocatedBytes();
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Ends measuring the handler call begun last and adds it to the handler's statistics.
+	 * @param key identity of the handler, such as the event type or the service point
+	 * @param kind kind of the handler, shown before the key in the report
+	 */
+	public void end(Object key, String kind) {
+		long nanos = System.nanoTime() - startNanos;
+		long bytes = allocatedBytes() - startBytes;
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			entry = new Entry(kind + " " + (key instanceof ServicePoint p ? p.getServicePointName() : key));
+			entries.put(key, entry);
+		}
+		entry.add(nanos, bytes);
+	}
+
+	/**
+	 * Returns the statistics of all handlers called, ranked by total time.
+	 * @return the statistics, the most expensive handler first
+	 */
+	public List<Entry> getEntries() {
+		List<Entry> ranked = new ArrayList<>(entries.values());
+		ranked.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+		return ranked;
+	}
+
+	/**
+	 * Formats the ranked report of the handlers.
+	 * @param title title of the report, such as the name of the run
+	 * @return the report, one line per handler
+	 */
+	public String formatReport(String title) {
+		List<Entry> ranked = getEntries();
+		long totalNanos = 0;
+		for (Entry entry : ranked) {
+			totalNanos += entry.totalNanos;
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(Locale.ROOT, "Handler profile of %s at %s, %.3f ms in handlers%s%n",
+				title, LocalDateTime.now(), totalNanos / 1e6, THREADS != null ? "" : " (allocations not measured)"));
+		report.append(String.format(Locale.ROOT, "%4s  %-42s %10s %12s %7s %10s %10s %14s %12s%n",
+				"rank", "handler", "calls", "total ms", "share", "mean us", "max us", "alloc bytes", "bytes/call"));
+		int rank = 1;
+		for (Entry entry : ranked) {
+			report.append(String.format(Locale.ROOT, "%4d  %-42s %10d %12.3f %6.1f%% %10.3f %10.3f %14d %12.1f%n",
+					rank++, entry.handler, entry.calls, entry.totalNanos / 1e6,
+					totalNanos > 0 ? 100.0 * entry.totalNanos / totalNanos : 0.0,
+					entry.getMeanNanos() / 1e3, entry.maxNanos / 1e3, entry.allocatedBytes,
+					entry.getMeanAllocatedBytes()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Logs the ranked report and appends it to the report file, if any.
+	 * @param title title of the report, such as the name of the run
+	 */
+	public void report(String title) {
+		String report = formatReport(title);
+		Trace.out(Trace.Level.INFO, report);
+		if (reportFile == null) {
+			return;
+		}
+		try (Writer out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			out.write(report);
+			out.write(System.lineSeparator());
+		} catch (IOException e) {
+			Trace.out(Trace.Level.ERR, "Error writing handler profile to " + reportFile + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Statistics of the calls of one handler.
+	 */
+	public static class Entry {
+		/** Name of the handler. */
+		private final String handler;
+		/** Number of calls. */
+		private long calls;
+		/** Total wall time of the calls in nanoseconds. */
+		private long totalNanos;
+		/** Longest call in nanoseconds. */
+		private long maxNanos;
+		/** Total bytes allocated during the calls. */
+		private long allocatedBytes;
+
+		/**
+		 * Creates empty statistics.
+		 * @param handler the name of the handler
+		 */
+		Entry(String handler) {
+			this.handler = handler;
+		}
+
+		/**
+		 * Adds a call.
+		 * @param nanos wall time of the call in nanoseconds
+		 * @param bytes bytes allocated during the call
+		 */
+		void add(long nanos, long bytes) {
+			calls++;
+			totalNanos += nanos;
+			allocatedBytes += bytes;
+			if (nanos > maxNanos) {
+				maxNanos = nanos;
+			}
+		}
+
+		/**
+		 * Returns the name of the handler.
+		 * @return the kind of the handler followed by its key
+		 */
+		public String getHandler() {
+			return handler;
+		}
+
+		/**
+		 * Returns the number of calls.
+		 * @return the number of calls
+		 */
+		public long getCalls() {
+			return calls;
+		}
+
+		/**
+		 * Returns the total wall time of the calls.
+		 * @return the total time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * Returns the mean wall time of a call.
+		 * @return the mean time in nanoseconds, 0 if there were no calls
+		 */
+		public double getMeanNanos() {
+			return calls > 0 ? (double) totalNanos / calls : 0;
+		}
+
+		/**
+		 * Returns the longest call.
+		 * @return the longest time in nanoseconds
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * Returns the total bytes allocated during the calls.
+		 * @return the allocated bytes, 0 if allocations cannot be measured
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		/**
+		 * Returns the mean bytes allocated during a call.
+		 * @return the mean allocated bytes, 0 if there were no calls
+		 */
+		public double getMeanAllocatedBytes() {
+			return calls > 0 ? (double) allocatedBytes / calls : 0;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package simu.framework.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram with fixed bucket bounds, in the form exported to Prometheus.
+ * <p>
+ * The recording thread counts values in plain fields and publishes them with {@link #publish()},
+ * like {@link EngineMetrics} does once per simulation step, so recording costs no atomic
+ * operations. Readers on other threads see the values of the last publication. Buckets are
+ * counted individually and made cumulative when read.
+ */
+public class Histogram {
+	/** Default bucket bounds for durations in simulation time units. */
+	public static final double[] DEFAULT_TIME_BUCKETS = {0.5, 1, 2, 5, 10, 20, 30, 60, 120, 240};
+
+	/** Upper bounds of the buckets, ascending; the last bucket, without a bound, is +Inf. */
+	private final double[] bounds;
+	/** Number of values in each bucket, not cumulative, written by the recording thread only. */
+	private final long[] buckets;
+	/** Sum of all recorded values, written by the recording thread only. */
+	private double sum;
+	/** Whether values were recorded since the last publication. */
+	private boolean changed = false;
+
+	/** Published number of values in each bucket. */
+	private final AtomicLongArray publishedBuckets;
+	/** Published sum, as raw double bits. */
+	private final AtomicLong publishedSum = new AtomicLong();
+
+	/**
+	 * Creates a histogram with the default time buckets.
+	 */
+	public Histogram() {
+		this(DEFAULT_TIME_BUCKETS);
+	}
+
+	/**
+	 * Creates a histogram with the given bucket bounds.
+	 * @param bounds the upper bounds of the buckets, ascending
+	 * @throws IllegalArgumentException if the bounds are not strictly ascending
+	 */
+	public Histogram(double[] bounds) {
+		for (int i = 1; i < bounds.length; i++) {
+			if (!(bounds[i] > bounds[i - 1])) {
+				throw new IllegalArgumentException("Bucket bounds must be strictly ascending");
+			}
+		}
+		this.bounds = bounds.clone();
+		this.buckets = new long[bounds.length + 1];
+		this.publishedBuckets = new AtomicLongArray(bounds.length + 1);
+	}
+
+	/**
+	 * Records a value. Called by the recording thread.
+	 * @param value the value
+	 */
+	public void observe(double value) {
+		int bucket = Arrays.binarySearch(bounds, value);
+		if (bucket < 0) {
+			bucket = -bucket - 1;
+		}
+		buckets[bucket]++;
+		sum += value;
+		changed = true;
+	}
+
+	/**
+	 * Publishes the values recorded so far to readers on other threads, if any were recorded since
+	 * the last publication. Called by the recording thread.
+	 */
+	public void publish() {
+		if (!changed) {
+			return;
+		}
+		for (int i = 0; i < buckets.length; i++) {
+			publishedBuckets.lazySet(i, buckets[i]);
+		}
+		publishedSum.lazySet(Double.doubleToRawLongBits(sum));
+		changed = false;
+	}
+
+	/**
+	 * Returns the upper bounds of the buckets, without the +Inf bucket.
+	 * @return the bucket bounds
+	 */
+	public double[] getBounds() {
+		return bounds.clone();
+	}
+
+	/**
+	 * Returns the published cumulative bucket counts: element i is the number of values up to
+	 * bound i, and the last element, for +Inf, is the total count.
+	 * @return the cumulative counts, one more than there are bounds
+	 */
+	public long[] getCumulativeCounts() {
+		long[] counts = new long[publishedBuckets.length()];
+		long total = 0;
+		for (int i = 0; i < counts.length; i++) {
+			total += publishedBuckets.get(i);
+			counts[i] = total;
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the published sum of all recorded values.
+	 * @return the sum
+	 */
+	public double getSum() {
+		return Double.longBitsToDouble(publishedSum.get());
+	}
+
+	/**
+	 * Clears the histogram for a new run and publishes the empty histogram. Called by the
+	 * recording thread.
+	 */
+	public void reset() {
+		Arrays.fill(buckets, 0);
+		sum = 0;
+		changed = true;
+		publish();
+	}
+}
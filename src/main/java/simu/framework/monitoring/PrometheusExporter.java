@@ -0,0 +1,351 @@
+package simu.framework.monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import simu.framework.Trace;
+import simu.framework.statistics.ServicePointStatistics;
+import simu.framework.statistics.SimulationStatistics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Optional HTTP endpoint serving the metrics of all running engines in the Prometheus text format,
+ * for scraping many concurrent simulations.
+ * <p>
+ * The endpoint listens on the loopback interface only, at {@code /metrics}, and is enabled by setting
+ * the {@value #PORT_PROPERTY} system property (0 picks a free port). Every scrape reads the values the
+ * engines publish through {@link EngineMetrics}, together with the statistics they publish after every
+ * simulation step, so scraping never blocks or slows down an engine thread. Each sample is labelled
+ * with the engine ID and the simulation name.
+ */
+public class PrometheusExporter {
+	/** System property setting the port of the endpoint; the endpoint is disabled if it is not set. */
+	public static final String PORT_PROPERTY = "simu.metrics.port";
+	/** Content type of the Prometheus text format. */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/** The endpoint started from the system properties, or null. */
+	private static PrometheusExporter INSTANCE;
+
+	/** The HTTP server. */
+	private final HttpServer server;
+	/** Thread answering the scrapes. */
+	private final ExecutorService executor;
+
+	/**
+	 * Creates an endpoint on the loopback interface; call {@link #start()} to serve scrapes.
+	 * @param port the port, or 0 for a free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public PrometheusExporter(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", this::handle);
+		executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(null, task, "metrics-http", 0, false);
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Starts the endpoint configured by the {@value #PORT_PROPERTY} system property, once per process.
+	 * Failures are logged and leave the endpoint disabled.
+	 * @return the running endpoint, or null if it is not configured or could not be started
+	 */
+	public static synchronized PrometheusExporter startFromSystemProperties() {
+		if (INSTANCE != null) {
+			return INSTANCE;
+		}
+		String port = System.getProperty(PORT_PROPERTY);
+		if (port == null || port.isBlank()) {
+			return null;
+		}
+		try {
+			PrometheusExporter exporter = new PrometheusExporter(Integer.parseInt(port.trim()));
+			exporter.start();
+			INSTANCE = exporter;
+			Trace.out(Trace.Level.INFO, "Metrics endpoint at http://127.0.0.1:" + exporter.getPort() + "/metrics");
+		} catch (IOException | NumberFormatException e) {
+			Trace.out(Trace.Level.ERR, "Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+		}
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts serving scrapes.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the endpoint.
+	 */
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port the endpoint listens on.
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Answers a scrape with the metrics of the running engines.
+	 * @param exchange the HTTP exchange
+	 * @throws IOException if the response cannot be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			if (!"GET".equals(method) && !"HEAD".equals(method)) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			byte[] body = scrape(EngineMetrics.running()).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			if ("HEAD".equals(method)) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Renders the metrics of the given engines in the Prometheus text format.
+	 * @param engines the engine metrics
+	 * @return the exposition text
+	 */
+	public static String scrape(List<EngineMetrics> engines) {
+		StringBuilder out = new StringBuilder(4096);
+
+		gauge(out, engines, "simu_engine_events_processed_total", "counter", "Events processed by the engine.",
+				EngineMetrics::getEventsProcessed);
+		gauge(out, engines, "simu_engine_events_per_second", "gauge", "Average events processed per wall-clock second since the engine started.",
+				m -> m.getWallSeconds() > 0 ? m.getEventsProcessed() / m.getWallSeconds() : 0);
+		gauge(out, engines, "simu_engine_simulation_time", "gauge", "Current simulation time.",
+				EngineMetrics::getSimulationTime);
+		gauge(out, engines, "simu_engine_simulation_time_per_wall_second", "gauge", "Average simulation time advanced per wall-clock second.",
+				m -> m.getWallSeconds() > 0 ? (m.getSimulationTime() - m.getStartTime()) / m.getWallSeconds() : 0);
+		gauge(out, engines, "simu_engine_pending_events", "gauge", "Events pending in the event list.",
+				EngineMetrics::getPendingEvents);
+		gauge(out, engines, "simu_engine_customers_in_system", "gauge", "Customers queued or in service.",
+				EngineMetrics::getCustomersInSystem);
+		perServicePoint(out, engines, "simu_service_point_queue_length", "gauge", "Queue length including the customer in service.",
+				m -> m.getQueueLengths());
+		perServicePoint(out, engines, "simu_service_point_utilization", "gauge", "Fraction of simulation time spent serving.",
+				m -> m.getUtilizations());
+
+		simulation(out, engines, "simu_arrived_customers_total", "Customers arrived.", SimulationStatistics::getPublishedArrivedCustomers);
+		simulation(out, engines, "simu_serviced_customers_total", "Customers serviced.", SimulationStatistics::getPublishedServicedCustomers);
+		simulation(out, engines, "simu_refused_deliveries_total", "Deliveries refused.", SimulationStatistics::getPublishedRefusedDeliveryCustomers);
+		simulation(out, engines, "simu_money_returns_total", "Orders whose money was returned.", SimulationStatistics::getPublishedReturnMoneyCustomers);
+		simulation(out, engines, "simu_remade_orders_total", "Orders remade.", SimulationStatistics::getPublishedRemakeOrdersCustomers);
+		family(out, "simu_response_time", "histogram", "Response time of customers, from arrival to leaving the system.");
+		for (EngineMetrics m : engines) {
+			if (m.getSimulationStatistics() != null) {
+				histogram(out, "simu_response_time", labels(m, null), m.getSimulationStatistics().getResponseTimeHistogram());
+			}
+		}
+
+		servicePoint(out, engines, "simu_service_point_arrived_customers_total", "Customers arrived at the service point.",
+				ServicePointStatistics::getPublishedArrivedCustomers);
+		servicePoint(out, engines, "simu_service_point_serviced_customers_total", "Customers serviced at the service point.",
+				ServicePointStatistics::getPublishedServicedCustomers);
+		servicePointHistogram(out, engines, "simu_service_point_service_time", "Service time of a customer.",
+				ServicePointStatistics::getServiceTimeHistogram);
+		servicePointHistogram(out, engines, "simu_service_point_waiting_time", "Waiting time of a customer at the service point.",
+				ServicePointStatistics::getWaitingTimeHistogram);
+		return out.toString();
+	}
+
+	/**
+	 * Writes a family with one sample per engine.
+	 * @param out the exposition text
+	 * @param engines the engine metrics
+	 * @param name the metric name
+	 * @param type the metric type
+	 * @param help the help text
+	 * @param value extracts the value of an engine
+	 */
+	private static void gauge(StringBuilder out, List<EngineMetrics> engines, String name, String type, String help,
+			ToDoubleFunction<EngineMetrics> value) {
+		family(out, name, type, help);
+		for (EngineMetrics m : engines) {
+			sample(out, name, labels(m, null), value.applyAsDouble(m));
+		}
+	}
+
+	/**
+	 * Writes a family with one sample per service point of every engine.
+	 * @param out the exposition text
+	 * @param engines the engine metrics
+	 * @param name the metric name
+	 * @param type the metric type
+	 * @param help the help text
+	 * @param values extracts the values of an engine by service point name
+	 */
+	private static void perServicePoint(StringBuilder out, List<EngineMetrics> engines, String name, String type, String help,
+			Function<EngineMetrics, Map<String, ? extends Number>> values) {
+		family(out, name, type, help);
+		for (EngineMetrics m : engines) {
+			for (Map.Entry<String, ? extends Number> entry : values.apply(m).entrySet()) {
+				sample(out, name, labels(m, entry.getKey()), entry.getValue().doubleValue());
+			}
+		}
+	}
+
+	/**
+	 * Writes a counter family from the simulation statistics of every engine.
+	 * @param out the exposition text
+	 * @param engines the engine metrics
+	 * @param name the metric name
+	 * @param help the help text
+	 * @param value extracts the value from the statistics
+	 */
+	private static void simulation(StringBuilder out, List<EngineMetrics> engines, String name, String help,
+			ToDoubleFunction<SimulationStatistics> value) {
+		family(out, name, "counter", help);
+		for (EngineMetrics m : engines) {
+			if (m.getSimulationStatistics() != null) {
+				sample(out, name, labels(m, null), value.applyAsDouble(m.getSimulationStatistics()));
+			}
+		}
+	}
+
+	/**
+	 * Writes a counter family from the statistics of every service point of every engine.
+	 * @param out the exposition text
+	 * @param engines the engine metrics
+	 * @param name the metric name
+	 * @param help the help text
+	 * @param value extracts the value from the statistics
+	 */
+	private static void servicePoint(StringBuilder out, List<EngineMetrics> engines, String name, String help,
+			ToDoubleFunction<ServicePointStatistics> value) {
+		family(out, name, "counter", help);
+		for (EngineMetrics m : engines) {
+			for (Map.Entry<String, ServicePointStatistics> entry : m.getServicePointStatistics().entrySet()) {
+				sample(out, name, labels(m, entry.getKey()), value.applyAsDouble(entry.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Writes a histogram family from the statistics of every service point of every engine.
+	 * @param out the exposition text
+	 * @param engines the engine metrics
+	 * @param name the metric name
+	 * @param help the help text
+	 * @param histogram extracts the histogram from the statistics
+	 */
+	private static void servicePointHistogram(StringBuilder out, List<EngineMetrics> engines, String name, String help,
+			Function<ServicePointStatistics, Histogram> histogram) {
+		family(out, name, "histogram", help);
+		for (EngineMetrics m : engines) {
+			for (Map.Entry<String, ServicePointStatistics> entry : m.getServicePointStatistics().entrySet()) {
+				histogram(out, name, labels(m, entry.getKey()), histogram.apply(entry.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Writes the HELP and TYPE lines of a family.
+	 * @param out the exposition text
+	 * @param name the metric name
+	 * @param type the metric type
+	 * @param help the help text
+	 */
+	private static void family(StringBuilder out, String name, String type, String help) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	/**
+	 * Writes the bucket, sum and count samples of a histogram.
+	 * @param out the exposition text
+	 * @param name the metric name
+	 * @param labels the labels of the samples
+	 * @param histogram the histogram
+	 */
+	private static void histogram(StringBuilder out, String name, String labels, Histogram histogram) {
+		double[] bounds = histogram.getBounds();
+		long[] counts = histogram.getCumulativeCounts();
+		for (int i = 0; i < counts.length; i++) {
+			String le = i < bounds.length ? format(bounds[i]) : "+Inf";
+			sample(out, name + "_bucket", labels + ",le=\"" + le + "\"", counts[i]);
+		}
+		sample(out, name + "_sum", labels, histogram.getSum());
+		sample(out, name + "_count", labels, counts[counts.length - 1]);
+	}
+
+	/**
+	 * Writes one sample.
+	 * @param out the exposition text
+	 * @param name the metric name
+	 * @param labels the labels of the sample
+	 * @param value the value
+	 */
+	private static void sample(StringBuilder out, String name, String labels, double value) {
+		out.append(name).append('{').append(labels).append("} ").append(format(value)).append('\n');
+	}
+
+	/**
+	 * Returns the labels identifying an engine and optionally a service point.
+	 * @param metrics the engine metrics
+	 * @param servicePoint the service point name, or null
+	 * @return the labels, without braces
+	 */
+	private static String labels(EngineMetrics metrics, String servicePoint) {
+		String labels = "engine=\"" + metrics.getId() + "\",simulation=\"" + escape(metrics.getSimulation()) + "\"";
+		return servicePoint != null ? labels + ",service_point=\"" + escape(servicePoint) + "\"" : labels;
+	}
+
+	/**
+	 * Escapes a label value.
+	 * @param value the label value
+	 * @return the value with backslashes, quotes and line feeds escaped
+	 */
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	/**
+	 * Formats a sample value: integral values without a fraction, infinities as +Inf and -Inf.
+	 * @param value the value
+	 * @return the formatted value
+	 */
+	private static String format(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		if (Double.isInfinite(value)) {
+			return value > 0 ? "+Inf" : "-Inf";
+		}
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+}
@@ -0,0 +1,174 @@
+package simu.framework.monitoring;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Performance telemetry of one simulation run: how long the engine took and how hard it worked,
+ * saved together with the run's results to track the performance of the software over time and
+ * across configurations.
+ * <p>
+ * Telemetry is started when the engine starts and finished when the simulation time is reached.
+ * The heap and garbage collection figures are read from the JVM's management beans, so they cover
+ * the whole JVM: with several simulations running at once they include the work of the others.
+ * The peak heap usage is sampled during the run instead of read from the memory pools, whose peaks
+ * are shared by every run in the JVM.
+ */
+public class RunTelemetry {
+	/** Number of simulation steps between two samples of the heap usage. */
+	private static final int HEAP_SAMPLE_STEPS = 1024;
+
+	/** Memory bean of the JVM, read for the heap usage samples. */
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	/** Wall-clock time when the run started, in nanoseconds. */
+	private final long startNanos;
+	/** Garbage collection time of the JVM when the run started, in milliseconds. */
+	private final long startGcMillis;
+	/** Number of garbage collections of the JVM when the run started. */
+	private final long startGcCount;
+
+	/** Wall-clock duration of the run in milliseconds. */
+	private long wallMillis;
+	/** Number of events processed. */
+	private long eventsProcessed;
+	/** Highest number of pending events in the event list. */
+	private int peakEventListSize;
+	/** Peak heap usage during the run in bytes. */
+	private long peakHeapBytes;
+	/** Garbage collection time during the run in milliseconds. */
+	private long gcMillis;
+	/** Number of garbage collections during the run. */
+	private long gcCount;
+	/** Number of simulation steps since the last sample of the heap usage. */
+	private int stepsSinceSample;
+	/** Whether the run has finished. */
+	private boolean finished = false;
+
+	/**
+	 * Starts the telemetry of a run and takes the first sample of the heap usage.
+	 */
+	public RunTelemetry() {
+		sampleHeap();
+		long[] gc = gcTotals();
+		this.startGcMillis = gc[0];
+		this.startGcCount = gc[1];
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Finishes the telemetry of the run. Only the first call has an effect.
+	 * @param eventsProcessed the number of events processed by the run
+	 * @param peakEventListSize the highest number of pending events in the event list
+	 */
+	public void finish(long eventsProcessed, int peakEventListSize) {
+		if (finished) {
+			return;
+		}
+		this.wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+		this.eventsProcessed = eventsProcessed;
+		this.peakEventListSize = peakEventListSize;
+		long[] gc = gcTotals();
+		this.gcMillis = gc[0] - startGcMillis;
+		this.gcCount = gc[1] - startGcCount;
+		sampleHeap();
+		this.finished = true;
+	}
+
+	/**
+	 * Called by the engine after every simulation step; samples the heap usage every
+	 * {@value #HEAP_SAMPLE_STEPS} steps.
+	 */
+	public void stepCompleted() {
+		if (++stepsSinceSample >= HEAP_SAMPLE_STEPS) {
+			stepsSinceSample = 0;
+			sampleHeap();
+		}
+	}
+
+	/**
+	 * Samples the heap usage and keeps the highest sample as the peak heap usage.
+	 */
+	private void sampleHeap() {
+		peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+	}
+
+	/**
+	 * Returns the total garbage collection time and count of the JVM.
+	 * @return the collection time in milliseconds and the number of collections
+	 */
+	private static long[] gcTotals() {
+		long millis = 0;
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(collector.getCollectionTime(), 0);
+			count += Math.max(collector.getCollectionCount(), 0);
+		}
+		return new long[] { millis, count };
+	}
+
+	/**
+	 * Returns whether the run has finished.
+	 * @return true if the telemetry is complete
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Returns the wall-clock duration of the run.
+	 * @return the duration in milliseconds
+	 */
+	public long getWallMillis() {
+		return wallMillis;
+	}
+
+	/**
+	 * Returns the number of events processed.
+	 * @return the number of processed events
+	 */
+	public long getEventsProcessed() {
+		return eventsProcessed;
+	}
+
+	/**
+	 * Returns the number of events processed per wall-clock second over the whole run.
+	 * @return the event rate, 0 if the run took no measurable time
+	 */
+	public double getEventsPerSecond() {
+		return wallMillis > 0 ? eventsProcessed * 1000.0 / wallMillis : 0;
+	}
+
+	/**
+	 * Returns the highest number of pending events in the event list.
+	 * @return the peak event list size
+	 */
+	public int getPeakEventListSize() {
+		return peakEventListSize;
+	}
+
+	/**
+	 * Returns the peak heap usage during the run: the highest heap usage sampled at the start, every
+	 * {@value #HEAP_SAMPLE_STEPS} steps and at the end of the run, which is a lower bound of the peak.
+	 * @return the peak heap usage in bytes
+	 */
+	public long getPeakHeapBytes() {
+		return peakHeapBytes;
+	}
+
+	/**
+	 * Returns the time spent in garbage collection during the run.
+	 * @return the collection time in milliseconds
+	 */
+	public long getGcMillis() {
+		return gcMillis;
+	}
+
+	/**
+	 * Returns the number of garbage collections during the run.
+	 * @return the number of collections
+	 */
+	public long getGcCount() {
+		return gcCount;
+	}
+}
@@ -0,0 +1,60 @@
+package simu.framework.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event marking the beginning or the end of a service at a service point.
+ * Services span simulation time rather than wall time, so this is an instant event carrying the
+ * simulation time; the service time drawn at the beginning is recorded with it.
+ */
+@Name("simu.Service")
+@Label("Service Begin/End")
+@Category({"Simulation", "Service Point"})
+@Description("A customer's service begins or ends at a service point")
+@StackTrace(false)
+public class ServiceEvent extends Event {
+	/** Name of the service point. */
+	@Label("Service Point")
+	public String servicePoint;
+
+	/** Whether the service begins; false when it ends. */
+	@Label("Begin")
+	public boolean begin;
+
+	/** Simulation time of the begin or end. */
+	@Label("Simulation Time")
+	public double simTime;
+
+	/** ID of the customer, or -1. */
+	@Label("Customer ID")
+	public int customerId;
+
+	/** Service time drawn for the service when it begins, 0 when it ends. */
+	@Label("Service Time")
+	public double serviceTime;
+
+	/**
+	 * Records a service begin or end, if the event is enabled in the running recording.
+	 * @param servicePoint the name of the service point
+	 * @param begin true for a begin, false for an end
+	 * @param simTime the simulation time
+	 * @param customerId the ID of the customer, or -1
+	 * @param serviceTime the service time for a begin, 0 for an end
+	 */
+	public static void record(String servicePoint, boolean begin, double simTime, int customerId, double serviceTime) {
+		ServiceEvent event = new ServiceEvent();
+		if (event.isEnabled()) {
+			event.servicePoint = servicePoint;
+			event.begin = begin;
+			event.simTime = simTime;
+			event.customerId = customerId;
+			event.serviceTime = serviceTime;
+			event.commit();
+		}
+	}
+}
@@ -11,6 +11,12 @@
 package simu.framework.statistics;
 
 import simu.framework.Trace;
+import simu.framework.monitoring.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -41,6 +47,12 @@ public class ServicePointStatistics {
     /** Total waiting time for all customers. */
     private double waitingTime;
 
+    /** Distribution of the individual service times; not part of checkpoints. */
+    private final Histogram serviceTimeHistogram = new Histogram();
+
+    /** Distribution of the individual waiting times; not part of checkpoints. */
+    private final Histogram waitingTimeHistogram = new Histogram();
+
     /** Average queue length (waiting time / simulation time). */
     public double averageQueueLength;
 
@@ -50,6 +62,12 @@ public class ServicePointStatistics {
     /** Variance for service time distribution (user configuration). */
     public double variance;
 
+    /** Number of arrived customers as last published by {@link #publish()}. */
+    private final AtomicInteger publishedArrivedCustomers = new AtomicInteger();
+
+    /** Number of serviced customers as last published by {@link #publish()}. */
+    private final AtomicInteger publishedServicedCustomers = new AtomicInteger();
+
 
     /**
      * Constructs a new ServicePointStatistics object with default values.
@@ -83,10 +101,43 @@ public class ServicePointStatistics {
         serviceThroughput = 0.0;
         averageServiceTime = 0.0;
         waitingTime = 0.0;
+        serviceTimeHistogram.reset();
+        waitingTimeHistogram.reset();
+        publish();
         // Note: mean and variance are NOT reset here - they're user configuration
     }
 
 
+    /**
+     * Publishes the counters and histograms to metrics readers on other threads. Called by the
+     * engine after every simulation step.
+     */
+    public void publish() {
+        publishedArrivedCustomers.lazySet(arrivedCustomers);
+        publishedServicedCustomers.lazySet(servicedCustomers);
+        serviceTimeHistogram.publish();
+        waitingTimeHistogram.publish();
+    }
+
+
+    /**
+     * Returns the number of arrived customers at the last publication, for readers on other threads.
+     * @return the published number of arrived customers
+     */
+    public int getPublishedArrivedCustomers() {
+        return publishedArrivedCustomers.get();
+    }
+
+
+    /**
+     * Returns the number of serviced customers at the last publication, for readers on other threads.
+     * @return the published number of serviced customers
+     */
+    public int getPublishedServicedCustomers() {
+        return publishedServicedCustomers.get();
+    }
+
+
     /**
      * Increments the number of arrived customers by one.
      */
@@ -109,6 +160,7 @@ public class ServicePointStatistics {
      */
     public void addServiceBusyTime(double time) {
         serviceBusyTime += time;
+        serviceTimeHistogram.observe(time);
     }
 
 
@@ -188,6 +240,7 @@ public class ServicePointStatistics {
      */
     public void addServiceWaitingTime(double time){
         waitingTime += time;
+        waitingTimeHistogram.observe(time);
     }
 
 
@@ -200,6 +253,24 @@ public class ServicePointStatistics {
     }
 
 
+    /**
+     * Returns the distribution of the individual service times.
+     * @return the service time histogram
+     */
+    public Histogram getServiceTimeHistogram() {
+        return serviceTimeHistogram;
+    }
+
+
+    /**
+     * Returns the distribution of the individual waiting times.
+     * @return the waiting time histogram
+     */
+    public Histogram getWaitingTimeHistogram() {
+        return waitingTimeHistogram;
+    }
+
+
     /**
      * Returns the mean value for the service time distribution.
      * @return the mean value
@@ -249,8 +320,40 @@ public class ServicePointStatistics {
         Trace.out(Trace.Level.INFO, "Average queue length: " + countAverageQueueLength(time));
         Trace.out(Trace.Level.INFO, "Waiting time: " + getServiceWaitingTime());
     }
-}
-
-
 
+    /**
+     * Writes all statistics accumulators and the configured mean and variance to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(arrivedCustomers);
+        out.writeInt(servicedCustomers);
+        out.writeDouble(serviceBusyTime);
+        out.writeDouble(serviceUtilization);
+        out.writeDouble(serviceThroughput);
+        out.writeDouble(averageServiceTime);
+        out.writeDouble(waitingTime);
+        out.writeDouble(averageQueueLength);
+        out.writeDouble(mean);
+        out.writeDouble(variance);
+    }
 
+    /**
+     * Restores the statistics written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        arrivedCustomers = in.readInt();
+        servicedCustomers = in.readInt();
+        serviceBusyTime = in.readDouble();
+        serviceUtilization = in.readDouble();
+        serviceThroughput = in.readDouble();
+        averageServiceTime = in.readDouble();
+        waitingTime = in.readDouble();
+        averageQueueLength = in.readDouble();
+        mean = in.readDouble();
+        variance = in.readDouble();
+    }
+}
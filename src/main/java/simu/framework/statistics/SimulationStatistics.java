@@ -8,8 +8,17 @@
  */
 package simu.framework.statistics;
 
+import simu.framework.RateFunction;
+import simu.framework.SimulationContext;
 import simu.framework.Trace;
-import simu.backend.dao.OverviewStatisticsDao;
+import simu.framework.monitoring.Histogram;
+import simu.backend.dao.SimulationRun;
+import simu.backend.dao.SimulationRunDao;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -19,8 +28,8 @@ import simu.backend.dao.OverviewStatisticsDao;
 public class SimulationStatistics {
 
 
-    /** Data access object for persisting overview statistics. */
-    private OverviewStatisticsDao dao = new OverviewStatisticsDao();
+    /** Data access object for persisting complete simulation runs. */
+    private SimulationRunDao dao = new SimulationRunDao();
 
     /** Current simulation time (configuration value). */
     private double simulationTime;
@@ -34,6 +43,12 @@ public class SimulationStatistics {
     /** Mean time for walk-in arrivals (user configuration). */
     private double walkInMeanTime;
 
+    /** Optional time-of-day rate profile for call-in arrivals; null means constant callInMeanTime. */
+    private RateFunction callInRateFunction;
+
+    /** Optional time-of-day rate profile for walk-in arrivals; null means constant walkInMeanTime. */
+    private RateFunction walkInRateFunction;
+
     /** Total number of customers that arrived during the simulation. */
     private int totalArrivedCustomers;
 
@@ -49,15 +64,45 @@ public class SimulationStatistics {
     /** Number of orders that were remade. */
     private int remakeOrdersCustomers;
 
+    /** Number of walk-in customers that arrived. */
+    private int walkInCustomers;
+
+    /** Number of call-in customers that arrived. */
+    private int callInCustomers;
+
+    /** Number of failed payment attempts at the reception. */
+    private int paymentFailures;
+
+    /** Number of deliveries completed successfully. */
+    private int successfulDeliveries;
+
     /** Total waiting time for all customers in the system. */
     private double totalWaitingTime;
 
+    /** Distribution of the individual response times; not part of checkpoints. */
+    private final Histogram responseTimeHistogram = new Histogram();
+
     /** System throughput (serviced customers / total simulation time). */
     private double systemThrougput;
 
     /** Average response time for all serviced customers. */
     private double averageResponseTime;
 
+    /** Number of arrived customers as last published by {@link #publish()}. */
+    private final AtomicInteger publishedArrivedCustomers = new AtomicInteger();
+
+    /** Number of serviced customers as last published by {@link #publish()}. */
+    private final AtomicInteger publishedServicedCustomers = new AtomicInteger();
+
+    /** Number of refused deliveries as last published by {@link #publish()}. */
+    private final AtomicInteger publishedRefusedDeliveryCustomers = new AtomicInteger();
+
+    /** Number of money returns as last published by {@link #publish()}. */
+    private final AtomicInteger publishedReturnMoneyCustomers = new AtomicInteger();
+
+    /** Number of remade orders as last published by {@link #publish()}. */
+    private final AtomicInteger publishedRemakeOrdersCustomers = new AtomicInteger();
+
     /** Singleton instance of SimulationStatistics. */
     private static SimulationStatistics INSTANCE;
 
@@ -76,7 +121,12 @@ public class SimulationStatistics {
         refusedDeliveryCustomers = 0;
         returnMoneyCustomers = 0;
         remakeOrdersCustomers = 0;
+        walkInCustomers = 0;
+        callInCustomers = 0;
+        paymentFailures = 0;
+        successfulDeliveries = 0;
         totalWaitingTime = 0.0;
+        responseTimeHistogram.reset();
         systemThrougput = 0.0;
         averageResponseTime = 0.0;
     }
@@ -154,6 +204,44 @@ public class SimulationStatistics {
     }
 
 
+    /**
+     * Sets a time-of-day rate profile for walk-in arrivals. When set, it replaces the constant
+     * walk-in mean time for arrival generation.
+     * @param walkInRateFunction the rate profile, or null to use the constant mean time
+     */
+    public void setWalkInRateFunction(RateFunction walkInRateFunction) {
+        this.walkInRateFunction = walkInRateFunction;
+    }
+
+
+    /**
+     * Returns the time-of-day rate profile for walk-in arrivals.
+     * @return the rate profile, or null if the constant mean time is used
+     */
+    public RateFunction getWalkInRateFunction() {
+        return walkInRateFunction;
+    }
+
+
+    /**
+     * Sets a time-of-day rate profile for call-in arrivals. When set, it replaces the constant
+     * call-in mean time for arrival generation.
+     * @param callInRateFunction the rate profile, or null to use the constant mean time
+     */
+    public void setCallInRateFunction(RateFunction callInRateFunction) {
+        this.callInRateFunction = callInRateFunction;
+    }
+
+
+    /**
+     * Returns the time-of-day rate profile for call-in arrivals.
+     * @return the rate profile, or null if the constant mean time is used
+     */
+    public RateFunction getCallInRateFunction() {
+        return callInRateFunction;
+    }
+
+
     /**
      * Increments the total number of arrived customers by one.
      */
@@ -244,12 +332,147 @@ public class SimulationStatistics {
     }
 
 
+    /**
+     * Counts an arrived customer by its type; the total is counted by
+     * {@link #incrementTotalArrivedCustomers()}.
+     * @param walkIn true for a walk-in customer, false for a call-in customer
+     */
+    public void incrementArrivedCustomers(boolean walkIn) {
+        if (walkIn) {
+            walkInCustomers++;
+        } else {
+            callInCustomers++;
+        }
+    }
+
+
+    /**
+     * Returns the number of walk-in customers that arrived.
+     * @return the number of walk-in customers
+     */
+    public int getWalkInCustomers() {
+        return walkInCustomers;
+    }
+
+
+    /**
+     * Returns the number of call-in customers that arrived.
+     * @return the number of call-in customers
+     */
+    public int getCallInCustomers() {
+        return callInCustomers;
+    }
+
+
+    /**
+     * Increments the number of failed payment attempts by one.
+     */
+    public void incrementPaymentFailures() {
+        paymentFailures++;
+    }
+
+
+    /**
+     * Returns the number of failed payment attempts at the reception.
+     * @return the number of payment failures
+     */
+    public int getPaymentFailures() {
+        return paymentFailures;
+    }
+
+
+    /**
+     * Increments the number of successful deliveries by one.
+     */
+    public void incrementSuccessfulDeliveries() {
+        successfulDeliveries++;
+    }
+
+
+    /**
+     * Returns the number of deliveries completed successfully.
+     * @return the number of successful deliveries
+     */
+    public int getSuccessfulDeliveries() {
+        return successfulDeliveries;
+    }
+
+
     /**
      * Adds the given time to the total waiting time for all customers.
      * @param time the waiting time to add
      */
     public void addTotalWaitingTime(double time) {
         totalWaitingTime += time;
+        responseTimeHistogram.observe(time);
+    }
+
+
+    /**
+     * Returns the distribution of the individual response times (arrival to leaving the system).
+     * @return the response time histogram
+     */
+    public Histogram getResponseTimeHistogram() {
+        return responseTimeHistogram;
+    }
+
+
+    /**
+     * Publishes the counters and the response time histogram to metrics readers on other threads.
+     * Called by the engine after every simulation step.
+     */
+    public void publish() {
+        publishedArrivedCustomers.lazySet(totalArrivedCustomers);
+        publishedServicedCustomers.lazySet(totalServicedCustomers);
+        publishedRefusedDeliveryCustomers.lazySet(refusedDeliveryCustomers);
+        publishedReturnMoneyCustomers.lazySet(returnMoneyCustomers);
+        publishedRemakeOrdersCustomers.lazySet(remakeOrdersCustomers);
+        responseTimeHistogram.publish();
+    }
+
+
+    /**
+     * Returns the number of arrived customers at the last publication, for readers on other threads.
+     * @return the published number of arrived customers
+     */
+    public int getPublishedArrivedCustomers() {
+        return publishedArrivedCustomers.get();
+    }
+
+
+    /**
+     * Returns the number of serviced customers at the last publication, for readers on other threads.
+     * @return the published number of serviced customers
+     */
+    public int getPublishedServicedCustomers() {
+        return publishedServicedCustomers.get();
+    }
+
+
+    /**
+     * Returns the number of refused deliveries at the last publication, for readers on other threads.
+     * @return the published number of refused deliveries
+     */
+    public int getPublishedRefusedDeliveryCustomers() {
+        return publishedRefusedDeliveryCustomers.get();
+    }
+
+
+    /**
+     * Returns the number of money returns at the last publication, for readers on other threads.
+     * @return the published number of money returns
+     */
+    public int getPublishedReturnMoneyCustomers() {
+        return publishedReturnMoneyCustomers.get();
+    }
+
+
+    /**
+     * Returns the number of remade orders at the last publication, for readers on other threads.
+     * @return the published number of remade orders
+     */
+    public int getPublishedRemakeOrdersCustomers() {
+        return publishedRemakeOrdersCustomers.get();
     }
 
 
@@ -297,6 +520,10 @@ public class SimulationStatistics {
      * @return the singleton instance of SimulationStatistics
      */
     public static SimulationStatistics getInstance(){
+        SimulationContext context = SimulationContext.current();
+        if (context != null) {
+            return context.getInstance(SimulationStatistics.class, SimulationStatistics::new);
+        }
         if (INSTANCE == null){
             INSTANCE = new SimulationStatistics();
         }
@@ -315,19 +542,104 @@ public class SimulationStatistics {
         refusedDeliveryCustomers = 0;
         returnMoneyCustomers = 0;
         remakeOrdersCustomers = 0;
+        walkInCustomers = 0;
+        callInCustomers = 0;
+        paymentFailures = 0;
+        successfulDeliveries = 0;
         totalWaitingTime = 0.0;
         systemThrougput = 0.0;
         averageResponseTime = 0.0;
+        publish();
     }
     
 
+    /**
+     * Writes the configuration and all statistics accumulators to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(simulationTime);
+        out.writeDouble(totalSimulationTime);
+        out.writeDouble(callInMeanTime);
+        out.writeDouble(walkInMeanTime);
+        writeRateFunction(out, callInRateFunction);
+        writeRateFunction(out, walkInRateFunction);
+        out.writeInt(totalArrivedCustomers);
+        out.writeInt(totalServicedCustomers);
+        out.writeInt(refusedDeliveryCustomers);
+        out.writeInt(returnMoneyCustomers);
+        out.writeInt(remakeOrdersCustomers);
+        out.writeInt(walkInCustomers);
+        out.writeInt(callInCustomers);
+        out.writeInt(paymentFailures);
+        out.writeInt(successfulDeliveries);
+        out.writeDouble(totalWaitingTime);
+        out.writeDouble(systemThrougput);
+        out.writeDouble(averageResponseTime);
+    }
+
+
+    /**
+     * Restores the configuration and statistics written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        simulationTime = in.readDouble();
+        totalSimulationTime = in.readDouble();
+        callInMeanTime = in.readDouble();
+        walkInMeanTime = in.readDouble();
+        callInRateFunction = readRateFunction(in);
+        walkInRateFunction = readRateFunction(in);
+        totalArrivedCustomers = in.readInt();
+        totalServicedCustomers = in.readInt();
+        refusedDeliveryCustomers = in.readInt();
+        returnMoneyCustomers = in.readInt();
+        remakeOrdersCustomers = in.readInt();
+        walkInCustomers = in.readInt();
+        callInCustomers = in.readInt();
+        paymentFailures = in.readInt();
+        successfulDeliveries = in.readInt();
+        totalWaitingTime = in.readDouble();
+        systemThrougput = in.readDouble();
+        averageResponseTime = in.readDouble();
+    }
+
+
+    /**
+     * Writes an optional rate function to a checkpoint.
+     * @param out the checkpoint output
+     * @param rateFunction the rate function, or null
+     * @throws IOException if writing fails
+     */
+    private static void writeRateFunction(DataOutput out, RateFunction rateFunction) throws IOException {
+        out.writeBoolean(rateFunction != null);
+        if (rateFunction != null) {
+            rateFunction.writeState(out);
+        }
+    }
+
+
+    /**
+     * Reads an optional rate function from a checkpoint.
+     * @param in the checkpoint input
+     * @return the rate function, or null
+     * @throws IOException if reading fails
+     */
+    private static RateFunction readRateFunction(DataInput in) throws IOException {
+        return in.readBoolean() ? RateFunction.readState(in) : null;
+    }
+
+
     /**
      * Resets all statistics singleton instances for a new simulation, including all service point statistics.
      */
     public static void resetAllStatistics() {
         // Reset main statistics
-        if (INSTANCE != null) {
-            INSTANCE.resetStatistics();
+        SimulationStatistics instance = SimulationContext.current() != null ? getInstance() : INSTANCE;
+        if (instance != null) {
+            instance.resetStatistics();
         }
         // Reset all service point statistics
         simu.framework.statistics.reception.ReceptionStatistics.resetInstance();
@@ -339,11 +651,25 @@ public class SimulationStatistics {
 
     /**
      * Saves complete simulation statistics to the database, including overview and all service point statistics.
-     * Calculates total busy time and final metrics before saving. Also persists each service point's statistics.
+     * The overview and the service point rows are written in a single transaction.
      *
      * @return the persisted OverviewStatistics entity
      */
     public simu.backend.entity.OverviewStatistics saveToDatabase() {
+        SimulationRun run = createRun();
+        dao.persistRun(run);
+        return run.getOverview();
+    }
+
+    /**
+     * Creates the database entities of the current run without saving them: the overview
+     * statistics and the statistics of every service point. Runs created this way can be saved
+     * together with {@link SimulationRunDao#persistRuns(java.util.List)}.
+     * Calculates total busy time and final metrics first.
+     *
+     * @return the unsaved entities of the current run
+     */
+    public SimulationRun createRun() {
         // Calculate total busy time from all service points
         double totalBusyTime = 0.0;
         // Get instances of all service point statistics
@@ -377,7 +703,7 @@ public class SimulationStatistics {
         // Calculate final metrics before saving
         countSystemThroughput();
         countSystemAverageResponseTime();
-        // Create and save overview statistics using new schema
+        // Create overview statistics using new schema
         simu.backend.entity.OverviewStatistics overviewEntity = new simu.backend.entity.OverviewStatistics(
             (float) simulationTime,           // simulation_time
             (float) totalSimulationTime,      // total_simulation_time
@@ -393,16 +719,12 @@ public class SimulationStatistics {
             (float) averageResponseTime,      // average_response_time
             (float) totalBusyTime             // busy_time
         );
-        simu.backend.entity.OverviewStatistics savedOverview = dao.persist(overviewEntity);
-        // Save individual service point statistics
-        if (savedOverview != null) {
-            int overviewId = savedOverview.getId();
-            receptionStats.saveToDatabase(overviewId);
-            kitchenStats.saveToDatabase(overviewId);
-            counterStats.saveToDatabase(overviewId);
-            deliveryStats.saveToDatabase(overviewId);
-        }
-        return savedOverview;
+        // Service point statistics are linked to the overview when the run is saved
+        return new SimulationRun(overviewEntity,
+            receptionStats.createEntity(0),
+            kitchenStats.createEntity(0),
+            counterStats.createEntity(0),
+            deliveryStats.createEntity(0));
     }
 
 }
\ No newline at end of file
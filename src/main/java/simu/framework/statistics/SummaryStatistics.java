@@ -0,0 +1,151 @@
+package simu.framework.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Running summary statistics of a sample: count, mean, variance, minimum and maximum, updated
+ * one value at a time with Welford's algorithm, which stays accurate where the textbook sum of
+ * squares cancels catastrophically.
+ * <p>
+ * Summaries of separate samples, e.g. of replications run in different processes, are combined
+ * with {@link #merge(SummaryStatistics)} using the pairwise formulas of Chan et al., giving the
+ * same result as one summary of all values, so partial results can be merged as they arrive.
+ */
+public class SummaryStatistics {
+    /** Number of values. */
+    private long count = 0;
+    /** Mean of the values. */
+    private double mean = 0;
+    /** Sum of squared deviations from the mean. */
+    private double m2 = 0;
+    /** Smallest value. */
+    private double min = Double.POSITIVE_INFINITY;
+    /** Largest value. */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value to the sample.
+     * @param value the value
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of another summary to this one.
+     * @param other the summary to merge; not modified
+     */
+    public void merge(SummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the number of values.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values.
+     * @return the mean, 0 if there are no values
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the sample variance of the values.
+     * @return the variance with n - 1 degrees of freedom, 0 if there are fewer than two values
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    /**
+     * Returns the sample standard deviation of the values.
+     * @return the standard deviation, 0 if there are fewer than two values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Returns the half-width of the approximate 95% confidence interval of the mean, using the
+     * normal quantile, which suits the tens of replications or more of distributed experiments.
+     * @return the half-width, 0 if there are fewer than two values
+     */
+    public double getConfidenceHalfWidth() {
+        return count > 1 ? 1.96 * Math.sqrt(getVariance() / count) : 0;
+    }
+
+    /**
+     * Returns the smallest value.
+     * @return the minimum, NaN if there are no values
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Returns the largest value.
+     * @return the maximum, NaN if there are no values
+     */
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Writes the summary.
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    /**
+     * Reads a summary written by {@link #writeState(DataOutput)}.
+     * @param in the input
+     * @return the summary
+     * @throws IOException if reading fails
+     */
+    public static SummaryStatistics readState(DataInput in) throws IOException {
+        SummaryStatistics summary = new SummaryStatistics();
+        summary.count = in.readLong();
+        summary.mean = in.readDouble();
+        summary.m2 = in.readDouble();
+        summary.min = in.readDouble();
+        summary.max = in.readDouble();
+        return summary;
+    }
+}
@@ -9,6 +9,7 @@
  */
 package simu.framework.statistics.kitchen;
 
+import simu.framework.SimulationContext;
 import simu.framework.Trace;
 import simu.framework.statistics.ServicePointStatistics;
 import simu.backend.dao.KitchenStatisticsDao;
@@ -31,6 +32,10 @@ public class KitchenStatistics extends ServicePointStatistics {
      * @return the singleton instance of KitchenStatistics
      */
     public static KitchenStatistics getInstance(){
+        SimulationContext context = SimulationContext.current();
+        if (context != null) {
+            return context.getInstance(KitchenStatistics.class, KitchenStatistics::new);
+        }
         if (INSTANCE == null){
             INSTANCE = new KitchenStatistics();
         }
@@ -43,8 +48,9 @@ public class KitchenStatistics extends ServicePointStatistics {
      */
     public static void resetInstance() {
         // Instead of nullifying instance, reset only runtime data
-        if (INSTANCE != null) {
-            INSTANCE.resetRuntimeData();
+        KitchenStatistics instance = SimulationContext.current() != null ? getInstance() : INSTANCE;
+        if (instance != null) {
+            instance.resetRuntimeData();
         }
         // If instance is null, it will be created with default config values
     }
@@ -61,13 +67,13 @@ public class KitchenStatistics extends ServicePointStatistics {
     }
 
     /**
-     * Creates and saves the current kitchen statistics to the database.
+     * Creates a database entity from the current kitchen statistics without saving it.
      * Calculates derived values such as utilization, throughput, and average queue length.
      *
      * @param overviewId the ID of the overview to associate with these statistics
-     * @return the persisted KitchenStatistics entity
+     * @return the new, unsaved KitchenStatistics entity
      */
-    public simu.backend.entity.KitchenStatistics saveToDatabase(int overviewId) {
+    public simu.backend.entity.KitchenStatistics createEntity(int overviewId) {
         // Calculate derived values
         double utilization = getServicedCustomers() > 0 ? (getServiceBusyTime() / getServicedCustomers()) * 100 : 0;
         double throughput = getServicedCustomers() > 0 ? getServicedCustomers() / getServiceBusyTime() : 0;
@@ -86,7 +92,17 @@ public class KitchenStatistics extends ServicePointStatistics {
             (float) getMean(),            // mean_value
             (float) getVariance()         // variance_value
         );
-        return dao.persist(entity);
+        return entity;
+    }
+
+    /**
+     * Creates and saves the current kitchen statistics to the database.
+     *
+     * @param overviewId the ID of the overview to associate with these statistics
+     * @return the persisted KitchenStatistics entity
+     */
+    public simu.backend.entity.KitchenStatistics saveToDatabase(int overviewId) {
+        return dao.persist(createEntity(overviewId));
     }
 
     /**
@@ -9,6 +9,7 @@
  */
 package simu.framework.statistics.reception;
 
+import simu.framework.SimulationContext;
 import simu.framework.Trace;
 import simu.framework.statistics.ServicePointStatistics;
 import simu.backend.dao.ReceptionStatisticsDao;
@@ -31,6 +32,10 @@ public class ReceptionStatistics extends ServicePointStatistics {
      * @return the singleton instance of ReceptionStatistics
      */
     public static ReceptionStatistics getInstance(){
+        SimulationContext context = SimulationContext.current();
+        if (context != null) {
+            return context.getInstance(ReceptionStatistics.class, ReceptionStatistics::new);
+        }
         if (INSTANCE == null){
             INSTANCE = new ReceptionStatistics();
         }
@@ -43,8 +48,9 @@ public class ReceptionStatistics extends ServicePointStatistics {
      */
     public static void resetInstance() {
         // Instead of nullifying instance, reset only runtime data
-        if (INSTANCE != null) {
-            INSTANCE.resetRuntimeData();
+        ReceptionStatistics instance = SimulationContext.current() != null ? getInstance() : INSTANCE;
+        if (instance != null) {
+            instance.resetRuntimeData();
         }
         // If instance is null, it will be created with default config values
     }
@@ -61,13 +67,13 @@ public class ReceptionStatistics extends ServicePointStatistics {
     }
 
     /**
-     * Creates and saves the current reception statistics to the database.
+     * Creates a database entity from the current reception statistics without saving it.
      * Calculates values such as utilization, throughput, and average queue length based on the total simulation time.
      *
      * @param overviewId the ID of the overview to associate with these statistics
-     * @return the persisted ReceptionStatistics entity
+     * @return the new, unsaved ReceptionStatistics entity
      */
-    public simu.backend.entity.ReceptionStatistics saveToDatabase(int overviewId) {
+    public simu.backend.entity.ReceptionStatistics createEntity(int overviewId) {
         double simulationTime = simu.framework.statistics.SimulationStatistics.getInstance().getTotalSimulationTime();
         simu.backend.entity.ReceptionStatistics entity = new simu.backend.entity.ReceptionStatistics(
             overviewId,
@@ -82,7 +88,17 @@ public class ReceptionStatistics extends ServicePointStatistics {
             (float) getMean(),                  // mean_value
             (float) getVariance()               // variance_value
         );
-        return dao.persist(entity);
+        return entity;
+    }
+
+    /**
+     * Creates and saves the current reception statistics to the database.
+     *
+     * @param overviewId the ID of the overview to associate with these statistics
+     * @return the persisted ReceptionStatistics entity
+     */
+    public simu.backend.entity.ReceptionStatistics saveToDatabase(int overviewId) {
+        return dao.persist(createEntity(overviewId));
     }
 
     /**
@@ -1,8 +1,13 @@
 package simu.model;
 
 import simu.framework.Clock;
+import simu.framework.SimulationContext;
 import simu.framework.Trace;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Represents a customer in the simulation model.
  * Tracks arrival, service, and removal times, customer type, and various states for simulation logic and statistics.
@@ -18,12 +23,8 @@ public class Customer {
     private double servicePointArrival;
     /** Unique identifier for the customer. */
     private int id;
-    /** Static counter for assigning unique IDs. */
-    private static int i = 1;
-    /** Sum of all response times for all customers. */
-    private static long sum = 0;
-    /** Total response time for all customers. */
-    private static double totalResponseTime = 0.0;
+    /** Shared counters of the simulation running without a {@link SimulationContext}. */
+    private static final Counters GLOBAL_COUNTERS = new Counters();
     /** Whether the customer is a walk-in. */
     private boolean walkIn;
     /** Whether the customer's order is faulty. */
@@ -47,12 +48,33 @@ public class Customer {
         REMAKE
     }
 
+    /**
+     * Counters shared by all customers of one simulation.
+     */
+    private static class Counters {
+        /** Counter for assigning unique IDs. */
+        private int i = 1;
+        /** Sum of all response times for all customers. */
+        private long sum = 0;
+        /** Total response time for all customers. */
+        private double totalResponseTime = 0.0;
+    }
+
+    /**
+     * Returns the counters of the current simulation context, or the global counters.
+     * @return the shared customer counters
+     */
+    private static Counters counters() {
+        SimulationContext context = SimulationContext.current();
+        return context != null ? context.getInstance(Counters.class, Counters::new) : GLOBAL_COUNTERS;
+    }
+
     /**
      * Constructs a new Customer, assigning a unique ID and setting type based on walk-in status.
      * @param walkIn true if the customer is a walk-in, false if call-in
      */
     public Customer(boolean walkIn) {
-        id = i++;
+        id = counters().i++;
         this.walkIn = walkIn;
         this.customerType = walkIn ? CustomerType.WALK_IN : CustomerType.CALL_IN;
         isFaulty = false;
@@ -68,7 +90,7 @@ public class Customer {
      * @param type the type of the customer
      */
     public Customer(CustomerType type) {
-        id = i++;
+        id = counters().i++;
         this.customerType = type;
         this.walkIn = (type == CustomerType.WALK_IN);
         isFaulty = false;
@@ -76,6 +98,12 @@ public class Customer {
         Trace.out(Trace.Level.INFO, "New " + type + " customer #" + id + " arrived at  " + arrivalTime);
     }
 
+    /**
+     * Constructs a customer without assigning an ID, used when restoring from a checkpoint.
+     */
+    private Customer() {
+    }
+
     /**
      * Gets the time the customer was removed from the system.
      * @return the removal time
@@ -152,25 +180,34 @@ public class Customer {
         }
 
         double responseTime = removalTime - arrivalTime;
-        sum += responseTime;
-        totalResponseTime += responseTime;
-        double mean = sum/id;
+        Counters counters = counters();
+        counters.sum += responseTime;
+        counters.totalResponseTime += responseTime;
+        double mean = counters.sum/id;
         System.out.println("Current mean of the customer service times " + mean + "\n");
     }
     
+    /**
+     * Gets the ID that will be assigned to the next customer created.
+     * @return the next customer ID
+     */
+    public static int getNextId() {
+        return counters().i;
+    }
+
     /**
      * Gets the total response time for all customers.
      * @return the total response time
      */
     public static double getTotalResponseTime() {
-        return totalResponseTime;
+        return counters().totalResponseTime;
     }
     
     /**
      * Resets the total response time for all customers.
      */
     public static void resetTotalResponseTime() {
-        totalResponseTime = 0.0;
+        counters().totalResponseTime = 0.0;
     }
 
     /**
@@ -282,4 +319,67 @@ public class Customer {
     public void setOnKitchen(boolean onKitchen){
         this.onKitchen = onKitchen;
     }
+
+    /**
+     * Writes the state of this customer to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeDouble(arrivalTime);
+        out.writeDouble(removalTime);
+        out.writeDouble(serviceStartTime);
+        out.writeDouble(servicePointArrival);
+        out.writeByte(customerType.ordinal());
+        out.writeBoolean(walkIn);
+        out.writeBoolean(isFaulty);
+        out.writeBoolean(onKitchen);
+        out.writeBoolean(customerBack);
+    }
+
+    /**
+     * Reads a customer written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @return the restored customer
+     * @throws IOException if reading fails
+     */
+    public static Customer readState(DataInput in) throws IOException {
+        Customer customer = new Customer();
+        customer.id = in.readInt();
+        customer.arrivalTime = in.readDouble();
+        customer.removalTime = in.readDouble();
+        customer.serviceStartTime = in.readDouble();
+        customer.servicePointArrival = in.readDouble();
+        customer.customerType = CustomerType.values()[in.readByte()];
+        customer.walkIn = in.readBoolean();
+        customer.isFaulty = in.readBoolean();
+        customer.onKitchen = in.readBoolean();
+        customer.customerBack = in.readBoolean();
+        return customer;
+    }
+
+    /**
+     * Writes the shared customer counters (next ID and response time sums) to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public static void writeCounters(DataOutput out) throws IOException {
+        Counters counters = counters();
+        out.writeInt(counters.i);
+        out.writeLong(counters.sum);
+        out.writeDouble(counters.totalResponseTime);
+    }
+
+    /**
+     * Restores the shared customer counters written by {@link #writeCounters(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    public static void readCounters(DataInput in) throws IOException {
+        Counters counters = counters();
+        counters.i = in.readInt();
+        counters.sum = in.readLong();
+        counters.totalResponseTime = in.readDouble();
+    }
 }
@@ -3,7 +3,13 @@ package simu.model;
 import controller.Controller;
 import eduni.distributions.Negexp;
 import eduni.distributions.Normal;
+import simu.backend.dao.ResultsWriter;
+import simu.backend.dao.SimulationRun;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ProjectMetrics;
 import simu.framework.*;
+import simu.framework.monitoring.RunTelemetry;
+import simu.framework.statistics.ServicePointStatistics;
 import simu.framework.statistics.SimulationStatistics;
 import simu.framework.statistics.counter.CounterStatistics;
 import simu.framework.statistics.delivery.DeliveryStatistics;
@@ -11,15 +17,30 @@ import simu.framework.statistics.kitchen.KitchenStatistics;
 import simu.framework.statistics.reception.ReceptionStatistics;
 import simu.model.counter.CounterService;
 import simu.model.delivery.DeliveryService;
+import simu.model.kitchen.Cook;
+import simu.model.kitchen.CookCompetency;
 import simu.model.kitchen.KitchenServicePoint;
 import simu.model.reception.ReceptionService;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
 /**
  * Simulation engine for the restaurant simulation model.
  * Extends the base Engine class and manages arrival processes, service points, event handling, and statistics.
  * Responsible for initializing the simulation, running events, collecting results, and saving data to the database.
  */
 public class MyEngine extends Engine {
+    /** Names of the service points, in index order. */
+    private static final String[] SERVICE_POINT_NAMES = {"RECEPTION", "KITCHEN", "COUNTER", "DELIVERY"};
     /** Arrival process for call-in customers. */
     private ArrivalProcess arrivalProcessCall;
     /** Arrival process for restaurant (walk-in) customers. */
@@ -36,6 +57,8 @@ public class MyEngine extends Engine {
     private SimulationStatistics simulationStatistics = SimulationStatistics.getInstance();
     /** The simulation start time. */
     private double simulationStartTime;
+    /** Whether the results are saved to the database when the simulation ends. */
+    private boolean saveResults = true;
 
 
     /**
@@ -43,21 +66,49 @@ public class MyEngine extends Engine {
      * @param controller the main controller for visualization and callbacks
      */
     public MyEngine(Controller controller) { // NEW
+        this(controller, controller.getCookLevels());
+    }
+
+    /**
+     * Constructs the simulation engine with the given cooks, e.g. when restoring from a checkpoint.
+     * @param controller the main controller for visualization and callbacks
+     * @param cookLevels the competencies of the kitchen's cooks
+     */
+    public MyEngine(Controller controller, ArrayList<CookCompetency> cookLevels) {
         super(controller); // NEW
 
         servicePoints = new ServicePoint[4]; // Increased from 3 to 4
 
         servicePoints[0] = new ReceptionService(new Normal(receptionStatistics.getMean(), receptionStatistics.getVariance()), eventList, EventType.DepartureFromReception); //Lisäsin oman Recdeption Service Listaan.
-        servicePoints[1] = new KitchenServicePoint(new Normal(kitchenStatistics.getMean(), kitchenStatistics.getVariance()), eventList, EventType.DepartureFromKitchen,controller.getCookLevels());
-        servicePoints[2] = new CounterService(new Normal(counterStatistics.getMean(), kitchenStatistics.getVariance()), eventList, EventType.DepartureFromCounterToCostumer);
-        servicePoints[3] = new DeliveryService(new Normal(deliveryStatistics.getMean(), kitchenStatistics.getVariance()), eventList, EventType.DepartureFromDelivery); // New delivery service
+        servicePoints[1] = new KitchenServicePoint(new Normal(kitchenStatistics.getMean(), kitchenStatistics.getVariance()), eventList, EventType.DepartureFromKitchen,cookLevels);
+        servicePoints[2] = new CounterService(new Normal(counterStatistics.getMean(), counterStatistics.getVariance()), eventList, EventType.DepartureFromCounterToCostumer);
+        servicePoints[3] = new DeliveryService(new Normal(deliveryStatistics.getMean(), deliveryStatistics.getVariance()), eventList, EventType.DepartureFromDelivery); // New delivery service
+        for (int i = 0; i < servicePoints.length; i++) {
+            servicePoints[i].setServicePointName(SERVICE_POINT_NAMES[i]);
+        }
 
-        arrivalProcessRestaurant = new ArrivalProcess(new Negexp(simulationStatistics.getWalkInMeanTime(), 5), eventList, EventType.ArrivalRestaurant);
-        arrivalProcessCall = new ArrivalProcess(new Negexp(simulationStatistics.getCallInMeanTime(), 5), eventList, EventType.ArrivalCall);
+        arrivalProcessRestaurant = createArrivalProcess(simulationStatistics.getWalkInRateFunction(), simulationStatistics.getWalkInMeanTime(), EventType.ArrivalRestaurant);
+        arrivalProcessCall = createArrivalProcess(simulationStatistics.getCallInRateFunction(), simulationStatistics.getCallInMeanTime(), EventType.ArrivalCall);
+        registerHandlers();
     }
 
     /**
-     * Initializes the simulation, resets statistics, and schedules the first arrivals.
+     * Creates an arrival process for one customer stream. A configured time-of-day rate profile
+     * takes precedence over the constant mean inter-arrival time.
+     * @param rateFunction the optional rate profile, or null
+     * @param meanTime the constant mean inter-arrival time
+     * @param type the arrival event type
+     * @return the arrival process
+     */
+    private ArrivalProcess createArrivalProcess(RateFunction rateFunction, double meanTime, EventType type) {
+        if (rateFunction != null) {
+            return new NonHomogeneousArrivalProcess(rateFunction, 5, eventList, type);
+        }
+        return new ArrivalProcess(new Negexp(meanTime, 5), eventList, type);
+    }
+
+    /**
+     * Initializes the simulation, resets statistics, and registers the arrival streams.
      */
     @Override
     protected void initialization() {
@@ -67,108 +118,237 @@ public class MyEngine extends Engine {
         Trace.out(Trace.Level.INFO, "Database collector ready for new normalized schema");
         Trace.out(Trace.Level.INFO, "All statistics were reset during construction");
 
-        arrivalProcessRestaurant.generateNext(); // First arrival to the system in restaurant
-        arrivalProcessCall.generateNext(); // First arrival to the system by call
+        // Arrivals are merged lazily from their streams instead of being scheduled into the event heap
+        eventList.addStream(arrivalProcessRestaurant); // Arrivals to the system in restaurant
+        eventList.addStream(arrivalProcessCall); // Arrivals to the system by call
+    }
+
+    /**
+     * Registers the handler of every event type of the restaurant model, with the index of the
+     * service point the events concern: arrivals enter the reception, departures leave the
+     * service point that scheduled them. Normal departures route the customer to the next
+     * service point, special departures let the service point choose the route.
+     */
+    private void registerHandlers() {
+        handlers.register(EventType.ArrivalRestaurant, 0, event -> handleArrival(true));
+        handlers.register(EventType.ArrivalCall, 0, event -> handleArrival(false));
+        handlers.register(EventType.DepartureFromReception, 0, event -> handleDeparture(0));
+        handlers.register(EventType.DepartureFromKitchen, 1, event -> handleDeparture(1));
+        handlers.register(EventType.DepartureFromCounterToDelivery, 2, event -> handleDeparture(2));
+        registerSpecialDeparture(EventType.ReturnMoney, 0);
+        registerSpecialDeparture(EventType.PaymentFailed, 0);
+        registerSpecialDeparture(EventType.DepartureFromCounterToCostumer, 2);
+        registerSpecialDeparture(EventType.CounterErrorToKitchen, 2);
+        registerSpecialDeparture(EventType.CounterErrorToReception, 2);
+        registerSpecialDeparture(EventType.DepartureFromDelivery, 3);
+        registerSpecialDeparture(EventType.DeliveryRefused, 3);
+        registerSpecialDeparture(EventType.RemakeOrder, 3);
+    }
+
+    /**
+     * Registers the handler of a special departure event type.
+     * @param type the event type
+     * @param servicePointIndex the index of the service point the customer departs from
+     */
+    private void registerSpecialDeparture(EventType type, int servicePointIndex) {
+        handlers.register(type, servicePointIndex, event -> handleSpecialDeparture(servicePointIndex, type));
+    }
+
+    /**
+     * Handles the arrival of a new customer to the reception.
+     * @param walkIn true for a walk-in customer, false for a call-in customer
+     */
+    private void handleArrival(boolean walkIn) {
+        Customer customer = new Customer(walkIn);
+        customer.setServicePointArrivalTime(Clock.getInstance().getTime());
+        customer.setArrivalTime(Clock.getInstance().getTime());
+        servicePoints[0].addQueue(customer);
+        // Track arrival in framework statistics
+        simulationStatistics.incrementTotalArrivedCustomers();
+        simulationStatistics.incrementArrivedCustomers(walkIn);
+        receptionStatistics.incrementArrivedCustomers();
+
+        // Call visualization hook
+        try {
+            controller.MainScreenController mainController = controller.MainScreenController.getInstance();
+            if (mainController != null) {
+                mainController.onCustomerArrival(walkIn);
+            }
+        } catch (Exception e) {
+            // Ignore if visualization controller not available
+        }
+    }
+
+    /**
+     * Restores a simulation engine from a checkpoint written by {@link #saveCheckpoint(Path)}.
+     * The statistics and configuration are restored first, then the engine is created from them
+     * and its state is restored. Starting the returned engine continues the simulation.
+     * @param controller the main controller for visualization and callbacks
+     * @param file the checkpoint file
+     * @return the restored engine
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public static MyEngine restoreCheckpoint(Controller controller, Path file) throws IOException {
+        return restore(controller, openCheckpoint(file), file.toString());
     }
 
     /**
-     * Handles simulation events by type, including arrivals, departures, and special events.
-     * @param t the event to process
+     * Restores the configuration, creates the engine from it and restores its state.
+     * @param controller the main controller for visualization and callbacks
+     * @param checkpoint the checkpoint input, positioned at the configuration; closed when done
+     * @param name the name of the checkpoint for log output
+     * @return the restored engine
+     * @throws IOException if the checkpoint cannot be read
+     */
+    private static MyEngine restore(Controller controller, DataInputStream checkpoint, String name) throws IOException {
+        try (DataInputStream in = checkpoint) {
+            SimulationStatistics.getInstance().readState(in);
+            ReceptionStatistics.getInstance().readState(in);
+            KitchenStatistics.getInstance().readState(in);
+            CounterStatistics.getInstance().readState(in);
+            DeliveryStatistics.getInstance().readState(in);
+            int cookCount = in.readInt();
+            ArrayList<CookCompetency> cookLevels = new ArrayList<>();
+            for (int i = 0; i < cookCount; i++) {
+                cookLevels.add(CookCompetency.values()[in.readByte()]);
+            }
+            MyEngine engine = new MyEngine(controller, cookLevels);
+            engine.readState(in);
+            Trace.out(Trace.Level.INFO, "Simulation restored from " + name + " at time " + Clock.getInstance().getTime());
+            return engine;
+        }
+    }
+
+    /**
+     * Writes the statistics, including the configured service and arrival parameters, and the
+     * cook competencies, which are needed to create the engine when restoring.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
      */
     @Override
-    protected void runEvent(Event t) {  // B phase events
-
-        switch ((EventType) t.getType()) {
-
-            case ArrivalRestaurant:
-                Customer walkInCustomer = new Customer(true);
-                walkInCustomer.setServicePointArrivalTime(Clock.getInstance().getTime());
-                walkInCustomer.setArrivalTime(Clock.getInstance().getTime());//lisäsin tään setArrivalTime
-                servicePoints[0].addQueue(walkInCustomer);
-                // Track arrival in framework statistics
-                simulationStatistics.incrementTotalArrivedCustomers();
-                receptionStatistics.incrementArrivedCustomers();
-                
-                // Call visualization hook
-                try {
-                    controller.MainScreenController mainController = controller.MainScreenController.getInstance();
-                    if (mainController != null) {
-                        mainController.onCustomerArrival(true); // true = walk-in
-                    }
-                } catch (Exception e) {
-                    // Ignore if visualization controller not available
-                }
-                
-                arrivalProcessRestaurant.generateNext();
-                break;
-
-            case ArrivalCall:
-                Customer callInCustomer = new Customer(false);
-                callInCustomer.setServicePointArrivalTime(Clock.getInstance().getTime());
-                servicePoints[0].addQueue(callInCustomer);
-                // Track arrival in framework statistics
-                simulationStatistics.incrementTotalArrivedCustomers();
-                receptionStatistics.incrementArrivedCustomers();
-                
-                // Call visualization hook
-                try {
-                    controller.MainScreenController mainController = controller.MainScreenController.getInstance();
-                    if (mainController != null) {
-                        mainController.onCustomerArrival(false); // false = call-in
-                    }
-                } catch (Exception e) {
-                    // Ignore if visualization controller not available
-                }
-                
-                arrivalProcessCall.generateNext();// NEW
-                break;
-
-            case ReturnMoney:
-                handleServicePointDeparture(0, EventType.ReturnMoney);
-                break;
-
-            case PaymentFailed:
-                handleServicePointDeparture(0, EventType.PaymentFailed);
-                break;
-
-            case DepartureFromReception:
-                handleServicePointDeparture(0, EventType.DepartureFromReception);
-                break;
-
-            case DepartureFromKitchen:
-                handleServicePointDeparture(1, EventType.DepartureFromKitchen);
-                break;
-
-            case DepartureFromCounterToCostumer:
-                handleServicePointDeparture(2, EventType.DepartureFromCounterToCostumer);
-                break;
-
-            case CounterErrorToKitchen:
-                handleServicePointDeparture(2, EventType.CounterErrorToKitchen);
-                break;
-
-            case CounterErrorToReception:
-                handleServicePointDeparture(2, EventType.CounterErrorToReception);
-                break;
-
-            case DepartureFromCounterToDelivery:
-                handleServicePointDeparture(2, EventType.DepartureFromCounterToDelivery);
-                break;
-
-            case DepartureFromDelivery:
-                handleServicePointDeparture(3, EventType.DepartureFromDelivery);
-                break;
-
-            case DeliveryRefused:
-                handleServicePointDeparture(3, EventType.DeliveryRefused);
-                break;
-
-            case RemakeOrder:
-                handleServicePointDeparture(3, EventType.RemakeOrder);
-                break;
+    protected void writeConfiguration(DataOutput out) throws IOException {
+        simulationStatistics.writeState(out);
+        receptionStatistics.writeState(out);
+        kitchenStatistics.writeState(out);
+        counterStatistics.writeState(out);
+        deliveryStatistics.writeState(out);
+        ArrayList<Cook> cooks = ((KitchenServicePoint) servicePoints[1]).getCooks();
+        out.writeInt(cooks.size());
+        for (Cook cook : cooks) {
+            out.writeByte(cook.getCompetencyLevel().ordinal());
+        }
+    }
 
-		}
-	}
+    /**
+     * Writes the engine state followed by the arrival processes and the customer counters.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeDouble(simulationStartTime);
+        arrivalProcessRestaurant.writeState(out);
+        arrivalProcessCall.writeState(out);
+        Customer.writeCounters(out);
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)} and registers the restored
+     * arrival streams with the event list.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        super.readState(in);
+        simulationStartTime = in.readDouble();
+        arrivalProcessRestaurant.readState(in);
+        arrivalProcessCall.readState(in);
+        Customer.readCounters(in);
+        eventList.addStream(arrivalProcessRestaurant);
+        eventList.addStream(arrivalProcessCall);
+    }
+
+    /**
+     * Reseeds the service points and both arrival processes.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    protected void reseed(LongSupplier seeds) {
+        super.reseed(seeds);
+        arrivalProcessRestaurant.reseed(seeds);
+        arrivalProcessCall.reseed(seeds);
+    }
+
+    /**
+     * Restores a simulation engine from an in-memory snapshot taken with {@link #requestSnapshot()}.
+     * @param controller the main controller for visualization and callbacks
+     * @param snapshot the snapshot
+     * @return the restored engine
+     * @throws IOException if the snapshot cannot be read
+     */
+    public static MyEngine restoreSnapshot(Controller controller, byte[] snapshot) throws IOException {
+        return restore(controller, openCheckpoint(new ByteArrayInputStream(snapshot), "snapshot"), "snapshot");
+    }
+
+    /**
+     * Sets whether the results are saved to the database when the simulation ends.
+     * @param saveResults true to save the results (the default), false otherwise
+     */
+    public void setSaveResults(boolean saveResults) {
+        this.saveResults = saveResults;
+    }
+
+    /**
+     * Returns the kitchen service point.
+     * @return the kitchen
+     */
+    public KitchenServicePoint getKitchen() {
+        return (KitchenServicePoint) servicePoints[1];
+    }
+
+    /**
+     * Returns the statistics of the restaurant's service points, exported with the engine metrics.
+     * @return the service point statistics by service point name
+     */
+    @Override
+    protected Map<String, ServicePointStatistics> getServicePointStatistics() {
+        Map<String, ServicePointStatistics> statistics = new LinkedHashMap<>();
+        statistics.put(SERVICE_POINT_NAMES[0], receptionStatistics);
+        statistics.put(SERVICE_POINT_NAMES[1], kitchenStatistics);
+        statistics.put(SERVICE_POINT_NAMES[2], counterStatistics);
+        statistics.put(SERVICE_POINT_NAMES[3], deliveryStatistics);
+        return statistics;
+    }
+
+    /**
+     * Returns the event types of the restaurant model.
+     * @return the event types, indexed by ordinal
+     */
+    @Override
+    protected IEventType[] getEventTypes() {
+        return EventType.values();
+    }
+
+    /**
+     * Returns the id of the customer an event concerns: the customer about to be created for
+     * arrivals, and the customer at the head of the departing service point's queue otherwise.
+     * @param t the event about to be processed
+     * @return the customer id, or -1 if there is no such customer
+     */
+    @Override
+    protected int customerIdOf(Event t) {
+        if (t.getType() == EventType.ArrivalRestaurant || t.getType() == EventType.ArrivalCall) {
+            return Customer.getNextId();
+        }
+        int index = servicePointIndexOf(t);
+        if (index < 0) {
+            return super.customerIdOf(t);
+        }
+        Customer customer = servicePoints[index].getQueue().peek();
+        return customer != null ? customer.getId() : -1;
+    }
 
     /**
      * Collects and displays simulation results, saves data to the database, and outputs summary information.
@@ -181,71 +361,95 @@ public class MyEngine extends Engine {
         kitchenStatistics.showServicePointStatistics(time);
         counterStatistics.showServicePointStatistics(time);
         deliveryStatistics.showServicePointStatistics(time);
-        saveSimulationToDatabase();
+        if (saveResults) {
+            saveSimulationToDatabase();
+        }
         Trace.out(Trace.Level.INFO, "\n=== SIMULATION COMPLETED ===");
 
 	}
 
 	/**
-	 * Save simulation data to database using the new normalized schema
+	 * Save simulation data to database using the new normalized schema.
+	 * The results are captured on the simulation thread and handed to the {@link ResultsWriter},
+	 * which saves them in the background, so the simulation does not wait for the database.
 	 */
 	private void saveSimulationToDatabase() {
 		try {
-			// Use framework statistics to save to database
-			simu.framework.statistics.SimulationStatistics simStats = simu.framework.statistics.SimulationStatistics.getInstance();
-			
-			// The simulation time is already set correctly by showSimulationStatistics() 
+			// The simulation time is already set correctly by showSimulationStatistics()
 			// in the results() method, so don't recalculate it here
-			
-		// Save everything to database using framework statistics
-		simu.backend.entity.OverviewStatistics savedStats = simStats.saveToDatabase();
-		if (savedStats != null) {
-            Trace.out(Trace.Level.INFO, "Database storage successful. Overview ID: " + savedStats.getId());
-            Trace.out(Trace.Level.INFO, "Simulation Time: " + savedStats.getSimulationTime());
-            Trace.out(Trace.Level.INFO, "Total Simulation Time: " + savedStats.getTotalSimulationTime());
-            Trace.out(Trace.Level.INFO, "Total Arrived Customers: " + savedStats.getTotalArrivedCustomers());
-            Trace.out(Trace.Level.INFO, "Total Serviced Customers: " + savedStats.getTotalServicedCustomers());
-            Trace.out(Trace.Level.INFO, "Busy Time: " + savedStats.getBusyTime());
-            Trace.out(Trace.Level.INFO, "System Throughput: " + savedStats.getSystemThroughput());
-            Trace.out(Trace.Level.INFO, "Average Response Time: " + savedStats.getAverageResponseTime());
-		} else {
-            Trace.out(Trace.Level.ERR, "Database save returned null - save may have failed!");
-		}		} catch (Exception e) {
-            Trace.out(Trace.Level.ERR, "Error saving simulation data to database: " + e.getMessage());
-            // Log stack trace at warning level for debugging when enabled
-            java.io.StringWriter sw = new java.io.StringWriter();
-            e.printStackTrace(new java.io.PrintWriter(sw));
-            Trace.out(Trace.Level.WAR, sw.toString());
+			SimulationRun run = SimulationStatistics.getInstance().createRun();
+			run.setMetrics(createProjectMetrics(run.getOverview(), getTelemetry()));
+			ResultsWriter.getInstance().submit(run);
+			Trace.out(Trace.Level.INFO, "Simulation results queued for database storage. Total Arrived Customers: "
+					+ run.getOverview().getTotalArrivedCustomers() + ", Total Serviced Customers: "
+					+ run.getOverview().getTotalServicedCustomers());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			Trace.out(Trace.Level.ERR, "Interrupted while queueing simulation results for the database");
+		} catch (Exception e) {
+			Trace.out(Trace.Level.ERR, "Error saving simulation data to database: " + e.getMessage());
+			// Log stack trace at warning level for debugging when enabled
+			java.io.StringWriter sw = new java.io.StringWriter();
+			e.printStackTrace(new java.io.PrintWriter(sw));
+			Trace.out(Trace.Level.WAR, sw.toString());
 		}
 	}
 	
 	/**
-	 * Helper method to handle service point departures
+	 * Creates the project metrics record of the run: the main results of the overview together with
+	 * the performance telemetry of the engine.
+	 * @param overview the overview statistics of the run
+	 * @param telemetry the telemetry of the run, or null if not available
+	 * @return the unsaved metrics record
 	 */
-	private void handleServicePointDeparture(int servicePointIndex, EventType eventType) {
+	private ProjectMetrics createProjectMetrics(OverviewStatistics overview, RunTelemetry telemetry) {
+		ProjectMetrics metrics = new ProjectMetrics(overview.getTotalArrivedCustomers(),
+				overview.getTotalServicedCustomers(), overview.getBusyTimeOrDefault(),
+				overview.getSimulationTime(), overview.getTotalWaitingTime());
+		metrics.setSimulationDuration(overview.getTotalSimulationTime());
+		metrics.setFailedDeliveries(overview.getRefusedDeliveryCustomers());
+		metrics.setWalkInCustomers(simulationStatistics.getWalkInCustomers());
+		metrics.setCallInCustomers(simulationStatistics.getCallInCustomers());
+		metrics.setPaymentFailures(simulationStatistics.getPaymentFailures());
+		metrics.setSuccessfulDeliveries(simulationStatistics.getSuccessfulDeliveries());
+		metrics.recalculateMetrics();
+		if (telemetry != null && telemetry.isFinished()) {
+			metrics.setWallClockMillis(telemetry.getWallMillis());
+			metrics.setEventsProcessed(telemetry.getEventsProcessed());
+			metrics.setEventsPerSecond(telemetry.getEventsPerSecond());
+			metrics.setPeakEventListSize(telemetry.getPeakEventListSize());
+			metrics.setPeakHeapBytes(telemetry.getPeakHeapBytes());
+			metrics.setGcTimeMillis(telemetry.getGcMillis());
+			metrics.setGcCount(telemetry.getGcCount());
+		}
+		return metrics;
+	}
 
+    /**
+     * Handles a normal departure: the customer moves on to the next service point.
+     * @param servicePointIndex the index of the service point the customer departs from
+     */
+    private void handleDeparture(int servicePointIndex) {
         ServicePoint currentServicePoint = servicePoints[servicePointIndex];
-
-        Customer customer;
-        ServicePoint nextServicePoint;
-
-        if (eventType == EventType.DepartureFromReception || eventType == EventType.DepartureFromKitchen || eventType == EventType.DepartureFromCounterToDelivery) {
-            // Normal departure
-            customer = currentServicePoint.handleDeparture();
-            nextServicePoint = currentServicePoint.getNextServicePoint(servicePoints, servicePointIndex);
-
-            // Track customer flow
-        } else {
-            // Special departure (payment failed, return money, delivery events, etc.)
-            customer = currentServicePoint.handleSpecialDeparture(eventType);
-            nextServicePoint = currentServicePoint.getNextServicePointForSpecialDeparture(eventType, servicePoints);
-
+        Customer customer = currentServicePoint.handleDeparture();
+        ServicePoint nextServicePoint = currentServicePoint.getNextServicePoint(servicePoints, servicePointIndex);
+        if (nextServicePoint != null && customer != null) {
+            nextServicePoint.addQueue(customer);
         }
+    }
 
-        // If there's ma next service point and customer, add customer to next queue
+    /**
+     * Handles a special departure (payment failed, return money, delivery events, etc.):
+     * the service point decides whether and where the customer goes next.
+     * @param servicePointIndex the index of the service point the customer departs from
+     * @param eventType the type of the special departure
+     */
+    private void handleSpecialDeparture(int servicePointIndex, EventType eventType) {
+        ServicePoint currentServicePoint = servicePoints[servicePointIndex];
+        Customer customer = currentServicePoint.handleSpecialDeparture(eventType);
+        ServicePoint nextServicePoint = currentServicePoint.getNextServicePointForSpecialDeparture(eventType, servicePoints);
         if (nextServicePoint != null && customer != null) {
             nextServicePoint.addQueue(customer);
         }
     }
 }
-
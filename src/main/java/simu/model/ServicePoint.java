@@ -4,9 +4,16 @@ import eduni.distributions.ContinuousGenerator;
 import simu.framework.Clock;
 import simu.framework.Event;
 import simu.framework.EventList;
+import simu.framework.IEventType;
 import simu.framework.Trace;
+import simu.framework.monitoring.ServiceEvent;
 import controller.MainScreenController;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.LinkedList;
+import java.util.function.LongSupplier;
 
 /**
  * Represents a service point in the simulation, such as reception, kitchen, counter, or delivery.
@@ -20,7 +27,7 @@ public class ServicePoint {
     /** Event list for scheduling events. */
     protected EventList eventList;
     /** The type of event scheduled for this service point. */
-    protected EventType eventTypeScheduled;
+    protected IEventType eventTypeScheduled;
     /** Whether the service point is currently reserved (serving a customer). */
     protected boolean reserved = false;
     /** Name of the service point for event logging and visualization. */
@@ -32,7 +39,7 @@ public class ServicePoint {
      * @param tapahtumalista the event list for scheduling events
      * @param tyyppi the type of event this service point handles
      */
-    public ServicePoint(ContinuousGenerator generator, EventList tapahtumalista, EventType tyyppi){
+    public ServicePoint(ContinuousGenerator generator, EventList tapahtumalista, IEventType tyyppi){
         this.eventList = tapahtumalista;
         this.generator = generator;
         this.eventTypeScheduled = tyyppi;
@@ -46,7 +53,7 @@ public class ServicePoint {
      * @param tyyppi the type of event this service point handles
      * @param name the name of the service point
      */
-    public ServicePoint(ContinuousGenerator generator, EventList tapahtumalista, EventType tyyppi, String name){
+    public ServicePoint(ContinuousGenerator generator, EventList tapahtumalista, IEventType tyyppi, String name){
         this.eventList = tapahtumalista;
         this.generator = generator;
         this.eventTypeScheduled = tyyppi;
@@ -77,6 +84,8 @@ public class ServicePoint {
             // Log service end event
             Trace.out(Trace.Level.INFO, "Customer " + customer.getId() + " service ended at " + servicePointName);
         }
+        ServiceEvent.record(servicePointName, false, Clock.getInstance().getTime(),
+                customer != null ? customer.getId() : -1, 0);
         return customer;
     }
 
@@ -101,9 +110,21 @@ public class ServicePoint {
             }
         }
         double serviceTime = generator.sample();
+        recordServiceBegin(jono.peek(), serviceTime);
         eventList.add(new Event(eventTypeScheduled, Clock.getInstance().getTime()+serviceTime));
     }
 
+    /**
+     * Records the beginning of a service as a Flight Recorder event. Every {@link #beginService()}
+     * override calls this once per service it begins, pairing with the end recorded by {@link #removeQueue()}.
+     * @param customer the customer whose service begins, or null
+     * @param serviceTime the service time drawn for the service
+     */
+    protected final void recordServiceBegin(Customer customer, double serviceTime) {
+        ServiceEvent.record(servicePointName, true, Clock.getInstance().getTime(),
+                customer != null ? customer.getId() : -1, serviceTime);
+    }
+
     /**
      * Checks if the service point is currently reserved (serving a customer).
      * @return true if reserved, false otherwise
@@ -112,6 +133,16 @@ public class ServicePoint {
         return reserved;
     }
 
+    /**
+     * Returns the fraction of the servers of the service point that are serving. A service point
+     * with a single server is fully busy while it is reserved; service points with several servers
+     * override this.
+     * @return the busy fraction, between 0 and 1
+     */
+    public double getBusyFraction() {
+        return reserved ? 1.0 : 0.0;
+    }
+
     /**
      * Checks if there are customers in the queue.
      * @return true if the queue is not empty, false otherwise
@@ -147,6 +178,14 @@ public class ServicePoint {
         return servicePointName;
     }
 
+    /**
+     * Sets the name of the service point, used in event logging and metrics.
+     * @param servicePointName the service point name
+     */
+    public void setServicePointName(String servicePointName) {
+        this.servicePointName = servicePointName;
+    }
+
     /**
      * Handles customer departure from this service point.
      * Returns the customer to be routed to the next service point, or null if the customer leaves the system.
@@ -219,4 +258,56 @@ public class ServicePoint {
     public LinkedList<Customer> getQueue(){
         return jono;
     }
+
+    /**
+     * Reseeds the random number streams of this service point.
+     * Subclasses with additional random streams override this and call the superclass method first.
+     * @param seeds supplies a new seed for each stream
+     */
+    public void reseed(LongSupplier seeds) {
+        generator.setSeed(seeds.getAsLong());
+    }
+
+    /**
+     * Writes the state of this service point to a checkpoint: the queue, the reserved flag,
+     * the event type being scheduled and the random generator state.
+     * Subclasses with additional state override this and call the superclass method first.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(jono.size());
+        for (Customer customer : jono) {
+            customer.writeState(out);
+        }
+        out.writeBoolean(reserved);
+        out.writeInt(eventTypeScheduled.ordinal());
+        out.writeLong(generator.getSeed());
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        jono.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            jono.add(Customer.readState(in));
+        }
+        reserved = in.readBoolean();
+        eventTypeScheduled = eventTypeOf(in.readInt());
+        generator.setSeed(in.readLong());
+    }
+
+    /**
+     * Returns the event type of an ordinal written to a checkpoint. Service points scheduling
+     * event types other than {@link EventType} override this.
+     * @param ordinal the ordinal of the event type
+     * @return the event type
+     */
+    protected IEventType eventTypeOf(int ordinal) {
+        return EventType.values()[ordinal];
+    }
 }
@@ -0,0 +1,186 @@
+package simu.model;
+
+import simu.framework.SimulationContext;
+import simu.framework.Trace;
+import simu.framework.statistics.SimulationStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Forks a simulation at its current time into independent what-if branches, so that variants
+ * such as "a fourth cook arrives at t=500" reuse the simulated prefix instead of simulating it again.
+ * <p>
+ * The source engine's state is captured once as an in-memory snapshot between two simulation
+ * steps (the source may be running or paused). Every branch restores its own copy of the
+ * snapshot inside a separate {@link SimulationContext}, so its clock, statistics and customers are
+ * independent of the source and of the other branches, and the branches can run in parallel.
+ * Branches do not drive the visualization and do not save their results to the database.
+ * <p>
+ * Random streams are either split, giving every branch independent streams derived from a seed,
+ * or shared, giving every branch the source's streams (common random numbers), which makes the
+ * differences between branches depend on their modifications only.
+ */
+public class SimulationFork {
+    /** Snapshot of the source simulation at the fork time. */
+    private final byte[] snapshot;
+    /** Generator of branch seeds, or null if the branches share the source's random streams. */
+    private final SplittableRandom branchSeeds;
+    /** The branches created so far. */
+    private final List<Branch> branches = new ArrayList<>();
+
+    /**
+     * Forks the simulation with common random numbers: every branch continues the source's random streams.
+     * @param source the simulation to fork
+     * @throws IOException if the snapshot cannot be taken
+     * @throws InterruptedException if interrupted while waiting for the snapshot
+     */
+    public SimulationFork(MyEngine source) throws IOException, InterruptedException {
+        this(source, null);
+    }
+
+    /**
+     * Forks the simulation with split random streams: every branch gets independent streams
+     * derived from the given seed.
+     * @param source the simulation to fork
+     * @param seed the seed from which the branches' stream seeds are derived
+     * @throws IOException if the snapshot cannot be taken
+     * @throws InterruptedException if interrupted while waiting for the snapshot
+     */
+    public SimulationFork(MyEngine source, long seed) throws IOException, InterruptedException {
+        this(source, Long.valueOf(seed));
+    }
+
+    /**
+     * Takes the snapshot of the source simulation.
+     * @param source the simulation to fork
+     * @param seed the seed for split random streams, or null for common random numbers
+     * @throws IOException if the snapshot cannot be taken
+     * @throws InterruptedException if interrupted while waiting for the snapshot
+     */
+    private SimulationFork(MyEngine source, Long seed) throws IOException, InterruptedException {
+        try {
+            snapshot = source.requestSnapshot().get();
+        } catch (ExecutionException e) {
+            throw new IOException("Could not take a snapshot of the simulation", e.getCause());
+        }
+        branchSeeds = seed != null ? new SplittableRandom(seed) : null;
+    }
+
+    /**
+     * Creates a new branch from the snapshot and applies a modification to it. The modification
+     * runs inside the branch's context, so it can use the usual singletons, e.g. the clock.
+     * @param name the name of the branch
+     * @param modification the parameter change of this branch, e.g. adding a cook
+     * @return the new branch
+     * @throws IOException if the snapshot cannot be restored
+     */
+    public Branch addBranch(String name, Consumer<MyEngine> modification) throws IOException {
+        SimulationContext context = new SimulationContext(name);
+        MyEngine engine;
+        try {
+            engine = context.call(() -> {
+                MyEngine branch = MyEngine.restoreSnapshot(null, snapshot);
+                branch.setName("branch-" + name);
+                branch.setSaveResults(false);
+                if (branchSeeds != null) {
+                    branch.reseed(branchSeeds.nextLong());
+                }
+                modification.accept(branch);
+                return branch;
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not create branch " + name, e);
+        }
+        Branch branch = new Branch(name, context, engine);
+        branches.add(branch);
+        return branch;
+    }
+
+    /**
+     * Runs all branches in parallel until the given simulation time and waits for them to finish.
+     * @param simulationTime the time at which the branches stop
+     * @throws InterruptedException if interrupted while waiting for the branches
+     */
+    public void runAll(double simulationTime) throws InterruptedException {
+        for (Branch branch : branches) {
+            branch.getEngine().setSimulationTime(simulationTime);
+            branch.getEngine().start();
+        }
+        for (Branch branch : branches) {
+            branch.getEngine().join();
+            Trace.out(Trace.Level.INFO, "Branch " + branch.getName() + " finished: "
+                    + branch.getSimulationStatistics().getTotalServicedCustomers() + " customers serviced");
+        }
+    }
+
+    /**
+     * Returns the branches created so far.
+     * @return the branches
+     */
+    public List<Branch> getBranches() {
+        return branches;
+    }
+
+    /**
+     * One branch of a forked simulation.
+     */
+    public static class Branch {
+        /** Name of the branch. */
+        private final String name;
+        /** Context holding the branch's clock and statistics. */
+        private final SimulationContext context;
+        /** Engine running the branch. */
+        private final MyEngine engine;
+
+        /**
+         * Constructs a branch.
+         * @param name the name of the branch
+         * @param context the context of the branch
+         * @param engine the engine of the branch
+         */
+        private Branch(String name, SimulationContext context, MyEngine engine) {
+            this.name = name;
+            this.context = context;
+            this.engine = engine;
+        }
+
+        /**
+         * Returns the name of the branch.
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the context of the branch, e.g. for reading its service point statistics.
+         * @return the context
+         */
+        public SimulationContext getContext() {
+            return context;
+        }
+
+        /**
+         * Returns the engine of the branch.
+         * @return the engine
+         */
+        public MyEngine getEngine() {
+            return engine;
+        }
+
+        /**
+         * Returns the overall statistics of the branch.
+         * @return the branch's simulation statistics
+         */
+        public SimulationStatistics getSimulationStatistics() {
+            return context.getInstance(SimulationStatistics.class, SimulationStatistics::new);
+        }
+    }
+}
@@ -16,6 +16,11 @@ import simu.model.Customer;
 import simu.model.EventType;
 import simu.model.ServicePoint;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
 /**
  * CounterService handles customer checkouts and routing of faulty orders.
  * Uses framework statistics for tracking and manages the logic for normal and special departures.
@@ -79,6 +84,7 @@ public class CounterService extends ServicePoint {
         }
 
         // Schedule event
+        recordServiceBegin(customer, serviceTime);
         eventList.add(new Event(this.eventTypeScheduled, Clock.getInstance().getTime() + serviceTime));
         counterStatistics.addServiceBusyTime(serviceTime);
     }
@@ -181,4 +187,36 @@ public class CounterService extends ServicePoint {
     public CounterStatistics getStatistics() {
         return counterStatistics;
     }
+
+    /**
+     * Reseeds the service time generator and the problem fixing generator.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    public void reseed(LongSupplier seeds) {
+        super.reseed(seeds);
+        fixProblemPath.setSeed(seeds.getAsLong());
+    }
+
+    /**
+     * Writes the service point state and the problem fixing generator state to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(fixProblemPath.getSeed());
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        fixProblemPath.setSeed(in.readLong());
+    }
 }
@@ -15,6 +15,11 @@ import simu.model.Customer;
 import simu.model.EventType;
 import simu.model.ServicePoint;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
 /**
  * DeliveryService handles call-in customers for delivery.
  * Uses framework statistics for tracking and manages the logic for normal and special departures.
@@ -78,6 +83,7 @@ public class DeliveryService extends ServicePoint {
             }
         }
         
+        recordServiceBegin(customer, serviceTime);
         eventList.add(new Event(this.eventTypeScheduled, Clock.getInstance().getTime() + serviceTime));
         deliveryStatistics.addServiceBusyTime(serviceTime);
     }
@@ -100,6 +106,7 @@ public class DeliveryService extends ServicePoint {
                     customer.setRemovalTime(Clock.getInstance().getTime());
                     deliveryStatistics.incrementServicedCustomers();
                     simulationStatistics.incrementTotalServicedCustomers();
+                    simulationStatistics.incrementSuccessfulDeliveries();
                     simulationStatistics.addTotalWaitingTime(customer.getRemovalTime() - customer.getArrivalTime());
                     customer.reportResults();
                     
@@ -182,4 +189,36 @@ public class DeliveryService extends ServicePoint {
     public DeliveryStatistics getStatistics() {
         return deliveryStatistics;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reseeds the service time generator and the remake choice generator.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    public void reseed(LongSupplier seeds) {
+        super.reseed(seeds);
+        remakeChoice.setSeed(seeds.getAsLong());
+    }
+
+    /**
+     * Writes the service point state and the remake choice generator state to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(remakeChoice.getSeed());
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        remakeChoice.setSeed(in.readLong());
+    }
+}
@@ -0,0 +1,368 @@
+package simu.model.distributed;
+
+import simu.framework.Trace;
+import simu.model.scenario.HeadlessRunner;
+import simu.model.scenario.Scenario;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of distributed replications: partitions the replications of a set of scenarios
+ * into tasks, hands them out to {@link Worker} processes connecting over TCP, and merges the
+ * summaries the workers return into one {@link ReplicationSummary} per scenario as they arrive.
+ * <p>
+ * Tasks are pulled: every worker is kept busy with as many tasks as it runs at once, so faster
+ * workers take more of the work. The tasks of a worker whose connection breaks are handed to the
+ * other workers. Because replication {@code r} of a seeded scenario always uses the same seed, the
+ * merged results do not depend on which worker ran which replication.
+ * <p>
+ * Usage: {@code Coordinator [--port P] [--batch N] [--local-workers N] [--threads N] PATH...},
+ * where the paths are scenario files or directories as for the {@link HeadlessRunner}; with
+ * {@code --local-workers} the coordinator starts that many worker processes on this machine.
+ */
+public class Coordinator implements AutoCloseable {
+    /** Interval at which idle connections check for requeued tasks, in milliseconds. */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    /** The scenarios, indexed as in the protocol. */
+    private final List<Scenario> scenarios;
+    /** The server socket workers connect to. */
+    private final ServerSocket server;
+    /** Tasks not handed out to a worker. */
+    private final BlockingQueue<Task> tasks = new LinkedBlockingQueue<>();
+    /** Number of tasks not yet completed. */
+    private final AtomicInteger remaining;
+    /** Released when every task is completed. */
+    private final CountDownLatch completed = new CountDownLatch(1);
+    /** Merged summaries by scenario name, guarded by itself. */
+    private final Map<String, ReplicationSummary> summaries = new LinkedHashMap<>();
+    /** Number of workers connected so far. */
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    /**
+     * Creates a coordinator listening on the loopback address.
+     * @param scenarios the scenarios whose replications are distributed
+     * @param port the port to listen on, or 0 for any free port
+     * @param batchSize the number of consecutive replications per task
+     * @throws IOException if the port cannot be opened
+     * @throws IllegalArgumentException if two scenarios have the same name
+     */
+    public Coordinator(List<Scenario> scenarios, int port, int batchSize) throws IOException {
+        this(requireUniqueNames(scenarios), new ServerSocket(port, 50, InetAddress.getLoopbackAddress()), batchSize);
+    }
+
+    /**
+     * Creates a coordinator accepting workers on the given server socket, e.g. one bound to all
+     * interfaces to accept workers on other machines.
+     * @param scenarios the scenarios whose replications are distributed
+     * @param server the server socket; closed by {@link #close()}
+     * @param batchSize the number of consecutive replications per task
+     * @throws IllegalArgumentException if two scenarios have the same name
+     */
+    public Coordinator(List<Scenario> scenarios, ServerSocket server, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.scenarios = List.copyOf(requireUniqueNames(scenarios));
+        this.server = server;
+        long id = 0;
+        for (int index = 0; index < this.scenarios.size(); index++) {
+            Scenario scenario = this.scenarios.get(index);
+            summaries.put(scenario.getName(), new ReplicationSummary(scenario.getName()));
+            for (int first = 0; first < scenario.getReplications(); first += batchSize) {
+                tasks.add(new Task(id++, index, first, Math.min(batchSize, scenario.getReplications() - first)));
+            }
+        }
+        this.remaining = new AtomicInteger(tasks.size());
+        if (tasks.isEmpty()) {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Checks that the scenarios have distinct names, by which their summaries are merged and reported.
+     * @param scenarios the scenarios
+     * @return the scenarios
+     * @throws IllegalArgumentException if two scenarios have the same name
+     */
+    private static List<Scenario> requireUniqueNames(List<Scenario> scenarios) {
+        Set<String> names = new HashSet<>();
+        for (Scenario scenario : scenarios) {
+            if (!names.add(scenario.getName())) {
+                throw new IllegalArgumentException("Duplicate scenario name: " + scenario.getName());
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Starts accepting workers on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptWorkers, "coordinator-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        Trace.out(Trace.Level.INFO, "Coordinator listening on port " + getPort() + " with " + tasks.size() + " tasks");
+    }
+
+    /**
+     * Accepts worker connections until the server socket is closed, serving each on its own thread.
+     */
+    private void acceptWorkers() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "coordinator-worker-" + workerCount.incrementAndGet());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    Trace.out(Trace.Level.ERR, "Error accepting worker: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves one worker: keeps it supplied with tasks and merges its results, until no work is
+     * left. If the connection breaks, the worker's outstanding tasks are queued again.
+     * @param socket the connection to the worker
+     */
+    private void serve(Socket socket) {
+        Map<Long, Task> outstanding = new HashMap<>();
+        String worker = String.valueOf(socket.getRemoteSocketAddress());
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (in.readInt() != Protocol.MAGIC || in.readInt() != Protocol.VERSION) {
+                Trace.out(Trace.Level.WAR, "Rejected connection from " + worker + ": not a compatible worker");
+                return;
+            }
+            int slots = Math.max(1, in.readInt());
+            boolean[] sent = new boolean[scenarios.size()];
+            Trace.out(Trace.Level.INFO, "Worker " + worker + " connected with " + slots + " slots");
+            while (true) {
+                Task task;
+                while (outstanding.size() < slots && (task = tasks.poll()) != null) {
+                    send(out, task, sent, outstanding);
+                }
+                if (outstanding.isEmpty()) {
+                    if (remaining.get() == 0) {
+                        out.writeByte(Protocol.DONE);
+                        out.flush();
+                        return;
+                    }
+                    // Other workers still run tasks, which are queued again if their connection breaks
+                    task = tasks.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        send(out, task, sent, outstanding);
+                    }
+                    continue;
+                }
+                out.flush();
+                if (in.readByte() != Protocol.RESULT) {
+                    throw new IOException("Unexpected message from worker");
+                }
+                long id = in.readLong();
+                ReplicationSummary summary = ReplicationSummary.readState(in);
+                if (outstanding.remove(id) == null) {
+                    throw new IOException("Result of unknown task " + id);
+                }
+                merge(summary);
+            }
+        } catch (IOException e) {
+            Trace.out(Trace.Level.WAR, "Lost worker " + worker + " (" + e.getMessage() + "), requeueing "
+                    + outstanding.size() + " tasks");
+            tasks.addAll(outstanding.values());
+        } catch (InterruptedException e) {
+            tasks.addAll(outstanding.values());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends a task to a worker, preceded by the definition of its scenario if not sent before.
+     * @param out the output to the worker
+     * @param task the task
+     * @param sent whether each scenario was sent to the worker
+     * @param outstanding the tasks of the worker, to which the task is added
+     * @throws IOException if writing fails
+     */
+    private void send(DataOutputStream out, Task task, boolean[] sent, Map<Long, Task> outstanding) throws IOException {
+        outstanding.put(task.id, task);
+        if (!sent[task.scenario]) {
+            out.writeByte(Protocol.SCENARIO);
+            out.writeInt(task.scenario);
+            Protocol.writeScenario(out, scenarios.get(task.scenario));
+            sent[task.scenario] = true;
+        }
+        out.writeByte(Protocol.TASK);
+        out.writeLong(task.id);
+        out.writeInt(task.scenario);
+        out.writeInt(task.firstReplication);
+        out.writeInt(task.replications);
+    }
+
+    /**
+     * Merges the summary of a completed task into its scenario's total.
+     * @param summary the summary returned by a worker
+     */
+    private void merge(ReplicationSummary summary) {
+        synchronized (summaries) {
+            summaries.get(summary.getScenario()).merge(summary);
+        }
+        if (remaining.decrementAndGet() == 0) {
+            completed.countDown();
+        }
+    }
+
+    /**
+     * Waits until every task is completed.
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if every task is completed, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return completed.await(timeout, unit);
+    }
+
+    /**
+     * Returns a snapshot of the merged summaries, which grow as results arrive.
+     * @return copies of the summaries by scenario name, in scenario order
+     */
+    public Map<String, ReplicationSummary> getSummaries() {
+        Map<String, ReplicationSummary> copy = new LinkedHashMap<>();
+        synchronized (summaries) {
+            for (Map.Entry<String, ReplicationSummary> entry : summaries.entrySet()) {
+                ReplicationSummary summary = new ReplicationSummary(entry.getKey());
+                summary.merge(entry.getValue());
+                copy.put(entry.getKey(), summary);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the number of tasks not yet completed.
+     * @return the number of remaining tasks
+     */
+    public int getRemainingTasks() {
+        return remaining.get();
+    }
+
+    /**
+     * Returns the port the coordinator listens on.
+     * @return the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Stops accepting workers. Connected workers are disconnected when they next read or write.
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Distributes the scenarios given on the command line and prints the merged summaries.
+     * Exits with status 1 if a run failed and with status 2 if the arguments are invalid.
+     * @param args the options and scenario paths
+     * @throws Exception if the coordinator fails
+     */
+    public static void main(String[] args) throws Exception {
+        int port = 0;
+        int batchSize = 1;
+        int localWorkers = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--batch" -> batchSize = Integer.parseInt(args[++i]);
+                    case "--local-workers" -> localWorkers = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    default -> paths.add(Path.of(args[i]));
+                }
+            }
+        } catch (RuntimeException e) {
+            paths.clear();
+        }
+        if (paths.isEmpty() || batchSize < 1) {
+            System.err.println("Usage: Coordinator [--port P] [--batch N] [--local-workers N] [--threads N] PATH...");
+            System.exit(2);
+        }
+        List<Process> workers = new ArrayList<>();
+        long failures = 0;
+        try (Coordinator coordinator = new Coordinator(HeadlessRunner.loadScenarios(paths), port, batchSize)) {
+            coordinator.start();
+            for (int i = 0; i < localWorkers; i++) {
+                workers.add(Worker.startLocal(coordinator.getPort(), threads));
+            }
+            coordinator.awaitCompletion(Long.MAX_VALUE, TimeUnit.DAYS);
+            for (ReplicationSummary summary : coordinator.getSummaries().values()) {
+                System.out.println(summary);
+                failures += summary.getFailures();
+            }
+        } finally {
+            for (Process worker : workers) {
+                worker.waitFor(10, TimeUnit.SECONDS);
+                worker.destroy();
+            }
+        }
+        System.exit(failures > 0 ? 1 : 0);
+    }
+
+    /**
+     * A task: consecutive replications of one scenario.
+     */
+    private static final class Task {
+        /** Id of the task. */
+        final long id;
+        /** Index of the scenario. */
+        final int scenario;
+        /** First replication. */
+        final int firstReplication;
+        /** Number of replications. */
+        final int replications;
+
+        /**
+         * Creates a task.
+         * @param id the id of the task
+         * @param scenario the index of the scenario
+         * @param firstReplication the first replication
+         * @param replications the number of replications
+         */
+        Task(long id, int scenario, int firstReplication, int replications) {
+            this.id = id;
+            this.scenario = scenario;
+            this.firstReplication = firstReplication;
+            this.replications = replications;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package simu.model.distributed;
+
+import simu.model.scenario.Scenario;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Wire protocol between the {@link Coordinator} and its {@link Worker}s, over one TCP connection
+ * per worker with {@link DataOutput} encoding.
+ * <p>
+ * The worker opens the connection with {@link #MAGIC}, {@link #VERSION} and the number of tasks
+ * it runs at once. The coordinator then sends the definition of each scenario before its first
+ * task, and tasks of consecutive replications; the worker answers every task with the summary of
+ * its replications, in order of completion. When no work is left the coordinator sends
+ * {@link #DONE} and closes the connection.
+ */
+final class Protocol {
+    /** Magic number opening a worker connection ("SIMW"). */
+    static final int MAGIC = 0x53494D57;
+    /** Version of the protocol. */
+    static final int VERSION = 1;
+    /** Coordinator message: scenario index, name and properties. */
+    static final byte SCENARIO = 1;
+    /** Coordinator message: task id, scenario index, first replication and number of replications. */
+    static final byte TASK = 2;
+    /** Coordinator message: no work is left. */
+    static final byte DONE = 3;
+    /** Worker message: task id and the {@link ReplicationSummary} of its replications. */
+    static final byte RESULT = 4;
+
+    /**
+     * Not instantiable.
+     */
+    private Protocol() {
+    }
+
+    /**
+     * Writes the definition of a scenario.
+     * @param out the output
+     * @param scenario the scenario
+     * @throws IOException if writing fails
+     */
+    static void writeScenario(DataOutput out, Scenario scenario) throws IOException {
+        StringWriter text = new StringWriter();
+        scenario.toProperties().store(text, null);
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        out.writeUTF(scenario.getName());
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the definition of a scenario written by {@link #writeScenario(DataOutput, Scenario)}.
+     * @param in the input
+     * @return the scenario
+     * @throws IOException if reading fails or the scenario is invalid
+     */
+    static Scenario readScenario(DataInput in) throws IOException {
+        String name = in.readUTF();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        Properties properties = new Properties();
+        properties.load(new StringReader(new String(bytes, StandardCharsets.UTF_8)));
+        try {
+            return new Scenario(name, properties);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid scenario " + name + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package simu.model.distributed;
+
+import simu.framework.statistics.SummaryStatistics;
+import simu.model.scenario.RunResult;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Summary statistics of the replications of one scenario: the number of runs and failures, and
+ * the mean, spread and range of the main results over the runs. Summaries of partial batches of
+ * replications are merged into the scenario's total as they arrive from the workers.
+ */
+public class ReplicationSummary {
+    /** Name of the scenario. */
+    private final String scenario;
+    /** Number of failed runs. */
+    private long failures = 0;
+    /** Arrived customers per run. */
+    private final SummaryStatistics arrivedCustomers;
+    /** Serviced customers per run. */
+    private final SummaryStatistics servicedCustomers;
+    /** Throughput per run. */
+    private final SummaryStatistics throughput;
+    /** Mean response time per run. */
+    private final SummaryStatistics meanResponseTime;
+    /** Wall-clock duration per run in milliseconds. */
+    private final SummaryStatistics wallMillis;
+
+    /**
+     * Creates an empty summary.
+     * @param scenario the name of the scenario
+     */
+    public ReplicationSummary(String scenario) {
+        this(scenario, new SummaryStatistics(), new SummaryStatistics(), new SummaryStatistics(),
+                new SummaryStatistics(), new SummaryStatistics());
+    }
+
+    /**
+     * Creates a summary from its statistics.
+     * @param scenario the name of the scenario
+     * @param arrivedCustomers arrived customers per run
+     * @param servicedCustomers serviced customers per run
+     * @param throughput throughput per run
+     * @param meanResponseTime mean response time per run
+     * @param wallMillis wall-clock duration per run
+     */
+    private ReplicationSummary(String scenario, SummaryStatistics arrivedCustomers, SummaryStatistics servicedCustomers,
+                               SummaryStatistics throughput, SummaryStatistics meanResponseTime,
+                               SummaryStatistics wallMillis) {
+        this.scenario = scenario;
+        this.arrivedCustomers = arrivedCustomers;
+        this.servicedCustomers = servicedCustomers;
+        this.throughput = throughput;
+        this.meanResponseTime = meanResponseTime;
+        this.wallMillis = wallMillis;
+    }
+
+    /**
+     * Adds the results of a run.
+     * @param result the summary of the run
+     */
+    public void add(RunResult result) {
+        arrivedCustomers.add(result.getArrivedCustomers());
+        servicedCustomers.add(result.getServicedCustomers());
+        throughput.add(result.getThroughput());
+        meanResponseTime.add(result.getMeanResponseTime());
+        wallMillis.add(result.getWallMillis());
+    }
+
+    /**
+     * Adds failed runs.
+     * @param count the number of failed runs
+     */
+    public void addFailures(long count) {
+        failures += count;
+    }
+
+    /**
+     * Adds the runs of another summary of the same scenario.
+     * @param other the summary to merge; not modified
+     */
+    public void merge(ReplicationSummary other) {
+        failures += other.failures;
+        arrivedCustomers.merge(other.arrivedCustomers);
+        servicedCustomers.merge(other.servicedCustomers);
+        throughput.merge(other.throughput);
+        meanResponseTime.merge(other.meanResponseTime);
+        wallMillis.merge(other.wallMillis);
+    }
+
+    /**
+     * Writes the summary.
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeUTF(scenario);
+        out.writeLong(failures);
+        arrivedCustomers.writeState(out);
+        servicedCustomers.writeState(out);
+        throughput.writeState(out);
+        meanResponseTime.writeState(out);
+        wallMillis.writeState(out);
+    }
+
+    /**
+     * Reads a summary written by {@link #writeState(DataOutput)}.
+     * @param in the input
+     * @return the summary
+     * @throws IOException if reading fails
+     */
+    public static ReplicationSummary readState(DataInput in) throws IOException {
+        String scenario = in.readUTF();
+        long failures = in.readLong();
+        ReplicationSummary summary = new ReplicationSummary(scenario, SummaryStatistics.readState(in),
+                SummaryStatistics.readState(in), SummaryStatistics.readState(in), SummaryStatistics.readState(in),
+                SummaryStatistics.readState(in));
+        summary.failures = failures;
+        return summary;
+    }
+
+    /**
+     * Formats the summary as one line: runs, failures, and the mean and 95% confidence half-width of the results.
+     * @return the summary line
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %d runs, %d failed, arrived %.1f ± %.1f, serviced %.1f ± %.1f, "
+                        + "throughput %.5f ± %.5f, response time %.3f ± %.3f, %.0f ms per run",
+                scenario, getRuns(), failures, arrivedCustomers.getMean(), arrivedCustomers.getConfidenceHalfWidth(),
+                servicedCustomers.getMean(), servicedCustomers.getConfidenceHalfWidth(), throughput.getMean(),
+                throughput.getConfidenceHalfWidth(), meanResponseTime.getMean(),
+                meanResponseTime.getConfidenceHalfWidth(), wallMillis.getMean());
+    }
+
+    /**
+     * Returns the name of the scenario.
+     * @return the scenario name
+     */
+    public String getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the number of successful runs.
+     * @return the number of runs
+     */
+    public long getRuns() {
+        return throughput.getCount();
+    }
+
+    /**
+     * Returns the number of failed runs.
+     * @return the number of failures
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the statistics of the arrived customers per run.
+     * @return the statistics
+     */
+    public SummaryStatistics getArrivedCustomers() {
+        return arrivedCustomers;
+    }
+
+    /**
+     * Returns the statistics of the serviced customers per run.
+     * @return the statistics
+     */
+    public SummaryStatistics getServicedCustomers() {
+        return servicedCustomers;
+    }
+
+    /**
+     * Returns the statistics of the throughput per run.
+     * @return the statistics
+     */
+    public SummaryStatistics getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the statistics of the mean response time per run.
+     * @return the statistics
+     */
+    public SummaryStatistics getMeanResponseTime() {
+        return meanResponseTime;
+    }
+
+    /**
+     * Returns the statistics of the wall-clock duration per run.
+     * @return the statistics in milliseconds
+     */
+    public SummaryStatistics getWallMillis() {
+        return wallMillis;
+    }
+}
@@ -0,0 +1,193 @@
+package simu.model.distributed;
+
+import simu.framework.Trace;
+import simu.model.scenario.Scenario;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Worker process of distributed replications: connects to a {@link Coordinator}, runs the
+ * replications of the tasks it receives on a pool of threads, each in its own simulation context,
+ * and returns a {@link ReplicationSummary} per task. The worker exits when the coordinator has no
+ * work left.
+ * <p>
+ * Usage: {@code Worker HOST:PORT [--threads N] [--trace INFO|WAR|ERR]}.
+ */
+public class Worker {
+    /** Host of the coordinator. */
+    private final String host;
+    /** Port of the coordinator. */
+    private final int port;
+    /** Number of tasks run at once. */
+    private final int threads;
+
+    /**
+     * Creates a worker.
+     * @param host the host of the coordinator
+     * @param port the port of the coordinator
+     * @param threads the number of tasks to run at once
+     */
+    public Worker(String host, int port, int threads) {
+        this.host = host;
+        this.port = port;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Connects to the coordinator and runs tasks until it has no work left.
+     * @throws IOException if the connection fails or breaks
+     */
+    public void run() throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "worker-task");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<Integer, Scenario> scenarios = new HashMap<>();
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeInt(Protocol.MAGIC);
+            out.writeInt(Protocol.VERSION);
+            out.writeInt(threads);
+            out.flush();
+            while (true) {
+                byte message = in.readByte();
+                if (message == Protocol.DONE) {
+                    Trace.out(Trace.Level.INFO, "Coordinator has no work left");
+                    return;
+                } else if (message == Protocol.SCENARIO) {
+                    int index = in.readInt();
+                    scenarios.put(index, Protocol.readScenario(in));
+                } else if (message == Protocol.TASK) {
+                    long id = in.readLong();
+                    Scenario scenario = scenarios.get(in.readInt());
+                    int first = in.readInt();
+                    int count = in.readInt();
+                    if (scenario == null) {
+                        throw new IOException("Task " + id + " of an unknown scenario");
+                    }
+                    pool.execute(() -> runTask(socket, out, id, scenario, first, count));
+                } else {
+                    throw new IOException("Unexpected message " + message + " from coordinator");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the replications of a task and sends their summary to the coordinator. If the summary
+     * cannot be sent, the connection is closed, so the coordinator hands the task to another worker.
+     * @param socket the connection to the coordinator
+     * @param out the output to the coordinator, shared by the tasks
+     * @param id the id of the task
+     * @param scenario the scenario
+     * @param first the first replication
+     * @param count the number of replications
+     */
+    private void runTask(Socket socket, DataOutputStream out, long id, Scenario scenario, int first, int count) {
+        ReplicationSummary summary = runReplications(scenario, first, count);
+        try {
+            synchronized (out) {
+                out.writeByte(Protocol.RESULT);
+                out.writeLong(id);
+                summary.writeState(out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            Trace.out(Trace.Level.ERR, "Error sending the result of task " + id + ": " + e.getMessage());
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // The connection is broken already
+            }
+        }
+    }
+
+    /**
+     * Runs consecutive replications of a scenario on the calling thread. Failed runs are logged and counted.
+     * @param scenario the scenario
+     * @param first the first replication
+     * @param count the number of replications
+     * @return the summary of the replications
+     */
+    public static ReplicationSummary runReplications(Scenario scenario, int first, int count) {
+        ReplicationSummary summary = new ReplicationSummary(scenario.getName());
+        for (int replication = first; replication < first + count; replication++) {
+            try {
+                summary.add(scenario.run(replication));
+            } catch (Exception e) {
+                summary.addFailures(1);
+                Trace.out(Trace.Level.ERR, "Replication " + replication + " of " + scenario.getName() + " failed: " + e);
+                StringWriter sw = new StringWriter();
+                e.printStackTrace(new PrintWriter(sw));
+                Trace.out(Trace.Level.WAR, sw.toString());
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Starts a worker process on this machine, with the class path of the current process.
+     * @param port the port of the coordinator on the loopback address
+     * @param threads the number of tasks the worker runs at once
+     * @return the worker process, whose output goes to the output of the current process
+     * @throws IOException if the process cannot be started
+     */
+    public static Process startLocal(int port, int threads) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Worker.class.getName(),
+                "127.0.0.1:" + port, "--threads", String.valueOf(threads))
+                .inheritIO()
+                .start();
+    }
+
+    /**
+     * Runs a worker process. Exits with status 1 if the connection fails and with status 2 if the
+     * arguments are invalid.
+     * @param args the coordinator address and the options
+     */
+    public static void main(String[] args) {
+        Worker worker;
+        try {
+            String address = args[0];
+            int separator = address.lastIndexOf(':');
+            int threads = Runtime.getRuntime().availableProcessors();
+            Trace.Level traceLevel = Trace.Level.WAR;
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--trace" -> traceLevel = Trace.Level.valueOf(args[++i]);
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+            Trace.setTraceLevel(traceLevel);
+            worker = new Worker(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)), threads);
+        } catch (RuntimeException e) {
+            System.err.println("Usage: Worker HOST:PORT [--threads N] [--trace INFO|WAR|ERR]");
+            System.exit(2);
+            return;
+        }
+        try {
+            worker.run();
+        } catch (IOException e) {
+            Trace.out(Trace.Level.ERR, "Worker failed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -2,6 +2,10 @@ package simu.model.kitchen;
 import eduni.distributions.Bernoulli;
 import eduni.distributions.ContinuousGenerator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Represents a cook in the kitchen simulation.
  * Each cook has a competency level, can prepare meals, and tracks their busy state and order completion.
@@ -101,4 +105,47 @@ public class Cook  {
     public String getCompetency() {
         return competency.toString();
     }
+
+    /**
+     * Gets the competency level of the cook.
+     * @return the competency level
+     */
+    public CookCompetency getCompetencyLevel() {
+        return competency;
+    }
+
+    /**
+     * Reseeds the order failure generator of the cook.
+     * @param seed the new seed
+     */
+    public void reseed(long seed) {
+        bernoulli.setSeed(seed);
+    }
+
+    /**
+     * Writes the state of the cook to a checkpoint: competency, busy state, current order and
+     * the failure generator state. The service time generator is shared with the kitchen.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(competency.ordinal());
+        out.writeBoolean(isBusy);
+        out.writeBoolean(orderFailed);
+        out.writeDouble(orderFinishTime);
+        out.writeLong(bernoulli.getSeed());
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        competency = CookCompetency.values()[in.readByte()];
+        isBusy = in.readBoolean();
+        orderFailed = in.readBoolean();
+        orderFinishTime = in.readDouble();
+        bernoulli.setSeed(in.readLong());
+    }
 }
@@ -8,12 +8,17 @@ import simu.framework.statistics.kitchen.KitchenStatistics;
 import eduni.distributions.ContinuousGenerator;
 import eduni.distributions.Uniform;
 import simu.framework.Clock;
+import simu.framework.Engine;
 import simu.framework.Event;
 import simu.framework.EventList;
 import simu.framework.Trace;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
+import java.util.function.LongSupplier;
 
 /**
  * Represents the kitchen service point in the simulation.
@@ -24,6 +29,15 @@ public class KitchenServicePoint extends ServicePoint {
     /** List of cooks available in the kitchen. */
     ArrayList<Cook> cooks = new ArrayList<>();
 
+    /** Generator for shuffling the cooks, seedable so that runs can be checkpointed and restored. */
+    private Uniform shuffleGenerator = new Uniform(0, 1);
+
+    /**
+     * Seed of the sequence that seeds the failure generator of the next added cook; set by
+     * {@link #reseed(LongSupplier)}, initially the seed of the shuffle generator.
+     */
+    private long cookSeed = shuffleGenerator.getSeed();
+
     /** Kitchen statistics instance for tracking kitchen-related metrics. */
     private KitchenStatistics kitchenStatistics = KitchenStatistics.getInstance();
     /** Counter statistics instance for tracking counter-related metrics. */
@@ -51,7 +65,7 @@ public class KitchenServicePoint extends ServicePoint {
     @Override
     public void beginService() { //muutin sen, jotta se toimii oikein kokkien kanssa
 
-        Collections.shuffle(cooks, new Random());
+        shuffleCooks();
 
         if (cooks.stream().anyMatch(cook -> !cook.isBusy())) {
 
@@ -108,12 +122,43 @@ public class KitchenServicePoint extends ServicePoint {
             }
 
             kitchenStatistics.addServiceBusyTime(preparedOrder.getPreparationTime());
+            recordServiceBegin(customer, preparedOrder.getPreparationTime());
             eventList.add(new Event(this.eventTypeScheduled, Clock.getInstance().getTime() + preparedOrder.getPreparationTime()));
             }
 
     }
 
     
+    /**
+     * Returns the fraction of the cooks that are preparing an order. The kitchen is never reserved
+     * as a whole, as every cook serves a customer of their own.
+     * @return the busy fraction, between 0 and 1
+     */
+    @Override
+    public double getBusyFraction() {
+        if (cooks.isEmpty()) {
+            return 0.0;
+        }
+        int busy = 0;
+        for (Cook cook : cooks) {
+            if (cook.isBusy()) {
+                busy++;
+            }
+        }
+        return (double) busy / cooks.size();
+    }
+
+    /**
+     * Shuffles the cooks (Fisher-Yates) so that free cooks are picked in random order.
+     */
+    private void shuffleCooks() {
+        for (int i = cooks.size() - 1; i > 0; i--) {
+            int j = Math.min((int) (shuffleGenerator.sample() * (i + 1)), i);
+            Collections.swap(cooks, i, j);
+        }
+    }
+
+    
     /**
      * Handles the departure of a customer from the kitchen.
      * Updates statistics, resets cook busy states, and triggers visualization callbacks.
@@ -162,4 +207,70 @@ public class KitchenServicePoint extends ServicePoint {
     public ArrayList<Cook> getCooks() {
         return cooks;
     }
+
+    /**
+     * Adds a new, free cook to the kitchen, e.g. when modelling extra staff arriving mid-run.
+     * The failure generator of the cook is seeded from the kitchen's seed sequence, so runs that
+     * add cooks are reproducible and differ between differently seeded branches.
+     * @param competency the competency of the new cook
+     */
+    public void addCook(CookCompetency competency) {
+        Cook cook = new Cook(competency, generator);
+        LongSupplier seeds = Engine.seedSequence(cookSeed);
+        cook.reseed(seeds.getAsLong());
+        cookSeed = seeds.getAsLong();
+        cooks.add(cook);
+    }
+
+    /**
+     * Reseeds the service time generator, the shuffle generator, every cook's failure generator
+     * and the seed of the cooks added later.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    public void reseed(LongSupplier seeds) {
+        super.reseed(seeds);
+        shuffleGenerator.setSeed(seeds.getAsLong());
+        for (Cook cook : cooks) {
+            cook.reseed(seeds.getAsLong());
+        }
+        cookSeed = seeds.getAsLong();
+    }
+
+    /**
+     * Writes the service point state, the cooks in their current order, the shuffle
+     * generator state and the seed of the next added cook to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(shuffleGenerator.getSeed());
+        out.writeLong(cookSeed);
+        out.writeInt(cooks.size());
+        for (Cook cook : cooks) {
+            cook.writeState(out);
+        }
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * The kitchen must have been created with the same number of cooks.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails or the number of cooks differs
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        shuffleGenerator.setSeed(in.readLong());
+        cookSeed = in.readLong();
+        int size = in.readInt();
+        if (size != cooks.size()) {
+            throw new IOException("Checkpoint has " + size + " cooks but the kitchen has " + cooks.size());
+        }
+        for (Cook cook : cooks) {
+            cook.readState(in);
+        }
+    }
 }
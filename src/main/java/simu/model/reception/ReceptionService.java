@@ -13,6 +13,11 @@ import simu.model.Customer;
 import simu.model.EventType;
 import simu.model.ServicePoint;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
 /**
  * ReceptionService handles customer checkouts, payment processing, and money returns.
  * Uses framework statistics for tracking.
@@ -61,6 +66,7 @@ public class ReceptionService extends ServicePoint {
             Trace.out(Trace.Level.INFO, "Reception: Customer #" + customer.getId() + " checkout being processed. New event \"" + this.eventTypeScheduled + "\" scheduled at " + (Clock.getInstance().getTime()+serviceTime));
         }
 
+        recordServiceBegin(customer, serviceTime);
         eventList.add(new Event(this.eventTypeScheduled, Clock.getInstance().getTime() + serviceTime));
         receptionStatistics.addServiceBusyTime(serviceTime);
     }
@@ -133,6 +139,7 @@ public class ReceptionService extends ServicePoint {
                     customer.setServicePointArrivalTime(Clock.getInstance().getTime());
                     receptionStatistics.incrementServicedCustomers();
                     receptionStatistics.incrementArrivedCustomers();
+                    simulationStatistics.incrementPaymentFailures();
                     customer.reportPaymentIssue();
                 }
                 return customer; // Customer returns to same queue
@@ -160,4 +167,36 @@ public class ReceptionService extends ServicePoint {
     public ReceptionStatistics getStatistics() {
         return receptionStatistics;
     }
+
+    /**
+     * Reseeds the service time generator and the payment error generator.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    public void reseed(LongSupplier seeds) {
+        super.reseed(seeds);
+        errorPath.setSeed(seeds.getAsLong());
+    }
+
+    /**
+     * Writes the service point state and the payment error generator state to a checkpoint.
+     * @param out the checkpoint output
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeLong(errorPath.getSeed());
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     * @param in the checkpoint input
+     * @throws IOException if reading fails
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        errorPath.setSeed(in.readLong());
+    }
 }
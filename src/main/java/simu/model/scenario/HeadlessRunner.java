@@ -0,0 +1,160 @@
+package simu.model.scenario;
+
+import simu.backend.dao.ResultsWriter;
+import simu.framework.Trace;
+import simu.framework.monitoring.PrometheusExporter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs scenario files without the user interface, for batch jobs, benchmarks and parameter sweeps.
+ * <p>
+ * Usage: {@code HeadlessRunner [--threads N] [--out results.csv] [--trace INFO|WAR|ERR] PATH...},
+ * where every path is a {@link Scenario} properties file or a directory of {@code .properties}
+ * files. Every replication of every scenario is run in its own simulation context on a pool of
+ * threads, and one CSV line per run is written to the output file or to standard output as soon
+ * as the run finishes. If the {@code simu.metrics.port} system property is set, the live metrics
+ * of the running engines are served for scraping.
+ */
+public class HeadlessRunner {
+    /** Timeout for saving queued results to the database before exiting, in milliseconds. */
+    private static final long RESULTS_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * Runs the scenarios given on the command line. Exits with status 1 if a run failed or its
+     * results could not be saved, and with status 2 if the arguments are invalid.
+     * @param args the options and scenario paths
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        Trace.Level traceLevel = Trace.Level.WAR;
+        List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--out" -> out = Path.of(args[++i]);
+                    case "--trace" -> traceLevel = Trace.Level.valueOf(args[++i]);
+                    default -> paths.add(Path.of(args[i]));
+                }
+            }
+        } catch (RuntimeException e) {
+            paths.clear();
+        }
+        if (paths.isEmpty() || threads < 1) {
+            System.err.println("Usage: HeadlessRunner [--threads N] [--out results.csv] [--trace INFO|WAR|ERR] PATH...");
+            System.exit(2);
+        }
+        Trace.setTraceLevel(traceLevel);
+        int failures;
+        boolean resultsSaved = true;
+        try {
+            List<Scenario> scenarios = loadScenarios(paths);
+            PrometheusExporter exporter = PrometheusExporter.startFromSystemProperties();
+            try (Writer writer = out != null ? Files.newBufferedWriter(out, StandardCharsets.UTF_8)
+                    : new PrintWriter(System.out);
+                 PrintWriter csv = new PrintWriter(writer)) {
+                csv.println(RunResult.CSV_HEADER);
+                failures = runAll(scenarios, threads, result -> {
+                    csv.println(result.toCsv());
+                    csv.flush();
+                });
+            } finally {
+                if (scenarios.stream().anyMatch(Scenario::isSaveResults)) {
+                    resultsSaved = ResultsWriter.getInstance().shutdown(RESULTS_TIMEOUT_MILLIS);
+                }
+                if (exporter != null) {
+                    exporter.stop();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            Trace.out(Trace.Level.ERR, "Headless run failed: " + e.getMessage());
+            failures = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures = 1;
+        }
+        System.exit(failures > 0 || !resultsSaved ? 1 : 0);
+    }
+
+    /**
+     * Loads the scenarios of the given files and directories, in order; the files of a directory
+     * are loaded in name order.
+     * @param paths scenario files and directories of scenario files
+     * @return the scenarios
+     * @throws IOException if a file cannot be read
+     * @throws IllegalArgumentException if a scenario is invalid
+     */
+    public static List<Scenario> loadScenarios(List<Path> paths) throws IOException {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    for (Path file : files.filter(f -> f.toString().endsWith(".properties")).sorted().toList()) {
+                        scenarios.add(Scenario.load(file));
+                    }
+                }
+            } else {
+                scenarios.add(Scenario.load(path));
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Runs every replication of every scenario on a pool of threads.
+     * @param scenarios the scenarios
+     * @param threads the number of runs executing at once
+     * @param sink receives the summary of each successful run on the calling thread, in order of completion
+     * @return the number of failed runs, which are logged
+     * @throws InterruptedException if interrupted while waiting for the runs
+     */
+    public static int runAll(List<Scenario> scenarios, int threads, Consumer<RunResult> sink) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "headless-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<RunResult> runs = new ExecutorCompletionService<>(pool);
+        int submitted = 0;
+        for (Scenario scenario : scenarios) {
+            for (int replication = 0; replication < scenario.getReplications(); replication++) {
+                int r = replication;
+                runs.submit(() -> scenario.run(r));
+                submitted++;
+            }
+        }
+        int failures = 0;
+        try {
+            for (int i = 0; i < submitted; i++) {
+                try {
+                    sink.accept(runs.take().get());
+                } catch (ExecutionException e) {
+                    failures++;
+                    Trace.out(Trace.Level.ERR, "Scenario run failed: " + e.getCause());
+                    StringWriter sw = new StringWriter();
+                    e.getCause().printStackTrace(new PrintWriter(sw));
+                    Trace.out(Trace.Level.WAR, sw.toString());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures;
+    }
+}
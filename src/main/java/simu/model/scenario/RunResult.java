@@ -0,0 +1,154 @@
+package simu.model.scenario;
+
+import java.util.Locale;
+
+/**
+ * Summary of one run of a {@link Scenario}: the main results of the simulation and the
+ * performance of the engine, written as one CSV line by the {@link HeadlessRunner}.
+ */
+public class RunResult {
+    /** Header of the CSV output, matching {@link #toCsv()}. */
+    public static final String CSV_HEADER = "scenario,replication,seed,arrived,serviced,refused_deliveries,"
+            + "throughput,mean_response_time,wall_millis,events";
+
+    /** Name of the scenario. */
+    private final String scenario;
+    /** Replication number. */
+    private final int replication;
+    /** Seed of the run, or -1 if the built-in seeds were used. */
+    private final long seed;
+    /** Number of arrived customers. */
+    private final int arrivedCustomers;
+    /** Number of serviced customers. */
+    private final int servicedCustomers;
+    /** Number of refused deliveries. */
+    private final int refusedDeliveries;
+    /** Serviced customers per time unit. */
+    private final double throughput;
+    /** Mean response time of the serviced customers. */
+    private final double meanResponseTime;
+    /** Wall-clock duration of the run in milliseconds. */
+    private final long wallMillis;
+    /** Number of events processed. */
+    private final long eventsProcessed;
+
+    /**
+     * Creates the summary of a run.
+     * @param scenario the name of the scenario
+     * @param replication the replication number
+     * @param seed the seed of the run, or -1 if the built-in seeds were used
+     * @param arrivedCustomers the number of arrived customers
+     * @param servicedCustomers the number of serviced customers
+     * @param refusedDeliveries the number of refused deliveries
+     * @param throughput the serviced customers per time unit
+     * @param meanResponseTime the mean response time of the serviced customers
+     * @param wallMillis the wall-clock duration of the run in milliseconds
+     * @param eventsProcessed the number of events processed
+     */
+    public RunResult(String scenario, int replication, long seed, int arrivedCustomers, int servicedCustomers,
+                     int refusedDeliveries, double throughput, double meanResponseTime, long wallMillis,
+                     long eventsProcessed) {
+        this.scenario = scenario;
+        this.replication = replication;
+        this.seed = seed;
+        this.arrivedCustomers = arrivedCustomers;
+        this.servicedCustomers = servicedCustomers;
+        this.refusedDeliveries = refusedDeliveries;
+        this.throughput = throughput;
+        this.meanResponseTime = meanResponseTime;
+        this.wallMillis = wallMillis;
+        this.eventsProcessed = eventsProcessed;
+    }
+
+    /**
+     * Formats the summary as a CSV line, without line separator.
+     * @return the CSV line, in the columns of {@link #CSV_HEADER}
+     */
+    public String toCsv() {
+        String name = scenario.contains(",") || scenario.contains("\"")
+                ? "\"" + scenario.replace("\"", "\"\"") + "\"" : scenario;
+        return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.6f,%.6f,%d,%d", name, replication, seed,
+                arrivedCustomers, servicedCustomers, refusedDeliveries, throughput, meanResponseTime,
+                wallMillis, eventsProcessed);
+    }
+
+    /**
+     * Returns the name of the scenario.
+     * @return the scenario name
+     */
+    public String getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Returns the replication number.
+     * @return the replication number
+     */
+    public int getReplication() {
+        return replication;
+    }
+
+    /**
+     * Returns the seed of the run.
+     * @return the seed, or -1 if the built-in seeds were used
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of arrived customers.
+     * @return the number of arrived customers
+     */
+    public int getArrivedCustomers() {
+        return arrivedCustomers;
+    }
+
+    /**
+     * Returns the number of serviced customers.
+     * @return the number of serviced customers
+     */
+    public int getServicedCustomers() {
+        return servicedCustomers;
+    }
+
+    /**
+     * Returns the number of refused deliveries.
+     * @return the number of refused deliveries
+     */
+    public int getRefusedDeliveries() {
+        return refusedDeliveries;
+    }
+
+    /**
+     * Returns the serviced customers per time unit.
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the mean response time of the serviced customers.
+     * @return the mean response time
+     */
+    public double getMeanResponseTime() {
+        return meanResponseTime;
+    }
+
+    /**
+     * Returns the wall-clock duration of the run.
+     * @return the duration in milliseconds
+     */
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    /**
+     * Returns the number of events processed.
+     * @return the number of events
+     */
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+}
@@ -0,0 +1,373 @@
+package simu.model.scenario;
+
+import simu.framework.RateFunction;
+import simu.framework.SimulationContext;
+import simu.framework.monitoring.RunTelemetry;
+import simu.framework.statistics.SimulationStatistics;
+import simu.framework.statistics.counter.CounterStatistics;
+import simu.framework.statistics.delivery.DeliveryStatistics;
+import simu.framework.statistics.kitchen.KitchenStatistics;
+import simu.framework.statistics.reception.ReceptionStatistics;
+import simu.model.MyEngine;
+import simu.model.kitchen.CookCompetency;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * A complete configuration of the restaurant simulation, read from a properties file, so that
+ * simulations can be run without the configuration screen, e.g. by the {@link HeadlessRunner}.
+ * <p>
+ * Every key is optional and defaults to the value of the configuration screen:
+ * <pre>
+ * # Defaults to the file name
+ * name=lunch-rush
+ * simulation.time=1000
+ * # Seed of all random streams, replication r uses seed + r; unset keeps the built-in seeds
+ * seed=42
+ * replications=10
+ * save.results=false
+ * reception.mean=4
+ * reception.variance=1.5
+ * kitchen.mean=15
+ * kitchen.variance=5
+ * counter.mean=2
+ * counter.variance=0.5
+ * delivery.mean=20
+ * delivery.variance=5
+ * arrival.walkIn.mean=15
+ * arrival.callIn.mean=10
+ * # Optional time:rate profile of a stream, used instead of its mean; step or linear, optionally periodic
+ * arrival.walkIn.rates=0:0.05, 120:0.2, 240:0.05
+ * arrival.walkIn.interpolation=step
+ * arrival.walkIn.period=480
+ * cooks=EXPERT, EXPERT, INEXPERIENCED
+ * </pre>
+ * A scenario is immutable. Each run is simulated in its own {@link SimulationContext}, so any
+ * number of runs can execute in parallel in one process.
+ */
+public class Scenario {
+    /** Default mean and variance of the service times of the reception, kitchen, counter and delivery. */
+    private static final double[][] DEFAULT_SERVICE_TIMES = {{4, 1.5}, {15, 5}, {2, 0.5}, {20, 5}};
+    /** Property key prefixes of the service points, in the order of {@link #DEFAULT_SERVICE_TIMES}. */
+    private static final String[] SERVICE_POINTS = {"reception", "kitchen", "counter", "delivery"};
+
+    /** The properties defining the scenario. */
+    private final Properties properties;
+    /** Name of the scenario. */
+    private final String name;
+    /** Simulation time of a run. */
+    private final double simulationTime;
+    /** Seed of the random streams, or null to keep the built-in seeds. */
+    private final Long seed;
+    /** Number of replications. */
+    private final int replications;
+    /** Whether the runs are saved to the database. */
+    private final boolean saveResults;
+    /** Mean and variance of the service time of every service point. */
+    private final double[][] serviceTimes = new double[SERVICE_POINTS.length][];
+    /** Mean inter-arrival time of walk-in customers. */
+    private final double walkInMean;
+    /** Mean inter-arrival time of call-in customers. */
+    private final double callInMean;
+    /** Arrival rate profile of walk-in customers, or null. */
+    private final RateFunction walkInRates;
+    /** Arrival rate profile of call-in customers, or null. */
+    private final RateFunction callInRates;
+    /** Competencies of the cooks. */
+    private final List<CookCompetency> cooks = new ArrayList<>();
+
+    /**
+     * Creates a scenario from its properties.
+     * @param defaultName the name used if the properties do not name the scenario
+     * @param properties the properties defining the scenario
+     * @throws IllegalArgumentException if a value is invalid, with the key in the message
+     */
+    public Scenario(String defaultName, Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+        this.name = properties.getProperty("name", defaultName).trim();
+        this.simulationTime = positive("simulation.time", 1000);
+        String seedValue = properties.getProperty("seed");
+        this.seed = seedValue == null || seedValue.isBlank() ? null : parseLong("seed", seedValue);
+        String replicationValue = properties.getProperty("replications", "1");
+        long replicationCount = parseLong("replications", replicationValue);
+        if (replicationCount < 1 || replicationCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("replications must be positive: " + replicationValue.trim());
+        }
+        this.replications = (int) replicationCount;
+        this.saveResults = Boolean.parseBoolean(properties.getProperty("save.results", "false").trim());
+        for (int i = 0; i < SERVICE_POINTS.length; i++) {
+            serviceTimes[i] = new double[] {
+                    positive(SERVICE_POINTS[i] + ".mean", DEFAULT_SERVICE_TIMES[i][0]),
+                    nonNegative(SERVICE_POINTS[i] + ".variance", DEFAULT_SERVICE_TIMES[i][1])
+            };
+        }
+        this.walkInMean = positive("arrival.walkIn.mean", 15);
+        this.callInMean = positive("arrival.callIn.mean", 10);
+        this.walkInRates = rateFunction("arrival.walkIn");
+        this.callInRates = rateFunction("arrival.callIn");
+        String cookValue = properties.getProperty("cooks", "EXPERT, EXPERT, EXPERT, EXPERT");
+        for (String cook : cookValue.split(",")) {
+            try {
+                cooks.add(CookCompetency.valueOf(cook.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("cooks: unknown competency '" + cook.trim() + "'");
+            }
+        }
+    }
+
+    /**
+     * Reads a scenario file. The scenario is named after the file unless the file names it.
+     * @param file the properties file
+     * @return the scenario
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static Scenario load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String fileName = file.getFileName().toString();
+        String defaultName = fileName.endsWith(".properties")
+                ? fileName.substring(0, fileName.length() - ".properties".length()) : fileName;
+        try {
+            return new Scenario(defaultName, properties);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a positive number property.
+     * @param key the key
+     * @param defaultValue the value if the key is not set
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    private double positive(String key, double defaultValue) {
+        double value = number(key, defaultValue);
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(key + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a non-negative number property.
+     * @param key the key
+     * @param defaultValue the value if the key is not set
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a non-negative number
+     */
+    private double nonNegative(String key, double defaultValue) {
+        double value = number(key, defaultValue);
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(key + " must not be negative: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns a number property.
+     * @param key the key
+     * @param defaultValue the value if the key is not set
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    private double number(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a number '" + value.trim() + "'");
+        }
+    }
+
+    /**
+     * Parses an integer property.
+     * @param key the key
+     * @param value the value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    private static long parseLong(String key, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not an integer '" + value.trim() + "'");
+        }
+    }
+
+    /**
+     * Returns the arrival rate profile of a customer stream, if configured.
+     * @param prefix the key prefix of the stream
+     * @return the rate function, or null if the stream has no {@code rates} key
+     * @throws IllegalArgumentException if the profile is invalid
+     */
+    private RateFunction rateFunction(String prefix) {
+        String value = properties.getProperty(prefix + ".rates");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] points = value.split(",");
+        double[] times = new double[points.length];
+        double[] rates = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] point = points[i].split(":");
+            if (point.length != 2) {
+                throw new IllegalArgumentException(prefix + ".rates: expected time:rate, found '" + points[i].trim() + "'");
+            }
+            try {
+                times[i] = Double.parseDouble(point[0].trim());
+                rates[i] = Double.parseDouble(point[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(prefix + ".rates: not a number in '" + points[i].trim() + "'");
+            }
+        }
+        String interpolation = properties.getProperty(prefix + ".interpolation", "step").trim();
+        boolean linear = "linear".equalsIgnoreCase(interpolation);
+        if (!linear && !"step".equalsIgnoreCase(interpolation)) {
+            throw new IllegalArgumentException(prefix + ".interpolation must be step or linear: " + interpolation);
+        }
+        double period = properties.getProperty(prefix + ".period") != null
+                ? positive(prefix + ".period", 0) : Double.POSITIVE_INFINITY;
+        try {
+            return linear ? RateFunction.piecewiseLinear(times, rates, period)
+                    : RateFunction.piecewiseConstant(times, rates, period);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(prefix + ".rates: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Configures the statistics singletons of the current simulation context, which the engine
+     * reads its service and arrival parameters from.
+     */
+    public void apply() {
+        ReceptionStatistics.getInstance().setMean(serviceTimes[0][0]);
+        ReceptionStatistics.getInstance().setVariance(serviceTimes[0][1]);
+        KitchenStatistics.getInstance().setMean(serviceTimes[1][0]);
+        KitchenStatistics.getInstance().setVariance(serviceTimes[1][1]);
+        CounterStatistics.getInstance().setMean(serviceTimes[2][0]);
+        CounterStatistics.getInstance().setVariance(serviceTimes[2][1]);
+        DeliveryStatistics.getInstance().setMean(serviceTimes[3][0]);
+        DeliveryStatistics.getInstance().setVariance(serviceTimes[3][1]);
+        SimulationStatistics statistics = SimulationStatistics.getInstance();
+        statistics.setSimulationTime(simulationTime);
+        statistics.setWalkInMeanTime(walkInMean);
+        statistics.setCallInMeanTime(callInMean);
+        statistics.setWalkInRateFunction(walkInRates);
+        statistics.setCallInRateFunction(callInRates);
+    }
+
+    /**
+     * Creates an engine for one replication in the current simulation context, configured and
+     * seeded for the replication. The engine does not drive a user interface.
+     * @param replication the replication number, from 0
+     * @return the engine, ready to run
+     */
+    public MyEngine createEngine(int replication) {
+        apply();
+        MyEngine engine = new MyEngine(null, new ArrayList<>(cooks));
+        engine.setSimulationTime(simulationTime);
+        engine.setSaveResults(saveResults);
+        if (seed != null) {
+            engine.reseed(seed + replication);
+        }
+        return engine;
+    }
+
+    /**
+     * Runs one replication to the end on the calling thread, in a new simulation context.
+     * @param replication the replication number, from 0
+     * @return the summary of the run
+     * @throws Exception if the run fails
+     */
+    public RunResult run(int replication) throws Exception {
+        SimulationContext context = new SimulationContext(name + "#" + replication);
+        return context.call(() -> {
+            MyEngine engine = createEngine(replication);
+            engine.setName("scenario-" + name + "-" + replication);
+            engine.run();
+            SimulationStatistics statistics = SimulationStatistics.getInstance();
+            RunTelemetry telemetry = engine.getTelemetry();
+            return new RunResult(name, replication, seed != null ? seed + replication : -1,
+                    statistics.getTotalArrivedCustomers(), statistics.getTotalServicedCustomers(),
+                    statistics.getRefusedDeliveryCustomers(), statistics.countSystemThroughput(),
+                    statistics.countSystemAverageResponseTime(), telemetry.getWallMillis(),
+                    telemetry.getEventsProcessed());
+        });
+    }
+
+    /**
+     * Returns a copy of the properties defining the scenario, from which an equal scenario can be
+     * created, e.g. to send the scenario to another process.
+     * @return the properties
+     */
+    public Properties toProperties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.setProperty("name", name);
+        return copy;
+    }
+
+    /**
+     * Returns the name of the scenario.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the simulation time of a run.
+     * @return the simulation time
+     */
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    /**
+     * Returns the seed of the random streams.
+     * @return the seed, or null if the built-in seeds are kept
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of replications.
+     * @return the number of replications
+     */
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * Returns whether the runs are saved to the database.
+     * @return true if the runs are saved
+     */
+    public boolean isSaveResults() {
+        return saveResults;
+    }
+
+    /**
+     * Returns the competencies of the cooks.
+     * @return the cooks
+     */
+    public List<CookCompetency> getCooks() {
+        return List.copyOf(cooks);
+    }
+}
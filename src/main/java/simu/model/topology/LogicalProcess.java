@@ -0,0 +1,607 @@
+package simu.model.topology;
+
+import eduni.distributions.Negexp;
+import eduni.distributions.Uniform;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A logical process of the {@link ParallelTopologyEngine}: a partition of the stations of a
+ * topology with its own event list and clock, simulated on its own thread.
+ * <p>
+ * Customers routed to a station of another logical process are sent as timestamped messages over
+ * the channel between the two processes. A process only handles events earlier than the times of
+ * all its input channels, which are advanced by the messages and by null messages, promises that
+ * no earlier message will follow (Chandy–Misra–Bryant). The promises rely on lookahead from
+ * service times and routing: the service times and next stations of the next few customers of
+ * every station are drawn in advance, so a station cannot send a customer on a channel before the
+ * earliest possible arrival plus the services of all customers up to the first one bound for it.
+ * <p>
+ * The process keeps its own lightweight events and customers, which hold only the time the
+ * customer entered the network, instead of the framework's event list and customers, which are
+ * bound to a shared clock.
+ */
+class LogicalProcess implements Runnable {
+    /** Event kind: the next customer of an arrival stream enters the network. */
+    private static final int ARRIVAL = 0;
+    /** Event kind: a customer routed from another logical process enters a station. */
+    private static final int MESSAGE = 1;
+    /** Event kind: a service at a station ends. */
+    private static final int DEPARTURE = 2;
+    /** Number of future customers of every station whose service time and next station are drawn in advance. */
+    private static final int DRAWN_AHEAD = 8;
+
+    /** Index of the process. */
+    private final int index;
+    /** The simulated network. */
+    private final Topology topology;
+    /** Logical process of every station. */
+    private final int[] owner;
+    /** Simulation time at which the process stops. */
+    private final double endTime;
+    /** The events of the process, in time order. */
+    private final PriorityQueue<LocalEvent> events = new PriorityQueue<>();
+    /** Messages from the input channels, in order of receipt. */
+    private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+    /** Time of every input channel, by channel index: no later message has an earlier timestamp. */
+    private double[] channelTimes = new double[0];
+    /** Output channels, by logical process index of the receiver; null where there is no channel. */
+    private OutputChannel[] outputs;
+
+    /** Clock of the process. */
+    private double clock = 0;
+    /** Service time generators of the stations, by station index; null for stations of other processes. */
+    private final Negexp[] services;
+    /** Routing random numbers of the stations, by station index. */
+    private final Uniform[] routing;
+    /** Service times of the next customers of every station, drawn in advance, in a ring from {@link #aheadStart}. */
+    private final double[][] serviceTimesAhead;
+    /** Next stations of the next customers of every station, drawn in advance, in a ring from {@link #aheadStart}. */
+    private final int[][] nextHopsAhead;
+    /** Position of the next customer of every station in its rings of draws. */
+    private final int[] aheadStart;
+    /** Next station of the customer in service at every station. */
+    private final int[] currentHops;
+    /** Whether every station is serving a customer. */
+    private final boolean[] busy;
+    /** End of the current service of every busy station. */
+    private final double[] departureTimes;
+    /** Network entry times of the customers at every station, in service and queueing. */
+    private final DoubleQueue[] queues;
+    /** Customers serviced by every station. */
+    private final long[] servicedCustomers;
+    /** Service time scheduled at every station. */
+    private final double[] busyTimes;
+    /** Inter-arrival time generators of the arrival streams feeding this process, by stream index. */
+    private final Negexp[] arrivals;
+
+    /** Number of customers that left the network from this process. */
+    private long completedCustomers = 0;
+    /** Total time spent in the network by those customers. */
+    private double totalSojournTime = 0;
+    /** Number of events handled. */
+    private long eventsProcessed = 0;
+    /** Number of customers sent to other processes. */
+    private long messagesSent = 0;
+    /** Number of null messages sent to other processes. */
+    private long nullMessagesSent = 0;
+
+    /**
+     * Creates a logical process.
+     * @param index the index of the process
+     * @param topology the network
+     * @param owner the logical process of every station
+     * @param endTime the simulation time at which the process stops
+     * @param serviceSeeds the seed of the service time stream of every station
+     * @param routingSeeds the seed of the routing stream of every station
+     * @param arrivalSeeds the seed of every arrival stream
+     */
+    LogicalProcess(int index, Topology topology, int[] owner, double endTime, long[] serviceSeeds,
+                   long[] routingSeeds, long[] arrivalSeeds) {
+        this.index = index;
+        this.topology = topology;
+        this.owner = owner;
+        this.endTime = endTime;
+        int stationCount = topology.getStationCount();
+        this.services = new Negexp[stationCount];
+        this.routing = new Uniform[stationCount];
+        this.serviceTimesAhead = new double[stationCount][];
+        this.nextHopsAhead = new int[stationCount][];
+        this.aheadStart = new int[stationCount];
+        this.currentHops = new int[stationCount];
+        this.busy = new boolean[stationCount];
+        this.departureTimes = new double[stationCount];
+        this.queues = new DoubleQueue[stationCount];
+        this.servicedCustomers = new long[stationCount];
+        this.busyTimes = new double[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            if (owner[i] == index) {
+                services[i] = new Negexp(topology.getMeanServiceTime(i), serviceSeeds[i]);
+                routing[i] = new Uniform(0, 1, routingSeeds[i]);
+                serviceTimesAhead[i] = new double[DRAWN_AHEAD];
+                nextHopsAhead[i] = new int[DRAWN_AHEAD];
+                for (int k = 0; k < DRAWN_AHEAD; k++) {
+                    serviceTimesAhead[i][k] = services[i].sample();
+                    nextHopsAhead[i][k] = topology.nextHop(i, routing[i].sample());
+                }
+                queues[i] = new DoubleQueue();
+            }
+        }
+        this.arrivals = new Negexp[topology.getArrivalCount()];
+        for (int k = 0; k < arrivals.length; k++) {
+            if (owner[topology.getArrivalStation(k)] == index) {
+                arrivals[k] = new Negexp(topology.getArrivalMean(k), arrivalSeeds[k]);
+                events.add(new LocalEvent(arrivals[k].sample(), ARRIVAL, k, 0));
+            }
+        }
+    }
+
+    /**
+     * Connects the processes with channels wherever a station of one routes customers to a station of another.
+     * @param processes all logical processes, by index
+     */
+    static void connect(LogicalProcess[] processes) {
+        Topology topology = processes[0].topology;
+        int[] owner = processes[0].owner;
+        for (LogicalProcess process : processes) {
+            process.outputs = new OutputChannel[processes.length];
+        }
+        for (int from = 0; from < topology.getStationCount(); from++) {
+            for (int to : topology.getRouteTargets(from)) {
+                int source = owner[from];
+                int target = owner[to];
+                if (source == target) {
+                    continue;
+                }
+                LogicalProcess sender = processes[source];
+                OutputChannel channel = sender.outputs[target];
+                if (channel == null) {
+                    LogicalProcess receiver = processes[target];
+                    int channelIndex = receiver.channelTimes.length;
+                    receiver.channelTimes = Arrays.copyOf(receiver.channelTimes, channelIndex + 1);
+                    channel = new OutputChannel(receiver, channelIndex);
+                    sender.outputs[target] = channel;
+                }
+                channel.addBoundaryStation(from);
+            }
+        }
+    }
+
+    /**
+     * Simulates the stations of the process until the end time, exchanging customers and null
+     * messages with the other processes.
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                Message message;
+                while ((message = inbox.poll()) != null) {
+                    receive(message);
+                }
+                double safeTime = endTime;
+                for (double channelTime : channelTimes) {
+                    safeTime = Math.min(safeTime, channelTime);
+                }
+                while (!events.isEmpty() && events.peek().time < safeTime) {
+                    handle(events.poll());
+                }
+                if (safeTime >= endTime) {
+                    // Every event before the end time is handled and no earlier message can follow
+                    clock = endTime;
+                    promise(Double.POSITIVE_INFINITY);
+                    return;
+                }
+                promise(lowerBound(safeTime));
+                receive(inbox.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the lower bound of the time of any future event of the process.
+     * @param safeTime the earliest time of the input channels, capped at the end time
+     * @return the earlier of the next event time and the safe time
+     */
+    private double lowerBound(double safeTime) {
+        return events.isEmpty() ? safeTime : Math.min(safeTime, events.peek().time);
+    }
+
+    /**
+     * Sends a null message on every output channel whose promise advanced.
+     * @param lowerBound the lower bound of the time of any future event of the process
+     */
+    private void promise(double lowerBound) {
+        for (OutputChannel channel : outputs) {
+            if (channel == null) {
+                continue;
+            }
+            double time = Double.POSITIVE_INFINITY;
+            if (lowerBound != Double.POSITIVE_INFINITY) {
+                for (int k = 0; k < channel.boundaryCount; k++) {
+                    int station = channel.boundaryStations[k];
+                    time = Math.min(time, earliestSend(station, channel.receiver.index, lowerBound));
+                }
+            }
+            if (time > channel.promisedTime) {
+                channel.promisedTime = time;
+                channel.receiver.inbox.add(new Message(channel.channelIndex, time, -1, 0));
+                nullMessagesSent++;
+            }
+        }
+    }
+
+    /**
+     * Returns the earliest time at which a station can send a customer to another process.
+     * @param station the index of the station
+     * @param receiver the index of the receiving process
+     * @param lowerBound the lower bound of the time of any future event of the process
+     * @return the earliest send time
+     */
+    private double earliestSend(int station, int receiver, double lowerBound) {
+        double time;
+        if (busy[station]) {
+            time = departureTimes[station];
+            if (isBoundFor(currentHops[station], receiver)) {
+                return time;
+            }
+        } else {
+            // An idle station cannot serve a customer before one arrives
+            time = lowerBound;
+        }
+        // Each following customer leaves one service later at the earliest
+        for (int k = 0; k < DRAWN_AHEAD; k++) {
+            int slot = (aheadStart[station] + k) % DRAWN_AHEAD;
+            time += serviceTimesAhead[station][slot];
+            if (isBoundFor(nextHopsAhead[station][slot], receiver)) {
+                return time;
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Returns whether a next station belongs to a process.
+     * @param next the index of the next station, or {@link Topology#EXIT}
+     * @param process the index of the process
+     * @return true if the customer goes to a station of the process
+     */
+    private boolean isBoundFor(int next, int process) {
+        return next != Topology.EXIT && owner[next] == process;
+    }
+
+    /**
+     * Advances the time of a message's channel and schedules the customer it carries, if any.
+     * @param message the message
+     */
+    private void receive(Message message) {
+        channelTimes[message.channel] = Math.max(channelTimes[message.channel], message.time);
+        if (message.station >= 0) {
+            events.add(new LocalEvent(message.time, MESSAGE, message.station, message.entryTime));
+        }
+    }
+
+    /**
+     * Handles an event at its time.
+     * @param event the event
+     */
+    private void handle(LocalEvent event) {
+        clock = event.time;
+        eventsProcessed++;
+        switch (event.kind) {
+            case ARRIVAL -> {
+                enter(topology.getArrivalStation(event.index), clock);
+                events.add(new LocalEvent(clock + arrivals[event.index].sample(), ARRIVAL, event.index, 0));
+            }
+            case MESSAGE -> enter(event.index, event.entryTime);
+            default -> depart(event.index);
+        }
+    }
+
+    /**
+     * Adds a customer to the queue of a station of this process, beginning its service if the station is idle.
+     * @param station the index of the station
+     * @param entryTime the time the customer entered the network
+     */
+    private void enter(int station, double entryTime) {
+        queues[station].add(entryTime);
+        if (!busy[station]) {
+            beginService(station);
+        }
+    }
+
+    /**
+     * Begins the service of the first customer of a station, with the service time and next
+     * station drawn in advance, and draws those of a later customer in their place.
+     * @param station the index of the station
+     */
+    private void beginService(int station) {
+        int slot = aheadStart[station];
+        double serviceTime = serviceTimesAhead[station][slot];
+        currentHops[station] = nextHopsAhead[station][slot];
+        serviceTimesAhead[station][slot] = services[station].sample();
+        nextHopsAhead[station][slot] = topology.nextHop(station, routing[station].sample());
+        aheadStart[station] = (slot + 1) % DRAWN_AHEAD;
+        busy[station] = true;
+        departureTimes[station] = clock + serviceTime;
+        busyTimes[station] += serviceTime;
+        events.add(new LocalEvent(departureTimes[station], DEPARTURE, station, 0));
+    }
+
+    /**
+     * Ends the service at a station and routes the customer to its next station, here, in another
+     * process, or out of the network.
+     * @param station the index of the station
+     */
+    private void depart(int station) {
+        double entryTime = queues[station].remove();
+        int next = currentHops[station];
+        servicedCustomers[station]++;
+        busy[station] = false;
+        if (!queues[station].isEmpty()) {
+            beginService(station);
+        }
+        if (next == Topology.EXIT) {
+            completedCustomers++;
+            totalSojournTime += clock - entryTime;
+        } else if (owner[next] == index) {
+            enter(next, entryTime);
+        } else {
+            OutputChannel channel = outputs[owner[next]];
+            if (clock < channel.promisedTime) {
+                throw new IllegalStateException("Lookahead violated: customer sent at " + clock
+                        + " after promising " + channel.promisedTime);
+            }
+            channel.promisedTime = clock;
+            channel.receiver.inbox.add(new Message(channel.channelIndex, clock, next, entryTime));
+            messagesSent++;
+        }
+    }
+
+    /**
+     * Returns the clock of the process.
+     * @return the time of the last handled event, or the end time once finished
+     */
+    double getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the number of customers serviced by a station of this process.
+     * @param station the index of the station
+     * @return the number of serviced customers
+     */
+    long getServicedCustomers(int station) {
+        return servicedCustomers[station];
+    }
+
+    /**
+     * Returns the service time scheduled at a station of this process.
+     * @param station the index of the station
+     * @return the busy time
+     */
+    double getBusyTime(int station) {
+        return busyTimes[station];
+    }
+
+    /**
+     * Returns the number of customers at a station of this process, in service and queueing.
+     * @param station the index of the station
+     * @return the number of customers
+     */
+    int getCustomersAt(int station) {
+        return queues[station].size();
+    }
+
+    /**
+     * Returns the number of customers that left the network from this process.
+     * @return the number of completed customers
+     */
+    long getCompletedCustomers() {
+        return completedCustomers;
+    }
+
+    /**
+     * Returns the total time spent in the network by the customers that left it from this process.
+     * @return the total sojourn time
+     */
+    double getTotalSojournTime() {
+        return totalSojournTime;
+    }
+
+    /**
+     * Returns the number of events handled.
+     * @return the number of events
+     */
+    long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * Returns the number of customers sent to other processes.
+     * @return the number of messages
+     */
+    long getMessagesSent() {
+        return messagesSent;
+    }
+
+    /**
+     * Returns the number of null messages sent to other processes.
+     * @return the number of null messages
+     */
+    long getNullMessagesSent() {
+        return nullMessagesSent;
+    }
+
+    /**
+     * An event of a logical process, ordered by time, then kind and index, so that the order does
+     * not depend on the partitioning.
+     */
+    private static final class LocalEvent implements Comparable<LocalEvent> {
+        /** Time of the event. */
+        final double time;
+        /** Kind of the event. */
+        final int kind;
+        /** Arrival stream index for arrivals, station index otherwise. */
+        final int index;
+        /** Network entry time of the customer of a message. */
+        final double entryTime;
+
+        /**
+         * Creates an event.
+         * @param time the time of the event
+         * @param kind the kind of the event
+         * @param index the arrival stream or station index
+         * @param entryTime the network entry time of the customer of a message
+         */
+        LocalEvent(double time, int kind, int index, double entryTime) {
+            this.time = time;
+            this.kind = kind;
+            this.index = index;
+            this.entryTime = entryTime;
+        }
+
+        /**
+         * Compares events by time, kind and index.
+         * @param other the other event
+         * @return the order of the events
+         */
+        @Override
+        public int compareTo(LocalEvent other) {
+            int order = Double.compare(time, other.time);
+            if (order == 0) {
+                order = Integer.compare(kind, other.kind);
+            }
+            return order != 0 ? order : Integer.compare(index, other.index);
+        }
+    }
+
+    /**
+     * A message on a channel: a customer entering a station, or a null message carrying only a time.
+     */
+    private static final class Message {
+        /** Index of the channel at the receiver. */
+        final int channel;
+        /** Timestamp: no later message on the channel has an earlier one. */
+        final double time;
+        /** Station the customer enters, or -1 for a null message. */
+        final int station;
+        /** Network entry time of the customer. */
+        final double entryTime;
+
+        /**
+         * Creates a message.
+         * @param channel the index of the channel at the receiver
+         * @param time the timestamp
+         * @param station the station the customer enters, or -1 for a null message
+         * @param entryTime the network entry time of the customer
+         */
+        Message(int channel, double time, int station, double entryTime) {
+            this.channel = channel;
+            this.time = time;
+            this.station = station;
+            this.entryTime = entryTime;
+        }
+    }
+
+    /**
+     * The sending end of a channel to another logical process.
+     */
+    private static final class OutputChannel {
+        /** The receiving process. */
+        final LogicalProcess receiver;
+        /** Index of the channel at the receiver. */
+        final int channelIndex;
+        /** Stations of the sender routing customers to the receiver. */
+        int[] boundaryStations = new int[4];
+        /** Number of boundary stations. */
+        int boundaryCount = 0;
+        /** Latest time sent on the channel. */
+        double promisedTime = 0;
+
+        /**
+         * Creates a channel.
+         * @param receiver the receiving process
+         * @param channelIndex the index of the channel at the receiver
+         */
+        OutputChannel(LogicalProcess receiver, int channelIndex) {
+            this.receiver = receiver;
+            this.channelIndex = channelIndex;
+        }
+
+        /**
+         * Adds a station routing customers over the channel, if not added yet.
+         * @param station the index of the station
+         */
+        void addBoundaryStation(int station) {
+            if (boundaryCount > 0 && boundaryStations[boundaryCount - 1] == station) {
+                return;
+            }
+            if (boundaryCount == boundaryStations.length) {
+                boundaryStations = Arrays.copyOf(boundaryStations, boundaryCount * 2);
+            }
+            boundaryStations[boundaryCount++] = station;
+        }
+    }
+
+    /**
+     * A FIFO queue of primitive doubles in a growing ring buffer.
+     */
+    private static final class DoubleQueue {
+        /** The elements. */
+        private double[] elements = new double[8];
+        /** Index of the first element. */
+        private int head = 0;
+        /** Number of elements. */
+        private int size = 0;
+
+        /**
+         * Appends an element.
+         * @param value the element
+         */
+        void add(double value) {
+            if (size == elements.length) {
+                double[] grown = new double[size * 2];
+                for (int k = 0; k < size; k++) {
+                    grown[k] = elements[(head + k) % elements.length];
+                }
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size) % elements.length] = value;
+            size++;
+        }
+
+        /**
+         * Removes the first element.
+         * @return the first element
+         */
+        double remove() {
+            double value = elements[head];
+            head = (head + 1) % elements.length;
+            size--;
+            return value;
+        }
+
+        /**
+         * Returns whether the queue is empty.
+         * @return true if there are no elements
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Returns the number of elements.
+         * @return the size
+         */
+        int size() {
+            return size;
+        }
+    }
+}
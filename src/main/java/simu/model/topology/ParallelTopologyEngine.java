@@ -0,0 +1,307 @@
+package simu.model.topology;
+
+import simu.framework.Engine;
+import simu.framework.Trace;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.function.LongSupplier;
+
+/**
+ * Conservative parallel simulation of a service network defined by a {@link Topology}: the
+ * stations are partitioned into logical processes, each simulated on its own thread with its own
+ * event list and clock, which exchange routed customers and null messages (Chandy–Misra–Bryant).
+ * <p>
+ * Every station draws its service and routing random numbers from its own streams, seeded from
+ * the engine seed by station index, so the results do not depend on the number of logical
+ * processes or on the partitioning. The engine pays off on large networks whose partitions
+ * exchange few customers; small networks run faster on a {@link TopologyEngine}.
+ */
+public class ParallelTopologyEngine {
+    /** The simulated network. */
+    private final Topology topology;
+    /** Logical process of every station. */
+    private final int[] owner;
+    /** Number of logical processes. */
+    private final int processCount;
+    /** Seed of the service time stream of every station. */
+    private final long[] serviceSeeds;
+    /** Seed of the routing stream of every station. */
+    private final long[] routingSeeds;
+    /** Seed of every arrival stream. */
+    private final long[] arrivalSeeds;
+    /** Simulation time at which the run stops. */
+    private double simulationTime = 0;
+    /** The logical processes of the last run, by index. */
+    private LogicalProcess[] processes;
+
+    /**
+     * Creates the engine of a network, partitioned into blocks of consecutive stations.
+     * @param topology the network
+     * @param logicalProcesses the number of logical processes, at most the number of stations
+     * @param seed the seed from which the seeds of all random streams are derived
+     */
+    public ParallelTopologyEngine(Topology topology, int logicalProcesses, long seed) {
+        this(topology, blocks(topology.getStationCount(), logicalProcesses), seed);
+    }
+
+    /**
+     * Creates the engine of a network with the given partitioning.
+     * @param topology the network
+     * @param owner the logical process of every station, numbered from 0 without gaps
+     * @param seed the seed from which the seeds of all random streams are derived
+     */
+    public ParallelTopologyEngine(Topology topology, int[] owner, long seed) {
+        int stationCount = topology.getStationCount();
+        if (owner.length != stationCount) {
+            throw new IllegalArgumentException("Partitioning of " + owner.length + " stations for "
+                    + stationCount + " stations");
+        }
+        int count = 0;
+        for (int process : owner) {
+            if (process < 0) {
+                throw new IllegalArgumentException("Negative logical process " + process);
+            }
+            count = Math.max(count, process + 1);
+        }
+        boolean[] used = new boolean[count];
+        for (int process : owner) {
+            used[process] = true;
+        }
+        for (int p = 0; p < count; p++) {
+            if (!used[p]) {
+                throw new IllegalArgumentException("Logical process " + p + " has no stations");
+            }
+        }
+        this.topology = topology;
+        this.owner = owner.clone();
+        this.processCount = count;
+        LongSupplier seeds = Engine.seedSequence(seed);
+        this.serviceSeeds = new long[stationCount];
+        this.routingSeeds = new long[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            serviceSeeds[i] = seeds.getAsLong();
+            routingSeeds[i] = seeds.getAsLong();
+        }
+        this.arrivalSeeds = new long[topology.getArrivalCount()];
+        for (int k = 0; k < arrivalSeeds.length; k++) {
+            arrivalSeeds[k] = seeds.getAsLong();
+        }
+    }
+
+    /**
+     * Partitions stations into blocks of consecutive stations of nearly equal size.
+     * @param stationCount the number of stations
+     * @param logicalProcesses the number of blocks
+     * @return the block of every station
+     */
+    private static int[] blocks(int stationCount, int logicalProcesses) {
+        if (logicalProcesses < 1 || logicalProcesses > stationCount) {
+            throw new IllegalArgumentException("Cannot partition " + stationCount + " stations into "
+                    + logicalProcesses + " logical processes");
+        }
+        int[] owner = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            owner[i] = (int) ((long) i * logicalProcesses / stationCount);
+        }
+        return owner;
+    }
+
+    /**
+     * Sets the simulation time at which the run stops.
+     * @param time the simulation time
+     */
+    public void setSimulationTime(double time) {
+        this.simulationTime = time;
+    }
+
+    /**
+     * Runs the simulation from time 0 to the simulation time, one thread per logical process.
+     * @throws IllegalStateException if a logical process fails or the run is interrupted
+     */
+    public void run() {
+        processes = new LogicalProcess[processCount];
+        for (int p = 0; p < processCount; p++) {
+            processes[p] = new LogicalProcess(p, topology, owner, simulationTime, serviceSeeds, routingSeeds, arrivalSeeds);
+        }
+        LogicalProcess.connect(processes);
+        Thread[] threads = new Thread[processCount];
+        Throwable[] failure = new Throwable[1];
+        long start = System.nanoTime();
+        for (int p = 0; p < processCount; p++) {
+            threads[p] = new Thread(processes[p], "logical-process-" + p);
+            threads[p].setDaemon(true);
+            threads[p].setUncaughtExceptionHandler((thread, e) -> {
+                synchronized (failure) {
+                    if (failure[0] == null) {
+                        failure[0] = e;
+                    }
+                }
+                for (Thread other : threads) {
+                    other.interrupt();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel simulation interrupted", e);
+        }
+        synchronized (failure) {
+            if (failure[0] != null) {
+                Trace.out(Trace.Level.ERR, "Logical process failed: " + failure[0]);
+                StringWriter sw = new StringWriter();
+                failure[0].printStackTrace(new PrintWriter(sw));
+                Trace.out(Trace.Level.WAR, sw.toString());
+                throw new IllegalStateException("Logical process failed", failure[0]);
+            }
+        }
+        Trace.out(Trace.Level.INFO, String.format("Parallel simulation of %d stations on %d logical processes: "
+                        + "%d events, %d messages, %d null messages in %d ms", topology.getStationCount(),
+                processCount, getEventsProcessed(), getMessagesSent(), getNullMessagesSent(),
+                (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Returns the logical processes of the last run.
+     * @return the logical processes, by index
+     * @throws IllegalStateException if the engine has not been run
+     */
+    private LogicalProcess[] processes() {
+        if (processes == null) {
+            throw new IllegalStateException("The parallel simulation has not been run");
+        }
+        return processes;
+    }
+
+    /**
+     * Returns the logical process of the last run that owns a station.
+     * @param station the index of the station
+     * @return the logical process
+     * @throws IllegalStateException if the engine has not been run
+     */
+    private LogicalProcess processOf(int station) {
+        return processes()[owner[station]];
+    }
+
+    /**
+     * Returns the simulated network.
+     * @return the topology
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns the number of logical processes.
+     * @return the number of logical processes
+     */
+    public int getLogicalProcessCount() {
+        return processCount;
+    }
+
+    /**
+     * Returns the number of customers serviced by a station in the last run.
+     * @param station the index of the station
+     * @return the number of serviced customers
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public long getServicedCustomers(int station) {
+        return processOf(station).getServicedCustomers(station);
+    }
+
+    /**
+     * Returns the service time scheduled at a station in the last run.
+     * @param station the index of the station
+     * @return the busy time
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public double getBusyTime(int station) {
+        return processOf(station).getBusyTime(station);
+    }
+
+    /**
+     * Returns the number of customers at a station at the end of the last run, in service and queueing.
+     * @param station the index of the station
+     * @return the number of customers
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public int getCustomersAt(int station) {
+        return processOf(station).getCustomersAt(station);
+    }
+
+    /**
+     * Returns the number of customers that left the network in the last run.
+     * @return the number of completed customers
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public long getCompletedCustomers() {
+        long total = 0;
+        for (LogicalProcess process : processes()) {
+            total += process.getCompletedCustomers();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the mean time spent in the network by the customers that left it in the last run.
+     * @return the mean sojourn time, 0 if no customer left
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public double getMeanSojournTime() {
+        double total = 0;
+        for (LogicalProcess process : processes()) {
+            total += process.getTotalSojournTime();
+        }
+        long completed = getCompletedCustomers();
+        return completed > 0 ? total / completed : 0;
+    }
+
+    /**
+     * Returns the number of events handled by all logical processes in the last run.
+     * @return the number of events
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public long getEventsProcessed() {
+        long total = 0;
+        for (LogicalProcess process : processes()) {
+            total += process.getEventsProcessed();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of customers sent between logical processes in the last run.
+     * @return the number of messages
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public long getMessagesSent() {
+        long total = 0;
+        for (LogicalProcess process : processes()) {
+            total += process.getMessagesSent();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of null messages sent between logical processes in the last run.
+     * @return the number of null messages
+     * @throws IllegalStateException if the engine has not been run
+     */
+    public long getNullMessagesSent() {
+        long total = 0;
+        for (LogicalProcess process : processes()) {
+            total += process.getNullMessagesSent();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,108 @@
+package simu.model.topology;
+
+import eduni.distributions.ContinuousGenerator;
+import simu.framework.Clock;
+import simu.framework.Event;
+import simu.framework.EventList;
+import simu.framework.IEventType;
+import simu.model.Customer;
+import simu.model.ServicePoint;
+
+/**
+ * A generic single-server station of a {@link Topology}. Customers are served one at a time in
+ * arrival order; the departure event of a service carries its customer. Routing is done by the
+ * {@link TopologyEngine}, so the station keeps no routing logic and no visualization hooks.
+ */
+public class Station extends ServicePoint {
+    /** Index of the station in its topology. */
+    private final int index;
+    /** Number of customers serviced. */
+    private long servicedCustomers = 0;
+    /** Total service time scheduled. */
+    private double busyTime = 0;
+    /** Total time spent at the station by the serviced customers, queueing and in service. */
+    private double responseTime = 0;
+
+    /**
+     * Creates a station.
+     * @param index the index of the station in its topology
+     * @param name the name of the station
+     * @param generator the generator of service times
+     * @param eventList the event list for scheduling departures
+     * @param departureType the departure event type of the station
+     */
+    public Station(int index, String name, ContinuousGenerator generator, EventList eventList, StationEventType departureType) {
+        super(generator, eventList, departureType, name);
+        this.index = index;
+    }
+
+    /**
+     * Begins the service of the first customer in the queue and schedules its departure.
+     */
+    @Override
+    public void beginService() {
+        reserved = true;
+        double now = Clock.getInstance().getTime();
+        double serviceTime = generator.sample();
+        Customer customer = jono.peek();
+        recordServiceBegin(customer, serviceTime);
+        busyTime += serviceTime;
+        eventList.add(new Event(eventTypeScheduled, now + serviceTime, customer));
+    }
+
+    /**
+     * Ends the service of the customer in service and updates the station statistics.
+     * @return the departing customer, or null if the queue is empty
+     */
+    @Override
+    public Customer handleDeparture() {
+        Customer customer = removeQueue();
+        if (customer != null) {
+            servicedCustomers++;
+            responseTime += Clock.getInstance().getTime() - customer.getServicePointArrival();
+        }
+        return customer;
+    }
+
+    /**
+     * Returns the departure event type of the station, the only event type it schedules.
+     * @param ordinal the ordinal of the event type
+     * @return the departure event type
+     */
+    @Override
+    protected IEventType eventTypeOf(int ordinal) {
+        return eventTypeScheduled;
+    }
+
+    /**
+     * Returns the index of the station in its topology.
+     * @return the station index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the number of customers serviced.
+     * @return the number of serviced customers
+     */
+    public long getServicedCustomers() {
+        return servicedCustomers;
+    }
+
+    /**
+     * Returns the total service time scheduled.
+     * @return the busy time
+     */
+    public double getBusyTime() {
+        return busyTime;
+    }
+
+    /**
+     * Returns the mean time a serviced customer spent at the station, queueing and in service.
+     * @return the mean response time, 0 if no customer was serviced
+     */
+    public double getMeanResponseTime() {
+        return servicedCustomers > 0 ? responseTime / servicedCustomers : 0;
+    }
+}
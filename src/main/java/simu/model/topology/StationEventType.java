@@ -0,0 +1,76 @@
+package simu.model.topology;
+
+import simu.framework.IEventType;
+
+/**
+ * Event type of a station in a {@link Topology}: the departure from a station, or an arrival to the
+ * network at a station. Unlike the fixed {@link simu.model.EventType} enum, the event types of a
+ * network are created for its stations, with ordinals indexing {@link TopologyEngine}'s event types.
+ */
+public final class StationEventType implements IEventType {
+    /** Ordinal of the event type within the network's event types. */
+    private final int ordinal;
+    /** Name of the event type. */
+    private final String name;
+    /** Index of the station the event concerns. */
+    private final int station;
+    /** Whether the event is an arrival to the network; false for a departure from the station. */
+    private final boolean arrival;
+
+    /**
+     * Creates an event type.
+     * @param ordinal the ordinal within the network's event types
+     * @param name the name of the event type
+     * @param station the index of the station
+     * @param arrival true for an arrival to the network, false for a departure from the station
+     */
+    StationEventType(int ordinal, String name, int station, boolean arrival) {
+        this.ordinal = ordinal;
+        this.name = name;
+        this.station = station;
+        this.arrival = arrival;
+    }
+
+    /**
+     * Returns the ordinal of the event type within the network's event types.
+     * @return the ordinal
+     */
+    @Override
+    public int ordinal() {
+        return ordinal;
+    }
+
+    /**
+     * Returns the name of the event type.
+     * @return the name
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the index of the station the event concerns.
+     * @return the station index
+     */
+    public int getStation() {
+        return station;
+    }
+
+    /**
+     * Returns whether the event is an arrival to the network.
+     * @return true for an arrival, false for a departure
+     */
+    public boolean isArrival() {
+        return arrival;
+    }
+
+    /**
+     * Returns the name of the event type.
+     * @return the name
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
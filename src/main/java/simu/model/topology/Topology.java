@@ -0,0 +1,219 @@
+package simu.model.topology;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compiled service network: its stations, the arrival streams feeding them, and the routing of
+ * customers between them. Topologies are created with a {@link TopologyBuilder} and are immutable.
+ * <p>
+ * The routing of all stations is compiled into flat int and double arrays, indexed by station:
+ * the routes of station {@code s} occupy the slots {@code routeStart[s]} to {@code routeStart[s + 1]}.
+ * Each station's route probabilities are stored as a Walker alias table, so that drawing the next
+ * station takes one uniform random number, one multiplication and one comparison, whatever the
+ * number of routes. A customer leaving the network is routed to {@link #EXIT}.
+ */
+public class Topology {
+    /** Next hop of a customer leaving the network. */
+    public static final int EXIT = -1;
+
+    /** Names of the stations, by index. */
+    private final String[] names;
+    /** Mean service times of the stations, by index. */
+    private final double[] meanServiceTimes;
+    /** Station indices by name. */
+    private final Map<String, Integer> indices = new HashMap<>();
+    /** First routing slot of each station; the last element is the total number of slots. */
+    private final int[] routeStart;
+    /** Target of each routing slot when the draw falls below the slot's threshold. */
+    private final int[] primary;
+    /** Target of each routing slot when the draw is at or above the slot's threshold. */
+    private final int[] alias;
+    /** Threshold of each routing slot. */
+    private final double[] threshold;
+    /** Stations fed by the arrival streams. */
+    private final int[] arrivalStations;
+    /** Mean inter-arrival times of the arrival streams. */
+    private final double[] arrivalMeans;
+
+    /**
+     * Creates a compiled topology; called by {@link TopologyBuilder#build()}.
+     * @param names the names of the stations
+     * @param meanServiceTimes the mean service times of the stations
+     * @param routeStart the first routing slot of each station, followed by the number of slots
+     * @param primary the primary target of each slot
+     * @param alias the alias target of each slot
+     * @param threshold the threshold of each slot
+     * @param arrivalStations the stations fed by the arrival streams
+     * @param arrivalMeans the mean inter-arrival times of the arrival streams
+     */
+    Topology(String[] names, double[] meanServiceTimes, int[] routeStart, int[] primary, int[] alias,
+             double[] threshold, int[] arrivalStations, double[] arrivalMeans) {
+        this.names = names;
+        this.meanServiceTimes = meanServiceTimes;
+        this.routeStart = routeStart;
+        this.primary = primary;
+        this.alias = alias;
+        this.threshold = threshold;
+        this.arrivalStations = arrivalStations;
+        this.arrivalMeans = arrivalMeans;
+        for (int i = 0; i < names.length; i++) {
+            indices.put(names[i], i);
+        }
+    }
+
+    /**
+     * Draws the next station of a customer leaving a station.
+     * @param station the index of the station the customer leaves
+     * @param u a uniform random number in [0, 1)
+     * @return the index of the next station, or {@link #EXIT} if the customer leaves the network
+     */
+    public int nextHop(int station, double u) {
+        int start = routeStart[station];
+        int slots = routeStart[station + 1] - start;
+        if (slots == 0) {
+            return EXIT;
+        }
+        double scaled = u * slots;
+        int slot = Math.min((int) scaled, slots - 1);
+        int index = start + slot;
+        return scaled - slot < threshold[index] ? primary[index] : alias[index];
+    }
+
+    /**
+     * Returns the probability that a customer leaving a station goes to another station,
+     * as compiled into the routing table.
+     * @param from the index of the station the customer leaves
+     * @param to the index of the next station, or {@link #EXIT}
+     * @return the routing probability
+     */
+    public double getRouteProbability(int from, int to) {
+        int start = routeStart[from];
+        int slots = routeStart[from + 1] - start;
+        if (slots == 0) {
+            return to == EXIT ? 1 : 0;
+        }
+        double probability = 0;
+        for (int index = start; index < start + slots; index++) {
+            if (primary[index] == to) {
+                probability += threshold[index];
+            }
+            if (alias[index] == to) {
+                probability += 1 - threshold[index];
+            }
+        }
+        return probability / slots;
+    }
+
+    /**
+     * Returns the stations a customer leaving a station can go to next.
+     * @param from the index of the station the customer leaves
+     * @return the indices of the next stations with a positive probability, without {@link #EXIT}
+     */
+    public int[] getRouteTargets(int from) {
+        int[] targets = new int[2 * (routeStart[from + 1] - routeStart[from])];
+        int count = 0;
+        for (int index = routeStart[from]; index < routeStart[from + 1]; index++) {
+            if (threshold[index] > 0) {
+                count = addTarget(targets, count, primary[index]);
+            }
+            if (threshold[index] < 1) {
+                count = addTarget(targets, count, alias[index]);
+            }
+        }
+        return Arrays.copyOf(targets, count);
+    }
+
+    /**
+     * Adds a station to a list of route targets unless it is already listed or is {@link #EXIT}.
+     * @param targets the targets listed so far
+     * @param count the number of targets listed
+     * @param target the target to add
+     * @return the new number of targets
+     */
+    private static int addTarget(int[] targets, int count, int target) {
+        if (target == EXIT) {
+            return count;
+        }
+        for (int k = 0; k < count; k++) {
+            if (targets[k] == target) {
+                return count;
+            }
+        }
+        targets[count] = target;
+        return count + 1;
+    }
+
+    /**
+     * Returns the number of stations.
+     * @return the number of stations
+     */
+    public int getStationCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a station.
+     * @param station the index of the station
+     * @return the name
+     */
+    public String getName(int station) {
+        return names[station];
+    }
+
+    /**
+     * Returns the index of a station.
+     * @param name the name of the station
+     * @return the index, or -1 if there is no such station
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the mean service time of a station.
+     * @param station the index of the station
+     * @return the mean service time
+     */
+    public double getMeanServiceTime(int station) {
+        return meanServiceTimes[station];
+    }
+
+    /**
+     * Returns the number of arrival streams.
+     * @return the number of arrival streams
+     */
+    public int getArrivalCount() {
+        return arrivalStations.length;
+    }
+
+    /**
+     * Returns the station an arrival stream feeds.
+     * @param arrival the index of the arrival stream
+     * @return the index of the station
+     */
+    public int getArrivalStation(int arrival) {
+        return arrivalStations[arrival];
+    }
+
+    /**
+     * Returns the mean inter-arrival time of an arrival stream.
+     * @param arrival the index of the arrival stream
+     * @return the mean inter-arrival time
+     */
+    public double getArrivalMean(int arrival) {
+        return arrivalMeans[arrival];
+    }
+
+    /**
+     * Returns a short description of the topology.
+     * @return the numbers of stations, routing slots and arrival streams
+     */
+    @Override
+    public String toString() {
+        return "Topology[stations=" + names.length + ", routes=" + routeStart[names.length]
+                + ", arrivals=" + arrivalStations.length + "]";
+    }
+}
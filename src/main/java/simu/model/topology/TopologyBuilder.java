@@ -0,0 +1,308 @@
+package simu.model.topology;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builder of service network topologies, defined in code or read from a text file, and compiled
+ * into a {@link Topology} by {@link #build()}.
+ * <p>
+ * A network consists of stations with exponential service times, arrival streams with exponential
+ * inter-arrival times feeding stations, and weighted routes from each station to other stations or
+ * out of the network. The weights of a station's routes are normalized into probabilities; a station
+ * without routes sends every customer out of the network.
+ * <p>
+ * In the text format every line is one declaration, and {@code #} starts a comment:
+ * <pre>
+ * station RECEPTION 5.0          # name and mean service time
+ * arrival RECEPTION 3.0          # station and mean inter-arrival time
+ * route RECEPTION KITCHEN 0.9    # from, to and weight
+ * route RECEPTION exit 0.1       # "exit" leaves the network
+ * </pre>
+ * Stations must be declared before they are used.
+ */
+public class TopologyBuilder {
+    /** Name of the route target leaving the network. */
+    public static final String EXIT = "exit";
+
+    /** Station indices by name. */
+    private final Map<String, Integer> indices = new HashMap<>();
+    /** Names of the stations, in declaration order. */
+    private final List<String> names = new ArrayList<>();
+    /** Mean service times of the stations, in declaration order. */
+    private final List<Double> means = new ArrayList<>();
+    /** Routes of the stations by station index: the target and weight of each route. */
+    private final List<List<double[]>> routes = new ArrayList<>();
+    /** Station indices of the arrival streams. */
+    private final List<Integer> arrivalStations = new ArrayList<>();
+    /** Mean inter-arrival times of the arrival streams. */
+    private final List<Double> arrivalMeans = new ArrayList<>();
+
+    /**
+     * Declares a station.
+     * @param name the unique name of the station
+     * @param meanServiceTime the mean of its exponential service time
+     * @return this builder
+     * @throws IllegalArgumentException if the name is taken or reserved, or the mean is not positive
+     */
+    public TopologyBuilder station(String name, double meanServiceTime) {
+        if (name == null || name.isBlank() || EXIT.equals(name)) {
+            throw new IllegalArgumentException("Invalid station name: " + name);
+        }
+        if (indices.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate station: " + name);
+        }
+        requirePositive(meanServiceTime, "Mean service time of " + name);
+        indices.put(name, names.size());
+        names.add(name);
+        means.add(meanServiceTime);
+        routes.add(new ArrayList<>());
+        return this;
+    }
+
+    /**
+     * Declares an arrival stream feeding a station.
+     * @param station the name of the station
+     * @param meanInterArrivalTime the mean of the exponential inter-arrival time
+     * @return this builder
+     * @throws IllegalArgumentException if the station is unknown or the mean is not positive
+     */
+    public TopologyBuilder arrival(String station, double meanInterArrivalTime) {
+        requirePositive(meanInterArrivalTime, "Mean inter-arrival time at " + station);
+        arrivalStations.add(indexOf(station));
+        arrivalMeans.add(meanInterArrivalTime);
+        return this;
+    }
+
+    /**
+     * Declares a weighted route from a station. Routes to the same target are added up.
+     * @param from the name of the station the customer leaves
+     * @param to the name of the next station, or {@value #EXIT} to leave the network
+     * @param weight the weight of the route, relative to the other routes of the station
+     * @return this builder
+     * @throws IllegalArgumentException if a station is unknown or the weight is not positive
+     */
+    public TopologyBuilder route(String from, String to, double weight) {
+        requirePositive(weight, "Weight of route " + from + " -> " + to);
+        int target = EXIT.equals(to) ? Topology.EXIT : indexOf(to);
+        routes.get(indexOf(from)).add(new double[] { target, weight });
+        return this;
+    }
+
+    /**
+     * Declares a weighted route out of the network.
+     * @param from the name of the station the customer leaves
+     * @param weight the weight of the route, relative to the other routes of the station
+     * @return this builder
+     */
+    public TopologyBuilder exit(String from, double weight) {
+        return route(from, EXIT, weight);
+    }
+
+    /**
+     * Compiles the declared network into flat routing tables.
+     * @return the compiled topology
+     * @throws IllegalStateException if no station is declared
+     */
+    public Topology build() {
+        int stationCount = names.size();
+        if (stationCount == 0) {
+            throw new IllegalStateException("Topology has no stations");
+        }
+        double[] meanArray = new double[stationCount];
+        int[] routeStart = new int[stationCount + 1];
+        List<double[]> merged = new ArrayList<>();
+        for (int i = 0; i < stationCount; i++) {
+            meanArray[i] = means.get(i);
+            List<double[]> stationRoutes = merge(routes.get(i));
+            routeStart[i + 1] = routeStart[i] + stationRoutes.size();
+            merged.addAll(stationRoutes);
+        }
+        int slots = routeStart[stationCount];
+        int[] primary = new int[slots];
+        int[] alias = new int[slots];
+        double[] threshold = new double[slots];
+        for (int i = 0; i < stationCount; i++) {
+            buildAliasTable(merged.subList(routeStart[i], routeStart[i + 1]), routeStart[i], primary, alias, threshold);
+        }
+        int[] arrivals = new int[arrivalStations.size()];
+        double[] arrivalMeanArray = new double[arrivals.length];
+        for (int k = 0; k < arrivals.length; k++) {
+            arrivals[k] = arrivalStations.get(k);
+            arrivalMeanArray[k] = arrivalMeans.get(k);
+        }
+        return new Topology(names.toArray(new String[0]), meanArray, routeStart, primary, alias, threshold, arrivals, arrivalMeanArray);
+    }
+
+    /**
+     * Reads a network from a text file.
+     * @param file the file
+     * @return a builder holding the declarations of the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a line is invalid
+     */
+    public static TopologyBuilder read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads a network in the text format.
+     * @param reader the reader of the text
+     * @return a builder holding the declarations of the text
+     * @throws IOException if the text cannot be read
+     * @throws IllegalArgumentException if a line is invalid, with the line number in the message
+     */
+    public static TopologyBuilder read(Reader reader) throws IOException {
+        TopologyBuilder builder = new TopologyBuilder();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            int comment = line.indexOf('#');
+            String[] tokens = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+            try {
+                switch (tokens[0].toLowerCase(Locale.ROOT)) {
+                    case "station" -> {
+                        expectTokens(tokens, 3);
+                        builder.station(tokens[1], Double.parseDouble(tokens[2]));
+                    }
+                    case "arrival" -> {
+                        expectTokens(tokens, 3);
+                        builder.arrival(tokens[1], Double.parseDouble(tokens[2]));
+                    }
+                    case "route" -> {
+                        expectTokens(tokens, 4);
+                        builder.route(tokens[1], tokens[2], Double.parseDouble(tokens[3]));
+                    }
+                    default -> throw new IllegalArgumentException("Unknown declaration: " + tokens[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Checks the number of tokens of a declaration.
+     * @param tokens the tokens of the line
+     * @param count the expected number of tokens
+     * @throws IllegalArgumentException if the number differs
+     */
+    private static void expectTokens(String[] tokens, int count) {
+        if (tokens.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " fields for " + tokens[0] + ", found " + tokens.length);
+        }
+    }
+
+    /**
+     * Returns the index of a declared station.
+     * @param name the name of the station
+     * @return the index
+     * @throws IllegalArgumentException if the station is not declared
+     */
+    private int indexOf(String name) {
+        Integer index = indices.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown station: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Checks that a value is positive and finite.
+     * @param value the value
+     * @param what description of the value for the error message
+     * @throws IllegalArgumentException if the value is not positive and finite
+     */
+    private static void requirePositive(double value, String what) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(what + " must be positive: " + value);
+        }
+    }
+
+    /**
+     * Adds up the weights of routes to the same target.
+     * @param stationRoutes the routes of a station, as target and weight
+     * @return one route per target, in first declaration order
+     */
+    private static List<double[]> merge(List<double[]> stationRoutes) {
+        Map<Integer, double[]> byTarget = new LinkedHashMap<>();
+        for (double[] route : stationRoutes) {
+            byTarget.computeIfAbsent((int) route[0], target -> new double[] { target, 0 })[1] += route[1];
+        }
+        return new ArrayList<>(byTarget.values());
+    }
+
+    /**
+     * Fills the routing slots of one station with Vose's alias table of its routes: each slot keeps
+     * its own target with the probability of the threshold and its alias target otherwise, so that a
+     * uniformly chosen slot yields every target with its normalized weight.
+     * @param stationRoutes the merged routes of the station, as target and weight
+     * @param start the first routing slot of the station
+     * @param primary the primary targets to fill
+     * @param alias the alias targets to fill
+     * @param threshold the thresholds to fill
+     */
+    private static void buildAliasTable(List<double[]> stationRoutes, int start, int[] primary, int[] alias,
+                                        double[] threshold) {
+        int n = stationRoutes.size();
+        double total = 0;
+        for (double[] route : stationRoutes) {
+            total += route[1];
+        }
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int j = 0; j < n; j++) {
+            primary[start + j] = (int) stationRoutes.get(j)[0];
+            scaled[j] = stationRoutes.get(j)[1] * n / total;
+            if (scaled[j] < 1) {
+                small[smallCount++] = j;
+            } else {
+                large[largeCount++] = j;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[start + less] = scaled[less];
+            alias[start + less] = primary[start + more];
+            scaled[more] += scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Slots left over, up to rounding errors, always keep their own target
+        while (largeCount > 0) {
+            int j = large[--largeCount];
+            threshold[start + j] = 1;
+            alias[start + j] = primary[start + j];
+        }
+        while (smallCount > 0) {
+            int j = small[--smallCount];
+            threshold[start + j] = 1;
+            alias[start + j] = primary[start + j];
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package simu.model.topology;
+
+import controller.Controller;
+import eduni.distributions.Negexp;
+import eduni.distributions.Uniform;
+import simu.framework.ArrivalProcess;
+import simu.framework.Clock;
+import simu.framework.Engine;
+import simu.framework.IEventType;
+import simu.framework.Trace;
+import simu.model.Customer;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Simulation engine of a service network defined by a {@link Topology}, with any number of
+ * stations and arrival streams.
+ * <p>
+ * The per-event cost does not grow with the size of the network: every event type has its own
+ * handler in the engine's handler registry, bound to its station, the next station of a departing
+ * customer is drawn from the topology's alias tables in constant time, and the C phase only visits
+ * the stations whose queue or server changed in the current step, instead of every station.
+ */
+public class TopologyEngine extends Engine {
+    /** The simulated network. */
+    private final Topology topology;
+    /** The stations, by index. */
+    private final Station[] stations;
+    /** The arrival processes, by arrival stream index. */
+    private final ArrivalProcess[] arrivals;
+    /** Event types of the network: station departures by station index, then arrivals by stream index. */
+    private final StationEventType[] eventTypes;
+    /** Uniform random numbers for routing. */
+    private final Uniform routing = new Uniform(0, 1);
+    /** Indices of the stations changed in the current step. */
+    private final int[] dirty;
+    /** Whether each station is in {@link #dirty}. */
+    private final boolean[] isDirty;
+    /** Number of stations in {@link #dirty}. */
+    private int dirtyCount = 0;
+    /** Number of customers that left the network. */
+    private long completedCustomers = 0;
+    /** Total time spent in the network by the customers that left it. */
+    private double totalSojournTime = 0;
+
+    /**
+     * Creates the engine of a network, with every random stream seeded from the given seed.
+     * @param controller the simulation controller, or null when running without a user interface
+     * @param topology the network
+     * @param seed the seed from which the seeds of all random streams are derived
+     */
+    public TopologyEngine(Controller controller, Topology topology, long seed) {
+        super(controller);
+        this.topology = topology;
+        int stationCount = topology.getStationCount();
+        this.eventTypes = new StationEventType[stationCount + topology.getArrivalCount()];
+        this.stations = new Station[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            eventTypes[i] = new StationEventType(i, "Departure:" + topology.getName(i), i, false);
+            stations[i] = new Station(i, topology.getName(i), new Negexp(topology.getMeanServiceTime(i)),
+                    eventList, eventTypes[i]);
+            int station = i;
+            handlers.register(eventTypes[i], i, event -> handleDeparture(station));
+        }
+        this.arrivals = new ArrivalProcess[topology.getArrivalCount()];
+        for (int k = 0; k < arrivals.length; k++) {
+            int station = topology.getArrivalStation(k);
+            eventTypes[stationCount + k] = new StationEventType(stationCount + k,
+                    "Arrival:" + topology.getName(station), station, true);
+            arrivals[k] = new ArrivalProcess(new Negexp(topology.getArrivalMean(k)), eventList, eventTypes[stationCount + k]);
+            handlers.register(eventTypes[stationCount + k], station, event -> enter(station, new Customer(true)));
+        }
+        this.servicePoints = stations;
+        this.dirty = new int[stationCount];
+        this.isDirty = new boolean[stationCount];
+        seedStreams(seedSequence(seed));
+    }
+
+    /**
+     * Registers the arrival streams.
+     */
+    @Override
+    protected void initialization() {
+        for (ArrivalProcess arrival : arrivals) {
+            eventList.addStream(arrival);
+        }
+    }
+
+    /**
+     * Handles a departure from a station, routing the customer to its next station or out of the network.
+     * @param station the index of the station
+     */
+    private void handleDeparture(int station) {
+        Customer customer = stations[station].handleDeparture();
+        markDirty(station);
+        if (customer == null) {
+            return;
+        }
+        int next = topology.nextHop(station, routing.sample());
+        if (next == Topology.EXIT) {
+            completedCustomers++;
+            totalSojournTime += Clock.getInstance().getTime() - customer.getArrivalTime();
+        } else {
+            enter(next, customer);
+        }
+    }
+
+    /**
+     * Adds a customer to the queue of a station.
+     * @param station the index of the station
+     * @param customer the customer arriving to the station
+     */
+    private void enter(int station, Customer customer) {
+        customer.setServicePointArrivalTime(Clock.getInstance().getTime());
+        stations[station].addQueue(customer);
+        markDirty(station);
+    }
+
+    /**
+     * Marks a station as changed in the current step.
+     * @param station the index of the station
+     */
+    private void markDirty(int station) {
+        if (!isDirty[station]) {
+            isDirty[station] = true;
+            dirty[dirtyCount++] = station;
+        }
+    }
+
+    /**
+     * Begins services only at the stations changed in the current step. Beginning a service changes
+     * no other station, so one pass over them finds every station that can begin a service.
+     */
+    @Override
+    protected void tryCEvents() {
+        for (int k = 0; k < dirtyCount; k++) {
+            int station = dirty[k];
+            isDirty[station] = false;
+            Station s = stations[station];
+            if (!s.isReserved() && s.isOnQueue()) {
+                beginService(s);
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Logs the results of the network: customers through the network and the load of every station.
+     */
+    @Override
+    protected void results() {
+        double time = Clock.getInstance().getTime();
+        Trace.out(Trace.Level.INFO, "=== NETWORK SIMULATION COMPLETED at " + time + " ===");
+        Trace.out(Trace.Level.INFO, "Customers through the network: " + completedCustomers
+                + ", mean sojourn time: " + getMeanSojournTime());
+        for (Station s : stations) {
+            Trace.out(Trace.Level.INFO, s.getServicePointName() + ": serviced " + s.getServicedCustomers()
+                    + ", utilization " + (time > 0 ? Math.min(1, s.getBusyTime() / time) : 0)
+                    + ", mean response time " + s.getMeanResponseTime() + ", queue " + s.getQueue().size());
+        }
+    }
+
+    /**
+     * Returns the event types of the network, indexed by ordinal.
+     * @return the event types
+     */
+    @Override
+    protected IEventType[] getEventTypes() {
+        return eventTypes;
+    }
+
+    /**
+     * Reseeds the service time streams, the arrival streams and the routing stream.
+     * @param seeds supplies a new seed for each stream
+     */
+    @Override
+    protected void reseed(LongSupplier seeds) {
+        seedStreams(seeds);
+    }
+
+    /**
+     * Seeds the service time streams of the stations, the arrival streams and the routing stream.
+     * Private so that the constructor does not call a method a subclass could override.
+     * @param seeds supplies a new seed for each stream
+     */
+    private void seedStreams(LongSupplier seeds) {
+        for (Station station : stations) {
+            station.reseed(seeds);
+        }
+        for (ArrivalProcess arrival : arrivals) {
+            arrival.reseed(seeds);
+        }
+        routing.setSeed(seeds.getAsLong());
+    }
+
+    /**
+     * Returns the simulated network.
+     * @return the topology
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns the stations of the network.
+     * @return the stations, by index
+     */
+    public Station[] getStations() {
+        return stations;
+    }
+
+    /**
+     * Returns the number of customers that left the network.
+     * @return the number of completed customers
+     */
+    public long getCompletedCustomers() {
+        return completedCustomers;
+    }
+
+    /**
+     * Returns the mean time the customers that left the network spent in it.
+     * @return the mean sojourn time, 0 if no customer left
+     */
+    public double getMeanSojournTime() {
+        return completedCustomers > 0 ? totalSojournTime / completedCustomers : 0;
+    }
+}
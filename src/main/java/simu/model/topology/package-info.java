@@ -0,0 +1,14 @@
+/**
+ * Data-driven service networks: layouts of any number of stations with probabilistic routing,
+ * defined with a builder or a text file instead of code.
+ * <p>
+ * Components:
+ * <ul>
+ *   <li>{@link simu.model.topology.TopologyBuilder} - builder API and text file format of a network</li>
+ *   <li>{@link simu.model.topology.Topology} - the compiled network, with flat routing tables giving
+ *       the next station of a customer in constant time</li>
+ *   <li>{@link simu.model.topology.Station} - a generic single-server station</li>
+ *   <li>{@link simu.model.topology.TopologyEngine} - the engine simulating a compiled network</li>
+ * </ul>
+ */
+package simu.model.topology;
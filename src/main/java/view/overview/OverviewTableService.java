@@ -3,17 +3,25 @@ package view.overview;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import simu.backend.dao.OverviewStatisticsDao;
-import simu.backend.entity.OverviewStatistics;
+import simu.backend.dao.OverviewSummary;
 import simu.framework.Trace;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Service class that handles all business logic for the Overview Table.
  * <p>
  * Separates data processing and business rules from UI concerns.
  * Loads, formats, and cleans up simulation statistics for display.
+ * <p>
+ * The table shows a window of {@link #RUNS_PER_PAGE} runs that can be moved over any number of runs.
+ * Only the runs of the window are formatted, and their summaries are loaded lazily through a
+ * {@link RunSummaryCache} on a background thread.
  */
 public class OverviewTableService {
     
@@ -22,13 +30,23 @@ public class OverviewTableService {
     private final DecimalFormat formatter = new DecimalFormat("#0.##");
     /** DAO for accessing overview statistics. */
     private final OverviewStatisticsDao dao;
+    /** Number of run columns displayed side by side. */
+    public static final int RUNS_PER_PAGE = 4;
+    /** Single thread running the database queries of the overview, so the FX thread never waits for them. */
+    private static final ExecutorService DB_IO = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(null, task, "overview-db-io", 0, false);
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Cache of the loaded run summaries. */
+    private final RunSummaryCache cache;
     
 
     /**
      * Default constructor. Initializes the DAO.
      */
     public OverviewTableService() {
-        this.dao = new OverviewStatisticsDao();
+        this(new OverviewStatisticsDao());
     }
     
 
@@ -38,38 +56,69 @@ public class OverviewTableService {
      */
     public OverviewTableService(OverviewStatisticsDao dao) {
         this.dao = dao;
+        this.cache = new RunSummaryCache(dao);
+    }
+    
+    /**
+     * Counts the runs in the database in the background. The runs loaded so far stay cached
+     * unless runs were added or deleted.
+     * @return future completed with the number of runs
+     */
+    public CompletableFuture<Integer> loadRunCountAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            int count = cache.reset();
+            Trace.out(Trace.Level.INFO, "Overview covers " + count + " runs");
+            return count;
+        }, DB_IO);
+    }
+    
+    /**
+     * Loads and formats the runs of a column window in the background.
+     * @param firstRun index of the run in the leftmost column, 0 = newest run
+     * @return future completed with the formatted simulation data ready for display
+     */
+    public CompletableFuture<ObservableList<SimulationOverview>> loadRunWindowAsync(int firstRun) {
+        return CompletableFuture.supplyAsync(() -> loadRunWindow(firstRun), DB_IO);
+    }
+    
+    /**
+     * Returns the number of runs counted by the last {@link #loadRunCountAsync()}.
+     * @return the number of runs
+     */
+    public int getRunCount() {
+        return cache.getRunCount();
+    }
+    
+    /**
+     * Returns the header of the column showing a run.
+     * @param runIndex index of the run, 0 = newest run
+     * @return the column header
+     */
+    public String getColumnTitle(int runIndex) {
+        String title = "Run " + (runIndex + 1);
+        if (runIndex == 0) {
+            return title + " (Latest)";
+        }
+        return runIndex == getRunCount() - 1 ? title + " (Oldest)" : title;
     }
     
     /**
-     * Loads and formats all simulation overview data.
+     * Loads and formats the runs of a column window, loading only the pages of runs not cached yet.
+     * @param firstRun index of the run in the leftmost column, 0 = newest run
      * @return ObservableList of formatted simulation data ready for display
      */
-    public ObservableList<SimulationOverview> loadSimulationOverviewData() {
+    public ObservableList<SimulationOverview> loadRunWindow(int firstRun) {
         ObservableList<SimulationOverview> data = FXCollections.observableArrayList();
         
         try {
-            Trace.out(Trace.Level.INFO, "Loading statistics from database");
-            List<OverviewStatistics> statistics = dao.findAll();
-            Trace.out(Trace.Level.INFO, "DAO findAll() returned: " + (statistics != null ? statistics.size() + " records" : "null"));
-
-            if (statistics != null && !statistics.isEmpty()) {
-                Trace.out(Trace.Level.INFO, "Processing " + statistics.size() + " statistics records...");
-
-                // Optional: trace first few records at WAR level
-                for (int i = 0; i < Math.min(3, statistics.size()); i++) {
-                    OverviewStatistics stat = statistics.get(i);
-                    Trace.out(Trace.Level.WAR, "Record " + (i + 1) + " ID=" + stat.getId()
-                            + ", SimTime=" + stat.getSimulationTime()
-                            + ", TotalSimTime=" + stat.getTotalSimulationTime()
-                            + ", ArrivedCustomers=" + stat.getTotalArrivedCustomers()
-                            + ", ServicedCustomers=" + stat.getTotalServicedCustomers());
-                }
+            List<OverviewSummary> runs = cache.getRuns(firstRun, RUNS_PER_PAGE);
+            Trace.out(Trace.Level.INFO, "Runs " + (firstRun + 1) + "-" + (firstRun + runs.size()) + " of " + cache.getRunCount() + " loaded");
 
-                processRealData(data, statistics);
-                Trace.out(Trace.Level.INFO, "Successfully loaded " + statistics.size() + " simulation runs from database");
+            if (!runs.isEmpty()) {
+                processRealData(data, runs);
                 Trace.out(Trace.Level.INFO, "Generated " + data.size() + " table rows for display");
             } else {
-                Trace.out(Trace.Level.WAR, "No database data found - statistics list is " + (statistics == null ? "null" : "empty"));
+                Trace.out(Trace.Level.WAR, "No database data found for runs from " + (firstRun + 1));
             }
         } catch (Exception e) {
             Trace.out(Trace.Level.ERR, "Error loading database data: " + e.getMessage());
@@ -81,6 +130,17 @@ public class OverviewTableService {
         return data;
     }
     
+    /**
+     * Cleans up invalid database records in the background and forgets the runs loaded so far.
+     * @return future completed when the cleanup is done
+     */
+    public CompletableFuture<Void> cleanupInvalidRecordsAsync() {
+        return CompletableFuture.runAsync(() -> {
+            cleanupInvalidRecords();
+            cache.invalidate();
+        }, DB_IO);
+    }
+    
     /**
      * Cleans up invalid database records (where total_simulation_time = 0).
      */
@@ -95,25 +155,6 @@ public class OverviewTableService {
         }
     }
     
-    /**
-     * Determines how many data columns should be visible based on available data.
-     * @param data The loaded simulation data
-     * @return Number of columns that contain actual data
-     */
-    public int calculateVisibleColumns(ObservableList<SimulationOverview> data) {
-        if (data.isEmpty()) return 4; // Show 4 columns even when no data
-        
-        // Check how many runs have data (Run1 = most recent)
-        SimulationOverview firstRow = data.get(0);
-        int count = 0;
-        if (hasValidData(firstRow.getRun1())) count++;
-        if (hasValidData(firstRow.getRun2())) count++;
-        if (hasValidData(firstRow.getRun3())) count++;
-        if (hasValidData(firstRow.getRun4())) count++;
-        
-        return Math.max(count, 4); // At least 4 columns
-    }
-    
     /**
      * Calculates the optimal table width based on number of visible columns.
      * @param visibleColumns Number of data columns with actual data
@@ -124,35 +165,22 @@ public class OverviewTableService {
     }
     
     /**
-     * Processes raw database statistics into formatted display data.
-     * Orders data from most recent (Run 1) to oldest (Run 4).
-     * Filters out invalid/duplicate records.
+     * Processes run summaries into formatted display data.
+     * Orders data from the newest run of the window (leftmost column) to the oldest.
+     * Invalid records are already filtered out by the query.
      * @param data the ObservableList to populate
-     * @param statistics the list of OverviewStatistics from the database
+     * @param summaries the runs to display, newest first; null for runs that could not be loaded
      */
-    private void processRealData(ObservableList<SimulationOverview> data, List<OverviewStatistics> statistics) {
-        // Filter out invalid records - a record is valid if it has either:
-        // 1. total_simulation_time > 0, OR
-        // 2. total_arrived_customers > 0 (meaning simulation ran but time wasn't recorded properly)
-        List<OverviewStatistics> validStats = statistics.stream()
-            .filter(stat -> stat.getTotalSimulationTime() > 0 || stat.getTotalArrivedCustomers() > 0)
-            .collect(java.util.stream.Collectors.toList());
-            
-    Trace.out(Trace.Level.INFO, "Filtered to " + validStats.size() + " valid records (total_simulation_time > 0 OR total_arrived_customers > 0)");
-        
-        if (validStats.isEmpty()) {
-            Trace.out(Trace.Level.WAR, "No valid statistics found - all records have both total_simulation_time = 0 AND total_arrived_customers = 0");
-            return;
-        }
+    private void processRealData(ObservableList<SimulationOverview> data, List<OverviewSummary> summaries) {
+        OverviewSummary[] runs = new OverviewSummary[RUNS_PER_PAGE];
         
-        // Get the last few simulation runs (up to 4), most recent first
-        int size = Math.min(4, validStats.size());
-        OverviewStatistics[] runs = new OverviewStatistics[4];
-        
-        // Fill runs array with most recent valid records first (Run1 = most recent)
-        for (int i = 0; i < size; i++) {
-            runs[i] = validStats.get(validStats.size() - 1 - i);
-            Trace.out(Trace.Level.WAR, "Run " + (i + 1) + ": ID=" + runs[i].getId()
+        // Fill runs array with the newest runs of the window first
+        for (int i = 0; i < Math.min(RUNS_PER_PAGE, summaries.size()); i++) {
+            runs[i] = summaries.get(i);
+            if (runs[i] == null) {
+                continue;
+            }
+            Trace.out(Trace.Level.WAR, "Column " + (i + 1) + ": ID=" + runs[i].getId()
                     + ", TotalSimTime=" + runs[i].getTotalSimulationTime()
                     + ", ArrivedCustomers=" + runs[i].getTotalArrivedCustomers()
                     + ", ServicedCustomers=" + runs[i].getTotalServicedCustomers());
@@ -209,24 +237,26 @@ public class OverviewTableService {
     /**
      * Creates a formatted metric row using a data extractor function.
      * @param metricName the name of the metric
-     * @param runs the array of OverviewStatistics for each run
-     * @param extractor the function to extract the value from a statistic
+     * @param runs the array of run summaries for each column
+     * @param extractor the function to extract the value from a summary
      * @return a SimulationOverview row for the table
      */
-    private SimulationOverview createMetricRow(String metricName, OverviewStatistics[] runs, 
+    private SimulationOverview createMetricRow(String metricName, OverviewSummary[] runs, 
                                              DataExtractor extractor) {
-        String run1Val = runs[0] != null ? extractor.extract(runs[0]) : "-";
-        String run2Val = runs[1] != null ? extractor.extract(runs[1]) : "-";
+        List<String> values = new ArrayList<>(runs.length);
+        for (OverviewSummary run : runs) {
+            values.add(run != null ? extractor.extract(run) : "-");
+        }
         
         // Debug logging for troublesome metrics
         if (runs[0] != null && (metricName.equals("Utilization") || metricName.equals("System throughput") || metricName.equals("Average response time") || metricName.equals("Total waiting time"))) {
-            OverviewStatistics stat = runs[0];
+            OverviewSummary stat = runs[0];
             Trace.out(Trace.Level.WAR, metricName + " Debug - SimTime: " + stat.getSimulationTime()
                     + ", ServicedCustomers: " + stat.getTotalServicedCustomers()
                     + ", WaitingTime: " + stat.getTotalWaitingTime()
                     + ", SystemThroughput: " + stat.getSystemThroughput()
                     + ", AvgResponseTime: " + stat.getAverageResponseTime()
-                    + ", Calculated Value: " + run1Val);
+                    + ", Calculated Value: " + values.get(0));
             
             // Additional debug for waiting time analysis
             if (metricName.equals("Total waiting time")) {
@@ -237,29 +267,14 @@ public class OverviewTableService {
             }
         }
         
-        return new SimulationOverview(
-            metricName,
-            run1Val,
-            run2Val,
-            runs[2] != null ? extractor.extract(runs[2]) : "-",
-            runs[3] != null ? extractor.extract(runs[3]) : "-"
-        );
-    }
-    
-    /**
-     * Checks if a data value represents valid (non-empty) data.
-     * @param value the value to check
-     * @return true if the value is valid, false otherwise
-     */
-    private boolean hasValidData(String value) {
-        return value != null && !value.equals("-") && !value.trim().isEmpty();
+        return new SimulationOverview(metricName, values);
     }
     
     /**
-     * Functional interface for extracting data from OverviewStatistics.
+     * Functional interface for extracting data from a run summary.
      */
     @FunctionalInterface
     private interface DataExtractor {
-        String extract(OverviewStatistics stat);
+        String extract(OverviewSummary stat);
     }
 }
\ No newline at end of file
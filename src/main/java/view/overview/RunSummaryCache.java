@@ -0,0 +1,134 @@
+package view.overview;
+
+import simu.backend.dao.OverviewStatisticsDao;
+import simu.backend.dao.OverviewSummary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lazily loaded, bounded cache of run summaries for the overview table, addressed by run index
+ * (0 = newest run).
+ * <p>
+ * Runs are loaded a page of {@value #PAGE_SIZE} at a time, only when a run of the page is displayed.
+ * A page that follows a cached full page is found by keyset pagination from the last ID of that page;
+ * other pages, reached by jumping, are found by offset. At most {@value #MAX_CACHED_PAGES} pages are
+ * kept, least recently used first out, so browsing any number of runs uses bounded memory.
+ * <p>
+ * The set of runs is fixed by {@link #reset()}: runs saved afterwards do not shift the indices until
+ * the next reset, and a reset that finds the same runs keeps the loaded pages.
+ */
+public class RunSummaryCache {
+    /** Number of runs loaded by one query. */
+    public static final int PAGE_SIZE = 32;
+    /** Maximum number of pages kept in the cache. */
+    public static final int MAX_CACHED_PAGES = 16;
+
+    /** DAO the pages are loaded from. */
+    private final OverviewStatisticsDao dao;
+    /** Cached pages by page index, in access order. */
+    private final Map<Integer, List<OverviewSummary>> pages = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<OverviewSummary>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    /** Highest overview ID included, fixed by the last reset; 0 if there are no runs. */
+    private int maxId = 0;
+    /** Number of runs up to {@link #maxId}. */
+    private int runCount = 0;
+
+    /**
+     * Creates an empty cache; call {@link #reset()} before reading runs.
+     * @param dao the DAO to load the runs from
+     */
+    public RunSummaryCache(OverviewStatisticsDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Fixes the set of runs to the ones currently in the database. The cached pages are kept if the
+     * highest ID and the number of runs are unchanged: IDs are never reused, so the runs are the same.
+     * @return the number of runs, 0 if they cannot be counted
+     */
+    public synchronized int reset() {
+        int newMaxId = Math.max(dao.findMaxId(), 0);
+        long count = newMaxId > 0 ? dao.countSummariesUpTo(newMaxId) : 0;
+        int newRunCount = (int) Math.max(count, 0);
+        if (newMaxId != maxId || newRunCount != runCount || count < 0) {
+            pages.clear();
+        }
+        maxId = newMaxId;
+        runCount = newRunCount;
+        return runCount;
+    }
+
+    /**
+     * Empties the cache, so that the next reset reloads the runs even if their number is unchanged.
+     */
+    public synchronized void invalidate() {
+        pages.clear();
+        maxId = 0;
+        runCount = 0;
+    }
+
+    /**
+     * Returns the number of runs fixed by the last reset.
+     * @return the number of runs
+     */
+    public synchronized int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns a range of runs, loading the pages that are not cached.
+     * @param first index of the first run
+     * @param count number of runs
+     * @return the runs of the range that exist, newest first; an element is null if its page could not be loaded
+     */
+    public synchronized List<OverviewSummary> getRuns(int first, int count) {
+        int end = Math.min(runCount, first + count);
+        List<OverviewSummary> runs = new ArrayList<>(Math.max(end - first, 0));
+        for (int index = Math.max(first, 0); index < end; index++) {
+            List<OverviewSummary> page = page(index / PAGE_SIZE);
+            int offset = index % PAGE_SIZE;
+            runs.add(page != null && offset < page.size() ? page.get(offset) : null);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns whether a page is cached.
+     * @param pageIndex the page index
+     * @return true if the page is cached
+     */
+    public synchronized boolean isCached(int pageIndex) {
+        return pages.containsKey(pageIndex);
+    }
+
+    /**
+     * Returns a page, loading it if it is not cached.
+     * @param pageIndex the page index
+     * @return the runs of the page, or null if the query fails
+     */
+    private List<OverviewSummary> page(int pageIndex) {
+        List<OverviewSummary> page = pages.get(pageIndex);
+        if (page != null) {
+            return page;
+        }
+        List<OverviewSummary> previous = pageIndex > 0 ? pages.get(pageIndex - 1) : null;
+        if (pageIndex == 0) {
+            page = dao.findSummariesBefore(maxId + 1, PAGE_SIZE);
+        } else if (previous != null && previous.size() == PAGE_SIZE) {
+            page = dao.findSummariesBefore(previous.get(PAGE_SIZE - 1).getId(), PAGE_SIZE);
+        } else {
+            page = dao.findSummariesFrom(maxId, pageIndex * PAGE_SIZE, PAGE_SIZE);
+        }
+        if (page != null) {
+            pages.put(pageIndex, page);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import eduni.distributions.Negexp;
+import simu.framework.ArrivalProcess;
+import simu.framework.Clock;
+import simu.framework.Event;
+import simu.framework.EventList;
+import simu.framework.NonHomogeneousArrivalProcess;
+import simu.framework.RateFunction;
+import simu.model.EventType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the time-of-day arrival process and its rate function.
+ * Tests cover rate evaluation, rush hour arrival counts, segments without arrivals,
+ * and merging arrival streams with the event heap.
+ */
+public class ArrivalProcessTest {
+    /** Event list used for collecting generated arrivals. */
+    private EventList eventList;
+
+    /**
+     * Sets up the test environment before each test.
+     * Resets the clock and creates a new event list.
+     */
+    @BeforeEach
+    void setUp() {
+        Clock.getInstance().setTime(0);
+        eventList = new EventList();
+    }
+
+    /**
+     * Tests that piecewise-linear rates are interpolated and wrap around at the end of the period.
+     */
+    @Test
+    void testLinearRateInterpolation() {
+        RateFunction rate = RateFunction.piecewiseLinear(new double[] {0, 10}, new double[] {1, 5}, 20);
+
+        assertEquals(1.0, rate.rateAt(0), 1e-9);
+        assertEquals(3.0, rate.rateAt(5), 1e-9);
+        assertEquals(3.0, rate.rateAt(15), 1e-9);
+        assertEquals(3.0, rate.rateAt(25), 1e-9);
+        assertEquals(5.0, rate.getMajorant(1), 1e-9);
+    }
+
+    /**
+     * Tests that a rush hour with five times the base rate produces about five times as many arrivals.
+     */
+    @Test
+    void testRushHourArrivalCounts() {
+        // Per 100 time units: 50 units at rate 0.2 (quiet) and 50 units at rate 1.0 (rush)
+        RateFunction rate = RateFunction.piecewiseConstant(new double[] {0, 50}, new double[] {0.2, 1.0}, 100);
+        NonHomogeneousArrivalProcess process = new NonHomogeneousArrivalProcess(rate, 1234, eventList, EventType.ArrivalRestaurant);
+
+        int quiet = 0;
+        int rush = 0;
+        double horizon = 20000;
+        process.generateNext();
+        while (true) {
+            Event event = eventList.remove();
+            if (event.getTime() >= horizon) break;
+            if (event.getTime() % 100 < 50) quiet++; else rush++;
+            Clock.getInstance().setTime(event.getTime());
+            process.generateNext();
+        }
+
+        // Expected: 0.2 * 10000 = 2000 quiet arrivals and 1.0 * 10000 = 10000 rush arrivals
+        assertEquals(2000, quiet, 200);
+        assertEquals(10000, rush, 400);
+    }
+
+    /**
+     * Tests that no arrivals are generated in zero-rate segments and none at all after a final zero rate.
+     */
+    @Test
+    void testZeroRateSegments() {
+        RateFunction rate = RateFunction.piecewiseConstant(new double[] {0, 10, 20}, new double[] {0, 2, 0});
+        NonHomogeneousArrivalProcess process = new NonHomogeneousArrivalProcess(rate, 99, eventList, EventType.ArrivalCall);
+
+        process.generateNext();
+        int count = 0;
+        while (!eventList.getEventList().isEmpty()) {
+            Event event = eventList.remove();
+            assertTrue(event.getTime() >= 10 && event.getTime() < 20);
+            count++;
+            Clock.getInstance().setTime(event.getTime());
+            process.generateNext();
+        }
+        assertTrue(count > 0);
+    }
+
+    /**
+     * Tests that events from several arrival streams and the event heap are removed in time order,
+     * and that a stream produces the same arrival times as scheduling arrivals one by one.
+     */
+    @Test
+    void testStreamsMergedInTimeOrder() {
+        EventList scheduled = new EventList();
+        ArrivalProcess reference = new ArrivalProcess(new Negexp(3, 7), scheduled, EventType.ArrivalRestaurant);
+        eventList.addStream(new ArrivalProcess(new Negexp(3, 7), eventList, EventType.ArrivalRestaurant));
+        eventList.addStream(new ArrivalProcess(new Negexp(5, 11), eventList, EventType.ArrivalCall));
+        eventList.add(new Event(EventType.DepartureFromKitchen, 10));
+
+        reference.generateNext();
+        double previous = 0;
+        int departures = 0;
+        for (int i = 0; i < 1000; i++) {
+            Event event = eventList.remove();
+            assertTrue(event.getTime() >= previous);
+            previous = event.getTime();
+            if (event.getType() == EventType.DepartureFromKitchen) {
+                departures++;
+            } else if (event.getType() == EventType.ArrivalRestaurant) {
+                Event expected = scheduled.remove();
+                assertEquals(expected.getTime(), event.getTime(), 1e-9);
+                Clock.getInstance().setTime(expected.getTime());
+                reference.generateNext();
+            }
+        }
+        assertEquals(1, departures);
+        assertTrue(eventList.getEventList().isEmpty());
+    }
+}
@@ -0,0 +1,213 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import simu.framework.Clock;
+import simu.framework.statistics.SimulationStatistics;
+import simu.framework.statistics.kitchen.KitchenStatistics;
+import simu.model.MyEngine;
+import simu.model.SimulationFork;
+import simu.model.kitchen.CookCompetency;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for checkpointing and restoring a simulation engine.
+ * Tests cover resuming a run from a checkpoint, comparing it with an uninterrupted run,
+ * forking a run into parallel branches with shared or split random streams, snapshots of an
+ * interrupted run, and rejecting files that are not checkpoints.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class CheckpointTest {
+    /** Temporary directory for the checkpoint files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Sets up the test environment before each test.
+     * Resets all statistics and the clock.
+     */
+    @BeforeEach
+    void setUp() {
+        SimulationStatistics.resetAllStatistics();
+        Clock.getInstance().setTime(0);
+    }
+
+    /**
+     * Tests that resuming twice from the same checkpoint continues the run identically,
+     * including all random number streams.
+     */
+    @Test
+    void testRestoredRunsAreIdentical() throws IOException {
+        ArrayList<CookCompetency> cooks = new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.INEXPERIENCED));
+        MyEngine engine = new MyEngine(null, cooks);
+        engine.setSimulationTime(300);
+        engine.run();
+        Path checkpoint = tempDir.resolve("run.ckpt");
+        engine.saveCheckpoint(checkpoint);
+        SimulationStatistics statistics = SimulationStatistics.getInstance();
+        int arrivedAtCheckpoint = statistics.getTotalArrivedCustomers();
+        assertTrue(arrivedAtCheckpoint > 0);
+        assertEquals(arrivedAtCheckpoint, statistics.getWalkInCustomers() + statistics.getCallInCustomers());
+        assertTrue(statistics.getSuccessfulDeliveries() + statistics.getRefusedDeliveryCustomers() <= statistics.getCallInCustomers());
+
+        double[] first = resume(checkpoint);
+        double[] second = resume(checkpoint);
+
+        assertTrue(first[0] >= 600);
+        assertTrue(first[1] > arrivedAtCheckpoint);
+        assertArrayEquals(first, second);
+    }
+
+    /**
+     * Tests that a run interrupted by a checkpoint and restored from it ends exactly like an
+     * uninterrupted run with the same seed, including the shuffling of the cooks.
+     */
+    @Test
+    void testRestoredRunMatchesUninterruptedRun() throws IOException {
+        ArrayList<CookCompetency> cooks = new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.INEXPERIENCED,
+                CookCompetency.INEXPERIENCED));
+        MyEngine uninterrupted = new MyEngine(null, cooks);
+        uninterrupted.reseed(7);
+        uninterrupted.setSimulationTime(600);
+        uninterrupted.run();
+        double[] expected = endState();
+
+        SimulationStatistics.resetAllStatistics();
+        Clock.getInstance().setTime(0);
+        MyEngine interrupted = new MyEngine(null, cooks);
+        interrupted.reseed(7);
+        interrupted.setSimulationTime(300);
+        interrupted.run();
+        Path checkpoint = tempDir.resolve("interrupted.ckpt");
+        interrupted.saveCheckpoint(checkpoint);
+
+        assertTrue(expected[1] > 0);
+        assertArrayEquals(expected, resume(checkpoint));
+    }
+
+    /**
+     * Tests that forked branches running in parallel do not affect each other or the source,
+     * and continue exactly like a run restored from a checkpoint.
+     */
+    @Test
+    void testForkedBranchesAreIndependent() throws Exception {
+        ArrayList<CookCompetency> cooks = new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.INEXPERIENCED));
+        MyEngine engine = new MyEngine(null, cooks);
+        engine.setSimulationTime(300);
+        engine.run();
+        Path checkpoint = tempDir.resolve("fork.ckpt");
+        engine.saveCheckpoint(checkpoint);
+        int arrivedAtFork = SimulationStatistics.getInstance().getTotalArrivedCustomers();
+        double timeAtFork = Clock.getInstance().getTime();
+
+        SimulationFork fork = new SimulationFork(engine);
+        SimulationFork.Branch first = fork.addBranch("first", e -> { });
+        SimulationFork.Branch second = fork.addBranch("second", e -> { });
+        SimulationFork.Branch extraCook = fork.addBranch("extra-cook", e -> e.getKitchen().addCook(CookCompetency.EXPERT));
+        fork.runAll(600);
+
+        assertEquals(arrivedAtFork, SimulationStatistics.getInstance().getTotalArrivedCustomers());
+        assertEquals(timeAtFork, Clock.getInstance().getTime());
+        assertEquals(3, extraCook.getEngine().getKitchen().getCooks().size());
+        double[] firstResult = first.getContext().call(CheckpointTest::endState);
+        assertArrayEquals(firstResult, second.getContext().call(CheckpointTest::endState));
+        assertArrayEquals(resume(checkpoint), firstResult);
+    }
+
+    /**
+     * Tests that branches adding a cook with split random streams are reproducible for the same seed
+     * and diverge for different seeds.
+     */
+    @Test
+    void testSeededBranchesAddingCooks() throws Exception {
+        ArrayList<CookCompetency> cooks = new ArrayList<>(List.of(CookCompetency.INEXPERIENCED));
+        MyEngine engine = new MyEngine(null, cooks);
+        engine.reseed(3);
+        engine.setSimulationTime(300);
+        engine.run();
+
+        double[][] results = new double[3][];
+        long[] seeds = {11, 11, 22};
+        for (int i = 0; i < seeds.length; i++) {
+            SimulationFork fork = new SimulationFork(engine, seeds[i]);
+            SimulationFork.Branch branch = fork.addBranch("cook-" + i,
+                    e -> e.getKitchen().addCook(CookCompetency.INEXPERIENCED));
+            fork.runAll(600);
+            results[i] = branch.getContext().call(CheckpointTest::endState);
+        }
+
+        assertArrayEquals(results[0], results[1]);
+        assertFalse(Arrays.equals(results[0], results[2]));
+    }
+
+    /**
+     * Tests that a snapshot can still be taken after the simulation thread was interrupted while
+     * paused, instead of waiting for a simulation loop that has ended.
+     */
+    @Test
+    void testSnapshotAfterInterruptWhilePaused() throws Exception {
+        MyEngine engine = new MyEngine(null, new ArrayList<>(List.of(CookCompetency.EXPERT)));
+        engine.setSimulationTime(300);
+        engine.pauseSimulation();
+        Thread thread = new Thread(engine, "paused-engine");
+        thread.start();
+        assertTrue(engine.requestSnapshot().get(5, TimeUnit.SECONDS).length > 0);
+        thread.interrupt();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+
+        byte[] snapshot = engine.requestSnapshot().get(5, TimeUnit.SECONDS);
+        assertTrue(snapshot.length > 0);
+    }
+
+    /**
+     * Tests that a file that is not a checkpoint is rejected.
+     */
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("other.ckpt");
+        Files.write(file, new byte[16]);
+        assertThrows(IOException.class, () -> MyEngine.restoreCheckpoint(null, file));
+    }
+
+    /**
+     * Restores the checkpoint, continues the simulation until time 600 and returns the end state.
+     * @param checkpoint the checkpoint file
+     * @return the clock time followed by a selection of statistics
+     */
+    private double[] resume(Path checkpoint) throws IOException {
+        MyEngine engine = MyEngine.restoreCheckpoint(null, checkpoint);
+        engine.setSimulationTime(600);
+        engine.run();
+        return endState();
+    }
+
+    /**
+     * Returns the end state of the simulation of the current context.
+     * @return the clock time followed by a selection of statistics
+     */
+    private static double[] endState() {
+        SimulationStatistics statistics = SimulationStatistics.getInstance();
+        return new double[] {
+                Clock.getInstance().getTime(),
+                statistics.getTotalArrivedCustomers(),
+                statistics.getTotalServicedCustomers(),
+                statistics.getRemakeOrdersCustomers(),
+                statistics.getWalkInCustomers(),
+                statistics.getCallInCustomers(),
+                statistics.getPaymentFailures(),
+                statistics.getSuccessfulDeliveries(),
+                KitchenStatistics.getInstance().getServiceBusyTime(),
+                KitchenStatistics.getInstance().getServiceWaitingTime()
+        };
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import simu.framework.statistics.SummaryStatistics;
+import simu.model.distributed.Coordinator;
+import simu.model.distributed.ReplicationSummary;
+import simu.model.distributed.Worker;
+import simu.model.scenario.Scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for distributed replications.
+ * Tests cover merging summary statistics, distributing seeded replications over worker
+ * processes on localhost with the same results as running them in one process, and rejecting
+ * scenarios whose names collide.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class DistributedReplicationTest {
+
+    /**
+     * Tests that merging the summaries of parts of a sample gives the summary of the whole sample.
+     */
+    @Test
+    void testMergedSummaryEqualsWholeSample() {
+        SummaryStatistics whole = new SummaryStatistics();
+        SummaryStatistics first = new SummaryStatistics();
+        SummaryStatistics second = new SummaryStatistics();
+        for (int i = 0; i < 100; i++) {
+            double value = 1e6 + Math.sin(i) * 3;
+            whole.add(value);
+            (i % 3 == 0 ? first : second).add(value);
+        }
+        SummaryStatistics merged = new SummaryStatistics();
+        merged.merge(first);
+        merged.merge(second);
+
+        assertEquals(100, merged.getCount());
+        assertEquals(whole.getMean(), merged.getMean(), 1e-9);
+        assertEquals(whole.getVariance(), merged.getVariance(), 1e-9);
+        assertEquals(whole.getMin(), merged.getMin());
+        assertEquals(whole.getMax(), merged.getMax());
+    }
+
+    /**
+     * Tests that scenarios with the same name are rejected instead of merged into one summary.
+     */
+    @Test
+    void testRejectsDuplicateScenarioNames() {
+        List<Scenario> scenarios = List.of(scenario("cooks", "EXPERT"), scenario("cooks", "EXPERT, EXPERT"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new Coordinator(scenarios, 0, 1));
+        assertTrue(e.getMessage().contains("cooks"));
+    }
+
+    /**
+     * Tests that replications distributed over two worker processes give the same merged results
+     * as running them in this process.
+     */
+    @Test
+    void testDistributedReplicationsOverLocalWorkers() throws Exception {
+        List<Scenario> scenarios = List.of(scenario("two-cooks", "EXPERT, INEXPERIENCED"),
+                scenario("four-cooks", "EXPERT, EXPERT, EXPERT, EXPERT"));
+        List<Process> workers = new ArrayList<>();
+        Map<String, ReplicationSummary> distributed;
+        try (Coordinator coordinator = new Coordinator(scenarios, 0, 2)) {
+            coordinator.start();
+            workers.add(Worker.startLocal(coordinator.getPort(), 2));
+            workers.add(Worker.startLocal(coordinator.getPort(), 1));
+            assertTrue(coordinator.awaitCompletion(2, TimeUnit.MINUTES));
+            distributed = coordinator.getSummaries();
+        } finally {
+            for (Process worker : workers) {
+                if (!worker.waitFor(30, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+        }
+        for (Process worker : workers) {
+            assertEquals(0, worker.exitValue());
+        }
+
+        for (Scenario scenario : scenarios) {
+            ReplicationSummary local = Worker.runReplications(scenario, 0, scenario.getReplications());
+            ReplicationSummary remote = distributed.get(scenario.getName());
+            assertEquals(5, remote.getRuns());
+            assertEquals(0, remote.getFailures());
+            assertEquals(local.getServicedCustomers().getMean(), remote.getServicedCustomers().getMean(), 1e-9);
+            assertEquals(local.getMeanResponseTime().getMean(), remote.getMeanResponseTime().getMean(), 1e-9);
+            assertEquals(local.getMeanResponseTime().getVariance(), remote.getMeanResponseTime().getVariance(), 1e-9);
+        }
+    }
+
+    /**
+     * Creates a seeded scenario with five short replications.
+     * @param name the name of the scenario
+     * @param cooks the cook competencies
+     * @return the scenario
+     */
+    private static Scenario scenario(String name, String cooks) {
+        Properties properties = new Properties();
+        properties.setProperty("simulation.time", "400");
+        properties.setProperty("seed", "3");
+        properties.setProperty("replications", "5");
+        properties.setProperty("cooks", cooks);
+        return new Scenario(name, properties);
+    }
+}
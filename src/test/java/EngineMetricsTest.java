@@ -0,0 +1,116 @@
+import eduni.distributions.Normal;
+import org.junit.jupiter.api.Test;
+import simu.framework.Clock;
+import simu.framework.EventList;
+import simu.framework.monitoring.EngineMetrics;
+import simu.framework.monitoring.RunTelemetry;
+import simu.model.Customer;
+import simu.model.EventType;
+import simu.model.ServicePoint;
+import simu.model.kitchen.CookCompetency;
+import simu.model.kitchen.KitchenServicePoint;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the live engine metrics published over JMX.
+ * Tests cover time-weighted utilization, also of a kitchen with several cooks, published queue and
+ * event counts, MBean registration,
+ * and the run telemetry taken from the metrics.
+ */
+public class EngineMetricsTest {
+
+    /**
+     * Tests that busy time is accumulated only for serving service points and published after a step.
+     */
+    @Test
+    void testPublishesStepState() {
+        Clock.getInstance().setTime(0);
+        EventList eventList = new EventList();
+        ServicePoint busy = new ServicePoint(new Normal(5.0, 1.0), eventList, EventType.DepartureFromKitchen, "KITCHEN");
+        ServicePoint idle = new ServicePoint(new Normal(5.0, 1.0), eventList, EventType.DepartureFromCounterToCostumer, "COUNTER");
+        EngineMetrics metrics = new EngineMetrics(new ServicePoint[] { busy, idle }, 0);
+
+        busy.addQueue(new Customer(true));
+        busy.addQueue(new Customer(true));
+        busy.beginService();
+        metrics.advanceTo(10);
+        metrics.stepCompleted(3, 5);
+
+        assertEquals(3, metrics.getEventsProcessed());
+        assertEquals(5, metrics.getPendingEvents());
+        assertEquals(10.0, metrics.getSimulationTime());
+        assertEquals(2, metrics.getCustomersInSystem());
+        assertEquals(2, metrics.getQueueLengths().get("KITCHEN"));
+        assertEquals(1.0, metrics.getUtilizations().get("KITCHEN"));
+        assertEquals(0.0, metrics.getUtilizations().get("COUNTER"));
+    }
+
+    /**
+     * Tests that the kitchen, which is never reserved as a whole, is counted busy by the fraction
+     * of its cooks preparing an order.
+     */
+    @Test
+    void testKitchenUtilizationCountsBusyCooks() {
+        Clock.getInstance().setTime(0);
+        EventList eventList = new EventList();
+        KitchenServicePoint kitchen = new KitchenServicePoint(new Normal(5.0, 1.0), eventList, EventType.DepartureFromKitchen,
+                new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.EXPERT)));
+        kitchen.setServicePointName("KITCHEN");
+        EngineMetrics metrics = new EngineMetrics(new ServicePoint[] { kitchen }, 0);
+
+        kitchen.addQueue(new Customer(true));
+        kitchen.beginService();
+        assertFalse(kitchen.isReserved());
+        metrics.advanceTo(10);
+        kitchen.addQueue(new Customer(true));
+        kitchen.beginService();
+        metrics.advanceTo(20);
+        metrics.stepCompleted(1, 2);
+
+        assertEquals(0.75, metrics.getUtilizations().get("KITCHEN"), 1e-9);
+    }
+
+    /**
+     * Tests that the metrics are readable through the platform MBean server while registered.
+     */
+    @Test
+    void testRegistersMBean() throws Exception {
+        EngineMetrics metrics = new EngineMetrics(new ServicePoint[0], 0);
+        metrics.stepCompleted(7, 0);
+        ObjectName name = metrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertNotNull(name);
+        assertEquals(7L, server.getAttribute(name, "EventsProcessed"));
+        metrics.unregister();
+        assertFalse(server.isRegistered(name));
+    }
+
+    /**
+     * Tests that the peak of pending events is kept, and that run telemetry is finished only once.
+     */
+    @Test
+    void testRunTelemetry() {
+        EngineMetrics metrics = new EngineMetrics(new ServicePoint[0], 0);
+        RunTelemetry telemetry = new RunTelemetry();
+        metrics.stepCompleted(2, 9);
+        metrics.stepCompleted(4, 3);
+        telemetry.stepCompleted();
+        assertEquals(9, metrics.getPeakPendingEvents());
+
+        assertFalse(telemetry.isFinished());
+        telemetry.finish(metrics.getEventsProcessed(), metrics.getPeakPendingEvents());
+        telemetry.finish(100, 100);
+        assertTrue(telemetry.isFinished());
+        assertEquals(6, telemetry.getEventsProcessed());
+        assertEquals(9, telemetry.getPeakEventListSize());
+        assertTrue(telemetry.getPeakHeapBytes() > 0);
+        assertTrue(telemetry.getGcMillis() >= 0);
+    }
+}
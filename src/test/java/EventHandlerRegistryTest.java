@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import simu.framework.Event;
+import simu.framework.EventHandlerRegistry;
+import simu.framework.IEventType;
+import simu.model.EventType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the registry of event handlers indexed by event type ordinal.
+ * Tests cover dispatching events to their handlers, service point indices, event types defined
+ * outside the model's enum, and rejecting unregistered and duplicate event types.
+ */
+public class EventHandlerRegistryTest {
+
+    /**
+     * Tests that events are dispatched to the handler of their type, with the registered service point index.
+     */
+    @Test
+    void testDispatchesByType() {
+        EventHandlerRegistry registry = new EventHandlerRegistry();
+        List<String> handled = new ArrayList<>();
+        registry.register(EventType.DepartureFromKitchen, 1, event -> handled.add("kitchen"));
+        registry.register(EventType.ArrivalCall, event -> handled.add("call"));
+
+        registry.dispatch(new Event(EventType.ArrivalCall, 1.0));
+        registry.dispatch(new Event(EventType.DepartureFromKitchen, 2.0));
+
+        assertEquals(List.of("call", "kitchen"), handled);
+        assertEquals(1, registry.getServicePointIndex(EventType.DepartureFromKitchen));
+        assertEquals(-1, registry.getServicePointIndex(EventType.ArrivalCall));
+        assertEquals(-1, registry.getServicePointIndex(EventType.RemakeOrder));
+        assertFalse(registry.isRegistered(EventType.RemakeOrder));
+        assertThrows(IllegalStateException.class, () -> registry.dispatch(new Event(EventType.RemakeOrder, 3.0)));
+        assertThrows(IllegalStateException.class, () -> registry.register(EventType.ArrivalCall, event -> { }));
+    }
+
+    /**
+     * Tests that event types defined by model code, beyond the ordinals of the enum, can be registered.
+     */
+    @Test
+    void testRegistersNewEventTypes() {
+        IEventType cleaning = new IEventType() {
+            @Override
+            public int ordinal() {
+                return EventType.values().length + 10;
+            }
+
+            @Override
+            public String name() {
+                return "Cleaning";
+            }
+        };
+        EventHandlerRegistry registry = new EventHandlerRegistry();
+        int[] calls = new int[1];
+        registry.register(cleaning, 2, event -> calls[0]++);
+
+        registry.dispatch(new Event(cleaning, 1.0));
+
+        assertEquals(1, calls[0]);
+        assertTrue(registry.isRegistered(cleaning));
+        assertEquals(2, registry.getServicePointIndex(cleaning));
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.framework.Event;
+import simu.framework.EventLogReader;
+import simu.framework.EventLogRecorder;
+import simu.model.EventType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary event log recorder and reader.
+ * Tests cover reading back records across mapped chunks, direct access, and rejecting other files.
+ */
+public class EventLogTest {
+    /** Temporary directory for the log files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that records written across several mapped chunks are read back unchanged.
+     */
+    @Test
+    void testRecordsReadBack() throws IOException {
+        Path file = tempDir.resolve("events.bin");
+        int count = 300_000;
+        try (EventLogRecorder recorder = new EventLogRecorder(file)) {
+            recorder.record(new Event(EventType.ArrivalCall, 0.5), 1, 0);
+            for (int i = 1; i < count; i++) {
+                recorder.record(i * 0.25, i % EventType.values().length, i, i % 4);
+            }
+            assertEquals(count, recorder.getRecordCount());
+        }
+        assertEquals(EventLogRecorder.HEADER_BYTES + (long) count * EventLogRecorder.RECORD_BYTES, Files.size(file));
+
+        try (EventLogReader reader = new EventLogReader(file)) {
+            assertEquals(count, reader.getRecordCount());
+            assertTrue(reader.next());
+            assertEquals(0.5, reader.getTime());
+            assertEquals(EventType.ArrivalCall.ordinal(), reader.getType());
+            assertEquals(1, reader.getCustomerId());
+            assertEquals(0, reader.getServicePoint());
+            int read = 1;
+            while (reader.next()) {
+                assertEquals(read * 0.25, reader.getTime());
+                assertEquals(read, reader.getCustomerId());
+                assertEquals(read % 4, reader.getServicePoint());
+                read++;
+            }
+            assertEquals(count, read);
+
+            reader.seek(270_001);
+            assertTrue(reader.next());
+            assertEquals(270_001, reader.getCustomerId());
+        }
+    }
+
+    /**
+     * Tests that a file without the event log header is rejected.
+     */
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("other.bin");
+        Files.write(file, new byte[32]);
+        assertThrows(IOException.class, () -> new EventLogReader(file));
+    }
+}
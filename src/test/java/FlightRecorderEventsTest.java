@@ -0,0 +1,186 @@
+import eduni.distributions.Normal;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import simu.framework.Clock;
+import simu.framework.EventList;
+import simu.framework.monitoring.DatabaseWriteEvent;
+import simu.framework.statistics.SimulationStatistics;
+import simu.model.Customer;
+import simu.model.EventType;
+import simu.model.MyEngine;
+import simu.model.ServicePoint;
+import simu.model.kitchen.CookCompetency;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Java Flight Recorder events of the simulation.
+ * Tests cover service begin and end events with their simulation time and customer, their pairing
+ * in a run of the restaurant model, the customers of event dispatches, and database write events.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class FlightRecorderEventsTest {
+
+    /**
+     * Tests that a service begin and end at a service point are recorded with simulation time and customer ID.
+     */
+    @Test
+    void testRecordsServiceBeginAndEnd() throws Exception {
+        Clock.getInstance().setTime(3);
+        ServicePoint kitchen = new ServicePoint(new Normal(5.0, 1.0), new EventList(), EventType.DepartureFromKitchen, "KITCHEN");
+        Customer customer = new Customer(true);
+        List<RecordedEvent> events = record("simu.Service", () -> {
+            kitchen.addQueue(customer);
+            kitchen.beginService();
+            kitchen.removeQueue();
+        });
+
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).getBoolean("begin"));
+        assertTrue(events.get(0).getDouble("serviceTime") != 0);
+        assertFalse(events.get(1).getBoolean("begin"));
+        for (RecordedEvent event : events) {
+            assertEquals("KITCHEN", event.getString("servicePoint"));
+            assertEquals(3.0, event.getDouble("simTime"));
+            assertEquals(customer.getId(), event.getInt("customerId"));
+        }
+    }
+
+    /**
+     * Tests that in a run of the restaurant model every service point records service begins,
+     * and every service end is that of a customer whose service began there and has not ended.
+     */
+    @Test
+    void testServiceEventsPairUpInRestaurantRun() throws Exception {
+        SimulationStatistics.resetAllStatistics();
+        Clock.getInstance().setTime(0);
+        MyEngine engine = new MyEngine(null, new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.EXPERT)));
+        engine.setSimulationTime(500);
+        List<RecordedEvent> events = new ArrayList<>(record("simu.Service", engine::run));
+        // The file holds the events in the order the thread buffers were flushed
+        events.sort(Comparator.comparing((RecordedEvent event) -> event.getDouble("simTime"))
+                .thenComparing(RecordedEvent::getStartTime));
+
+        Map<String, Set<Integer>> inService = new HashMap<>();
+        Map<String, Integer> ends = new HashMap<>();
+        for (RecordedEvent event : events) {
+            String servicePoint = event.getString("servicePoint");
+            int customerId = event.getInt("customerId");
+            Set<Integer> customers = inService.computeIfAbsent(servicePoint, name -> new HashSet<>());
+            if (event.getBoolean("begin")) {
+                assertTrue(customers.add(customerId), "customer " + customerId + " began twice at " + servicePoint);
+            } else {
+                assertTrue(customers.remove(customerId), "customer " + customerId + " ended without a begin at " + servicePoint);
+                ends.merge(servicePoint, 1, Integer::sum);
+            }
+        }
+        assertEquals(4, inService.size());
+        for (String servicePoint : inService.keySet()) {
+            assertTrue(ends.getOrDefault(servicePoint, 0) > 0, servicePoint);
+        }
+    }
+
+    /**
+     * Tests that event dispatches in a run of the restaurant model are recorded with the customer
+     * the event concerns: an arrival with the customer whose service then begins, and a departure
+     * with the customer whose service ends at the same time.
+     */
+    @Test
+    void testDispatchesRecordTheirCustomer() throws Exception {
+        SimulationStatistics.resetAllStatistics();
+        Clock.getInstance().setTime(0);
+        MyEngine engine = new MyEngine(null, new ArrayList<>(List.of(CookCompetency.EXPERT, CookCompetency.EXPERT)));
+        engine.setSimulationTime(500);
+        List<RecordedEvent> events = record(List.of("simu.EventDispatch", "simu.Service"), engine::run);
+
+        Set<Integer> arrived = new HashSet<>();
+        Set<String> serviceEnds = new HashSet<>();
+        Set<Integer> served = new HashSet<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("simu.Service")) {
+                served.add(event.getInt("customerId"));
+                if (!event.getBoolean("begin")) {
+                    serviceEnds.add(event.getDouble("simTime") + "/" + event.getInt("customerId"));
+                }
+            } else if (event.getString("eventType").startsWith("Arrival")) {
+                assertTrue(arrived.add(event.getInt("customerId")), "customer " + event.getInt("customerId") + " arrived twice");
+            }
+        }
+        int departures = 0;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("simu.EventDispatch")
+                    && event.getString("eventType").startsWith("Departure")) {
+                String end = event.getDouble("simTime") + "/" + event.getInt("customerId");
+                assertTrue(serviceEnds.contains(end), "departure " + end + " without a service end");
+                departures++;
+            }
+        }
+        assertTrue(departures > 0);
+        assertFalse(served.isEmpty());
+        assertTrue(arrived.containsAll(served), "served customers that never arrived: " + served);
+    }
+
+    /**
+     * Tests that a database write is recorded with its entity, the rows counted as it proceeds, and its outcome.
+     */
+    @Test
+    void testRecordsDatabaseWrite() throws Exception {
+        List<RecordedEvent> events = record("simu.DatabaseWrite", () -> {
+            DatabaseWriteEvent write = DatabaseWriteEvent.start("SimulationRun", 4);
+            write.addRows(6);
+            write.finish(false);
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("SimulationRun", events.get(0).getString("entity"));
+        assertEquals(10, events.get(0).getInt("rows"));
+        assertFalse(events.get(0).getBoolean("succeeded"));
+    }
+
+    /**
+     * Runs an action while recording one event type, and reads the recorded events back.
+     * @param eventName name of the event type to record
+     * @param action the action to run
+     * @return the recorded events in order
+     */
+    private static List<RecordedEvent> record(String eventName, Runnable action) throws Exception {
+        return record(List.of(eventName), action);
+    }
+
+    /**
+     * Runs an action while recording several event types, and reads the recorded events back.
+     * @param eventNames names of the event types to record
+     * @param action the action to run
+     * @return the recorded events in the order they were flushed
+     */
+    private static List<RecordedEvent> record(List<String> eventNames, Runnable action) throws Exception {
+        Path file = Files.createTempFile("simu", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String eventName : eventNames) {
+                recording.enable(eventName).withoutThreshold();
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> eventNames.contains(event.getEventType().getName()))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
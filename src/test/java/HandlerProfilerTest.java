@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.framework.monitoring.HandlerProfiler;
+import simu.model.EventType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the profiler of the simulation's event handlers.
+ * Tests cover call counts, allocation measurement, ranking by total time, and appending reports to a file.
+ */
+public class HandlerProfilerTest {
+
+    /**
+     * Tests that calls are counted per handler, allocations are measured, and handlers are ranked by total time.
+     */
+    @Test
+    void testRanksHandlersByTotalTime() throws Exception {
+        HandlerProfiler profiler = new HandlerProfiler(null);
+        for (int i = 0; i < 3; i++) {
+            profiler.begin();
+            profiler.end(EventType.ArrivalCall, "event");
+        }
+        profiler.begin();
+        long[] allocated = new long[100_000];
+        Thread.sleep(5);
+        profiler.end(EventType.DepartureFromKitchen, "event");
+
+        List<HandlerProfiler.Entry> entries = profiler.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("event DepartureFromKitchen", entries.get(0).getHandler());
+        assertEquals(1, entries.get(0).getCalls());
+        assertTrue(entries.get(0).getMaxNanos() >= 5_000_000);
+        assertTrue(entries.get(0).getAllocatedBytes() >= 8L * allocated.length);
+        assertEquals(3, entries.get(1).getCalls());
+    }
+
+    /**
+     * Tests that reports are appended to the report file.
+     */
+    @Test
+    void testAppendsReports(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("profile.txt");
+        HandlerProfiler profiler = new HandlerProfiler(file);
+        profiler.begin();
+        profiler.end(EventType.ArrivalCall, "event");
+        profiler.report("run 1");
+        profiler.report("run 2");
+
+        String report = Files.readString(file);
+        assertTrue(report.contains("Handler profile of run 1"));
+        assertTrue(report.contains("Handler profile of run 2"));
+        assertTrue(report.contains("event ArrivalCall"));
+    }
+}
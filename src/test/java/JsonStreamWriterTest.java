@@ -0,0 +1,53 @@
+import org.junit.jupiter.api.Test;
+import simu.backend.export.JsonStreamWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the streaming JSON writer used by the database export.
+ * Tests cover nesting and separators, string escaping, and rejecting malformed documents.
+ */
+public class JsonStreamWriterTest {
+
+    /**
+     * Tests that nested objects and arrays are written with separators and indentation.
+     */
+    @Test
+    void testNestedDocument() throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonStreamWriter json = new JsonStreamWriter(out)) {
+            json.beginObject()
+                .name("runs").value(2)
+                .name("values").beginArray().value(1.5f).value(Double.NaN).endArray()
+                .name("empty").beginObject().endObject()
+                .endObject();
+        }
+        assertEquals("{\n  \"runs\": 2,\n  \"values\": [\n    1.5,\n    null\n  ],\n  \"empty\": {}\n}", out.toString());
+    }
+
+    /**
+     * Tests that quotes, backslashes and control characters in strings are escaped.
+     */
+    @Test
+    void testStringsAreEscaped() throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonStreamWriter json = new JsonStreamWriter(out)) {
+            json.beginArray().value("a\"b\\c\nd\u0001").endArray();
+        }
+        assertEquals("[\n  \"a\\\"b\\\\c\\nd\\u0001\"\n]", out.toString());
+    }
+
+    /**
+     * Tests that values without names inside objects and unbalanced brackets are rejected.
+     */
+    @Test
+    void testRejectsMalformedDocuments() throws IOException {
+        JsonStreamWriter json = new JsonStreamWriter(new StringWriter());
+        json.beginObject();
+        assertThrows(IllegalStateException.class, () -> json.value(1));
+        assertThrows(IllegalStateException.class, json::endArray);
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+import simu.backend.datasource.MariaDbJpaConnection;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the database connection utility.
+ * Tests cover checking readiness without waiting for a bootstrap in progress.
+ */
+public class MariaDbJpaConnectionTest {
+
+    /**
+     * Tests that the readiness check answers at once while another thread holds the bootstrap lock,
+     * as a thread creating the EntityManagerFactory does.
+     */
+    @Test
+    void testIsReadyDoesNotWaitForBootstrap() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread bootstrap = new Thread(() -> {
+            synchronized (MariaDbJpaConnection.class) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        bootstrap.start();
+        try {
+            locked.await();
+            assertFalse(assertTimeoutPreemptively(Duration.ofSeconds(2), MariaDbJpaConnection::isReady));
+        } finally {
+            release.countDown();
+            bootstrap.join();
+        }
+    }
+}
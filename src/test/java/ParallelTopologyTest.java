@@ -0,0 +1,175 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import simu.framework.Clock;
+import simu.model.topology.ParallelTopologyEngine;
+import simu.model.topology.Topology;
+import simu.model.topology.TopologyBuilder;
+import simu.model.topology.TopologyEngine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the conservative parallel simulation of service network topologies.
+ * Tests cover the independence of the results from the partitioning, the exchange of null messages,
+ * agreement with the sequential engine, and reading results before a run.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class ParallelTopologyTest {
+
+    /**
+     * Builds a tandem of stations with feedback to earlier stations and two arrival streams.
+     * @param stations the number of stations
+     * @return the network
+     */
+    private static Topology feedbackTandem(int stations) {
+        TopologyBuilder builder = new TopologyBuilder();
+        for (int i = 0; i < stations; i++) {
+            builder.station("S" + i, 0.05);
+        }
+        for (int i = 0; i < stations - 1; i++) {
+            builder.route("S" + i, "S" + (i + 1), 18).route("S" + i, "S" + (i * 7 % stations), 1).exit("S" + i, 1);
+        }
+        builder.route("S" + (stations - 1), "S0", 1).exit("S" + (stations - 1), 1);
+        return builder.arrival("S0", 2).arrival("S" + stations / 2, 2).build();
+    }
+
+    /**
+     * Tests that one logical process and several, with contiguous and interleaved partitions,
+     * simulate exactly the same run.
+     */
+    @Test
+    void testResultsIndependentOfPartitioning() {
+        Topology topology = feedbackTandem(40);
+        ParallelTopologyEngine sequential = new ParallelTopologyEngine(topology, 1, 42);
+        sequential.setSimulationTime(1000);
+        sequential.run();
+
+        int[] interleaved = new int[40];
+        for (int i = 0; i < interleaved.length; i++) {
+            interleaved[i] = i % 3;
+        }
+        ParallelTopologyEngine[] parallel = {
+                new ParallelTopologyEngine(topology, 4, 42),
+                new ParallelTopologyEngine(topology, interleaved, 42)
+        };
+        assertTrue(sequential.getCompletedCustomers() > 300);
+        for (ParallelTopologyEngine engine : parallel) {
+            engine.setSimulationTime(1000);
+            engine.run();
+            assertEquals(sequential.getCompletedCustomers(), engine.getCompletedCustomers());
+            assertEquals(sequential.getMeanSojournTime(), engine.getMeanSojournTime(), 1e-9);
+            assertEquals(sequential.getEventsProcessed() + engine.getMessagesSent(), engine.getEventsProcessed());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(sequential.getServicedCustomers(i), engine.getServicedCustomers(i), "station " + i);
+                assertEquals(sequential.getCustomersAt(i), engine.getCustomersAt(i), "station " + i);
+            }
+            assertTrue(engine.getMessagesSent() > 0);
+            assertTrue(engine.getNullMessagesSent() > 0);
+        }
+        assertEquals(0, sequential.getMessagesSent());
+        assertEquals(0, sequential.getNullMessagesSent());
+    }
+
+    /**
+     * Tests that the parallel engine simulates the same model as the sequential {@link TopologyEngine}:
+     * over independent replications, the mean sojourn time and the throughput of every station agree
+     * within four standard errors of their difference.
+     */
+    @Test
+    void testAgreesWithTopologyEngine() {
+        Topology topology = feedbackTandem(8);
+        int replications = 20;
+        double time = 1000;
+        double[][] parallel = new double[replications][];
+        double[][] sequential = new double[replications][];
+        for (int r = 0; r < replications; r++) {
+            ParallelTopologyEngine engine = new ParallelTopologyEngine(topology, 3, 100 + r);
+            engine.setSimulationTime(time);
+            engine.run();
+            parallel[r] = new double[topology.getStationCount() + 1];
+            parallel[r][0] = engine.getMeanSojournTime();
+            for (int i = 0; i < topology.getStationCount(); i++) {
+                parallel[r][i + 1] = engine.getServicedCustomers(i) / time;
+            }
+
+            Clock.getInstance().setTime(0);
+            TopologyEngine reference = new TopologyEngine(null, topology, 200 + r);
+            reference.setSimulationTime(time);
+            reference.run();
+            sequential[r] = new double[topology.getStationCount() + 1];
+            sequential[r][0] = reference.getMeanSojournTime();
+            for (int i = 0; i < topology.getStationCount(); i++) {
+                sequential[r][i + 1] = reference.getStations()[i].getServicedCustomers() / time;
+            }
+        }
+        for (int k = 0; k <= topology.getStationCount(); k++) {
+            double[] a = column(parallel, k);
+            double[] b = column(sequential, k);
+            double standardError = Math.sqrt((variance(a) + variance(b)) / replications);
+            String measure = k == 0 ? "mean sojourn time" : "throughput of station " + (k - 1);
+            assertTrue(standardError > 0, measure);
+            assertEquals(mean(b), mean(a), 4 * standardError, measure);
+        }
+    }
+
+    /**
+     * Tests that results cannot be read before the engine has run.
+     */
+    @Test
+    void testResultsRequireRun() {
+        ParallelTopologyEngine engine = new ParallelTopologyEngine(feedbackTandem(4), 2, 1);
+        assertThrows(IllegalStateException.class, engine::getCompletedCustomers);
+        assertThrows(IllegalStateException.class, () -> engine.getServicedCustomers(0));
+    }
+
+    /**
+     * Returns one column of a table of replication results.
+     * @param rows the results of every replication
+     * @param k the index of the column
+     * @return the column
+     */
+    private static double[] column(double[][] rows, int k) {
+        double[] values = new double[rows.length];
+        for (int r = 0; r < rows.length; r++) {
+            values[r] = rows[r][k];
+        }
+        return values;
+    }
+
+    /**
+     * Returns the mean of the values.
+     * @param values the values
+     * @return the mean
+     */
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Returns the sample variance of the values.
+     * @param values the values
+     * @return the sample variance
+     */
+    private static double variance(double[] values) {
+        double mean = mean(values);
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / (values.length - 1);
+    }
+
+    /**
+     * Tests that partitions leaving a logical process without stations are rejected.
+     */
+    @Test
+    void testInvalidPartitioning() {
+        Topology topology = feedbackTandem(4);
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTopologyEngine(topology, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTopologyEngine(topology, new int[] {0, 2, 2, 0}, 1));
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+import simu.framework.monitoring.EngineMetrics;
+import simu.framework.monitoring.Histogram;
+import simu.framework.monitoring.PrometheusExporter;
+import simu.framework.statistics.ServicePointStatistics;
+import simu.framework.statistics.SimulationStatistics;
+import simu.model.ServicePoint;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Prometheus metrics endpoint.
+ * Tests cover cumulative histogram buckets, the exposition text of an engine, and serving it over HTTP.
+ */
+public class PrometheusExporterTest {
+
+    /**
+     * Tests that values are counted in the first bucket whose bound is not below them,
+     * and that readers see them once they are published.
+     */
+    @Test
+    void testHistogramBuckets() {
+        Histogram histogram = new Histogram(new double[] {1, 5});
+        histogram.observe(0.5);
+        histogram.observe(1);
+        histogram.observe(3);
+        histogram.observe(100);
+        assertArrayEquals(new long[] {0, 0, 0}, histogram.getCumulativeCounts());
+        histogram.publish();
+        assertArrayEquals(new long[] {2, 3, 4}, histogram.getCumulativeCounts());
+        assertEquals(104.5, histogram.getSum());
+    }
+
+    /**
+     * Tests that counters and histograms of the statistics are rendered with engine and service point labels,
+     * and served at /metrics.
+     */
+    @Test
+    void testServesEngineMetrics() throws Exception {
+        SimulationStatistics simulation = new SimulationStatistics();
+        simulation.incrementTotalArrivedCustomers();
+        simulation.addTotalWaitingTime(3);
+        ServicePointStatistics kitchen = new ServicePointStatistics();
+        kitchen.addServiceWaitingTime(0.25);
+        EngineMetrics metrics = new EngineMetrics(new ServicePoint[0], 0);
+        metrics.setStatistics(simulation, Map.of("KITCHEN", kitchen));
+        metrics.stepCompleted(42, 1);
+
+        String labels = "engine=\"" + metrics.getId() + "\",simulation=\"main\"";
+        metrics.register();
+        PrometheusExporter exporter = new PrometheusExporter(0);
+        exporter.start();
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + exporter.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            String text = response.body();
+            assertEquals(200, response.statusCode());
+            assertTrue(text.contains("# TYPE simu_response_time histogram\n"));
+            assertTrue(text.contains("simu_engine_events_processed_total{" + labels + "} 42\n"));
+            assertTrue(text.contains("simu_arrived_customers_total{" + labels + "} 1\n"));
+            assertTrue(text.contains("simu_response_time_bucket{" + labels + ",le=\"5\"} 1\n"));
+            assertTrue(text.contains("simu_service_point_waiting_time_bucket{" + labels + ",service_point=\"KITCHEN\",le=\"0.5\"} 1\n"));
+            assertTrue(text.contains("simu_service_point_waiting_time_count{" + labels + ",service_point=\"KITCHEN\"} 1\n"));
+        } finally {
+            exporter.stop();
+            metrics.unregister();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import simu.framework.Trace;
+
+/**
+ * JUnit extension for tests that run whole simulations: limits tracing to errors during each test,
+ * so the per-event trace does not flood the build output, and restores the previous level after it.
+ */
+public class QuietTraceExtension implements BeforeEachCallback, AfterEachCallback {
+    /** Key of the previous trace level in the test's extension store. */
+    private static final String PREVIOUS_LEVEL = "previousTraceLevel";
+
+    /**
+     * Limits tracing to errors, remembering the current level.
+     * @param context the context of the test
+     */
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        store(context).put(PREVIOUS_LEVEL, Trace.getTraceLevel());
+        Trace.setTraceLevel(Trace.Level.ERR);
+    }
+
+    /**
+     * Restores the trace level of before the test.
+     * @param context the context of the test
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Trace.setTraceLevel(store(context).get(PREVIOUS_LEVEL, Trace.Level.class));
+    }
+
+    /**
+     * Returns the store of this extension for a test.
+     * @param context the context of the test
+     * @return the store
+     */
+    private static ExtensionContext.Store store(ExtensionContext context) {
+        return context.getStore(ExtensionContext.Namespace.create(QuietTraceExtension.class, context.getUniqueId()));
+    }
+}
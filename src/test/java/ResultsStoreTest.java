@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simu.backend.dao.LocalFileResultsStore;
+import simu.backend.dao.SimulationRun;
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ReceptionStatistics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the local file results store.
+ * Tests cover reading back appended runs, ignoring an incomplete last record, and rejecting other files.
+ */
+public class ResultsStoreTest {
+    /** Temporary directory for the results files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that runs appended in several sessions are read back unchanged and in order.
+     */
+    @Test
+    void testRunsReadBack() throws IOException {
+        Path file = tempDir.resolve("results.bin");
+        try (LocalFileResultsStore store = new LocalFileResultsStore(file)) {
+            store.saveRuns(List.of(run(1), run(2), run(3)));
+        }
+        try (LocalFileResultsStore store = new LocalFileResultsStore(file)) {
+            store.saveRuns(List.of(run(4)));
+        }
+        Files.write(file, new byte[10], StandardOpenOption.APPEND);
+
+        List<List<SimulationRun>> batches = new ArrayList<>();
+        long count = LocalFileResultsStore.readRuns(file, 2, batches::add);
+
+        assertEquals(4, count);
+        assertEquals(2, batches.size());
+        for (int i = 0; i < 4; i++) {
+            SimulationRun run = batches.get(i / 2).get(i % 2);
+            assertEquals(10 * (i + 1), run.getOverview().getTotalArrivedCustomers());
+            assertEquals(i + 1.5f, run.getOverview().getAverageResponseTime());
+            assertNull(run.getOverview().getBusyTime());
+            assertEquals(i + 1, run.getReception().getServicedCustomers());
+            assertEquals(i + 2, run.getKitchen().getServicedCustomers());
+            assertEquals(i + 3, run.getCounter().getServicedCustomers());
+            assertEquals(0.25f * (i + 1), run.getDelivery().getVarianceValue());
+        }
+    }
+
+    /**
+     * Tests that a file that is not a results file is rejected.
+     */
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("other.bin");
+        Files.write(file, new byte[16]);
+        assertThrows(IOException.class, () -> new LocalFileResultsStore(file));
+        assertThrows(IOException.class, () -> LocalFileResultsStore.readRuns(file, 10, runs -> { }));
+    }
+
+    /**
+     * Creates a run whose values are derived from its number.
+     * @param n the number of the run
+     * @return the run
+     */
+    private static SimulationRun run(int n) {
+        OverviewStatistics overview = new OverviewStatistics(100, 100, 5, 6, 10 * n, 9 * n, 0, 0, 1,
+                50, 0.5f, n + 0.5f, null);
+        return new SimulationRun(overview,
+                new ReceptionStatistics(0, n, n, 1, 2, 3, 4, 5, 6, 7, 8),
+                new KitchenStatistics(0, n + 1, n + 1, 1, 2, 3, 4, 5, 6, 7, 8),
+                new CounterStatistics(0, n + 2, n + 2, 1, 2, 3, 4, 5, 6, 7, 8),
+                new DeliveryStatistics(0, n, n, 1, 2, 3, 4, 5, 6, 7, 0.25f * n));
+    }
+}
@@ -0,0 +1,227 @@
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import simu.backend.dao.ResultsWriter;
+import simu.backend.dao.SimulationRun;
+import simu.backend.dao.SimulationRunDao;
+import simu.backend.entity.CounterStatistics;
+import simu.backend.entity.DeliveryStatistics;
+import simu.backend.entity.KitchenStatistics;
+import simu.backend.entity.OverviewStatistics;
+import simu.backend.entity.ReceptionStatistics;
+import simu.framework.SimulationContext;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the write-behind results writer.
+ * Tests cover saving submitted runs, retrying a failed batch, also through the DAO, reporting runs
+ * that could not be saved, and keeping the worker out of the context of the simulation creating it.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class ResultsWriterTest {
+
+    /**
+     * Tests that every submitted run reaches the sink and the shutdown reports success.
+     */
+    @Test
+    void testSavesSubmittedRuns() throws Exception {
+        AtomicInteger saved = new AtomicInteger();
+        ResultsWriter writer = new ResultsWriter(4, runs -> saved.addAndGet(runs.size()));
+        for (int i = 0; i < 10; i++) {
+            writer.submit(run());
+        }
+        assertTrue(writer.flush(5000));
+        assertEquals(10, saved.get());
+        assertEquals(0, writer.getPendingCount());
+        assertTrue(writer.shutdown(1000));
+        assertThrows(IllegalStateException.class, () -> writer.submit(run()));
+    }
+
+    /**
+     * Tests that a writer created inside a simulation context saves its runs without that context.
+     */
+    @Test
+    void testWorkerDoesNotInheritContext() throws Exception {
+        AtomicReference<SimulationContext> sinkContext = new AtomicReference<>();
+        CountDownLatch saved = new CountDownLatch(1);
+        ResultsWriter writer = new SimulationContext("scenario").call(() -> new ResultsWriter(4, runs -> {
+            sinkContext.set(SimulationContext.current());
+            saved.countDown();
+        }));
+        writer.submit(run());
+        assertTrue(saved.await(5, TimeUnit.SECONDS));
+        assertNull(sinkContext.get());
+        assertTrue(writer.shutdown(1000));
+    }
+
+    /**
+     * Tests that a batch failing fewer times than the allowed attempts is retried and saved.
+     */
+    @Test
+    void testRetriesFailedBatch() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger saved = new AtomicInteger();
+        ResultsWriter writer = new ResultsWriter(4, runs -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            saved.addAndGet(runs.size());
+        }, 3, 1);
+        writer.submit(run());
+        assertTrue(writer.flush(5000));
+        assertEquals(3, attempts.get());
+        assertEquals(1, saved.get());
+        assertEquals(0, writer.getFailedCount());
+        assertTrue(writer.shutdown(1000));
+    }
+
+    /**
+     * Tests that a batch whose transaction fails after the overviews were flushed is saved on the retry
+     * through {@link SimulationRunDao}. The fake persistence context, like Hibernate, keeps the
+     * generated IDs on rollback and refuses to persist an entity that already has an ID.
+     */
+    @Test
+    void testRetriesBatchThroughDao() throws Exception {
+        AtomicInteger nextId = new AtomicInteger(1);
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger committed = new AtomicInteger();
+        PreparedStatement statement = proxy(PreparedStatement.class, (method, args) -> {
+            if (method.equals("executeBatch")) {
+                if (batches.incrementAndGet() == 1) {
+                    throw new SQLException("connection reset");
+                }
+                int[] counts = new int[2];
+                Arrays.fill(counts, 1);
+                return counts;
+            }
+            return null;
+        });
+        Connection connection = proxy(Connection.class,
+                (method, args) -> method.equals("prepareStatement") ? statement : null);
+        Session session = proxy(Session.class, (method, args) -> {
+            if (method.equals("doWork")) {
+                try {
+                    ((Work) args[0]).execute(connection);
+                } catch (SQLException e) {
+                    throw new PersistenceException(e);
+                }
+            }
+            return null;
+        });
+        EntityManager em = proxy(EntityManager.class, (method, args) -> {
+            switch (method) {
+                case "persist" -> {
+                    OverviewStatistics overview = (OverviewStatistics) args[0];
+                    if (overview.getId() != 0) {
+                        throw new PersistenceException("detached entity passed to persist");
+                    }
+                    overview.setId(nextId.getAndIncrement());
+                }
+                case "unwrap" -> {
+                    return session;
+                }
+                default -> { }
+            }
+            return null;
+        });
+        SimulationRunDao dao = new SimulationRunDao(new SimulationRunDao.Transactions() {
+            @Override
+            public <T> T inTransaction(Function<EntityManager, T> work) {
+                T result = work.apply(em);
+                committed.incrementAndGet();
+                return result;
+            }
+        });
+
+        ResultsWriter writer = new ResultsWriter(4, dao::persistRuns, 3, 1);
+        SimulationRun first = run();
+        SimulationRun second = run();
+        writer.submit(first);
+        writer.submit(second);
+        assertTrue(writer.flush(5000));
+        assertEquals(0, writer.getFailedCount());
+        assertEquals(1, committed.get());
+        assertEquals(first.getOverview().getId(), first.getKitchen().getOverviewId());
+        assertEquals(second.getOverview().getId(), second.getDelivery().getOverviewId());
+        assertNotEquals(0, first.getOverview().getId());
+        assertTrue(writer.shutdown(1000));
+    }
+
+    /**
+     * Tests that runs of a batch failing every attempt are counted as failed and the shutdown reports it.
+     */
+    @Test
+    void testReportsRunsOfFailingSink() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ResultsWriter writer = new ResultsWriter(4, runs -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("database unavailable");
+        }, 2, 1);
+        writer.submit(run());
+        assertTrue(writer.flush(5000));
+        assertEquals(2, attempts.get());
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(0, writer.getPendingCount());
+        assertFalse(writer.shutdown(1000));
+        assertThrows(IllegalArgumentException.class, () -> new ResultsWriter(1, runs -> { }, 0, 1));
+    }
+
+    /**
+     * Answers the calls made on a proxied JDBC or JPA object.
+     */
+    private interface Calls {
+        /**
+         * Answers one call.
+         * @param method the name of the method called
+         * @param args the arguments of the call, or null if there are none
+         * @return the result of the call; null is replaced by the default of a primitive return type
+         * @throws Exception to make the call fail
+         */
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    /**
+     * Creates a proxy implementing an interface with the given answers.
+     * @param type the interface
+     * @param calls answers the calls
+     * @param <T> the type of the interface
+     * @return the proxy
+     */
+    private static <T> T proxy(Class<T> type, Calls calls) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            Object result = calls.answer(method.getName(), args);
+            if (result == null && method.getReturnType() == boolean.class) {
+                return false;
+            }
+            if (result == null && method.getReturnType().isPrimitive() && method.getReturnType() != void.class) {
+                return 0;
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * Creates an empty run; the writer does not look into the runs it saves.
+     * @return the run
+     */
+    private static SimulationRun run() {
+        return new SimulationRun(new OverviewStatistics(), new ReceptionStatistics(), new KitchenStatistics(),
+                new CounterStatistics(), new DeliveryStatistics());
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simu.backend.dao.OverviewStatisticsDao;
+import simu.backend.dao.OverviewSummary;
+import view.overview.RunSummaryCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the lazily loaded run summary cache of the overview table.
+ * Tests cover loading only the pages displayed, keyset versus offset paging, the bound on cached pages,
+ * and keeping the pages across resets.
+ */
+public class RunSummaryCacheTest {
+    /** Number of runs in the stub database. */
+    private static final int RUNS = 1000;
+
+    /** Queries made against the stub database. */
+    private final List<String> queries = new ArrayList<>();
+    /** The cache under test. */
+    private RunSummaryCache cache;
+
+    /**
+     * Creates a cache over a stub database with runs of IDs 1 to {@value #RUNS}.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new RunSummaryCache(new OverviewStatisticsDao() {
+            @Override
+            public int findMaxId() {
+                return RUNS;
+            }
+
+            @Override
+            public long countSummariesUpTo(int maxId) {
+                return maxId;
+            }
+
+            @Override
+            public List<OverviewSummary> findSummariesBefore(int beforeId, int limit) {
+                queries.add("before " + beforeId);
+                return runs(beforeId - 1, limit);
+            }
+
+            @Override
+            public List<OverviewSummary> findSummariesFrom(int maxId, int offset, int limit) {
+                queries.add("offset " + offset);
+                return runs(maxId - offset, limit);
+            }
+        });
+        assertEquals(RUNS, cache.reset());
+    }
+
+    /**
+     * Tests that a window loads only its page, and that the next page is found by keyset.
+     */
+    @Test
+    void testLoadsOnlyDisplayedPages() {
+        List<OverviewSummary> runs = cache.getRuns(0, 4);
+        assertEquals(List.of(1000, 999, 998, 997), ids(runs));
+        cache.getRuns(4, 4);
+        assertEquals(List.of("before 1001"), queries);
+
+        List<OverviewSummary> across = cache.getRuns(RunSummaryCache.PAGE_SIZE - 2, 4);
+        assertEquals(RUNS - RunSummaryCache.PAGE_SIZE + 2, across.get(0).getId());
+        assertEquals(List.of("before 1001", "before " + (RUNS - RunSummaryCache.PAGE_SIZE + 1)), queries);
+    }
+
+    /**
+     * Tests that jumping far ahead uses an offset, and that a window past the last run is cut short.
+     */
+    @Test
+    void testJumpUsesOffsetAndStopsAtLastRun() {
+        List<OverviewSummary> runs = cache.getRuns(RUNS - 2, 4);
+        assertEquals(List.of(2, 1), ids(runs));
+        int lastPage = (RUNS - 2) / RunSummaryCache.PAGE_SIZE;
+        assertEquals(List.of("offset " + lastPage * RunSummaryCache.PAGE_SIZE), queries);
+    }
+
+    /**
+     * Tests that the least recently used pages are evicted once the bound is reached.
+     */
+    @Test
+    void testCacheIsBounded() {
+        for (int page = 0; page <= RunSummaryCache.MAX_CACHED_PAGES; page++) {
+            cache.getRuns(page * RunSummaryCache.PAGE_SIZE, 1);
+        }
+        assertFalse(cache.isCached(0));
+        assertTrue(cache.isCached(RunSummaryCache.MAX_CACHED_PAGES));
+        assertEquals(RunSummaryCache.MAX_CACHED_PAGES + 1, queries.size());
+    }
+
+    /**
+     * Tests that a reset finding the same runs keeps the loaded pages, and that invalidating drops them.
+     */
+    @Test
+    void testResetKeepsPagesOfUnchangedRuns() {
+        cache.getRuns(0, 4);
+        cache.reset();
+        assertTrue(cache.isCached(0));
+        cache.invalidate();
+        cache.reset();
+        assertFalse(cache.isCached(0));
+    }
+
+    /**
+     * Creates stub summaries with descending IDs.
+     * @param fromId ID of the first summary
+     * @param limit maximum number of summaries
+     * @return summaries with IDs fromId, fromId - 1, ... down to 1
+     */
+    private static List<OverviewSummary> runs(int fromId, int limit) {
+        List<OverviewSummary> runs = new ArrayList<>();
+        for (int id = fromId; id > 0 && runs.size() < limit; id--) {
+            runs.add(new OverviewSummary(id, 100, 100, 1, 1, 10, 10, 0, 0, 0, 5, 0.1f, 0.5f));
+        }
+        return runs;
+    }
+
+    /**
+     * Extracts the IDs of summaries.
+     * @param runs the summaries
+     * @return their IDs in order
+     */
+    private static List<Integer> ids(List<OverviewSummary> runs) {
+        List<Integer> ids = new ArrayList<>();
+        runs.forEach(run -> ids.add(run.getId()));
+        return ids;
+    }
+}
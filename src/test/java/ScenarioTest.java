@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import simu.model.kitchen.CookCompetency;
+import simu.model.scenario.HeadlessRunner;
+import simu.model.scenario.RunResult;
+import simu.model.scenario.Scenario;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for headless scenario files.
+ * Tests cover loading scenario files with defaults, rejecting invalid values, and running
+ * seeded replications reproducibly in parallel.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class ScenarioTest {
+    /** Temporary directory for the scenario files. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that a scenario file is loaded with its values, the defaults of the configuration
+     * screen for missing keys, and the file name as default name.
+     */
+    @Test
+    void testLoadScenarioFile() throws Exception {
+        Path file = tempDir.resolve("rush.properties");
+        Files.writeString(file, """
+                # Lunch rush with two cooks
+                simulation.time=480
+                seed=7
+                replications=3
+                kitchen.mean=12
+                arrival.walkIn.rates=0:0.05, 120:0.2
+                cooks=expert, INEXPERIENCED
+                """);
+        Scenario scenario = Scenario.load(file);
+
+        assertEquals("rush", scenario.getName());
+        assertEquals(480, scenario.getSimulationTime());
+        assertEquals(7L, scenario.getSeed());
+        assertEquals(3, scenario.getReplications());
+        assertFalse(scenario.isSaveResults());
+        assertEquals(List.of(CookCompetency.EXPERT, CookCompetency.INEXPERIENCED), scenario.getCooks());
+        assertEquals("12", scenario.toProperties().getProperty("kitchen.mean"));
+
+        Properties invalid = new Properties();
+        invalid.setProperty("kitchen.mean", "-1");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new Scenario("bad", invalid));
+        assertTrue(e.getMessage().contains("kitchen.mean"));
+        invalid.setProperty("kitchen.mean", "5");
+        invalid.setProperty("cooks", "CHEF");
+        assertThrows(IllegalArgumentException.class, () -> new Scenario("bad", invalid));
+    }
+
+    /**
+     * Tests that seeded replications run in parallel reproduce their results, and that
+     * different replications use different random streams.
+     */
+    @Test
+    void testSeededReplicationsAreReproducible() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("simulation.time", "600");
+        properties.setProperty("seed", "11");
+        properties.setProperty("replications", "2");
+        Scenario scenario = new Scenario("replicated", properties);
+
+        List<RunResult> results = new ArrayList<>();
+        int failures = HeadlessRunner.runAll(List.of(scenario, scenario), 4, results::add);
+
+        assertEquals(0, failures);
+        assertEquals(4, results.size());
+        RunResult[] byReplication = new RunResult[2];
+        for (RunResult result : results) {
+            assertTrue(result.getArrivedCustomers() > 0);
+            RunResult other = byReplication[result.getReplication()];
+            if (other == null) {
+                byReplication[result.getReplication()] = result;
+            } else {
+                assertEquals(other.getArrivedCustomers(), result.getArrivedCustomers());
+                assertEquals(other.getServicedCustomers(), result.getServicedCustomers());
+                assertEquals(other.getMeanResponseTime(), result.getMeanResponseTime());
+            }
+        }
+        assertEquals(12, byReplication[1].getSeed());
+        assertNotEquals(byReplication[0].getMeanResponseTime(), byReplication[1].getMeanResponseTime());
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import simu.framework.Clock;
+import simu.model.topology.Station;
+import simu.model.topology.Topology;
+import simu.model.topology.TopologyBuilder;
+import simu.model.topology.TopologyEngine;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for data-driven service network topologies.
+ * Tests cover compiling routes into alias tables, reading the text format, and simulating a large network.
+ */
+@ExtendWith(QuietTraceExtension.class)
+public class TopologyTest {
+
+    /**
+     * Sets up the test environment before each test.
+     * Resets the clock.
+     */
+    @BeforeEach
+    void setUp() {
+        Clock.getInstance().setTime(0);
+    }
+
+    /**
+     * Tests that the compiled routing tables reproduce the normalized route weights, and that
+     * sampling them yields every target with its probability.
+     */
+    @Test
+    void testRoutingProbabilities() {
+        Topology topology = new TopologyBuilder()
+                .station("A", 1).station("B", 1).station("C", 1)
+                .route("A", "B", 5).route("A", "C", 3).route("A", "B", 1).exit("A", 1)
+                .route("B", "C", 1)
+                .build();
+
+        assertEquals(0.6, topology.getRouteProbability(0, 1), 1e-12);
+        assertEquals(0.3, topology.getRouteProbability(0, 2), 1e-12);
+        assertEquals(0.1, topology.getRouteProbability(0, Topology.EXIT), 1e-12);
+        assertEquals(1.0, topology.getRouteProbability(1, 2), 1e-12);
+        assertEquals(Topology.EXIT, topology.nextHop(2, 0.5));
+
+        int[] counts = new int[3];
+        int draws = 100_000;
+        for (int k = 0; k < draws; k++) {
+            int next = topology.nextHop(0, (k + 0.5) / draws);
+            counts[next == Topology.EXIT ? 0 : next]++;
+        }
+        assertEquals(0.1, counts[0] / (double) draws, 1e-3);
+        assertEquals(0.6, counts[1] / (double) draws, 1e-3);
+        assertEquals(0.3, counts[2] / (double) draws, 1e-3);
+    }
+
+    /**
+     * Tests reading the text format, and that invalid lines are reported with their line number.
+     */
+    @Test
+    void testReadTextFormat() throws Exception {
+        String text = """
+                # two stations
+                station RECEPTION 2.0
+                station KITCHEN 4.0   # slower
+                arrival RECEPTION 5.0
+                route RECEPTION KITCHEN 3
+                route RECEPTION exit 1
+                """;
+        Topology topology = TopologyBuilder.read(new StringReader(text)).build();
+        assertEquals(2, topology.getStationCount());
+        assertEquals(1, topology.indexOf("KITCHEN"));
+        assertEquals(4.0, topology.getMeanServiceTime(1));
+        assertEquals(1, topology.getArrivalCount());
+        assertEquals(0.75, topology.getRouteProbability(0, 1), 1e-12);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TopologyBuilder.read(new StringReader("station A 1\nroute A B 1\n")));
+        assertTrue(e.getMessage().startsWith("Line 2:"));
+        assertThrows(IllegalArgumentException.class,
+                () -> TopologyBuilder.read(new StringReader("station A -1\n")));
+    }
+
+    /**
+     * Tests that a network of 200 stations in a tandem line with feedback runs, with customers
+     * reaching the last station and leaving the network while the queues stay bounded.
+     */
+    @Test
+    void testLargeNetwork() {
+        int stations = 200;
+        TopologyBuilder builder = new TopologyBuilder();
+        for (int i = 0; i < stations; i++) {
+            builder.station("S" + i, 0.5);
+        }
+        builder.arrival("S0", 2.0).arrival("S100", 2.0);
+        for (int i = 0; i < stations - 1; i++) {
+            builder.route("S" + i, "S" + (i + 1), 9).route("S" + i, "S" + Math.max(0, i - 1), 1);
+        }
+        TopologyEngine engine = new TopologyEngine(null, builder.build(), 42);
+        engine.setSimulationTime(5000);
+        engine.run();
+
+        assertTrue(engine.getCompletedCustomers() > 0);
+        assertTrue(engine.getMeanSojournTime() > 0);
+        long inNetwork = 0;
+        for (Station s : engine.getStations()) {
+            inNetwork += s.getQueue().size();
+        }
+        assertTrue(inNetwork < 1000);
+        assertTrue(engine.getStations()[stations - 1].getServicedCustomers() > 0);
+    }
+}